@@ -26,9 +26,9 @@
 package org.pdfclown;
 
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -42,7 +42,7 @@ import org.pdfclown.util.metadata.VersionUtils;
   @see VersionEnum
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @since 0.1.0
-  @version 0.1.2, 09/24/12
+  @version 0.1.2, 10/18/26
 */
 public final class Version
   implements IVersion
@@ -51,7 +51,7 @@ public final class Version
   // <static>
   // <fields>
   private static final Pattern versionPattern = Pattern.compile("^(\\d+)\\.(\\d+)$");
-  private static final Map<String,Version> versions = new HashMap<String,Version>();
+  private static final ConcurrentMap<String,Version> versions = new ConcurrentHashMap<String,Version>();
   // </fields>
 
   // <interface>
@@ -65,16 +65,19 @@ public final class Version
     String version
     )
   {
-    if(!versions.containsKey(version))
+    Version versionObject = versions.get(version);
+    if(versionObject == null)
     {
       Matcher versionMatcher = versionPattern.matcher(version);
       if(!versionMatcher.find())
         throw new RuntimeException("Invalid PDF version format: '" + versionPattern + "' pattern expected.");
 
-      Version versionObject = new Version(Integer.valueOf(versionMatcher.group(1)),Integer.valueOf(versionMatcher.group(2)));
-      versions.put(version,versionObject);
+      versionObject = new Version(Integer.valueOf(versionMatcher.group(1)),Integer.valueOf(versionMatcher.group(2)));
+      Version oldVersionObject = versions.putIfAbsent(version,versionObject);
+      if(oldVersionObject != null)
+      {versionObject = oldVersionObject;}
     }
-    return versions.get(version);
+    return versionObject;
   }
   // </public>
   // </interface>
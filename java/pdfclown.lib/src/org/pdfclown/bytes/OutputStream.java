@@ -34,7 +34,7 @@ import org.pdfclown.tokens.Encoding;
   Output stream default implementation.
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
-  @version 0.1.0
+  @version 0.1.2, 10/18/26
 */
 public final class OutputStream
   implements IOutputStream
@@ -44,7 +44,7 @@ public final class OutputStream
   // <fields>
   private java.io.OutputStream stream;
 
-  private int length;
+  private long length;
   // </fields>
 
   // <constructors>
@@ -25,6 +25,12 @@
 
 package org.pdfclown.bytes.filters;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
 import org.pdfclown.PDF;
 import org.pdfclown.VersionEnum;
 import org.pdfclown.objects.PdfDictionary;
@@ -36,7 +42,7 @@ import org.pdfclown.util.NotImplementedException;
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @since 0.0.2
-  @version 0.1.0
+  @version 0.1.2, 10/18/26
 */
 @PDF(VersionEnum.PDF10)
 public abstract class Filter
@@ -116,12 +122,73 @@ public abstract class Filter
     PdfDictionary parameters
     );
 
+  /**
+    Gets a stream decoding the given data as it's read.
+    <p>This default implementation decodes the data as a whole; filters able to decode
+    incrementally override it, so that large streams (such as images) can be processed without
+    being entirely decoded in memory.</p>
+
+    @param data Encoded data.
+    @param parameters Decoding parameters.
+  */
+  public InputStream decode(
+    InputStream data,
+    PdfDictionary parameters
+    )
+  {
+    try
+    {
+      ByteArrayOutputStream dataBuffer = new ByteArrayOutputStream();
+      {
+        byte[] buffer = new byte[8192]; int bufferLength;
+        while((bufferLength = data.read(buffer, 0, buffer.length)) != -1)
+        {dataBuffer.write(buffer, 0, bufferLength);}
+        data.close();
+      }
+      byte[] decodedData = decode(dataBuffer.toByteArray(), 0, dataBuffer.size(), parameters);
+      return new ByteArrayInputStream(decodedData);
+    }
+    catch(IOException e)
+    {throw new RuntimeException(e);}
+  }
+
   public abstract byte[] encode(
     byte[] data,
     int offset,
     int length,
     PdfDictionary parameters
     );
+
+  /**
+    Gets a stream encoding the data written to it into the given target.
+    <p>Encoded data is completely written to the target on closing. This default implementation
+    encodes the data as a whole; filters able to encode incrementally override it.</p>
+
+    @param target Encoded data target (it's closed along with the returned stream).
+    @param parameters Encoding parameters.
+  */
+  public OutputStream encode(
+    final OutputStream target,
+    final PdfDictionary parameters
+    )
+  {
+    return new ByteArrayOutputStream()
+      {
+        private boolean closed;
+
+        @Override
+        public void close(
+          ) throws IOException
+        {
+          if(closed)
+            return;
+
+          closed = true;
+          target.write(encode(buf, 0, count, parameters));
+          target.close();
+        }
+      };
+  }
   // </public>
   // </interface>
   // </dynamic>
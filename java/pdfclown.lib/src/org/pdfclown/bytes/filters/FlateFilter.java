@@ -46,17 +46,647 @@ import org.pdfclown.objects.PdfName;
 
 /**
   zlib/deflate [RFC:1950,1951] filter [PDF:1.6:3.3.3].
+  <p>Predictors [PDF:1.6:3.3.3] are supported both on decoding and encoding; they are applied
+  row by row, in place, while data is inflated or deflated, so that no additional full-size
+  buffer is needed.</p>
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @author Joshua Tauberer (http://razor.occams.info)
   @since 0.0.2
-  @version 0.1.1, 04/25/11
+  @version 0.1.2, 10/18/26
 */
 @PDF(VersionEnum.PDF12)
 public final class FlateFilter
   extends Filter
 {
   // <class>
+  // <classes>
+  /**
+    Stream reversing the predictor applied to row-based data [PDF:1.6:3.3.3].
+    <p>Rows are decoded one at a time, as they are read.</p>
+  */
+  private static final class PredictorInputStream
+    extends InputStream
+  {
+    // <class>
+    // <dynamic>
+    // <fields>
+    private final int bitsPerComponent;
+    /**
+      Number of bytes per pixel (at least 1).
+    */
+    private final int bytesPerPixel;
+    private final int colors;
+    private final InputStream input;
+    /**
+      Buffered input data (rows are typically much smaller than the inflater's output chunks).
+    */
+    private final byte[] inputBuffer = new byte[8192];
+    private int inputBufferLength;
+    private int inputBufferPosition;
+    private final int predictor;
+
+    private int position;
+    private byte[] previousRow;
+    private byte[] row;
+    private int rowLength;
+    // </fields>
+
+    // <constructors>
+    PredictorInputStream(
+      InputStream input,
+      int predictor,
+      int bitsPerComponent,
+      int colors,
+      int columns
+      )
+    {
+      this.input = input;
+      this.predictor = predictor;
+      this.bitsPerComponent = bitsPerComponent;
+      this.colors = colors;
+      bytesPerPixel = getBytesPerPixel(bitsPerComponent, colors);
+
+      int rowSize = getRowSize(bitsPerComponent, colors, columns);
+      row = new byte[rowSize];
+      previousRow = new byte[rowSize];
+    }
+    // </constructors>
+
+    // <interface>
+    // <public>
+    @Override
+    public void close(
+      ) throws IOException
+    {input.close();}
+
+    @Override
+    public int read(
+      ) throws IOException
+    {
+      if(position == rowLength && !readRow())
+        return -1;
+
+      return row[position++] & 0xff;
+    }
+
+    @Override
+    public int read(
+      byte[] data,
+      int offset,
+      int length
+      ) throws IOException
+    {
+      int readLength = 0;
+      while(readLength < length)
+      {
+        if(position == rowLength && !readRow())
+          return readLength > 0 ? readLength : -1;
+
+        int chunkLength = Math.min(length - readLength, rowLength - position);
+        System.arraycopy(row, position, data, offset + readLength, chunkLength);
+        position += chunkLength;
+        readLength += chunkLength;
+      }
+      return readLength;
+    }
+    // </public>
+
+    // <private>
+    /**
+      Refills the input buffer.
+
+      @return Whether any data is available.
+    */
+    private boolean fillInput(
+      ) throws IOException
+    {
+      inputBufferPosition = 0;
+      inputBufferLength = Math.max(input.read(inputBuffer, 0, inputBuffer.length), 0);
+      return inputBufferLength > 0;
+    }
+
+    /**
+      Reads the given amount of input data.
+
+      @return Number of bytes actually read (less than requested at the end of the input).
+    */
+    private int readInput(
+      byte[] data,
+      int offset,
+      int length
+      ) throws IOException
+    {
+      int readLength = 0;
+      while(readLength < length)
+      {
+        if(inputBufferPosition == inputBufferLength && !fillInput())
+          break;
+
+        int chunkLength = Math.min(length - readLength, inputBufferLength - inputBufferPosition);
+        System.arraycopy(inputBuffer, inputBufferPosition, data, offset + readLength, chunkLength);
+        inputBufferPosition += chunkLength;
+        readLength += chunkLength;
+      }
+      return readLength;
+    }
+
+    /**
+      Reads the next row.
+
+      @return Whether a row was read.
+    */
+    private boolean readRow(
+      ) throws IOException
+    {
+      int method;
+      if(predictor >= 10) // PNG predictors [RFC 2083] (byte-based, row-wise method tag).
+      {
+        if(inputBufferPosition == inputBufferLength && !fillInput())
+          return false;
+
+        method = inputBuffer[inputBufferPosition++] & 0xff;
+      }
+      else // TIFF Predictor 2 (component-based).
+      {method = TiffMethod;}
+
+      // Swapping rows (the previous one is referenced by PNG predictors)...
+      byte[] swapRow = previousRow; previousRow = row; row = swapRow;
+      int rowLength = readInput(row, 0, row.length);
+      if(rowLength == 0)
+        return false;
+      /*
+        NOTE: In case of truncated row, the missing bytes are assumed to be zero for the sake of
+        the subsequent prediction.
+      */
+      if(rowLength < row.length)
+      {Arrays.fill(row, rowLength, row.length, (byte)0);}
+
+      if(method == TiffMethod)
+      {decodeTiffRow(row, rowLength, bitsPerComponent, colors);}
+      else
+      {decodePngRow(method, row, previousRow, bytesPerPixel);}
+      this.rowLength = rowLength;
+      position = 0;
+      return true;
+    }
+    // </private>
+    // </interface>
+    // </dynamic>
+    // </class>
+  }
+
+  /**
+    Stream applying a predictor to row-based data [PDF:1.6:3.3.3].
+    <p>Rows are encoded one at a time, as soon as they are complete.</p>
+  */
+  private static final class PredictorOutputStream
+    extends OutputStream
+  {
+    // <class>
+    // <dynamic>
+    // <fields>
+    private final int bitsPerComponent;
+    /**
+      Number of bytes per pixel (at least 1).
+    */
+    private final int bytesPerPixel;
+    private final int colors;
+    private final OutputStream output;
+    private final int predictor;
+
+    /**
+      Candidate encoded row (optimum PNG prediction).
+    */
+    private byte[] candidateRow;
+    private boolean closed;
+    private byte[] encodedRow;
+    private int position;
+    private byte[] previousRow;
+    private byte[] row;
+    // </fields>
+
+    // <constructors>
+    PredictorOutputStream(
+      OutputStream output,
+      int predictor,
+      int bitsPerComponent,
+      int colors,
+      int columns
+      )
+    {
+      this.output = output;
+      this.predictor = predictor;
+      this.bitsPerComponent = bitsPerComponent;
+      this.colors = colors;
+      bytesPerPixel = getBytesPerPixel(bitsPerComponent, colors);
+
+      int rowSize = getRowSize(bitsPerComponent, colors, columns);
+      row = new byte[rowSize];
+      previousRow = new byte[rowSize];
+      if(predictor >= 10)
+      {
+        encodedRow = new byte[rowSize];
+        if(predictor == 15)
+        {candidateRow = new byte[rowSize];}
+      }
+    }
+    // </constructors>
+
+    // <interface>
+    // <public>
+    @Override
+    public void close(
+      ) throws IOException
+    {
+      if(closed)
+        return;
+
+      closed = true;
+      if(position > 0)
+      {
+        /*
+          NOTE: The last row is incomplete; as each predicted byte depends on the previous ones
+          only, it's encoded as-is (decoding will yield back just the available bytes).
+        */
+        Arrays.fill(row, position, row.length, (byte)0);
+        writeRow(position);
+      }
+      output.close();
+    }
+
+    @Override
+    public void flush(
+      ) throws IOException
+    {output.flush();}
+
+    @Override
+    public void write(
+      int data
+      ) throws IOException
+    {
+      row[position++] = (byte)data;
+      if(position == row.length)
+      {writeRow(row.length);}
+    }
+
+    @Override
+    public void write(
+      byte[] data,
+      int offset,
+      int length
+      ) throws IOException
+    {
+      while(length > 0)
+      {
+        int chunkLength = Math.min(length, row.length - position);
+        System.arraycopy(data, offset, row, position, chunkLength);
+        position += chunkLength;
+        offset += chunkLength;
+        length -= chunkLength;
+        if(position == row.length)
+        {writeRow(row.length);}
+      }
+    }
+    // </public>
+
+    // <private>
+    /**
+      Encodes the current row.
+
+      @param length Row length.
+    */
+    private void writeRow(
+      int length
+      ) throws IOException
+    {
+      if(predictor < 10) // TIFF Predictor 2.
+      {
+        encodeTiffRow(row, length, bitsPerComponent, colors);
+        output.write(row, 0, length);
+        // NOTE: TIFF prediction doesn't reference the previous row, so the current one can be reused.
+      }
+      else // PNG predictors.
+      {
+        int method;
+        if(predictor == 15) // Optimum (chosen row by row).
+        {
+          /*
+            NOTE: The method is chosen by the minimum sum of absolute differences heuristic
+            [RFC 2083:9.6].
+          */
+          method = 0;
+          long minScore = Long.MAX_VALUE;
+          for(int candidateMethod = 0; candidateMethod <= 4; candidateMethod++)
+          {
+            encodePngRow(candidateMethod, row, previousRow, bytesPerPixel, candidateRow, length);
+            long score = 0;
+            for(int index = 0; index < length; index++)
+            {score += Math.abs(candidateRow[index]);}
+            if(score < minScore)
+            {
+              minScore = score;
+              method = candidateMethod;
+              byte[] swapRow = encodedRow; encodedRow = candidateRow; candidateRow = swapRow;
+            }
+          }
+        }
+        else
+        {
+          method = predictor - 10;
+          encodePngRow(method, row, previousRow, bytesPerPixel, encodedRow, length);
+        }
+        output.write(method);
+        output.write(encodedRow, 0, length);
+
+        byte[] swapRow = previousRow; previousRow = row; row = swapRow;
+      }
+      position = 0;
+    }
+    // </private>
+    // </interface>
+    // </dynamic>
+    // </class>
+  }
+  // </classes>
+
+  // <static>
+  // <fields>
+  /**
+    Pseudo method tag of TIFF Predictor 2.
+  */
+  private static final int TiffMethod = -1;
+  // </fields>
+
+  // <interface>
+  // <private>
+  /**
+    Reverses a PNG predictor over the given row [RFC 2083:6].
+
+    @param method PNG prediction method.
+    @param row Row to decode (in place).
+    @param previousRow Previous (decoded) row.
+    @param bytesPerPixel Number of bytes per complete pixel.
+  */
+  private static void decodePngRow(
+    int method,
+    byte[] row,
+    byte[] previousRow,
+    int bytesPerPixel
+    )
+  {
+    /*
+      NOTE: Loops are split so that the leftmost pixel (whose left neighbors are zero) doesn't
+      cost a branch per byte.
+    */
+    final int length = row.length, start = Math.min(bytesPerPixel, length);
+    switch(method)
+    {
+      case 0: // None (no prediction).
+        break;
+      case 1: // Sub (predicts the same as the sample to the left).
+        for(int index = start; index < length; index++)
+        {row[index] += row[index - bytesPerPixel];}
+        break;
+      case 2: // Up (predicts the same as the sample above).
+        for(int index = 0; index < length; index++)
+        {row[index] += previousRow[index];}
+        break;
+      case 3: // Average (predicts the average of the sample to the left and the sample above).
+        for(int index = 0; index < start; index++)
+        {row[index] += (previousRow[index] & 0xff) >>> 1;}
+        for(int index = start; index < length; index++)
+        {row[index] += ((row[index - bytesPerPixel] & 0xff) + (previousRow[index] & 0xff)) >>> 1;}
+        break;
+      case 4: // Paeth (a nonlinear function of the sample above, the sample to the left, and the sample to the upper left).
+        for(int index = 0; index < start; index++)
+        {row[index] += previousRow[index];}
+        for(int index = start; index < length; index++)
+        {
+          row[index] += paeth(
+            row[index - bytesPerPixel] & 0xff,
+            previousRow[index] & 0xff,
+            previousRow[index - bytesPerPixel] & 0xff
+            );
+        }
+        break;
+      default:
+        throw new UnsupportedOperationException("Prediction method " + method + " unknown.");
+    }
+  }
+
+  /**
+    Reverses TIFF Predictor 2 over the given row (each component is predicted the same as the
+    corresponding component of the pixel to the left).
+
+    @param row Row to decode (in place).
+    @param length Row length.
+  */
+  private static void decodeTiffRow(
+    byte[] row,
+    int length,
+    int bitsPerComponent,
+    int colors
+    )
+  {
+    switch(bitsPerComponent)
+    {
+      case 8:
+        for(int index = colors; index < length; index++)
+        {row[index] += row[index - colors];}
+        break;
+      case 16:
+        for(int index = colors * 2, step = colors * 2; index + 1 < length; index += 2)
+        {
+          int value = ((row[index] & 0xff) << 8 | (row[index + 1] & 0xff))
+            + ((row[index - step] & 0xff) << 8 | (row[index - step + 1] & 0xff));
+          row[index] = (byte)(value >> 8);
+          row[index + 1] = (byte)value;
+        }
+        break;
+      default:
+        for(int index = colors, count = length * 8 / bitsPerComponent; index < count; index++)
+        {
+          setSample(
+            row, index, bitsPerComponent,
+            getSample(row, index, bitsPerComponent) + getSample(row, index - colors, bitsPerComponent)
+            );
+        }
+        break;
+    }
+  }
+
+  /**
+    Applies a PNG predictor to the given row [RFC 2083:6].
+
+    @param method PNG prediction method.
+    @param row Row to encode.
+    @param previousRow Previous (unencoded) row.
+    @param bytesPerPixel Number of bytes per complete pixel.
+    @param encodedRow Encoded row.
+    @param length Row length.
+  */
+  private static void encodePngRow(
+    int method,
+    byte[] row,
+    byte[] previousRow,
+    int bytesPerPixel,
+    byte[] encodedRow,
+    int length
+    )
+  {
+    final int start = Math.min(bytesPerPixel, length);
+    switch(method)
+    {
+      case 0: // None.
+        System.arraycopy(row, 0, encodedRow, 0, length);
+        break;
+      case 1: // Sub.
+        System.arraycopy(row, 0, encodedRow, 0, start);
+        for(int index = start; index < length; index++)
+        {encodedRow[index] = (byte)(row[index] - row[index - bytesPerPixel]);}
+        break;
+      case 2: // Up.
+        for(int index = 0; index < length; index++)
+        {encodedRow[index] = (byte)(row[index] - previousRow[index]);}
+        break;
+      case 3: // Average.
+        for(int index = 0; index < start; index++)
+        {encodedRow[index] = (byte)(row[index] - ((previousRow[index] & 0xff) >>> 1));}
+        for(int index = start; index < length; index++)
+        {encodedRow[index] = (byte)(row[index] - (((row[index - bytesPerPixel] & 0xff) + (previousRow[index] & 0xff)) >>> 1));}
+        break;
+      case 4: // Paeth.
+        for(int index = 0; index < start; index++)
+        {encodedRow[index] = (byte)(row[index] - previousRow[index]);}
+        for(int index = start; index < length; index++)
+        {
+          encodedRow[index] = (byte)(row[index] - paeth(
+            row[index - bytesPerPixel] & 0xff,
+            previousRow[index] & 0xff,
+            previousRow[index - bytesPerPixel] & 0xff
+            ));
+        }
+        break;
+      default:
+        throw new UnsupportedOperationException("Prediction method " + method + " unknown.");
+    }
+  }
+
+  /**
+    Applies TIFF Predictor 2 to the given row.
+
+    @param row Row to encode (in place).
+    @param length Row length.
+  */
+  private static void encodeTiffRow(
+    byte[] row,
+    int length,
+    int bitsPerComponent,
+    int colors
+    )
+  {
+    // NOTE: Components are processed backwards, so that their left neighbors are still unencoded.
+    switch(bitsPerComponent)
+    {
+      case 8:
+        for(int index = length - 1; index >= colors; index--)
+        {row[index] -= row[index - colors];}
+        break;
+      case 16:
+        for(int step = colors * 2, index = (length & ~1) - 2; index >= step; index -= 2)
+        {
+          int value = ((row[index] & 0xff) << 8 | (row[index + 1] & 0xff))
+            - ((row[index - step] & 0xff) << 8 | (row[index - step + 1] & 0xff));
+          row[index] = (byte)(value >> 8);
+          row[index + 1] = (byte)value;
+        }
+        break;
+      default:
+        for(int index = length * 8 / bitsPerComponent - 1; index >= colors; index--)
+        {
+          setSample(
+            row, index, bitsPerComponent,
+            getSample(row, index, bitsPerComponent) - getSample(row, index - colors, bitsPerComponent)
+            );
+        }
+        break;
+    }
+  }
+
+  private static int getBytesPerPixel(
+    int bitsPerComponent,
+    int colors
+    )
+  {return Math.max((bitsPerComponent * colors + 7) / 8, 1);}
+
+  private static int getParameter(
+    PdfDictionary parameters,
+    PdfName key,
+    int defaultValue
+    )
+  {
+    PdfInteger valueObject = (PdfInteger)parameters.resolve(key);
+    return valueObject != null ? valueObject.getRawValue() : defaultValue;
+  }
+
+  private static int getRowSize(
+    int bitsPerComponent,
+    int colors,
+    int columns
+    )
+  {return (bitsPerComponent * colors * columns + 7) / 8;}
+
+  /**
+    Gets a sub-byte sample.
+  */
+  private static int getSample(
+    byte[] row,
+    int index,
+    int bitsPerComponent
+    )
+  {
+    int bitIndex = index * bitsPerComponent;
+    return (row[bitIndex >> 3] >> (8 - bitsPerComponent - (bitIndex & 7))) & ((1 << bitsPerComponent) - 1);
+  }
+
+  /**
+    Gets the Paeth prediction [RFC 2083:6.6].
+  */
+  private static int paeth(
+    int left,
+    int up,
+    int upperLeft
+    )
+  {
+    int prediction = left + up - upperLeft;
+    int leftDistance = Math.abs(prediction - left);
+    int upDistance = Math.abs(prediction - up);
+    int upperLeftDistance = Math.abs(prediction - upperLeft);
+    return leftDistance <= upDistance && leftDistance <= upperLeftDistance ? left
+      : upDistance <= upperLeftDistance ? up
+      : upperLeft;
+  }
+
+  /**
+    Sets a sub-byte sample (overflowing bits are discarded).
+  */
+  private static void setSample(
+    byte[] row,
+    int index,
+    int bitsPerComponent,
+    int value
+    )
+  {
+    int bitIndex = index * bitsPerComponent;
+    int shift = 8 - bitsPerComponent - (bitIndex & 7);
+    int mask = ((1 << bitsPerComponent) - 1) << shift;
+    row[bitIndex >> 3] = (byte)((row[bitIndex >> 3] & ~mask) | ((value << shift) & mask));
+  }
+  // </private>
+  // </interface>
+  // </static>
+
   // <dynamic>
   // <constructors>
   FlateFilter(
@@ -76,17 +706,37 @@ public final class FlateFilter
   {
     try
     {
-      InflaterInputStream inputFilter = new InflaterInputStream(
-        new ByteArrayInputStream(data, offset, length)
-        );
       ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-      transform(inputFilter, outputStream);
-      return decodePredictor(outputStream.toByteArray(), parameters);
+      transform(decode(new ByteArrayInputStream(data, offset, length), parameters), outputStream);
+      return outputStream.toByteArray();
     }
     catch(IOException e)
     {throw new RuntimeException(e);}
   }
 
+  @Override
+  public InputStream decode(
+    InputStream data,
+    PdfDictionary parameters
+    )
+  {
+    InputStream inputFilter = new InflaterInputStream(data);
+    if(parameters == null)
+      return inputFilter;
+
+    int predictor = getParameter(parameters, PdfName.Predictor, 1);
+    if(predictor == 1) // No predictor was applied during data encoding.
+      return inputFilter;
+
+    return new PredictorInputStream(
+      inputFilter,
+      predictor,
+      getParameter(parameters, PdfName.BitsPerComponent, 8),
+      getParameter(parameters, PdfName.Colors, 1),
+      getParameter(parameters, PdfName.Columns, 1)
+      );
+  }
+
   @Override
   public byte[] encode(
     byte[] data,
@@ -97,127 +747,41 @@ public final class FlateFilter
   {
     try
     {
-      ByteArrayInputStream inputStream = new ByteArrayInputStream(data, offset, length);
       ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-      DeflaterOutputStream outputFilter = new DeflaterOutputStream(outputStream);
-      transform(inputStream, outputFilter);
+      transform(new ByteArrayInputStream(data, offset, length), encode(outputStream, parameters));
       return outputStream.toByteArray();
     }
     catch(IOException e)
     {throw new RuntimeException(e);}
   }
-  // </public>
 
-  // <private>
-  private byte[] decodePredictor(
-    byte[] data,
+  @Override
+  public OutputStream encode(
+    OutputStream target,
     PdfDictionary parameters
-    ) throws IOException
+    )
   {
+    OutputStream outputFilter = new DeflaterOutputStream(target);
     if(parameters == null)
-      return data;
+      return outputFilter;
 
-    int predictor = (parameters.containsKey(PdfName.Predictor) ? ((PdfInteger)parameters.get(PdfName.Predictor)).getRawValue() : 1);
-    if(predictor == 1) // No predictor was applied during data encoding.
-      return data;
-
-    int sampleComponentBitsCount = (parameters.containsKey(PdfName.BitsPerComponent) ? ((PdfInteger)parameters.get(PdfName.BitsPerComponent)).getRawValue() : 8);
-    int sampleComponentsCount = (parameters.containsKey(PdfName.Colors) ? ((PdfInteger)parameters.get(PdfName.Colors)).getRawValue() : 1);
-    int rowSamplesCount = (parameters.containsKey(PdfName.Columns) ? ((PdfInteger)parameters.get(PdfName.Columns)).getRawValue() : 1);
-
-    InputStream input = new ByteArrayInputStream(data);
-    ByteArrayOutputStream output = new ByteArrayOutputStream();
-    switch (predictor)
-    {
-      case 2: // TIFF Predictor 2 (component-based).
-      {
-        int[] sampleComponentPredictions = new int[sampleComponentsCount];
-        int sampleComponentDelta = 0;
-        int sampleComponentIndex = 0;
-        while((sampleComponentDelta = input.read()) != -1)
-        {
-          int sampleComponent = sampleComponentDelta + sampleComponentPredictions[sampleComponentIndex];
-          output.write(sampleComponent);
-
-          sampleComponentPredictions[sampleComponentIndex] = sampleComponent;
+    int predictor = getParameter(parameters, PdfName.Predictor, 1);
+    if(predictor == 1) // No predictor has to be applied.
+      return outputFilter;
+    else if(predictor != 2 && (predictor < 10 || predictor > 15))
+      throw new IllegalArgumentException("Predictor " + predictor + " unknown.");
 
-          sampleComponentIndex = ++sampleComponentIndex % sampleComponentsCount;
-        }
-        break;
-      }
-      default: // PNG Predictors [RFC 2083] (byte-based).
-      {
-        int sampleBytesCount = (int)Math.ceil(sampleComponentBitsCount * sampleComponentsCount / 8); // Number of bytes per pixel (bpp).
-        int rowSampleBytesCount = (int)Math.ceil(sampleComponentBitsCount * sampleComponentsCount * rowSamplesCount / 8) + sampleBytesCount; // Number of bytes per row (comprising a leading upper-left sample (see Paeth method)).
-        int[] previousRowBytePredictions = new int[rowSampleBytesCount];
-        int[] currentRowBytePredictions = new int[rowSampleBytesCount];
-        int[] leftBytePredictions = new int[sampleBytesCount];
-        int predictionMethod;
-        while((predictionMethod = input.read()) != -1)
-        {
-          System.arraycopy(currentRowBytePredictions, 0, previousRowBytePredictions, 0, currentRowBytePredictions.length);
-          Arrays.fill(leftBytePredictions, 0, leftBytePredictions.length, 0);
-          for(
-            int rowSampleByteIndex = sampleBytesCount; // Starts after the leading upper-left sample (see Paeth method).
-            rowSampleByteIndex < rowSampleBytesCount;
-            rowSampleByteIndex++
-            )
-          {
-            int byteDelta = input.read();
-
-            int sampleByteIndex = rowSampleByteIndex % sampleBytesCount;
-
-            int sampleByte;
-            switch(predictionMethod)
-            {
-              case 0: // None (no prediction).
-                sampleByte = byteDelta;
-                break;
-              case 1: // Sub (predicts the same as the sample to the left).
-                sampleByte = byteDelta + leftBytePredictions[sampleByteIndex];
-                break;
-              case 2: // Up (predicts the same as the sample above).
-                sampleByte = byteDelta + previousRowBytePredictions[rowSampleByteIndex];
-                break;
-              case 3: // Average (predicts the average of the sample to the left and the sample above).
-                sampleByte = byteDelta + (int)Math.floor(((leftBytePredictions[sampleByteIndex] + previousRowBytePredictions[rowSampleByteIndex])) / 2);
-                break;
-              case 4: // Paeth (a nonlinear function of the sample above, the sample to the left, and the sample to the upper left).
-              {
-                int paethPrediction;
-                {
-                  int leftBytePrediction = leftBytePredictions[sampleByteIndex];
-                  int topBytePrediction = previousRowBytePredictions[rowSampleByteIndex];
-                  int topLeftBytePrediction = previousRowBytePredictions[rowSampleByteIndex - sampleBytesCount];
-                  int initialPrediction = leftBytePrediction + topBytePrediction - topLeftBytePrediction;
-                  int leftPrediction = Math.abs(initialPrediction - leftBytePrediction);
-                  int topPrediction = Math.abs(initialPrediction - topBytePrediction);
-                  int topLeftPrediction = Math.abs(initialPrediction - topLeftBytePrediction);
-                  if(leftPrediction <= topPrediction
-                    && leftPrediction <= topLeftPrediction)
-                  {paethPrediction = leftBytePrediction;}
-                  else if(topPrediction <= topLeftPrediction)
-                  {paethPrediction = topBytePrediction;}
-                  else
-                  {paethPrediction = topLeftBytePrediction;}
-                }
-                sampleByte = byteDelta + paethPrediction;
-                break;
-              }
-              default:
-                throw new UnsupportedOperationException("Prediction method " + predictionMethod + " unknown.");
-            }
-            output.write(sampleByte);
-
-            leftBytePredictions[sampleByteIndex] = currentRowBytePredictions[rowSampleByteIndex] = sampleByte;
-          }
-        }
-        break;
-      }
-    }
-    return output.toByteArray();
+    return new PredictorOutputStream(
+      outputFilter,
+      predictor,
+      getParameter(parameters, PdfName.BitsPerComponent, 8),
+      getParameter(parameters, PdfName.Colors, 1),
+      getParameter(parameters, PdfName.Columns, 1)
+      );
   }
+  // </public>
 
+  // <private>
   private void transform(
     InputStream input,
     OutputStream output
@@ -233,4 +797,4 @@ public final class FlateFilter
   // </interface>
   // </dynamic>
   // </class>
-}
\ No newline at end of file
+}
@@ -38,7 +38,9 @@ import org.pdfclown.PDF;
 import org.pdfclown.Version;
 import org.pdfclown.VersionEnum;
 import org.pdfclown.documents.contents.Resources;
+import org.pdfclown.documents.contents.xObjects.FormRasterCache;
 import org.pdfclown.documents.contents.layers.LayerDefinition;
+import org.pdfclown.documents.interaction.forms.FieldIndex;
 import org.pdfclown.documents.interaction.forms.Form;
 import org.pdfclown.documents.interaction.navigation.document.Bookmarks;
 import org.pdfclown.documents.interaction.navigation.document.Destination;
@@ -55,13 +57,14 @@ import org.pdfclown.objects.PdfReal;
 import org.pdfclown.objects.PdfReference;
 import org.pdfclown.objects.PdfString;
 import org.pdfclown.objects.Rectangle;
+import org.pdfclown.tools.PageSizeEstimator;
 import org.pdfclown.util.NotImplementedException;
 
 /**
   PDF document [PDF:1.6:3.6.1].
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
-  @version 0.1.2, 12/28/12
+  @version 0.1.2, 10/18/26
 */
 @PDF(VersionEnum.PDF10)
 public final class Document
@@ -119,6 +122,7 @@ public final class Document
     }
 
     private CompatibilityModeEnum compatibilityMode = CompatibilityModeEnum.Loose;
+    private double functionTolerance = 1 / 512d;
     private XRefModeEnum xrefMode = XRefModeEnum.Plain;
 
     private final Document document;
@@ -142,6 +146,19 @@ public final class Document
       )
     {return document;}
 
+    /**
+      Gets the maximum error of the lookup tables approximating the document's functions
+      (relative to their output ranges).
+      <p>Its default value (half an 8-bit color step) makes approximations indistinguishable when
+      rendering; <code>0</code> disables approximation. Changes don't affect the functions
+      already approximated.</p>
+
+      @see org.pdfclown.documents.functions.Function#approximate(double[], double[])
+    */
+    public double getFunctionTolerance(
+      )
+    {return functionTolerance;}
+
     /**
       Gets the document's cross-reference mode.
     */
@@ -157,6 +174,19 @@ public final class Document
       )
     {compatibilityMode = value;}
 
+    /**
+      @see #getFunctionTolerance()
+    */
+    public void setFunctionTolerance(
+      double value
+      )
+    {
+      if(value < 0)
+        throw new IllegalArgumentException("value MUST be non-negative.");
+
+      functionTolerance = value;
+    }
+
     /**
       @see #getXrefMode()
     */
@@ -311,6 +341,10 @@ public final class Document
   public java.util.Hashtable<PdfReference,Object> cache = new java.util.Hashtable<PdfReference,Object>();
 
   private Configuration configuration = new Configuration(this);
+  private FieldIndex fieldIndex;
+  private FormRasterCache formRasterCache;
+  private PageIndex pageIndex;
+  private PageSizeEstimator pageSizeEstimator;
   // </fields>
 
   // <constructors>
@@ -413,6 +447,20 @@ public final class Document
     )
   {return configuration;}
 
+  /**
+    Gets the rendering cache of the external forms of this document.
+
+    @since 0.1.2
+  */
+  public synchronized FormRasterCache getFormRasterCache(
+    )
+  {
+    if(formRasterCache == null)
+    {formRasterCache = new FormRasterCache();}
+
+    return formRasterCache;
+  }
+
   /**
     Gets the interactive form (AcroForm).
 
@@ -772,6 +820,66 @@ public final class Document
   // </Pageable>
   // </public>
 
+  // <internal>
+  /**
+    <span style="color:red">For internal use only.</span>
+    <p>Gets the index of the form fields of this document.</p>
+
+    @since 0.1.2
+  */
+  public FieldIndex getFieldIndex(
+    )
+  {return fieldIndex;}
+
+  /**
+    <span style="color:red">For internal use only.</span>
+
+    @see #getFieldIndex()
+    @since 0.1.2
+  */
+  public void setFieldIndex(
+    FieldIndex value
+    )
+  {fieldIndex = value;}
+
+  /**
+    <span style="color:red">For internal use only.</span>
+    <p>Gets the shared page size estimator of this document (see {@link
+    PageSizeEstimator#get(Document)}).</p>
+
+    @since 0.1.2
+  */
+  public PageSizeEstimator getPageSizeEstimator(
+    )
+  {return pageSizeEstimator;}
+
+  /**
+    <span style="color:red">For internal use only.</span>
+
+    @see #getPageSizeEstimator()
+    @since 0.1.2
+  */
+  public void setPageSizeEstimator(
+    PageSizeEstimator value
+    )
+  {pageSizeEstimator = value;}
+
+  /**
+    Gets the index of the pages of this document.
+    <p>The index is rebuilt whenever the page tree happens to have been changed bypassing {@link
+    Pages}.</p>
+  */
+  PageIndex getPageIndex(
+    )
+  {
+    PdfDirectObject pagesObject = getBaseDataObject().get(PdfName.Pages);
+    if(pageIndex == null || !pageIndex.isValid(pagesObject))
+    {pageIndex = new PageIndex(pagesObject);}
+
+    return pageIndex;
+  }
+  // </internal>
+
   // <private>
   /**
     Gets the default media box.
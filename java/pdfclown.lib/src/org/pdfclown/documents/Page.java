@@ -57,7 +57,6 @@ import org.pdfclown.objects.PdfName;
 import org.pdfclown.objects.PdfNumber;
 import org.pdfclown.objects.PdfObjectWrapper;
 import org.pdfclown.objects.PdfReal;
-import org.pdfclown.objects.PdfReference;
 import org.pdfclown.objects.PdfStream;
 import org.pdfclown.objects.Rectangle;
 import org.pdfclown.util.NotImplementedException;
@@ -68,7 +67,7 @@ import org.pdfclown.util.math.geom.Dimension;
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @since 0.0.0
-  @version 0.1.2, 12/28/12
+  @version 0.1.2, 10/18/26
 */
 @PDF(VersionEnum.PDF10)
 public final class Page
@@ -360,54 +359,17 @@ public final class Page
 
   /**
     Gets the index of the page.
+
+    @return <code>-1</code>, in case the page doesn't belong to the page tree of its document.
   */
   public int getIndex(
     )
   {
     /*
-      NOTE: We'll scan sequentially each page-tree level above this page object
-      collecting page counts. At each level we'll scan the kids array from the
-      lower-indexed item to the ancestor of this page object at that level.
+      NOTE: Page positions are resolved through the document's page index, which is built in a
+      single page-tree traversal (instead of scanning the kids of each ancestor on every call).
     */
-    PdfReference ancestorKidReference = (PdfReference)getBaseObject();
-    PdfReference parentReference = (PdfReference)getBaseDataObject().get(PdfName.Parent);
-    PdfDictionary parent = (PdfDictionary)parentReference.getDataObject();
-    PdfArray kids = (PdfArray)parent.resolve(PdfName.Kids);
-    int index = 0;
-    for(
-      int i = 0;
-      true;
-      i++
-      )
-    {
-      PdfReference kidReference = (PdfReference)kids.get(i);
-      // Is the current-level counting complete?
-      // NOTE: It's complete when it reaches the ancestor at the current level.
-      if(kidReference.equals(ancestorKidReference)) // Ancestor node.
-      {
-        // Does the current level correspond to the page-tree root node?
-        if(!parent.containsKey(PdfName.Parent))
-        {
-          // We reached the top: counting's finished.
-          return index;
-        }
-        // Set the ancestor at the next level!
-        ancestorKidReference = parentReference;
-        // Move up one level!
-        parentReference = (PdfReference)parent.get(PdfName.Parent);
-        parent = (PdfDictionary)parentReference.getDataObject();
-        kids = (PdfArray)parent.resolve(PdfName.Kids);
-        i = -1;
-      }
-      else // Intermediate node.
-      {
-        PdfDictionary kid = (PdfDictionary)kidReference.getDataObject();
-        if(kid.get(PdfName.Type).equals(PdfName.Page))
-          index++;
-        else
-          index += ((PdfInteger)kid.get(PdfName.Count)).getRawValue();
-      }
-    }
+    return getDocument().getPageIndex().indexOf(getBaseObject());
   }
 
   /**
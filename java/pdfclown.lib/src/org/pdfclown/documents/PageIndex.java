@@ -0,0 +1,184 @@
+/*
+  Copyright 2026 Stefano Chizzolini. http://www.pdfclown.org
+
+  Contributors:
+    * Stefano Chizzolini (original code developer, http://www.stefanochizzolini.it)
+
+  This file should be part of the source code distribution of "PDF Clown library"
+  (the Program): see the accompanying README files for more info.
+
+  This Program is free software; you can redistribute it and/or modify it under the terms
+  of the GNU Lesser General Public License as published by the Free Software Foundation;
+  either version 3 of the License, or (at your option) any later version.
+
+  This Program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  either expressed or implied; without even the implied warranty of MERCHANTABILITY or
+  FITNESS FOR A PARTICULAR PURPOSE. See the License for more details.
+
+  You should have received a copy of the GNU Lesser General Public License along with this
+  Program (see README files); if not, go to the GNU website (http://www.gnu.org/licenses/).
+
+  Redistribution and use, with or without modification, are permitted provided that such
+  redistributions retain the above copyright notice, license and disclaimer, along with
+  this list of conditions.
+*/
+
+package org.pdfclown.documents;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.pdfclown.objects.PdfArray;
+import org.pdfclown.objects.PdfDictionary;
+import org.pdfclown.objects.PdfDirectObject;
+import org.pdfclown.objects.PdfInteger;
+import org.pdfclown.objects.PdfName;
+import org.pdfclown.objects.PdfObject;
+import org.pdfclown.objects.PdfReference;
+
+/**
+  Page index, mapping page positions to page references and back.
+  <p>It's built in a single traversal of the page tree, then kept in sync by {@link Pages} along
+  its mutations; positions of pages are mapped lazily, on the first lookup after each
+  mutation.</p>
+
+  @author Stefano Chizzolini (http://www.stefanochizzolini.it)
+  @since 0.1.2
+  @version 0.1.2, 10/18/26
+*/
+final class PageIndex
+{
+  // <class>
+  // <dynamic>
+  // <fields>
+  private final List<PdfReference> pageReferences;
+  private final PdfDirectObject rootObject;
+
+  private Map<PdfReference,Integer> pageIndexes;
+  // </fields>
+
+  // <constructors>
+  /**
+    @param rootObject Page tree root.
+  */
+  PageIndex(
+    PdfDirectObject rootObject
+    )
+  {
+    this.rootObject = rootObject;
+
+    PdfDictionary root = (PdfDictionary)PdfObject.resolve(rootObject);
+    pageReferences = new ArrayList<PdfReference>(getCount(root));
+
+    // Collect the page references in tree order!
+    Deque<PdfDirectObject> pendingObjects = new ArrayDeque<PdfDirectObject>();
+    pushKids(root, pendingObjects);
+    while(!pendingObjects.isEmpty())
+    {
+      PdfReference kidReference = (PdfReference)pendingObjects.pop();
+      PdfDictionary kid = (PdfDictionary)kidReference.getDataObject();
+      if(PdfName.Page.equals(kid.get(PdfName.Type))) // Page object.
+      {pageReferences.add(kidReference);}
+      else // Page tree node.
+      {pushKids(kid, pendingObjects);}
+    }
+  }
+  // </constructors>
+
+  // <interface>
+  // <public>
+  /**
+    Inserts the given page references at the given position.
+  */
+  public void add(
+    int index,
+    Collection<PdfReference> references
+    )
+  {
+    pageReferences.addAll(index, references);
+    pageIndexes = null;
+  }
+
+  /**
+    Gets the reference of the page at the given position.
+  */
+  public PdfReference get(
+    int index
+    )
+  {return pageReferences.get(index);}
+
+  /**
+    Gets the position of the given page.
+
+    @return <code>-1</code>, in case the page is missing.
+  */
+  public int indexOf(
+    PdfDirectObject reference
+    )
+  {
+    if(pageIndexes == null)
+    {
+      pageIndexes = new HashMap<PdfReference,Integer>(pageReferences.size() * 4 / 3 + 1);
+      for(int index = 0, length = pageReferences.size(); index < length; index++)
+      {pageIndexes.put(pageReferences.get(index), index);}
+    }
+    Integer index = pageIndexes.get(reference);
+    return (index != null ? index : -1);
+  }
+
+  /**
+    Gets whether this index reflects the given page tree.
+  */
+  public boolean isValid(
+    PdfDirectObject rootObject
+    )
+  {
+    return (this.rootObject == rootObject || this.rootObject.equals(rootObject))
+      && pageReferences.size() == getCount((PdfDictionary)PdfObject.resolve(rootObject));
+  }
+
+  /**
+    Removes the given page references.
+  */
+  public void removeAll(
+    Collection<PdfReference> references
+    )
+  {
+    pageReferences.removeAll(new HashSet<PdfReference>(references));
+    pageIndexes = null;
+  }
+
+  public int size(
+    )
+  {return pageReferences.size();}
+  // </public>
+
+  // <private>
+  private static int getCount(
+    PdfDictionary node
+    )
+  {return ((PdfInteger)node.get(PdfName.Count)).getRawValue();}
+
+  /**
+    Pushes the kids of the given page tree node, so that they are popped in tree order.
+  */
+  private static void pushKids(
+    PdfDictionary node,
+    Deque<PdfDirectObject> pendingObjects
+    )
+  {
+    PdfArray kids = (PdfArray)node.resolve(PdfName.Kids);
+    for(int index = kids.size() - 1; index >= 0; index--)
+    {pendingObjects.push(kids.get(index));}
+  }
+  // </private>
+  // </interface>
+  // </dynamic>
+  // </class>
+}
@@ -25,12 +25,16 @@
 
 package org.pdfclown.documents;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Stack;
 
@@ -50,7 +54,7 @@ import org.pdfclown.util.NotImplementedException;
   Document pages collection [PDF:1.6:3.6.2].
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
-  @version 0.1.2, 12/28/12
+  @version 0.1.2, 10/18/26
 */
 @PDF(VersionEnum.PDF10)
 public final class Pages
@@ -58,11 +62,21 @@ public final class Pages
   implements List<Page>
 {
   /*
-    TODO:IMPL A B-tree algorithm should be implemented to optimize the inner layout
-    of the page tree (better insertion/deletion performance). In this case, it would
-    be necessary to keep track of the modified tree nodes for incremental update.
+    NOTE: The page tree is kept balanced as a B-tree: page insertions which overflow the maximum
+    number of kids of a tree node split it into siblings (the root node, which is referenced by
+    the document catalog, pushes its kids down into new child nodes instead); trees coming from
+    existing files can be rewritten through rebalance().
   */
   // <class>
+  // <static>
+  // <fields>
+  /**
+    Default maximum number of kids of page tree nodes.
+  */
+  public static final int DefaultMaxKidCount = 64;
+  // </fields>
+  // </static>
+
   // <dynamic>
   // <constructors>
   Pages(
@@ -102,6 +116,109 @@ public final class Pages
     )
   {return (Pages)super.clone(context);}
 
+  /**
+    Rewrites the page tree into a balanced tree whose nodes have at most {@link
+    #DefaultMaxKidCount} kids.
+
+    @see #rebalance(int)
+  */
+  public void rebalance(
+    )
+  {rebalance(DefaultMaxKidCount);}
+
+  /**
+    Rewrites the page tree into a balanced tree whose nodes have at most the given number of kids.
+    <p>Page order is preserved; attributes inherited from the replaced intermediate nodes are
+    consolidated into the pages.</p>
+
+    @param maxKidCount Maximum number of kids of each tree node.
+  */
+  public void rebalance(
+    int maxKidCount
+    )
+  {
+    if(maxKidCount < 2)
+      throw new IllegalArgumentException("maxKidCount MUST be at least 2.");
+
+    PageIndex pageIndex = getPageIndex();
+    PdfDirectObject root = getBaseObject();
+    PdfDictionary rootData = getBaseDataObject();
+
+    // 1. Collect the intermediate nodes, consolidating their inheritable attributes into the pages.
+    List<PdfDirectObject> oldNodes = new ArrayList<PdfDirectObject>();
+    {
+      Deque<PdfDirectObject> pendingNodes = new ArrayDeque<PdfDirectObject>();
+      pendingNodes.push(root);
+      while(!pendingNodes.isEmpty())
+      {
+        PdfDirectObject node = pendingNodes.pop();
+        PdfDictionary nodeData = (PdfDictionary)node.resolve();
+        if(node != root)
+        {oldNodes.add(node);}
+
+        for(PdfDirectObject kid : (PdfArray)nodeData.resolve(PdfName.Kids))
+        {
+          PdfDictionary kidData = (PdfDictionary)kid.resolve();
+          if(PdfName.Page.equals(kidData.get(PdfName.Type))) // Page object.
+          {
+            for(PdfName key : Page.InheritableAttributeKeys)
+            {
+              if(kidData.containsKey(key))
+                continue;
+
+              // Find the nearest ancestor defining the attribute (the root is kept, so it's skipped)!
+              PdfDirectObject ancestor = node;
+              while(ancestor != root)
+              {
+                PdfDictionary ancestorData = (PdfDictionary)ancestor.resolve();
+                if(ancestorData.containsKey(key))
+                {
+                  kidData.put(key, ancestorData.get(key));
+                  break;
+                }
+                ancestor = ancestorData.get(PdfName.Parent);
+                if(ancestor == null || ancestor.equals(root))
+                  break;
+              }
+            }
+          }
+          else // Page tree node.
+          {pendingNodes.push(kid);}
+        }
+      }
+    }
+
+    // 2. Build the new tree levels bottom-up.
+    List<PdfDirectObject> level = new ArrayList<PdfDirectObject>(pageIndex.size());
+    for(int index = 0, length = pageIndex.size(); index < length; index++)
+    {level.add(pageIndex.get(index));}
+    while(level.size() > maxKidCount)
+    {
+      int nodeCount = (level.size() + maxKidCount - 1) / maxKidCount;
+      List<PdfDirectObject> upperLevel = new ArrayList<PdfDirectObject>(nodeCount);
+      for(int nodeIndex = 0; nodeIndex < nodeCount; nodeIndex++)
+      {
+        upperLevel.add(
+          createNode(
+            level.subList(level.size() * nodeIndex / nodeCount, level.size() * (nodeIndex + 1) / nodeCount),
+            null
+            )
+          );
+      }
+      level = upperLevel;
+    }
+    for(PdfDirectObject kid : level)
+    {((PdfDictionary)kid.resolve()).put(PdfName.Parent, root);}
+    rootData.put(PdfName.Kids, new PdfArray(level));
+
+    // 3. Remove the replaced nodes.
+    for(PdfDirectObject oldNode : oldNodes)
+    {
+      if(oldNode instanceof PdfReference)
+      {((PdfReference)oldNode).delete();}
+    }
+  }
+
   // <List>
   @Override
   public void add(
@@ -123,62 +240,19 @@ public final class Pages
     )
   {
     /*
-      NOTE: As stated in [PDF:1.6:3.6.2], to retrieve pages is a matter of diving
-      inside a B-tree. To keep it as efficient as possible, this implementation
-      does NOT adopt recursion to deepen its search, opting for an iterative strategy
-      instead.
+      NOTE: As stated in [PDF:1.6:3.6.2], to retrieve pages is a matter of diving inside a B-tree.
+      To keep random access as efficient as possible, page positions are resolved through the
+      document's page index, which is built in a single tree traversal.
     */
-    int pageOffset = 0;
-    PdfDictionary parent = getBaseDataObject();
-    PdfArray kids = (PdfArray)parent.resolve(PdfName.Kids);
-    for(
-      int i = 0;
-      i < kids.size();
-      i++
-      )
-    {
-      PdfReference kidReference = (PdfReference)kids.get(i);
-      PdfDictionary kid = (PdfDictionary)kidReference.getDataObject();
-      // Is current kid a page object?
-      if(kid.get(PdfName.Type).equals(PdfName.Page)) // Page object.
-      {
-        // Did we reach the searched position?
-        if(pageOffset == index) // Vertical scan (we finished).
-        {
-          // We got it!
-          return Page.wrap(kidReference);
-        }
-        else // Horizontal scan (go past).
-        {
-          // Cumulate current page object count!
-          pageOffset++;
-        }
-      }
-      else // Page tree node.
-      {
-        // Does the current subtree contain the searched page?
-        if(((PdfInteger)kid.get(PdfName.Count)).getRawValue() + pageOffset > index) // Vertical scan (deepen the search).
-        {
-          // Go down one level!
-          parent = kid;
-          kids = (PdfArray)parent.resolve(PdfName.Kids);
-          i = -1;
-        }
-        else // Horizontal scan (go past).
-        {
-          // Cumulate current subtree count!
-          pageOffset += ((PdfInteger)kid.get(PdfName.Count)).getRawValue();
-        }
-      }
-    }
-    return null;
+    PageIndex pageIndex = getPageIndex();
+    return (index >= 0 && index < pageIndex.size() ? Page.wrap(pageIndex.get(index)) : null);
   }
 
   @Override
   public int indexOf(
     Object page
     )
-  {return ((Page)page).getIndex();}
+  {return getPageIndex().indexOf(((Page)page).getBaseObject());}
 
   @Override
   public int lastIndexOf(
@@ -234,10 +308,11 @@ public final class Pages
   /*
   TODO:IMPL this implementation is incoherent with the subList contract --> move to another location!
   */
+    PageIndex pageIndex = getPageIndex();
     ArrayList<Page> pages = new ArrayList<Page>(toIndex - fromIndex);
     int i = fromIndex;
     while(i < toIndex)
-    {pages.add(get(i++));}
+    {pages.add(Page.wrap(pageIndex.get(i++)));}
 
     return pages;
   }
@@ -292,36 +367,7 @@ public final class Pages
   public boolean remove(
     Object page
     )
-  {
-    Page pageObj = (Page)page;
-    PdfDictionary pageData = pageObj.getBaseDataObject();
-    // Get the parent tree node!
-    PdfDirectObject parent = pageData.get(PdfName.Parent);
-    PdfDictionary parentData = (PdfDictionary)parent.resolve();
-    // Get the parent's page collection!
-    PdfDirectObject kids = parentData.get(PdfName.Kids);
-    PdfArray kidsData = (PdfArray)kids.resolve();
-    // Remove the page!
-    kidsData.remove(pageObj.getBaseObject());
-
-    // Unbind the page from its parent!
-    pageData.put(PdfName.Parent,null);
-
-    // Decrementing the pages counters...
-    do
-    {
-      // Get the page collection counter!
-      PdfInteger countObject = (PdfInteger)parentData.get(PdfName.Count);
-      // Decrement the counter at the current level!
-      parentData.put(PdfName.Count, PdfInteger.get(countObject.getValue()-1));
-
-      // Iterate upward!
-      parent = parentData.get(PdfName.Parent);
-      parentData = (PdfDictionary)PdfObject.resolve(parent);
-    } while(parent != null);
-
-    return true;
-  }
+  {return removeAll(Arrays.asList(page));}
 
   @Override
   public boolean removeAll(
@@ -331,13 +377,55 @@ public final class Pages
     /*
       NOTE: The interface contract doesn't prescribe any relation among the removing-collection's
       items, so we cannot adopt the optimized approach of the add*(...) methods family,
-      where adding-collection's items are explicitly ordered.
+      where adding-collection's items are explicitly ordered; anyway, pages are grouped by parent
+      tree node, so that each node is updated once.
     */
-    boolean changed = false;
+    PageIndex pageIndex = getPageIndex();
+    Map<PdfDirectObject,List<PdfDirectObject>> parentPages = new LinkedHashMap<PdfDirectObject,List<PdfDirectObject>>();
+    List<PdfReference> pageReferences = new ArrayList<PdfReference>(pages.size());
     for(Object page : pages)
-    {changed |= remove(page);}
+    {
+      Page pageObj = (Page)page;
+      PdfDictionary pageData = pageObj.getBaseDataObject();
+      // Get the parent tree node!
+      PdfDirectObject parent = pageData.get(PdfName.Parent);
+      List<PdfDirectObject> kidPages = parentPages.get(parent);
+      if(kidPages == null)
+      {parentPages.put(parent, kidPages = new ArrayList<PdfDirectObject>());}
+      kidPages.add(pageObj.getBaseObject());
+      pageReferences.add((PdfReference)pageObj.getBaseObject());
+
+      // Unbind the page from its parent!
+      pageData.put(PdfName.Parent,null);
+    }
 
-    return changed;
+    for(Map.Entry<PdfDirectObject,List<PdfDirectObject>> parentPagesEntry : parentPages.entrySet())
+    {
+      PdfDirectObject parent = parentPagesEntry.getKey();
+      PdfDictionary parentData = (PdfDictionary)parent.resolve();
+      // Get the parent's page collection!
+      PdfDirectObject kids = parentData.get(PdfName.Kids);
+      PdfArray kidsData = (PdfArray)kids.resolve();
+      // Remove the pages!
+      kidsData.removeAll(parentPagesEntry.getValue());
+
+      // Decrementing the pages counters...
+      int pageCount = parentPagesEntry.getValue().size();
+      do
+      {
+        // Get the page collection counter!
+        PdfInteger countObject = (PdfInteger)parentData.get(PdfName.Count);
+        // Decrement the counter at the current level!
+        parentData.put(PdfName.Count, PdfInteger.get(countObject.getValue()-pageCount));
+
+        // Iterate upward!
+        parent = parentData.get(PdfName.Parent);
+        parentData = (PdfDictionary)PdfObject.resolve(parent);
+      } while(parent != null);
+    }
+    pageIndex.removeAll(pageReferences);
+
+    return !pageReferences.isEmpty();
   }
 
   @Override
@@ -484,6 +572,7 @@ public final class Pages
     Collection<? extends Page> pages
     )
   {
+    PageIndex pageIndex = getPageIndex();
     PdfDirectObject parent;
     PdfDictionary parentData;
     PdfDirectObject kids;
@@ -492,12 +581,30 @@ public final class Pages
     // Append operation?
     if(index == -1) // Append operation.
     {
-      // Get the parent tree node!
+      // Get the parent tree node (the last one at the bottom level)!
+      /*
+        NOTE: Appended pages MUST inherit the same attributes as if they were appended to the root,
+        so descent stops at the first node defining its own inheritable attributes.
+      */
       parent = getBaseObject();
       parentData = getBaseDataObject();
       // Get the parent's page collection!
       kids = parentData.get(PdfName.Kids);
       kidsData = (PdfArray)PdfObject.resolve(kids);
+      while(!kidsData.isEmpty())
+      {
+        PdfDirectObject lastKid = kidsData.get(kidsData.size() - 1);
+        PdfDictionary lastKidData = (PdfDictionary)lastKid.resolve();
+        if(PdfName.Page.equals(lastKidData.get(PdfName.Type))
+          || hasInheritableAttributes(lastKidData))
+          break;
+
+        // Go down one level!
+        parent = lastKid;
+        parentData = lastKidData;
+        kids = parentData.get(PdfName.Kids);
+        kidsData = (PdfArray)PdfObject.resolve(kids);
+      }
       offset = 0; // Not used.
     }
     else // Insert operation.
@@ -515,27 +622,29 @@ public final class Pages
     }
 
     // Adding the pages...
+    List<PdfReference> pageReferences = new ArrayList<PdfReference>(pages.size());
     for(Page page : pages)
     {
-      // Append?
-      if(index == -1) // Append.
-      {
-        // Append the page to the collection!
-        kidsData.add(page.getBaseObject());
-      }
-      else // Insert.
-      {
-        // Insert the page into the collection!
-        kidsData.add(
-          offset++,
-          page.getBaseObject()
-          );
-      }
+      pageReferences.add((PdfReference)page.getBaseObject());
       // Bind the page to the collection!
       page.getBaseDataObject().put(PdfName.Parent,parent);
     }
+    // Append?
+    if(index == -1) // Append.
+    {
+      // Append the pages to the collection!
+      kidsData.addAll(pageReferences);
+      pageIndex.add(pageIndex.size(), pageReferences);
+    }
+    else // Insert.
+    {
+      // Insert the pages into the collection!
+      kidsData.addAll(offset, pageReferences);
+      pageIndex.add(index, pageReferences);
+    }
 
     // Incrementing the pages counters...
+    PdfDirectObject node = parent;
     do
     {
       // Get the page collection counter!
@@ -548,8 +657,148 @@ public final class Pages
       parentData = (PdfDictionary)PdfObject.resolve(parent);
     } while(parent != null);
 
+    // Split the overflowing nodes!
+    splitNode(node);
+
     return true;
   }
+
+  /**
+    Gets whether the given page tree node defines any inheritable attribute.
+  */
+  private boolean hasInheritableAttributes(
+    PdfDictionary nodeData
+    )
+  {
+    for(PdfName key : Page.InheritableAttributeKeys)
+    {
+      if(nodeData.containsKey(key))
+        return true;
+    }
+    return false;
+  }
+
+  /**
+    Creates a page tree node.
+
+    @param kids Node kids.
+    @param attributesSource Node whose inheritable attributes have to be copied into the new node.
+    @return Reference to the new node.
+  */
+  private PdfReference createNode(
+    List<PdfDirectObject> kids,
+    PdfDictionary attributesSource
+    )
+  {
+    int count = 0;
+    for(PdfDirectObject kid : kids)
+    {
+      PdfDictionary kidData = (PdfDictionary)kid.resolve();
+      count += (PdfName.Page.equals(kidData.get(PdfName.Type))
+        ? 1
+        : ((PdfInteger)kidData.get(PdfName.Count)).getRawValue());
+    }
+    PdfDictionary nodeData = new PdfDictionary(
+      new PdfName[]
+      {
+        PdfName.Type,
+        PdfName.Kids,
+        PdfName.Count
+      },
+      new PdfDirectObject[]
+      {
+        PdfName.Pages,
+        new PdfArray(kids),
+        PdfInteger.get(count)
+      }
+      );
+    if(attributesSource != null)
+    {
+      for(PdfName key : Page.InheritableAttributeKeys)
+      {
+        PdfDirectObject value = attributesSource.get(key);
+        if(value != null)
+        {nodeData.put(key, value);}
+      }
+    }
+    PdfReference node = getFile().register(nodeData);
+    for(PdfDirectObject kid : kids)
+    {((PdfDictionary)kid.resolve()).put(PdfName.Parent, node);}
+    return node;
+  }
+
+  private PageIndex getPageIndex(
+    )
+  {return getDocument().getPageIndex();}
+
+  /**
+    Splits the given page tree node, along with its ancestors, wherever it overflows {@link
+    #DefaultMaxKidCount}.
+  */
+  private void splitNode(
+    PdfDirectObject node
+    )
+  {
+    while(node != null)
+    {
+      PdfDictionary nodeData = (PdfDictionary)node.resolve();
+      PdfArray kidsData = (PdfArray)nodeData.resolve(PdfName.Kids);
+      int kidCount = kidsData.size();
+      if(kidCount <= DefaultMaxKidCount)
+        break;
+
+      // Distribute the kids evenly among the split nodes!
+      int nodeCount = (kidCount + DefaultMaxKidCount - 1) / DefaultMaxKidCount;
+      List<PdfDirectObject> kids = new ArrayList<PdfDirectObject>(kidsData);
+      PdfDirectObject parent = nodeData.get(PdfName.Parent);
+      if(parent == null) // Root node.
+      {
+        /*
+          NOTE: The root node is referenced by the document catalog, so its kids are pushed down
+          into new child nodes.
+        */
+        List<PdfDirectObject> childNodes = new ArrayList<PdfDirectObject>(nodeCount);
+        for(int nodeIndex = 0; nodeIndex < nodeCount; nodeIndex++)
+        {
+          PdfReference childNode = createNode(kids.subList(kidCount * nodeIndex / nodeCount, kidCount * (nodeIndex + 1) / nodeCount), null);
+          ((PdfDictionary)childNode.getDataObject()).put(PdfName.Parent, node);
+          childNodes.add(childNode);
+        }
+        nodeData.put(PdfName.Kids, new PdfArray(childNodes));
+        // NOTE: In case of many child nodes, the root node has to be split again.
+      }
+      else // Intermediate node.
+      {
+        /*
+          NOTE: The node keeps the first share of its kids, the others being moved to new sibling
+          nodes (which share its inheritable attributes).
+        */
+        List<PdfDirectObject> siblingNodes = new ArrayList<PdfDirectObject>(nodeCount - 1);
+        for(int nodeIndex = 1; nodeIndex < nodeCount; nodeIndex++)
+        {
+          PdfReference siblingNode = createNode(kids.subList(kidCount * nodeIndex / nodeCount, kidCount * (nodeIndex + 1) / nodeCount), nodeData);
+          ((PdfDictionary)siblingNode.getDataObject()).put(PdfName.Parent, parent);
+          siblingNodes.add(siblingNode);
+        }
+        List<PdfDirectObject> keptKids = kids.subList(0, kidCount / nodeCount);
+        int keptCount = 0;
+        for(PdfDirectObject kid : keptKids)
+        {
+          PdfDictionary kidData = (PdfDictionary)kid.resolve();
+          keptCount += (PdfName.Page.equals(kidData.get(PdfName.Type))
+            ? 1
+            : ((PdfInteger)kidData.get(PdfName.Count)).getRawValue());
+        }
+        nodeData.put(PdfName.Kids, new PdfArray(keptKids));
+        nodeData.put(PdfName.Count, PdfInteger.get(keptCount));
+
+        PdfArray parentKidsData = (PdfArray)((PdfDictionary)parent.resolve()).resolve(PdfName.Kids);
+        parentKidsData.addAll(parentKidsData.indexOf(node) + 1, siblingNodes);
+
+        node = parent;
+      }
+    }
+  }
   // </private>
   // </interface>
   // </dynamic>
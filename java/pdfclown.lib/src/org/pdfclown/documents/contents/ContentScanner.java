@@ -67,7 +67,7 @@ import org.pdfclown.util.math.geom.Dimension;
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @since 0.0.4
-  @version 0.1.2, 08/23/12
+  @version 0.1.2, 10/18/26
 */
 public final class ContentScanner
 {
@@ -266,39 +266,12 @@ public final class ContentScanner
       }
       else // Device-dependent.
       {
-        IContentContext contentContext = getScanner().getContentContext();
-        Dimension2D canvasSize = getScanner().getCanvasSize();
-
-        // Axes orientation.
-        RotationEnum rotation = contentContext.getRotation();
-        switch(rotation)
-        {
-          case Downward:
-            initialCtm = new AffineTransform(1, 0, 0, -1, 0, canvasSize.getHeight());
-            break;
-          case Leftward:
-            initialCtm = new AffineTransform(0, 1, 1, 0, 0, 0);
-            break;
-          case Upward:
-            initialCtm = new AffineTransform(-1, 0, 0, 1, canvasSize.getWidth(), 0);
-            break;
-          case Rightward:
-            initialCtm = new AffineTransform(0, -1, -1, 0, canvasSize.getWidth(), canvasSize.getHeight());
-            break;
-          default:
-            throw new NotImplementedException();
-        }
-
-        // Scaling.
-        Rectangle2D contentBox = contentContext.getBox();
-        Dimension2D rotatedCanvasSize = rotation.transform(canvasSize);
-        initialCtm.scale(
-          rotatedCanvasSize.getWidth() / contentBox.getWidth(),
-          rotatedCanvasSize.getHeight() / contentBox.getHeight()
+        ContentScanner scanner = getScanner();
+        initialCtm = ContentScanner.getInitialCtm(
+          scanner.getContentContext(),
+          scanner.getCanvasSize(),
+          scanner.getRenderArea()
           );
-
-        // Origin alignment.
-        initialCtm.translate(-contentBox.getMinX(), -contentBox.getMinY());
       }
       return initialCtm;
     }
@@ -958,6 +931,63 @@ public final class ContentScanner
   // <fields>
   private static final int StartIndex = -1;
   // </fields>
+
+  // <interface>
+  // <public>
+  /**
+    Gets the initial current transformation matrix mapping the specified content area to the
+    specified device-space canvas.
+
+    @param contentContext Content context.
+    @param canvasSize Device-space size of the rendering canvas.
+    @param area Content area to map; <code>null</code> corresponds to the entire
+      {@link IContentContext#getBox() content bounding box}.
+    @since 0.1.2
+  */
+  public static AffineTransform getInitialCtm(
+    IContentContext contentContext,
+    Dimension2D canvasSize,
+    Rectangle2D area
+    )
+  {
+    AffineTransform initialCtm;
+
+    // Axes orientation.
+    RotationEnum rotation = contentContext.getRotation();
+    switch(rotation)
+    {
+      case Downward:
+        initialCtm = new AffineTransform(1, 0, 0, -1, 0, canvasSize.getHeight());
+        break;
+      case Leftward:
+        initialCtm = new AffineTransform(0, 1, 1, 0, 0, 0);
+        break;
+      case Upward:
+        initialCtm = new AffineTransform(-1, 0, 0, 1, canvasSize.getWidth(), 0);
+        break;
+      case Rightward:
+        initialCtm = new AffineTransform(0, -1, -1, 0, canvasSize.getWidth(), canvasSize.getHeight());
+        break;
+      default:
+        throw new NotImplementedException();
+    }
+
+    // Scaling.
+    if(area == null)
+    {area = contentContext.getBox();}
+    Dimension2D rotatedCanvasSize = rotation.transform(canvasSize);
+    initialCtm.scale(
+      rotatedCanvasSize.getWidth() / area.getWidth(),
+      rotatedCanvasSize.getHeight() / area.getHeight()
+      );
+
+    // Origin alignment.
+    initialCtm.translate(-area.getMinX(), -area.getMinY());
+
+    return initialCtm;
+  }
+  // </public>
+  // </interface>
   // </static>
 
   // <dynamic>
@@ -991,10 +1021,18 @@ public final class ContentScanner
     Rendering context.
   */
   private Graphics2D renderContext;
+  /**
+    Content area to render.
+  */
+  private Rectangle2D renderArea;
   /**
     Rendering object.
   */
   private Shape renderObject;
+  /**
+    Rendering quality.
+  */
+  private RenderQualityEnum renderQuality = RenderQualityEnum.High;
   /**
     Device-space size of the rendering canvas.
   */
@@ -1039,13 +1077,31 @@ public final class ContentScanner
     @param parentLevel Parent scan level.
   */
   public ContentScanner(
-    final FormXObject formXObject,
+    FormXObject formXObject,
+    ContentScanner parentLevel
+    )
+  {this(formXObject.getContents(), parentLevel);}
+
+  /**
+    Instantiates a child-level content scanner for the contents of an
+    {@link FormXObject external form}.
+    <p>This is useful to scan form contents already parsed (for example, shared through a
+    {@link org.pdfclown.documents.contents.xObjects.FormRasterCache cache}).</p>
+
+    @param formContents External form contents.
+    @param parentLevel Parent scan level.
+    @since 0.1.2
+  */
+  public ContentScanner(
+    Contents formContents,
     ContentScanner parentLevel
     )
   {
     this.parentLevel = parentLevel;
-    this.objects = this.contents = formXObject.getContents();
+    this.objects = this.contents = formContents;
+    this.renderQuality = parentLevel.renderQuality;
 
+    final FormXObject formXObject = (FormXObject)formContents.getContentContext();
     addListener(new IListener()
       {
         @Override
@@ -1056,7 +1112,8 @@ public final class ContentScanner
           // Adjust the initial graphics state to the external form context!
           scanner.getState().getCtm().concatenate(formXObject.getMatrix());
           /*
-            TODO: On rendering, clip according to the form dictionary's BBox entry!
+            NOTE: On rendering, clipping according to the form dictionary's BBox entry is
+            applied by the painting operation (see FormXObject.render(GraphicsState)).
           */
         }
       });
@@ -1075,6 +1132,7 @@ public final class ContentScanner
     this.parentLevel = parentLevel;
     this.contents = parentLevel.contents;
     this.objects = ((CompositeObject)parentLevel.getCurrent()).getObjects();
+    this.renderQuality = parentLevel.renderQuality;
 
     moveStart();
   }
@@ -1169,7 +1227,14 @@ public final class ContentScanner
   */
   public CompositeObject getParent(
     )
-  {return (parentLevel == null ? null : (CompositeObject)parentLevel.getCurrent());}
+  {
+    /*
+      NOTE: Scan levels of external forms descend from the painting operation, which isn't a
+      container.
+    */
+    ContentObject parent = (parentLevel == null ? null : parentLevel.getCurrent());
+    return (parent instanceof CompositeObject ? (CompositeObject)parent : null);
+  }
 
   /**
     Gets the parent scan level.
@@ -1190,6 +1255,17 @@ public final class ContentScanner
     )
   {return renderContext;}
 
+  /**
+    Gets the content area to render.
+
+    @return <code>null</code> in case of dry scanning or rendering of the entire
+      {@link IContentContext#getBox() content bounding box}.
+    @since 0.1.2
+  */
+  public Rectangle2D getRenderArea(
+    )
+  {return renderArea;}
+
   /**
     Gets the rendering object.
 
@@ -1199,6 +1275,16 @@ public final class ContentScanner
     )
   {return renderObject;}
 
+  /**
+    Gets the rendering quality.
+    <p>Child levels inherit it from their parent level.</p>
+
+    @since 0.1.2
+  */
+  public RenderQualityEnum getRenderQuality(
+    )
+  {return renderQuality;}
+
   /**
     Gets the root scan level.
 
@@ -1414,6 +1500,24 @@ public final class ContentScanner
     Dimension2D renderSize,
     Shape renderObject
     )
+  {render(renderContext, renderSize, null, renderObject);}
+
+  /**
+    Renders the contents into the specified object.
+
+    @param renderContext Rendering context.
+    @param renderSize Rendering canvas size.
+    @param renderArea Content area to render (it applies to the root level only); <code>null</code>
+      corresponds to the entire {@link IContentContext#getBox() content bounding box}.
+    @param renderObject Rendering object.
+    @since 0.1.2
+  */
+  public void render(
+    Graphics2D renderContext,
+    Dimension2D renderSize,
+    Rectangle2D renderArea,
+    Shape renderObject
+    )
   {
     if(isRootLevel())
     {
@@ -1422,10 +1526,24 @@ public final class ContentScanner
         RenderingHints.KEY_ANTIALIASING,
         RenderingHints.VALUE_ANTIALIAS_ON
         );
-      renderContext.setRenderingHint(
-        RenderingHints.KEY_INTERPOLATION,
-        RenderingHints.VALUE_INTERPOLATION_BICUBIC
-        );
+      if(renderQuality == RenderQualityEnum.High)
+      {
+        renderContext.setRenderingHint(
+          RenderingHints.KEY_INTERPOLATION,
+          RenderingHints.VALUE_INTERPOLATION_BICUBIC
+          );
+      }
+      else
+      {
+        renderContext.setRenderingHint(
+          RenderingHints.KEY_INTERPOLATION,
+          RenderingHints.VALUE_INTERPOLATION_BILINEAR
+          );
+        renderContext.setRenderingHint(
+          RenderingHints.KEY_RENDERING,
+          RenderingHints.VALUE_RENDER_SPEED
+          );
+      }
 
       // Paint the canvas background!
       renderContext.setColor(java.awt.Color.WHITE);
@@ -1436,6 +1554,7 @@ public final class ContentScanner
     {
       this.renderContext = renderContext;
       this.renderSize = renderSize;
+      this.renderArea = renderArea;
       this.renderObject = renderObject;
 
       // Scan this level for rendering!
@@ -1446,10 +1565,24 @@ public final class ContentScanner
     {
       this.renderContext = null;
       this.renderSize = null;
+      this.renderArea = null;
       this.renderObject = null;
     }
   }
 
+  /**
+    @see #getRenderQuality()
+    @since 0.1.2
+  */
+  public void setRenderQuality(
+    RenderQualityEnum value
+    )
+  {
+    renderQuality = value;
+    if(childLevel != null)
+    {childLevel.setRenderQuality(value);}
+  }
+
   /**
     Replaces the content object at the current position.
 
@@ -28,24 +28,39 @@ package org.pdfclown.documents.contents;
 import java.io.EOFException;
 import java.io.IOException;
 import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 
 import org.pdfclown.PDF;
 import org.pdfclown.VersionEnum;
+import org.pdfclown.bytes.Buffer;
 import org.pdfclown.bytes.IBuffer;
 import org.pdfclown.bytes.IInputStream;
 import org.pdfclown.documents.Document;
+import org.pdfclown.documents.contents.objects.CompositeObject;
 import org.pdfclown.documents.contents.objects.ContentObject;
+import org.pdfclown.documents.contents.objects.EndInlineImage;
+import org.pdfclown.documents.contents.objects.EndMarkedContent;
+import org.pdfclown.documents.contents.objects.EndText;
+import org.pdfclown.documents.contents.objects.InlineImageBody;
+import org.pdfclown.documents.contents.objects.Operation;
+import org.pdfclown.documents.contents.objects.RestoreGraphicsState;
 import org.pdfclown.documents.contents.tokens.ContentParser;
 import org.pdfclown.objects.PdfArray;
 import org.pdfclown.objects.PdfDataObject;
+import org.pdfclown.objects.PdfDictionary;
 import org.pdfclown.objects.PdfDirectObject;
+import org.pdfclown.objects.PdfName;
 import org.pdfclown.objects.PdfObjectWrapper;
 import org.pdfclown.objects.PdfReference;
 import org.pdfclown.objects.PdfStream;
+import org.pdfclown.tokens.Chunk;
 import org.pdfclown.util.NotImplementedException;
 
 /**
@@ -53,11 +68,11 @@ import org.pdfclown.util.NotImplementedException;
   <p>During its loading, this content stream is parsed and its instructions
   are exposed as a list; in case of modifications, it's user responsability
   to call the {@link #flush()} method in order to serialize back the instructions
-  into this content stream.</p>
+  into this content stream (untouched instructions keep their original bytes).</p>
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @since 0.0.4
-  @version 0.1.2, 12/21/12
+  @version 0.1.2, 10/18/26
 */
 @PDF(VersionEnum.PDF10)
 public final class Contents
@@ -114,7 +129,7 @@ public final class Contents
     @Override
     public long getPosition(
       )
-    {return basePosition + stream.getPosition();}
+    {return basePosition + (stream != null ? stream.getPosition() : 0);}
 
     @Override
     public void read(
@@ -336,6 +351,13 @@ public final class Contents
   // </classes>
 
   // <static>
+  // <fields>
+  /**
+    Snapshot marker closing the references of a container.
+  */
+  private static final Object SnapshotEnd = new Object();
+  // </fields>
+
   // <interface>
   // <public>
   public static Contents wrap(
@@ -350,6 +372,29 @@ public final class Contents
   // <dynamic>
   // <fields>
   private List<ContentObject> items;
+  /**
+    Content objects as lastly loaded or flushed.
+  */
+  private ContentObject[] sourceItems;
+  /**
+    Position of the end of each source content object within the content stream (each one
+    starts where the previous one ends).
+  */
+  private long[] sourceItemEnds;
+  /**
+    Position of the start of each source content object snapshot within {@link #sourceSnapshots}.
+  */
+  private int[] sourceSnapshotStarts;
+  /**
+    Source content object snapshots, used to detect edits.
+
+    @see #takeSnapshot(ContentObject, List)
+  */
+  private Object[] sourceSnapshots;
+  /**
+    Position of the end of each source stream within the content stream.
+  */
+  private long[] sourceStreamEnds;
 
   private final IContentContext contentContext;
   // </fields>
@@ -377,52 +422,137 @@ public final class Contents
 
   /**
     Serializes the contents into the content stream.
+    <p>Only the edited regions are actually serialized: untouched content objects are copied
+    verbatim from their source bytes, and the leading and trailing streams of a multi-stream
+    content whose objects are all untouched are left as they are (so that they aren't even
+    rewritten on incremental updates). In case nothing was edited, this method has no effect.</p>
   */
   public void flush(
     )
   {
-    PdfStream stream;
+    int itemCount = items.size();
+    int sourceItemCount = sourceItems.length;
+
+    // Leading untouched objects.
+    int headCount = 0;
+    while(headCount < itemCount
+      && headCount < sourceItemCount
+      && isUntouched(items.get(headCount), headCount))
+    {headCount++;}
+    if(headCount == itemCount && headCount == sourceItemCount) // Nothing edited.
+      return;
+
+    // Trailing untouched objects.
+    int tailCount = 0;
+    while(tailCount < itemCount - headCount
+      && tailCount < sourceItemCount - headCount
+      && isUntouched(items.get(itemCount - 1 - tailCount), sourceItemCount - 1 - tailCount))
+    {tailCount++;}
+
+    long headEnd = getSourceItemStart(headCount);
+    long tailStart = getSourceItemStart(sourceItemCount - tailCount);
+    long tailEnd = getSourceItemStart(sourceItemCount);
+
+    /*
+      NOTE: Streams entirely made up of untouched leading (or trailing) objects are kept, whilst
+      the ones in between are replaced by a single stream containing the edited region. A single
+      content stream can't be split, as its owner refers to it directly.
+    */
     PdfDataObject baseDataObject = getBaseDataObject();
-    // Are contents just a single stream object?
+    int sourceStreamCount = sourceStreamEnds.length;
+    int keptHeadStreamCount = 0, keptTailStreamIndex = sourceStreamCount;
+    if(baseDataObject instanceof PdfArray)
+    {
+      while(keptHeadStreamCount < sourceStreamCount
+        && sourceStreamEnds[keptHeadStreamCount] <= headEnd)
+      {keptHeadStreamCount++;}
+      while(keptTailStreamIndex > keptHeadStreamCount
+        && getSourceStreamStart(keptTailStreamIndex - 1) >= tailStart)
+      {keptTailStreamIndex--;}
+    }
+    long middleStart = getSourceStreamStart(keptHeadStreamCount);
+    long middleEnd = (keptTailStreamIndex < sourceStreamCount
+      ? getSourceStreamStart(keptTailStreamIndex)
+      : tailEnd);
+
+    // Serializing the edited region...
+    /*
+      NOTE: Source bytes are buffered apart, as the stream they are copied from may be the same
+      the edited region is going to be serialized into.
+    */
+    IBuffer middleBuffer = new Buffer();
+    long[] itemEnds = new long[itemCount];
+    System.arraycopy(sourceItemEnds, 0, itemEnds, 0, headCount);
+    copySource(middleBuffer, middleStart, headEnd);
+    {
+      Map<ContentObject,Integer> sourceIndexes = new IdentityHashMap<ContentObject,Integer>();
+      for(int index = headCount, limit = sourceItemCount - tailCount; index < limit; index++)
+      {sourceIndexes.put(sourceItems[index], index);}
+
+      Document context = getDocument();
+      boolean separated = false;
+      for(int index = headCount, limit = itemCount - tailCount; index < limit; index++)
+      {
+        ContentObject item = items.get(index);
+        Integer sourceIndex = sourceIndexes.get(item);
+        if(sourceIndex != null && isUntouched(item, sourceIndex)) // Untouched object.
+        {
+          copySource(middleBuffer, getSourceItemStart(sourceIndex), sourceItemEnds[sourceIndex]);
+          separated = false;
+        }
+        else // Edited object.
+        {
+          if(!separated)
+          {middleBuffer.write(Chunk.LineFeed);}
+          item.writeTo(middleBuffer, context);
+          separated = true;
+        }
+        itemEnds[index] = middleStart + middleBuffer.getLength();
+      }
+    }
+    copySource(middleBuffer, tailStart, middleEnd);
+    long tailOffset = middleStart + middleBuffer.getLength() - middleEnd;
+    for(int index = itemCount - tailCount, sourceIndex = sourceItemCount - tailCount; index < itemCount; index++, sourceIndex++)
+    {itemEnds[index] = sourceItemEnds[sourceIndex] + tailOffset;}
+
+    // Replacing the edited streams...
+    PdfStream stream;
     if(baseDataObject instanceof PdfStream) // Single stream.
     {stream = (PdfStream)baseDataObject;}
     else // Array of streams.
     {
       PdfArray streams = (PdfArray)baseDataObject;
-      // No stream available?
-      if(streams.isEmpty()) // No stream.
+      PdfReference streamReference = null;
+      for(int index = keptHeadStreamCount; index < keptTailStreamIndex; index++)
       {
-        // Add first stream!
-        stream = new PdfStream();
-        streams.add( // Inserts the new stream into the content stream.
-          getFile().register(stream) // Inserts the new stream into the file.
-          );
+        PdfReference replacedStreamReference = (PdfReference)streams.remove(keptHeadStreamCount);
+        if(streamReference == null)
+        {streamReference = replacedStreamReference;} // Reuses the first replaced stream.
+        else
+        {getFile().unregister(replacedStreamReference);} // Removes the exceeding stream from the file.
       }
-      else // Streams exist.
+      if(middleBuffer.getLength() == 0) // Empty edited region.
       {
-        // Eliminating exceeding streams...
-        /*
-          NOTE: Applications that consume or produce PDF files are not required to preserve
-          the existing structure of the Contents array [PDF:1.6:3.6.2].
-        */
-        while(streams.size() > 1)
-        {
-          getFile().unregister( // Removes the exceeding stream from the file.
-            (PdfReference)streams.remove(1) // Removes the exceeding stream from the content stream.
-            );
-        }
-        stream = (PdfStream)streams.resolve(0);
+        if(streamReference != null)
+        {getFile().unregister(streamReference);}
+        stream = null;
       }
+      else
+      {
+        if(streamReference == null)
+        {streamReference = getFile().register(new PdfStream());} // Inserts the new stream into the file.
+        streams.add(keptHeadStreamCount, streamReference); // Inserts the new stream into the content stream.
+        stream = (PdfStream)streamReference.getDataObject();
+      }
+    }
+    if(stream != null)
+    {
+      IBuffer buffer = stream.getBody();
+      buffer.setLength(0);
+      buffer.append(middleBuffer);
     }
 
-    // Get the stream buffer!
-    IBuffer buffer = stream.getBody();
-    // Delete old contents from the stream buffer!
-    buffer.setLength(0);
-    // Serializing the new contents into the stream buffer...
-    Document context = getDocument();
-    for(ContentObject item : items)
-    {item.writeTo(buffer, context);}
+    map(itemEnds);
   }
 
   public IContentContext getContentContext(
@@ -584,12 +714,206 @@ public final class Contents
   // </public>
 
   // <private>
+  /**
+    Copies the given range of source bytes.
+  */
+  private void copySource(
+    IBuffer target,
+    long start,
+    long end
+    )
+  {
+    long streamStart = 0;
+    for(int index = 0, count = sourceStreamEnds.length; index < count && start < end; index++)
+    {
+      long streamEnd = sourceStreamEnds[index];
+      if(start < streamEnd)
+      {
+        long copyEnd = Math.min(end, streamEnd);
+        target.append(
+          getSourceStream(index).getBody().getByteArray(
+            (int)(start - streamStart),
+            (int)(copyEnd - start)
+            )
+          );
+        start = copyEnd;
+      }
+      streamStart = streamEnd;
+    }
+  }
+
+  /**
+    Gets the position of the given source content object within the content stream.
+  */
+  private long getSourceItemStart(
+    int index
+    )
+  {return index > 0 ? sourceItemEnds[index - 1] : 0;}
+
+  private PdfStream getSourceStream(
+    int index
+    )
+  {
+    PdfDataObject baseDataObject = getBaseDataObject();
+    return (PdfStream)(baseDataObject instanceof PdfStream
+      ? baseDataObject
+      : ((PdfArray)baseDataObject).resolve(index));
+  }
+
+  /**
+    Gets the position of the given source stream within the content stream.
+  */
+  private long getSourceStreamStart(
+    int index
+    )
+  {return index > 0 ? sourceStreamEnds[index - 1] : 0;}
+
+  /**
+    Gets whether the given content object corresponds to the given source content object as it
+    was loaded.
+  */
+  private boolean isUntouched(
+    ContentObject item,
+    int sourceIndex
+    )
+  {
+    if(item != sourceItems[sourceIndex])
+      return false;
+
+    List<Object> snapshot = new ArrayList<Object>();
+    takeSnapshot(item, snapshot);
+    int snapshotStart = sourceSnapshotStarts[sourceIndex];
+    int snapshotLength = sourceSnapshotStarts[sourceIndex + 1] - snapshotStart;
+    if(snapshot.size() != snapshotLength)
+      return false;
+
+    for(int index = 0; index < snapshotLength; index++)
+    {
+      if(snapshot.get(index) != sourceSnapshots[snapshotStart + index])
+        return false;
+    }
+    return true;
+  }
+
   private void load(
     )
   {
     @SuppressWarnings("resource")
     ContentParser parser = new ContentParser(new ContentStream(getBaseDataObject()));
-    items = parser.parseContentObjects();
+    items = new ArrayList<ContentObject>();
+    long[] itemEnds = new long[64];
+    while(parser.moveNext())
+    {
+      ContentObject item = parser.parseContentObject();
+      /*
+        NOTE: Unbalanced closing operations end the parsing as in ContentParser.parseContentObjects().
+      */
+      if(item instanceof EndText
+        || item instanceof RestoreGraphicsState
+        || item instanceof EndMarkedContent
+        || item instanceof EndInlineImage)
+        break;
+
+      if(items.size() == itemEnds.length)
+      {itemEnds = Arrays.copyOf(itemEnds, itemEnds.length * 2);}
+      itemEnds[items.size()] = parser.getPosition();
+      items.add(item);
+    }
+    map(itemEnds);
+  }
+
+  /**
+    Maps the current content objects to their source bytes.
+
+    @param itemEnds Positions of the end of each content object within the content stream.
+  */
+  private void map(
+    long[] itemEnds
+    )
+  {
+    int itemCount = items.size();
+    sourceItems = items.toArray(new ContentObject[itemCount]);
+    sourceItemEnds = (itemEnds.length == itemCount ? itemEnds : Arrays.copyOf(itemEnds, itemCount));
+
+    List<Object> snapshots = new ArrayList<Object>();
+    sourceSnapshotStarts = new int[itemCount + 1];
+    for(int index = 0; index < itemCount; index++)
+    {
+      sourceSnapshotStarts[index] = snapshots.size();
+      takeSnapshot(sourceItems[index], snapshots);
+    }
+    sourceSnapshotStarts[itemCount] = snapshots.size();
+    sourceSnapshots = snapshots.toArray();
+
+    PdfDataObject baseDataObject = getBaseDataObject();
+    if(baseDataObject instanceof PdfStream) // Single stream.
+    {sourceStreamEnds = new long[]{((PdfStream)baseDataObject).getBody().getLength()};}
+    else // Array of streams.
+    {
+      PdfArray streams = (PdfArray)baseDataObject;
+      sourceStreamEnds = new long[streams.size()];
+      long streamEnd = 0;
+      for(int index = 0, count = streams.size(); index < count; index++)
+      {sourceStreamEnds[index] = (streamEnd += ((PdfStream)streams.resolve(index)).getBody().getLength());}
+    }
+  }
+
+  /**
+    Collects the references to the objects the given content object is made of.
+    <p>As PDF simple objects are immutable, any edit to a content object (whether through
+    {@link ContentScanner} or its own setters) shows up as a change of these references.</p>
+  */
+  private static void takeSnapshot(
+    ContentObject item,
+    List<Object> snapshot
+    )
+  {
+    snapshot.add(item);
+    if(item instanceof CompositeObject)
+    {
+      CompositeObject compositeItem = (CompositeObject)item;
+      snapshot.add(compositeItem.getHeader());
+      List<ContentObject> children = compositeItem.getObjects();
+      snapshot.add(children);
+      for(ContentObject child : children)
+      {takeSnapshot(child, snapshot);}
+      snapshot.add(SnapshotEnd);
+    }
+    else if(item instanceof Operation)
+    {
+      List<PdfDirectObject> operands = ((Operation)item).getOperands();
+      snapshot.add(operands);
+      if(operands != null)
+      {
+        for(PdfDirectObject operand : operands)
+        {takeSnapshot(operand, snapshot);}
+      }
+      if(item instanceof InlineImageBody)
+      {snapshot.add(((InlineImageBody)item).getValue());}
+    }
+  }
+
+  private static void takeSnapshot(
+    PdfDirectObject object,
+    List<Object> snapshot
+    )
+  {
+    snapshot.add(object);
+    if(object instanceof PdfArray)
+    {
+      for(PdfDirectObject item : (PdfArray)object)
+      {takeSnapshot(item, snapshot);}
+      snapshot.add(SnapshotEnd);
+    }
+    else if(object instanceof PdfDictionary)
+    {
+      for(Map.Entry<PdfName,PdfDirectObject> entry : ((PdfDictionary)object).entrySet())
+      {
+        snapshot.add(entry.getKey());
+        takeSnapshot(entry.getValue(), snapshot);
+      }
+      snapshot.add(SnapshotEnd);
+    }
   }
   // </private>
   // </interface>
@@ -0,0 +1,91 @@
+/*
+  Copyright 2026 Stefano Chizzolini. http://www.pdfclown.org
+
+  Contributors:
+    * Stefano Chizzolini (original code developer, http://www.stefanochizzolini.it)
+
+  This file should be part of the source code distribution of "PDF Clown library"
+  (the Program): see the accompanying README files for more info.
+
+  This Program is free software; you can redistribute it and/or modify it under the terms
+  of the GNU Lesser General Public License as published by the Free Software Foundation;
+  either version 3 of the License, or (at your option) any later version.
+
+  This Program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  either expressed or implied; without even the implied warranty of MERCHANTABILITY or
+  FITNESS FOR A PARTICULAR PURPOSE. See the License for more details.
+
+  You should have received a copy of the GNU Lesser General Public License along with this
+  Program (see README files); if not, go to the GNU website (http://www.gnu.org/licenses/).
+
+  Redistribution and use, with or without modification, are permitted provided that such
+  redistributions retain the above copyright notice, license and disclaimer, along with
+  this list of conditions.
+*/
+
+package org.pdfclown.documents.contents;
+
+/**
+  Rendering quality profile.
+
+  @author Stefano Chizzolini (http://www.stefanochizzolini.it)
+  @since 0.1.2
+  @version 0.1.2, 10/18/26
+*/
+public enum RenderQualityEnum
+{
+  // <class>
+  // <static>
+  // <fields>
+  /**
+    Full fidelity.
+  */
+  High(0, 0),
+  /**
+    Reduced fidelity, suitable for thumbnails and previews.
+    <p>Objects smaller than a device pixel are skipped, curves deviating from their chord less
+    than a quarter of device pixel are drawn as straight lines and speed is favored over quality by
+    the rendering context.</p>
+  */
+  Low(1, .25);
+  // </fields>
+  // </static>
+
+  // <dynamic>
+  // <fields>
+  private final double flatness;
+  private final double minObjectSize;
+  // </fields>
+
+  // <constructors>
+  private RenderQualityEnum(
+    double minObjectSize,
+    double flatness
+    )
+  {
+    this.minObjectSize = minObjectSize;
+    this.flatness = flatness;
+  }
+  // </constructors>
+
+  // <interface>
+  // <public>
+  /**
+    Gets the maximum distance (in device space) between a curve's control points and its chord
+    below which the curve is drawn as a straight line.
+  */
+  public double getFlatness(
+    )
+  {return flatness;}
+
+  /**
+    Gets the size (in device space) below which objects are skipped.
+  */
+  public double getMinObjectSize(
+    )
+  {return minObjectSize;}
+  // </public>
+  // </interface>
+  // </dynamic>
+  // </class>
+}
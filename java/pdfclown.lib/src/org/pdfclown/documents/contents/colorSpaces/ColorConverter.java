@@ -0,0 +1,279 @@
+/*
+  Copyright 2026 Stefano Chizzolini. http://www.pdfclown.org
+
+  Contributors:
+    * Stefano Chizzolini (original code developer, http://www.stefanochizzolini.it)
+
+  This file should be part of the source code distribution of "PDF Clown library"
+  (the Program): see the accompanying README files for more info.
+
+  This Program is free software; you can redistribute it and/or modify it under the terms
+  of the GNU Lesser General Public License as published by the Free Software Foundation;
+  either version 3 of the License, or (at your option) any later version.
+
+  This Program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  either expressed or implied; without even the implied warranty of MERCHANTABILITY or
+  FITNESS FOR A PARTICULAR PURPOSE. See the License for more details.
+
+  You should have received a copy of the GNU Lesser General Public License along with this
+  Program (see README files); if not, go to the GNU website (http://www.gnu.org/licenses/).
+
+  Redistribution and use, with or without modification, are permitted provided that such
+  redistributions retain the above copyright notice, license and disclaimer, along with
+  this list of conditions.
+*/
+
+package org.pdfclown.documents.contents.colorSpaces;
+
+import java.util.List;
+
+import org.pdfclown.objects.PdfDirectObject;
+import org.pdfclown.objects.PdfNumber;
+
+/**
+  Color converter to sRGB.
+  <p>Costly conversions (such as ICC profile transformations) are sampled once over a regular
+  grid of the component space into a lookup table, whose nodes are then multilinearly
+  interpolated. Converted colors are memoized (component values are quantized to 16 bits), so
+  that repeated colors cost just a table probe.</p>
+  <p>This converter is thread-safe.</p>
+
+  @author Stefano Chizzolini (http://www.stefanochizzolini.it)
+  @since 0.1.2
+  @version 0.1.2, 10/18/26
+*/
+abstract class ColorConverter
+{
+  // <class>
+  // <classes>
+  private static final class Entry
+  {
+    final long key;
+    final java.awt.Color paint;
+
+    Entry(
+      long key,
+      java.awt.Color paint
+      )
+    {
+      this.key = key;
+      this.paint = paint;
+    }
+  }
+  // </classes>
+
+  // <static>
+  // <fields>
+  private static final int CacheBits = 12;
+  /**
+    Lookup table grid sizes by component count.
+  */
+  private static final int[] GridSizes = {0, 256, 64, 33, 17};
+  // </fields>
+
+  // <interface>
+  // <protected>
+  /**
+    Encodes the given linear sRGB component value [0-1].
+  */
+  protected static double toGammaRGB(
+    double value
+    )
+  {
+    return value <= .0031308
+      ? 12.92 * value
+      : 1.055 * Math.pow(value, 1 / 2.4) - .055;
+  }
+  // </protected>
+  // </interface>
+  // </static>
+
+  // <dynamic>
+  // <fields>
+  private final Entry[] cache = new Entry[1 << CacheBits];
+  private final int componentCount;
+  private final int gridSize;
+  private final double[] highs;
+  private final double[] lows;
+
+  private volatile float[] table;
+  // </fields>
+
+  // <constructors>
+  /**
+    @param lows Lowest component values.
+    @param highs Highest component values.
+    @param tabulated Whether the conversion has to be tabulated (that's worth it in case of
+      costly conversions only).
+  */
+  protected ColorConverter(
+    double[] lows,
+    double[] highs,
+    boolean tabulated
+    )
+  {
+    this.componentCount = lows.length;
+    if(componentCount < 1 || componentCount > 4)
+      throw new IllegalArgumentException("Unsupported component count: " + componentCount);
+
+    this.lows = lows;
+    this.highs = highs;
+    this.gridSize = (tabulated ? GridSizes[componentCount] : 0);
+  }
+  // </constructors>
+
+  // <interface>
+  // <public>
+  /**
+    Gets the sRGB paint corresponding to the given color components.
+  */
+  public java.awt.Color getPaint(
+    List<PdfDirectObject> components
+    )
+  {
+    double[] values = new double[componentCount];
+    long key = 0;
+    for(int index = 0; index < componentCount; index++)
+    {
+      double value = (index < components.size()
+        ? ((PdfNumber<?>)components.get(index)).getDoubleValue()
+        : lows[index]);
+      double low = lows[index], high = highs[index];
+      if(value < low)
+      {value = low;}
+      else if(value > high)
+      {value = high;}
+      values[index] = value;
+      key = (key << 16) | (high > low ? Math.round((value - low) / (high - low) * 0xFFFF) : 0);
+    }
+
+    int cacheIndex = (int)((key * 0x9E3779B97F4A7C15L) >>> (64 - CacheBits));
+    Entry entry = cache[cacheIndex];
+    if(entry == null || entry.key != key)
+    {
+      float[] rgb = new float[3];
+      if(gridSize > 0)
+      {interpolate(values, rgb);}
+      else
+      {toRGB(values, rgb);}
+      cache[cacheIndex] = entry = new Entry(key, new java.awt.Color(clamp(rgb[0]), clamp(rgb[1]), clamp(rgb[2])));
+    }
+    return entry.paint;
+  }
+  // </public>
+
+  // <protected>
+  /**
+    Converts the given color components to sRGB.
+
+    @param components Color components (within their ranges).
+    @param rgb sRGB components [0-1].
+  */
+  protected abstract void toRGB(
+    double[] components,
+    float[] rgb
+    );
+  // </protected>
+
+  // <private>
+  private static float clamp(
+    float value
+    )
+  {return value < 0 ? 0 : (value > 1 ? 1 : value);}
+
+  private float[] getTable(
+    )
+  {
+    float[] table = this.table;
+    if(table == null)
+    {
+      synchronized(this)
+      {
+        table = this.table;
+        if(table == null)
+        {
+          int nodeCount = 1;
+          for(int index = 0; index < componentCount; index++)
+          {nodeCount *= gridSize;}
+
+          table = new float[nodeCount * 3];
+          double[] components = new double[componentCount];
+          float[] rgb = new float[3];
+          for(int nodeIndex = 0; nodeIndex < nodeCount; nodeIndex++)
+          {
+            // Node components (first component varying slowest).
+            for(int index = componentCount - 1, nodeOffset = nodeIndex; index >= 0; index--)
+            {
+              components[index] = lows[index]
+                + (highs[index] - lows[index]) * (nodeOffset % gridSize) / (gridSize - 1);
+              nodeOffset /= gridSize;
+            }
+            toRGB(components, rgb);
+            System.arraycopy(rgb, 0, table, nodeIndex * 3, 3);
+          }
+          this.table = table;
+        }
+      }
+    }
+    return table;
+  }
+
+  /**
+    Interpolates the lookup table at the given color components.
+  */
+  private void interpolate(
+    double[] components,
+    float[] rgb
+    )
+  {
+    float[] table = getTable();
+
+    int[] bases = new int[componentCount];
+    double[] fractions = new double[componentCount];
+    int[] strides = new int[componentCount];
+    for(int index = componentCount - 1, stride = 1; index >= 0; index--)
+    {
+      double low = lows[index], high = highs[index];
+      double position = (high > low ? (components[index] - low) / (high - low) * (gridSize - 1) : 0);
+      int base = Math.min((int)position, gridSize - 2);
+      bases[index] = base;
+      fractions[index] = position - base;
+      strides[index] = stride;
+      stride *= gridSize;
+    }
+
+    double r = 0, g = 0, b = 0;
+    for(int corner = 0, cornerCount = 1 << componentCount; corner < cornerCount; corner++)
+    {
+      double weight = 1;
+      int nodeIndex = 0;
+      for(int index = 0; index < componentCount; index++)
+      {
+        if((corner & (1 << index)) != 0)
+        {
+          weight *= fractions[index];
+          nodeIndex += (bases[index] + 1) * strides[index];
+        }
+        else
+        {
+          weight *= 1 - fractions[index];
+          nodeIndex += bases[index] * strides[index];
+        }
+      }
+      if(weight == 0)
+        continue;
+
+      nodeIndex *= 3;
+      r += weight * table[nodeIndex];
+      g += weight * table[nodeIndex + 1];
+      b += weight * table[nodeIndex + 2];
+    }
+    rgb[0] = (float)r;
+    rgb[1] = (float)g;
+    rgb[2] = (float)b;
+  }
+  // </private>
+  // </interface>
+  // </dynamic>
+  // </class>
+}
@@ -40,7 +40,7 @@ import org.pdfclown.util.NotImplementedException;
   Device Cyan-Magenta-Yellow-Key color space [PDF:1.6:4.5.3].
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
-  @version 0.1.1, 11/01/11
+  @version 0.1.2, 10/18/26
 */
 @PDF(VersionEnum.PDF11)
 public final class DeviceCMYKColorSpace
@@ -54,6 +54,26 @@ public final class DeviceCMYKColorSpace
     of the contextual resource dictionary) [PDF:1.6:4.5.7].
   */
   public static final DeviceCMYKColorSpace Default = new DeviceCMYKColorSpace(PdfName.DeviceCMYK);
+
+  private static final ColorConverter converter = new ColorConverter(
+    new double[]{0, 0, 0, 0},
+    new double[]{1, 1, 1, 1},
+    false
+    )
+    {
+      @Override
+      protected void toRGB(
+        double[] components,
+        float[] rgb
+        )
+      {
+        // Conversion from DeviceCMYK to DeviceRGB [PDF:1.6:6.2.4].
+        double k = components[3];
+        rgb[0] = (float)(1 - Math.min(1, components[0] + k));
+        rgb[1] = (float)(1 - Math.min(1, components[1] + k));
+        rgb[2] = (float)(1 - Math.min(1, components[2] + k));
+      }
+    };
   // </fields>
   // </static>
 
@@ -99,18 +119,7 @@ public final class DeviceCMYKColorSpace
   public Paint getPaint(
     Color<?> color
     )
-  {
-    DeviceCMYKColor spaceColor = (DeviceCMYKColor)color;
-    /*
-      NOTE: This convertion algorithm was from Apache FOP.
-    */
-    //FIXME: verify whether this algorithm is effective (limit checking seems quite ugly to me!).
-    float keyCorrection = (float)spaceColor.getK() / 2.5f;
-    float r = 1 - (float)spaceColor.getC() + keyCorrection; if(r > 1){r=1;} else if(r < 0){r=0;}
-    float g = 1 - (float)spaceColor.getM() + keyCorrection; if(g > 1){g=1;} else if(g < 0){g=0;}
-    float b = 1 - (float)spaceColor.getY() + keyCorrection; if(b > 1){b=1;} else if(b < 0){b=0;}
-    return new java.awt.Color(r, g, b);
-  }
+  {return converter.getPaint(color.getComponents());}
   // </public>
   // </interface>
   // </dynamic>
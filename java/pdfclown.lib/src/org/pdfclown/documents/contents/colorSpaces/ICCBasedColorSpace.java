@@ -26,6 +26,11 @@
 package org.pdfclown.documents.contents.colorSpaces;
 
 import java.awt.Paint;
+import java.awt.color.CMMException;
+import java.awt.color.ICC_ColorSpace;
+import java.awt.color.ICC_Profile;
+import java.awt.color.ProfileDataException;
+import java.util.Hashtable;
 import java.util.List;
 
 import org.pdfclown.PDF;
@@ -34,6 +39,10 @@ import org.pdfclown.documents.Document;
 import org.pdfclown.documents.contents.IContentContext;
 import org.pdfclown.objects.PdfArray;
 import org.pdfclown.objects.PdfDirectObject;
+import org.pdfclown.objects.PdfInteger;
+import org.pdfclown.objects.PdfName;
+import org.pdfclown.objects.PdfNumber;
+import org.pdfclown.objects.PdfReference;
 import org.pdfclown.objects.PdfStream;
 import org.pdfclown.util.NotImplementedException;
 
@@ -41,7 +50,7 @@ import org.pdfclown.util.NotImplementedException;
   ICC-based color space [PDF:1.6:4.5.4].
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
-  @version 0.1.1, 04/10/11
+  @version 0.1.2, 10/18/26
 */
 // TODO:IMPL improve profile support (see ICC.1:2003-09 spec)!!!
 @PDF(VersionEnum.PDF13)
@@ -49,7 +58,81 @@ public final class ICCBasedColorSpace
   extends ColorSpace<PdfArray>
 {
   // <class>
+  // <static>
+  // <interface>
+  // <private>
+  /**
+    Creates the converter corresponding to the given ICC profile.
+
+    @return <code>null</code>, if the profile is invalid.
+  */
+  private static ColorConverter createConverter(
+    PdfStream profileStream,
+    int componentCount
+    )
+  {
+    final ICC_ColorSpace colorSpace;
+    try
+    {
+      colorSpace = new ICC_ColorSpace(
+        ICC_Profile.getInstance(profileStream.getBody().toByteArray())
+        );
+      if(colorSpace.getNumComponents() != componentCount)
+        return null;
+
+      /*
+        NOTE: The color management module lazily builds its transforms, so a malformed profile may
+        pass construction and fail only on its first conversion.
+      */
+      colorSpace.toRGB(new float[componentCount]);
+    }
+    catch(IllegalArgumentException e)
+    {return null;}
+    catch(CMMException e)
+    {return null;}
+    catch(ProfileDataException e)
+    {return null;}
+
+    double[] lows = new double[componentCount];
+    double[] highs = new double[componentCount];
+    PdfArray rangeObject = (PdfArray)profileStream.getHeader().resolve(PdfName.Range);
+    for(int index = 0; index < componentCount; index++)
+    {
+      if(rangeObject != null)
+      {
+        lows[index] = ((PdfNumber<?>)rangeObject.get(index * 2)).getDoubleValue();
+        highs[index] = ((PdfNumber<?>)rangeObject.get(index * 2 + 1)).getDoubleValue();
+      }
+      else
+      {
+        lows[index] = colorSpace.getMinValue(index);
+        highs[index] = colorSpace.getMaxValue(index);
+      }
+    }
+    return new ColorConverter(lows, highs, true)
+      {
+        @Override
+        protected void toRGB(
+          double[] components,
+          float[] rgb
+          )
+        {
+          float[] values = new float[components.length];
+          for(int index = 0; index < values.length; index++)
+          {values[index] = (float)components[index];}
+          System.arraycopy(colorSpace.toRGB(values), 0, rgb, 0, 3);
+        }
+      };
+  }
+  // </private>
+  // </interface>
+  // </static>
+
   // <dynamic>
+  // <fields>
+  private ColorConverter converter;
+  // </fields>
+
   // <constructors>
   //TODO:IMPL new element constructor!
 
@@ -73,35 +156,100 @@ public final class ICCBasedColorSpace
     IContentContext context
     )
   {
-    return new DeviceRGBColor(components); // FIXME:temporary hack...
+    switch(getComponentCount())
+    {
+      case 1:
+        return new DeviceGrayColor(components);
+      case 4:
+        return new DeviceCMYKColor(components);
+      default:
+        return new DeviceRGBColor(components);
+    }
   }
 
   @Override
-  public int getComponentCount()
+  public int getComponentCount(
+    )
   {
-    // FIXME: Auto-generated method stub
-    return 0;
+    PdfInteger componentCountObject = (PdfInteger)getProfile().getHeader().resolve(PdfName.N);
+    return componentCountObject != null ? componentCountObject.getRawValue() : 3;
   }
 
   @Override
   public Color<?> getDefaultColor(
     )
-  {return DeviceGrayColor.Default;} // FIXME:temporary hack...
+  {
+    switch(getComponentCount())
+    {
+      case 1:
+        return DeviceGrayColor.Default;
+      case 4:
+        return DeviceCMYKColor.Default;
+      default:
+        return DeviceRGBColor.Default;
+    }
+  }
 
   @Override
   public Paint getPaint(
     Color<?> color
     )
   {
-    // FIXME: temporary hack
-    return new java.awt.Color(0,0,0);
+    ColorConverter converter = getConverter();
+    if(converter != null)
+      return converter.getPaint(color.getComponents());
+
+    // Fallback to the device color space corresponding to the profile.
+    switch(getComponentCount())
+    {
+      case 1:
+        return DeviceGrayColorSpace.Default.getPaint(new DeviceGrayColor(color.getComponents()));
+      case 4:
+        return DeviceCMYKColorSpace.Default.getPaint(new DeviceCMYKColor(color.getComponents()));
+      default:
+        return DeviceRGBColorSpace.Default.getPaint(new DeviceRGBColor(color.getComponents()));
+    }
   }
 
   public PdfStream getProfile(
     )
   {return (PdfStream)getBaseDataObject().resolve(1);}
   // </public>
+
+  // <private>
+  /**
+    Gets the converter of this color space.
+    <p>As profile parsing and tabulation are costly, converters are shared document-wide by
+    profile.</p>
+
+    @return <code>null</code>, if the profile is invalid.
+  */
+  private ColorConverter getConverter(
+    )
+  {
+    if(converter == null)
+    {
+      PdfDirectObject profileObject = getBaseDataObject().get(1);
+      Hashtable<PdfReference,Object> cache = (profileObject instanceof PdfReference
+        ? ((PdfReference)profileObject).getIndirectObject().getFile().getDocument().cache
+        : null);
+      Object cachedConverter = (cache != null ? cache.get(profileObject) : null);
+      if(cachedConverter instanceof ColorConverter)
+      {converter = (ColorConverter)cachedConverter;}
+      else if(cachedConverter == null)
+      {
+        converter = createConverter((PdfStream)profileObject.resolve(), getComponentCount());
+        if(cache != null)
+        {
+          // NOTE: Invalid profiles are cached too, to avoid parsing them over and over.
+          cache.put((PdfReference)profileObject, converter != null ? converter : Boolean.FALSE);
+        }
+      }
+    }
+    return converter;
+  }
+  // </private>
   // </interface>
   // </dynamic>
   // </class>
-}
\ No newline at end of file
+}
@@ -36,8 +36,10 @@ import org.pdfclown.VersionEnum;
 import org.pdfclown.documents.Document;
 import org.pdfclown.documents.contents.IContentContext;
 import org.pdfclown.objects.PdfArray;
+import org.pdfclown.objects.PdfDataObject;
 import org.pdfclown.objects.PdfDirectObject;
 import org.pdfclown.objects.PdfReal;
+import org.pdfclown.objects.PdfStream;
 import org.pdfclown.util.IDataWrapper;
 import org.pdfclown.util.NotImplementedException;
 
@@ -45,7 +47,7 @@ import org.pdfclown.util.NotImplementedException;
   Indexed color space [PDF:1.6:4.5.5].
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
-  @version 0.1.2, 02/04/12
+  @version 0.1.2, 10/18/26
 */
 @PDF(VersionEnum.PDF11)
 public final class IndexedColorSpace
@@ -92,8 +94,12 @@ public final class IndexedColorSpace
       List<PdfDirectObject> components = new ArrayList<PdfDirectObject>();
       {
         int componentCount = baseSpace.getComponentCount();
-        int componentValueIndex = colorIndex * componentCount;
         byte[] baseComponentValues = getBaseComponentValues();
+        // NOTE: Out-of-range indexes are clipped [PDF:1.6:4.5.5].
+        int componentValueIndex = Math.max(
+          Math.min(colorIndex, baseComponentValues.length / componentCount - 1),
+          0
+          ) * componentCount;
         for(
           int componentIndex = 0;
           componentIndex < componentCount;
@@ -158,7 +164,13 @@ public final class IndexedColorSpace
     )
   {
     if(baseComponentValues == null)
-    {baseComponentValues = ((IDataWrapper)getBaseDataObject().resolve(3)).toByteArray();}
+    {
+      // NOTE: The color table is either a string or a stream.
+      PdfDataObject baseComponentValuesObject = getBaseDataObject().resolve(3);
+      baseComponentValues = (baseComponentValuesObject instanceof PdfStream
+        ? ((PdfStream)baseComponentValuesObject).getBody().toByteArray()
+        : ((IDataWrapper)baseComponentValuesObject).toByteArray());
+    }
     return baseComponentValues;
   }
   // </private>
@@ -27,6 +27,7 @@ package org.pdfclown.documents.contents.colorSpaces;
 
 import java.awt.Paint;
 import java.util.ArrayList;
+import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.List;
 
@@ -38,6 +39,7 @@ import org.pdfclown.objects.PdfArray;
 import org.pdfclown.objects.PdfDirectObject;
 import org.pdfclown.objects.PdfName;
 import org.pdfclown.objects.PdfNumber;
+import org.pdfclown.objects.PdfReference;
 import org.pdfclown.util.NotImplementedException;
 import org.pdfclown.util.math.Interval;
 
@@ -46,14 +48,65 @@ import org.pdfclown.util.math.Interval;
   components of a CIE 1976 L*a*b* space [PDF:1.6:4.5.4].
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
-  @version 0.1.1, 11/09/11
+  @version 0.1.2, 10/18/26
 */
 @PDF(VersionEnum.PDF11)
 public final class LabColorSpace
   extends CIEBasedColorSpace
 {
   // <class>
+  // <static>
+  // <interface>
+  // <private>
+  /**
+    Creates the converter corresponding to the given component ranges.
+  */
+  private static ColorConverter createConverter(
+    double[] lows,
+    double[] highs
+    )
+  {
+    return new ColorConverter(lows, highs, false)
+      {
+        @Override
+        protected void toRGB(
+          double[] components,
+          float[] rgb
+          )
+        {
+          /*
+            NOTE: L*a*b* is converted to CIE XYZ relative to the D65 white point (that is, the
+            white point of the color space is mapped to the sRGB one by XYZ scaling) and then to
+            sRGB.
+          */
+          double fy = (components[0] + 16) / 116;
+          double x = .95047 * inverseF(fy + components[1] / 500);
+          double y = inverseF(fy);
+          double z = 1.08883 * inverseF(fy - components[2] / 200);
+          rgb[0] = (float)toGammaRGB(3.2404542 * x - 1.5371385 * y - .4985314 * z);
+          rgb[1] = (float)toGammaRGB(-.9692660 * x + 1.8760108 * y + .0415560 * z);
+          rgb[2] = (float)toGammaRGB(.0556434 * x - .2040259 * y + 1.0572252 * z);
+        }
+
+        private double inverseF(
+          double value
+          )
+        {
+          return value > 6d / 29
+            ? value * value * value
+            : 3 * (6d / 29) * (6d / 29) * (value - 4d / 29);
+        }
+      };
+  }
+  // </private>
+  // </interface>
+  // </static>
+
   // <dynamic>
+  // <fields>
+  private ColorConverter converter;
+  // </fields>
+
   // <constructors>
   //TODO:IMPL new element constructor!
 
@@ -146,11 +199,44 @@ public final class LabColorSpace
   public Paint getPaint(
     Color<?> color
     )
+  {return getConverter().getPaint(color.getComponents());}
+  // </public>
+
+  // <private>
+  /**
+    Gets the converter of this color space.
+    <p>As converters memoize their conversions, they are shared document-wide by color space.</p>
+  */
+  private ColorConverter getConverter(
+    )
   {
-    // FIXME: temporary hack
-    return new java.awt.Color(0,0,0);
+    if(converter == null)
+    {
+      PdfDirectObject baseObject = getBaseObject();
+      Hashtable<PdfReference,Object> cache = (baseObject instanceof PdfReference
+        ? ((PdfReference)baseObject).getIndirectObject().getFile().getDocument().cache
+        : null);
+      Object cachedConverter = (cache != null ? cache.get(baseObject) : null);
+      if(cachedConverter instanceof ColorConverter)
+      {converter = (ColorConverter)cachedConverter;}
+      else
+      {
+        List<Interval<Double>> ranges = getRanges();
+        double[] lows = new double[3], highs = new double[3];
+        for(int index = 0; index < 3; index++)
+        {
+          Interval<Double> range = ranges.get(index);
+          lows[index] = range.getLow();
+          highs[index] = range.getHigh();
+        }
+        converter = createConverter(lows, highs);
+        if(cache != null)
+        {cache.put((PdfReference)baseObject, converter);}
+      }
+    }
+    return converter;
   }
-  // </public>
+  // </private>
   // </interface>
   // </dynamic>
   // </class>
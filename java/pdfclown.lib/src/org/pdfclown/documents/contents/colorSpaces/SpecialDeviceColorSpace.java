@@ -26,6 +26,7 @@
 package org.pdfclown.documents.contents.colorSpaces;
 
 import java.awt.Paint;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.pdfclown.PDF;
@@ -34,12 +35,14 @@ import org.pdfclown.documents.functions.Function;
 import org.pdfclown.objects.PdfArray;
 import org.pdfclown.objects.PdfDirectObject;
 import org.pdfclown.objects.PdfName;
+import org.pdfclown.objects.PdfNumber;
+import org.pdfclown.objects.PdfReal;
 
 /**
   Special device color space [PDF:1.6:4.5.5].
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
-  @version 0.1.1, 11/14/11
+  @version 0.1.2, 10/18/26
 */
 @PDF(VersionEnum.PDF12)
 public abstract class SpecialDeviceColorSpace
@@ -88,19 +91,28 @@ public abstract class SpecialDeviceColorSpace
     Color<?> color
     )
   {
-    //TODO:enable!!!
-//    List<PdfDirectObject> alternateColorComponents = getTintFunction().calculate(color.getComponents());
-//    ColorSpace<?> alternateSpace = getAlternateSpace();
-//
-//    return alternateSpace.getPaint(
-//      alternateSpace.getColor(
-//        alternateColorComponents,
-//        null
-//        )
-//      );
-
-    //TODO: remove (temporary hack)!
-    return new java.awt.Color(0,0,0);
+    List<PdfDirectObject> components = color.getComponents();
+    double[] tints = new double[components.size()];
+    for(int index = 0; index < tints.length; index++)
+    {tints[index] = ((PdfNumber<?>)components.get(index)).getDoubleValue();}
+
+    // NOTE: Tint transforms are evaluated massively, so they are approximated.
+    Function<?> tintFunction = getTintFunction();
+    ColorSpace<?> alternateSpace = getAlternateSpace();
+    double[] alternateComponents = new double[
+      Math.max(alternateSpace.getComponentCount(), tintFunction.getOutputCount())
+      ];
+    tintFunction.approximate(tints, alternateComponents);
+
+    List<PdfDirectObject> alternateComponentObjects = new ArrayList<PdfDirectObject>(alternateComponents.length);
+    for(double alternateComponent : alternateComponents)
+    {alternateComponentObjects.add(PdfReal.get(alternateComponent));}
+    return alternateSpace.getPaint(
+      alternateSpace.getColor(
+        alternateComponentObjects,
+        null
+        )
+      );
   }
 
   /**
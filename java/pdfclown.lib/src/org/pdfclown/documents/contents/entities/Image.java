@@ -35,7 +35,7 @@ import org.pdfclown.bytes.IInputStream;
   Abstract image object [PDF:1.6:4.8].
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
-  @version 0.1.1, 04/25/11
+  @version 0.1.2, 10/18/26
 */
 public abstract class Image
   extends Entity
@@ -82,6 +82,13 @@ public abstract class Image
       if(formatMarkerBytes[0] == (byte)0xFF
         && formatMarkerBytes[1] == (byte)0xD8) // JPEG.
       {return new JpegImage(stream);}
+      // Is PNG?
+      /*
+        NOTE: PNG files are identified by an 8-byte signature, starting with 0x89 'P' [ISO 15948:5.2].
+      */
+      else if(formatMarkerBytes[0] == (byte)0x89
+        && formatMarkerBytes[1] == (byte)0x50) // PNG.
+      {return new PngImage(stream);}
       else // Unknown.
       {return null;}
     }
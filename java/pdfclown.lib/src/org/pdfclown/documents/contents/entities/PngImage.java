@@ -0,0 +1,615 @@
+/*
+  Copyright 2026 Stefano Chizzolini. http://www.pdfclown.org
+
+  Contributors:
+    * Stefano Chizzolini (original code developer, http://www.stefanochizzolini.it)
+
+  This file should be part of the source code distribution of "PDF Clown library"
+  (the Program): see the accompanying README files for more info.
+
+  This Program is free software; you can redistribute it and/or modify it under the terms
+  of the GNU Lesser General Public License as published by the Free Software Foundation;
+  either version 3 of the License, or (at your option) any later version.
+
+  This Program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  either expressed or implied; without even the implied warranty of MERCHANTABILITY or
+  FITNESS FOR A PARTICULAR PURPOSE. See the License for more details.
+
+  You should have received a copy of the GNU Lesser General Public License along with this
+  Program (see README files); if not, go to the GNU website (http://www.gnu.org/licenses/).
+
+  Redistribution and use, with or without modification, are permitted provided that such
+  redistributions retain the above copyright notice, license and disclaimer, along with
+  this list of conditions.
+*/
+
+package org.pdfclown.documents.contents.entities;
+
+import java.awt.image.Raster;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.pdfclown.bytes.Buffer;
+import org.pdfclown.bytes.IInputStream;
+import org.pdfclown.bytes.filters.Filter;
+import org.pdfclown.documents.Document;
+import org.pdfclown.documents.contents.composition.PrimitiveComposer;
+import org.pdfclown.documents.contents.objects.ContentObject;
+import org.pdfclown.documents.contents.objects.InlineImage;
+import org.pdfclown.documents.contents.objects.InlineImageBody;
+import org.pdfclown.documents.contents.objects.InlineImageHeader;
+import org.pdfclown.documents.contents.xObjects.ImageXObject;
+import org.pdfclown.documents.contents.xObjects.XObject;
+import org.pdfclown.objects.PdfArray;
+import org.pdfclown.objects.PdfDictionary;
+import org.pdfclown.objects.PdfDirectObject;
+import org.pdfclown.objects.PdfInteger;
+import org.pdfclown.objects.PdfName;
+import org.pdfclown.objects.PdfStream;
+import org.pdfclown.objects.PdfString;
+import org.pdfclown.objects.PdfString.SerializationModeEnum;
+
+/**
+  PNG image object [ISO 15948].
+  <p>As PNG image data is a zlib stream of predicted rows, which is exactly what the
+  <code>FlateDecode</code> filter understands through its predictor parameters, non-interlaced
+  images are embedded copying their data as-is, without any decoding or re-encoding; alpha
+  channels are split into a soft mask, and only the affected samples are transcoded (keeping PNG
+  prediction). Interlaced images are transcoded as a whole.</p>
+
+  @author Stefano Chizzolini (http://www.stefanochizzolini.it)
+  @since 0.1.2
+  @version 0.1.2, 10/18/26
+*/
+public final class PngImage
+  extends Image
+{
+  // <class>
+  // <static>
+  // <fields>
+  private static final int GrayscaleColorType = 0;
+  private static final int TrueColorColorType = 2;
+  private static final int IndexedColorColorType = 3;
+  private static final int GrayscaleAlphaColorType = 4;
+  private static final int TrueColorAlphaColorType = 6;
+
+  private static final int ImageDataChunkType = 0x49444154; // IDAT.
+  private static final int ImageEndChunkType = 0x49454e44; // IEND.
+  private static final int ImageHeaderChunkType = 0x49484452; // IHDR.
+  private static final int PaletteChunkType = 0x504c5445; // PLTE.
+  private static final int TransparencyChunkType = 0x74524e53; // tRNS.
+
+  /**
+    PNG signature length.
+  */
+  private static final int SignatureLength = 8;
+  // </fields>
+  // </static>
+
+  // <dynamic>
+  // <fields>
+  private int colorType;
+  /**
+    Image data chunks (offset and length of each chunk data).
+  */
+  private final List<long[]> dataChunks = new ArrayList<long[]>();
+  private int dataLength;
+  private boolean interlaced;
+  private byte[] palette;
+  private byte[] transparency;
+  // </fields>
+
+  // <constructors>
+  PngImage(
+    IInputStream stream
+    )
+  {
+    super(stream);
+
+    load();
+  }
+  // </constructors>
+
+  // <interface>
+  // <public>
+  /**
+    Gets whether this image has an alpha channel.
+  */
+  public boolean hasAlphaChannel(
+    )
+  {return colorType == GrayscaleAlphaColorType || colorType == TrueColorAlphaColorType;}
+
+  /**
+    Gets whether this image is interlaced.
+  */
+  public boolean isInterlaced(
+    )
+  {return interlaced;}
+
+  /**
+    {@inheritDoc}
+    <p>As inline images can't have masks, transparency is discarded.</p>
+  */
+  @SuppressWarnings("unchecked")
+  @Override
+  public ContentObject toInlineObject(
+    PrimitiveComposer composer
+    )
+  {
+    boolean transcoded = isTranscoded();
+    List<PdfDirectObject> header = new ArrayList<PdfDirectObject>();
+    header.addAll(
+      (List<PdfDirectObject>)(List<? extends PdfDirectObject>)java.util.Arrays.asList(
+        PdfName.W, PdfInteger.get(getWidth()),
+        PdfName.H, PdfInteger.get(getHeight()),
+        PdfName.CS, getColorSpace(true),
+        PdfName.BPC, PdfInteger.get(getBitsPerComponent()),
+        PdfName.F, PdfName.Fl,
+        PdfName.DP, getDecodeParameters(transcoded ? getColorComponentCount() : getChannelCount(), getBitsPerComponent())
+        )
+      );
+    return composer.add(
+      new InlineImage(
+        new InlineImageHeader(header),
+        new InlineImageBody(
+          new Buffer(transcoded ? transcode(true, false)[0] : getData())
+          )
+        )
+      );
+  }
+
+  @Override
+  public XObject toXObject(
+    Document context
+    )
+  {
+    boolean transcoded = isTranscoded();
+    int[] transparentIndexRange = getTransparentIndexRange();
+    boolean alphaRequired = hasAlphaChannel()
+      || (colorType == IndexedColorColorType && transparency != null && transparentIndexRange == null);
+    byte[][] transcodedData = (transcoded || alphaRequired ? transcode(transcoded, alphaRequired) : null);
+
+    PdfDictionary header = new PdfDictionary();
+    header.put(PdfName.Width, PdfInteger.get(getWidth()));
+    header.put(PdfName.Height, PdfInteger.get(getHeight()));
+    header.put(PdfName.BitsPerComponent, PdfInteger.get(getBitsPerComponent()));
+    header.put(PdfName.ColorSpace, getColorSpace(false));
+    header.put(PdfName.Filter, PdfName.FlateDecode);
+    header.put(
+      PdfName.DecodeParms,
+      getDecodeParameters(transcoded ? getColorComponentCount() : getChannelCount(), getBitsPerComponent())
+      );
+
+    // Transparency.
+    if(transcodedData != null && transcodedData[1] != null)
+    {
+      PdfDictionary maskHeader = new PdfDictionary();
+      maskHeader.put(PdfName.Type, PdfName.XObject);
+      maskHeader.put(PdfName.Subtype, PdfName.Image);
+      maskHeader.put(PdfName.Width, PdfInteger.get(getWidth()));
+      maskHeader.put(PdfName.Height, PdfInteger.get(getHeight()));
+      maskHeader.put(PdfName.BitsPerComponent, PdfInteger.get(getAlphaBitsPerComponent()));
+      maskHeader.put(PdfName.ColorSpace, PdfName.DeviceGray);
+      maskHeader.put(PdfName.Filter, PdfName.FlateDecode);
+      maskHeader.put(PdfName.DecodeParms, getDecodeParameters(1, getAlphaBitsPerComponent()));
+      header.put(
+        PdfName.SMask,
+        context.getFile().register(new PdfStream(maskHeader, new Buffer(transcodedData[1])))
+        );
+    }
+    else if(transparentIndexRange != null)
+    {
+      header.put(
+        PdfName.Mask,
+        new PdfArray(PdfInteger.get(transparentIndexRange[0]), PdfInteger.get(transparentIndexRange[1]))
+        );
+    }
+    else if(transparency != null && !hasAlphaChannel() && colorType != IndexedColorColorType)
+    {
+      // Color key masking (one sample value per color component).
+      PdfArray mask = new PdfArray();
+      for(int index = 0, count = getColorComponentCount(); index < count; index++)
+      {
+        int sample = ((transparency[index * 2] & 0xff) << 8) | (transparency[index * 2 + 1] & 0xff);
+        mask.add(PdfInteger.get(sample));
+        mask.add(PdfInteger.get(sample));
+      }
+      header.put(PdfName.Mask, mask);
+    }
+
+    return new ImageXObject(
+      context,
+      new PdfStream(
+        header,
+        new Buffer(transcoded ? transcodedData[0] : getData())
+        )
+      );
+  }
+  // </public>
+
+  // <private>
+  private static void readFully(
+    InputStream stream,
+    byte[] data
+    ) throws IOException
+  {
+    for(int length = 0, readLength; length < data.length; length += readLength)
+    {
+      if((readLength = stream.read(data, length, data.length - length)) == -1)
+        throw new EOFException();
+    }
+  }
+
+  /**
+    Writes the given samples as a packed row.
+  */
+  private static void writeSamples(
+    OutputStream stream,
+    int[] samples,
+    int offset,
+    int count,
+    int bitsPerSample
+    ) throws IOException
+  {
+    int bits = 0, bitsCount = 0;
+    for(int index = 0; index < count; index++)
+    {
+      int sample = samples[offset + index];
+      if(bitsPerSample == 8)
+      {stream.write(sample);}
+      else if(bitsPerSample == 16)
+      {
+        stream.write(sample >> 8);
+        stream.write(sample);
+      }
+      else
+      {
+        bits = (bits << bitsPerSample) | sample;
+        if((bitsCount += bitsPerSample) == 8)
+        {
+          stream.write(bits);
+          bits = bitsCount = 0;
+        }
+      }
+    }
+    if(bitsCount > 0)
+    {stream.write(bits << (8 - bitsCount));}
+  }
+
+  /**
+    Gets the number of bits per alpha sample.
+  */
+  private int getAlphaBitsPerComponent(
+    )
+  {return colorType == IndexedColorColorType ? 8 : getBitsPerComponent();}
+
+  /**
+    Gets the number of samples per pixel in the PNG image data.
+  */
+  private int getChannelCount(
+    )
+  {return getColorComponentCount() + (hasAlphaChannel() ? 1 : 0);}
+
+  /**
+    Gets the number of color components per pixel.
+  */
+  private int getColorComponentCount(
+    )
+  {return colorType == TrueColorColorType || colorType == TrueColorAlphaColorType ? 3 : 1;}
+
+  private PdfDirectObject getColorSpace(
+    boolean inline
+    )
+  {
+    switch(colorType)
+    {
+      case IndexedColorColorType:
+        return new PdfArray(
+          inline ? PdfName.I : PdfName.Indexed,
+          inline ? PdfName.RGB : PdfName.DeviceRGB,
+          PdfInteger.get(palette.length / 3 - 1),
+          new PdfString(palette, SerializationModeEnum.Hex)
+          );
+      case TrueColorColorType:
+      case TrueColorAlphaColorType:
+        return inline ? PdfName.RGB : PdfName.DeviceRGB;
+      default:
+        return inline ? PdfName.G : PdfName.DeviceGray;
+    }
+  }
+
+  /**
+    Gets the concatenated image data chunks.
+  */
+  private byte[] getData(
+    )
+  {
+    IInputStream stream = getStream();
+    byte[] data = new byte[dataLength];
+    try
+    {
+      int offset = 0;
+      for(long[] dataChunk : dataChunks)
+      {
+        stream.seek(dataChunk[0]);
+        stream.read(data, offset, (int)dataChunk[1]);
+        offset += dataChunk[1];
+      }
+    }
+    catch(EOFException e)
+    {throw new RuntimeException(e);}
+    return data;
+  }
+
+  /**
+    Gets the filter parameters describing PNG-predicted image data.
+
+    @param colors Number of samples per pixel.
+    @param bitsPerComponent Number of bits per sample.
+  */
+  private PdfDictionary getDecodeParameters(
+    int colors,
+    int bitsPerComponent
+    )
+  {
+    return new PdfDictionary(
+      new PdfName[]
+      {
+        PdfName.Predictor,
+        PdfName.Colors,
+        PdfName.BitsPerComponent,
+        PdfName.Columns
+      },
+      new PdfDirectObject[]
+      {
+        PdfInteger.get(15), // PNG prediction (optimum).
+        PdfInteger.get(colors),
+        PdfInteger.get(bitsPerComponent),
+        PdfInteger.get(getWidth())
+      }
+      );
+  }
+
+  /**
+    Gets the range of the palette entries which are fully transparent, provided that they are
+    contiguous and all the other entries are fully opaque (that is, a color key mask is
+    enough).
+
+    @return <code>null</code>, if not applicable.
+  */
+  private int[] getTransparentIndexRange(
+    )
+  {
+    if(colorType != IndexedColorColorType || transparency == null)
+      return null;
+
+    int low = -1, high = -1;
+    for(int index = 0; index < transparency.length; index++)
+    {
+      int alpha = transparency[index] & 0xff;
+      if(alpha == 0)
+      {
+        if(low == -1)
+        {low = index;}
+        else if(high != index - 1)
+          return null;
+
+        high = index;
+      }
+      else if(alpha != 0xff)
+        return null;
+    }
+    return low != -1 ? new int[]{low, high} : null;
+  }
+
+  /**
+    Gets whether the image data has to be transcoded (that is it can't be copied as-is).
+  */
+  private boolean isTranscoded(
+    )
+  {return interlaced || hasAlphaChannel();}
+
+  private void load(
+    )
+  {
+    /*
+      NOTE: Big-endian data expected.
+    */
+    IInputStream stream = getStream();
+    stream.setByteOrder(ByteOrder.BIG_ENDIAN);
+    try
+    {
+      long index = SignatureLength;
+      while(true)
+      {
+        stream.seek(index);
+        int chunkLength = stream.readInt();
+        int chunkType = stream.readInt();
+        long chunkDataIndex = index + 8;
+        switch(chunkType)
+        {
+          case ImageHeaderChunkType:
+          {
+            setWidth(stream.readInt());
+            setHeight(stream.readInt());
+            setBitsPerComponent(stream.readUnsignedByte());
+            colorType = stream.readUnsignedByte();
+            stream.skip(2); // Compression and filter methods.
+            interlaced = (stream.readUnsignedByte() != 0);
+            break;
+          }
+          case PaletteChunkType:
+            stream.read(palette = new byte[chunkLength]);
+            break;
+          case TransparencyChunkType:
+            stream.read(transparency = new byte[chunkLength]);
+            break;
+          case ImageDataChunkType:
+            dataChunks.add(new long[]{chunkDataIndex, chunkLength});
+            dataLength += chunkLength;
+            break;
+        }
+        if(chunkType == ImageEndChunkType)
+          break;
+
+        index = chunkDataIndex + chunkLength + 4; // NOTE: 4 = CRC length.
+      }
+    }
+    catch(EOFException e)
+    {throw new RuntimeException(e);}
+
+    if(colorType == IndexedColorColorType && palette == null)
+      throw new RuntimeException("PNG palette missing.");
+  }
+
+  /**
+    Transcodes the image data.
+
+    @param colorRequired Whether the color samples have to be transcoded.
+    @param alphaRequired Whether the alpha samples have to be transcoded (from either the alpha
+      channel or the palette transparency).
+    @return Flate-encoded color samples and alpha samples (<code>null</code> if not required or
+      if the image is fully opaque).
+  */
+  private byte[][] transcode(
+    boolean colorRequired,
+    boolean alphaRequired
+    )
+  {
+    int width = getWidth(), height = getHeight();
+    int bitsPerComponent = getBitsPerComponent();
+    int channelCount = getChannelCount(), colorComponentCount = getColorComponentCount();
+    int alphaBitsPerComponent = getAlphaBitsPerComponent();
+    int opaqueAlpha = (1 << alphaBitsPerComponent) - 1;
+    Filter filter = Filter.get(PdfName.FlateDecode);
+    try
+    {
+      InputStream dataStream = null;
+      Raster raster = null;
+      if(interlaced)
+      {
+        // NOTE: Interlaced rows are decoded by the image I/O codec.
+        raster = ImageIO.read(new ByteArrayInputStream(getStream().toByteArray())).getRaster();
+      }
+      else
+      {
+        dataStream = filter.decode(
+          new ByteArrayInputStream(getData()),
+          getDecodeParameters(channelCount, bitsPerComponent)
+          );
+      }
+
+      ByteArrayOutputStream colorBuffer = null, alphaBuffer = null;
+      OutputStream colorStream = null, alphaStream = null;
+      if(colorRequired)
+      {
+        colorStream = filter.encode(
+          colorBuffer = new ByteArrayOutputStream(),
+          getDecodeParameters(colorComponentCount, bitsPerComponent)
+          );
+      }
+      if(alphaRequired)
+      {
+        alphaStream = filter.encode(
+          alphaBuffer = new ByteArrayOutputStream(),
+          getDecodeParameters(1, alphaBitsPerComponent)
+          );
+      }
+
+      byte[] row = new byte[(width * channelCount * bitsPerComponent + 7) / 8];
+      int[] samples = new int[width * channelCount];
+      int[] alphaSamples = (alphaRequired ? new int[width] : null);
+      boolean opaque = true;
+      for(int y = 0; y < height; y++)
+      {
+        // Get the row samples!
+        if(raster != null)
+        {raster.getPixels(raster.getMinX(), raster.getMinY() + y, width, 1, samples);}
+        else
+        {
+          readFully(dataStream, row);
+          for(int index = 0, count = samples.length; index < count; index++)
+          {
+            switch(bitsPerComponent)
+            {
+              case 8:
+                samples[index] = row[index] & 0xff;
+                break;
+              case 16:
+                samples[index] = ((row[index * 2] & 0xff) << 8) | (row[index * 2 + 1] & 0xff);
+                break;
+              default:
+              {
+                int bitIndex = index * bitsPerComponent;
+                samples[index] = (row[bitIndex >> 3] >> (8 - bitsPerComponent - (bitIndex & 7)))
+                  & ((1 << bitsPerComponent) - 1);
+              }
+            }
+          }
+        }
+
+        // Split the row samples!
+        if(colorStream != null)
+        {
+          if(channelCount == colorComponentCount)
+          {writeSamples(colorStream, samples, 0, samples.length, bitsPerComponent);}
+          else
+          {
+            // NOTE: Alpha channels imply samples of 8 or 16 bits, so pixels are byte-aligned.
+            for(int x = 0; x < width; x++)
+            {writeSamples(colorStream, samples, x * channelCount, colorComponentCount, bitsPerComponent);}
+          }
+        }
+        if(alphaStream != null)
+        {
+          for(int x = 0; x < width; x++)
+          {
+            int alpha;
+            if(colorType == IndexedColorColorType)
+            {
+              int paletteIndex = samples[x];
+              alpha = (paletteIndex < transparency.length ? transparency[paletteIndex] & 0xff : opaqueAlpha);
+            }
+            else
+            {alpha = samples[x * channelCount + colorComponentCount];}
+            if(alpha != opaqueAlpha)
+            {opaque = false;}
+            alphaSamples[x] = alpha;
+          }
+          writeSamples(alphaStream, alphaSamples, 0, width, alphaBitsPerComponent);
+        }
+      }
+      if(dataStream != null)
+      {dataStream.close();}
+
+      byte[][] data = new byte[2][];
+      if(colorStream != null)
+      {
+        colorStream.close();
+        data[0] = colorBuffer.toByteArray();
+      }
+      if(alphaStream != null)
+      {
+        alphaStream.close();
+        if(!opaque)
+        {data[1] = alphaBuffer.toByteArray();}
+      }
+      return data;
+    }
+    catch(IOException e)
+    {throw new RuntimeException(e);}
+  }
+  // </private>
+  // </interface>
+  // </dynamic>
+  // </class>
+}
@@ -27,6 +27,7 @@ package org.pdfclown.documents.contents.fonts;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.Map;
 import java.util.regex.Matcher;
@@ -80,6 +81,11 @@ final class AfmParser
   public Map<Integer,Integer> glyphWidths;
 
   public BufferedReader fontData;//TODO: convert to IInputStream
+
+  /**
+    Glyph indexes by character name.
+  */
+  private Map<String,Integer> glyphNameIndexes;
   // </fields>
 
   // <constructors>
@@ -182,6 +188,7 @@ final class AfmParser
   {
     glyphIndexes = new Hashtable<Integer, Integer>();
     glyphWidths = new Hashtable<Integer,Integer>();
+    glyphNameIndexes = new HashMap<String,Integer>();
 
     String line;
     Pattern linePattern = Pattern.compile("C (\\S+) ; WX (\\S+) ; N (\\S+)");
@@ -215,6 +222,7 @@ final class AfmParser
         );
       glyphIndexes.put(code,charCode);
       glyphWidths.put(charCode,width);
+      glyphNameIndexes.put(charName,charCode);
     }
   }
 
@@ -247,9 +255,16 @@ final class AfmParser
         continue;
       }
 
-      int code1 = GlyphMapping.nameToCode(lineMatcher.group(1));
-      int code2 = GlyphMapping.nameToCode(lineMatcher.group(2));
-      int pair = code1 << 16 + code2;
+      /*
+        NOTE: Kerning pairs are keyed by glyph indexes (left-hand glyph index in the high 16 bits,
+        right-hand glyph index in the low 16 bits), consistently with OpenFont 'kern' tables.
+      */
+      Integer glyphIndex1 = glyphNameIndexes.get(lineMatcher.group(1));
+      Integer glyphIndex2 = glyphNameIndexes.get(lineMatcher.group(2));
+      if(glyphIndex1 == null || glyphIndex2 == null)
+        continue;
+
+      int pair = (glyphIndex1 << 16) | (glyphIndex2 & 0xFFFF);
       int value = Integer.valueOf(lineMatcher.group(3));
 
       glyphKernings.put(pair,value);
@@ -0,0 +1,192 @@
+/*
+  Copyright 2026 Stefano Chizzolini. http://www.pdfclown.org
+
+  Contributors:
+    * Stefano Chizzolini (original code developer, http://www.stefanochizzolini.it)
+
+  This file should be part of the source code distribution of "PDF Clown library"
+  (the Program): see the accompanying README files for more info.
+
+  This Program is free software; you can redistribute it and/or modify it under the terms
+  of the GNU Lesser General Public License as published by the Free Software Foundation;
+  either version 3 of the License, or (at your option) any later version.
+
+  This Program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  either expressed or implied; without even the implied warranty of MERCHANTABILITY or
+  FITNESS FOR A PARTICULAR PURPOSE. See the License for more details.
+
+  You should have received a copy of the GNU Lesser General Public License along with this
+  Program (see README files); if not, go to the GNU website (http://www.gnu.org/licenses/).
+
+  Redistribution and use, with or without modification, are permitted provided that such
+  redistributions retain the above copyright notice, license and disclaimer, along with
+  this list of conditions.
+*/
+
+package org.pdfclown.documents.contents.fonts;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.pdfclown.util.ByteArray;
+
+/**
+  Precompiled character-code-to-unicode decoding table.
+  <p>Character codes are resolved walking a byte trie made of 256-entry blocks laid out in a
+  single flat array: single-byte encodings collapse to a direct lookup table, whereas multi-byte
+  CMaps of composite fonts branch into child blocks as their codespace ranges demand.</p>
+
+  @author Stefano Chizzolini (http://www.stefanochizzolini.it)
+  @since 0.1.2
+  @version 0.1.2, 10/18/26
+*/
+final class CharCodeTable
+{
+  // <class>
+  // <static>
+  // <fields>
+  private static final int BlockSize = 256;
+  /**
+    Unicode applied to character codes not found in the table.
+  */
+  private static final char UndefinedChar = ' ';
+  // </fields>
+  // </static>
+
+  // <dynamic>
+  // <fields>
+  /**
+    Maximum character code byte size.
+  */
+  private final int codeMaxLength;
+  /**
+    Trie blocks.
+    <p>Each entry is either <code>0</code> (undefined code), a positive value (unicode + 1
+    corresponding to the code ending at that byte) or a negative value (opposite offset of the
+    child block handling the next code byte).</p>
+  */
+  private final int[] entries;
+  // </fields>
+
+  // <constructors>
+  /**
+    @param codes Unicodes by character code.
+  */
+  CharCodeTable(
+    Map<ByteArray,Integer> codes
+    )
+  {
+    int codeMaxLength = 0;
+    for(ByteArray charCode : codes.keySet())
+    {
+      if(charCode.data.length > codeMaxLength)
+      {codeMaxLength = charCode.data.length;}
+    }
+    this.codeMaxLength = codeMaxLength;
+
+    int[] entries = new int[BlockSize];
+    int blockCount = 1;
+    /*
+      NOTE: Shorter codes take precedence over longer ones sharing the same prefix (that is,
+      the shortest matching code wins), so codes are inserted in ascending length order and
+      any longer code shadowed by a shorter one is discarded.
+    */
+    for(int codeLength = 1; codeLength <= codeMaxLength; codeLength++)
+    {
+      for(Map.Entry<ByteArray,Integer> codeEntry : codes.entrySet())
+      {
+        byte[] charCode = codeEntry.getKey().data;
+        if(charCode.length != codeLength)
+          continue;
+
+        int block = 0;
+        int index = 0;
+        for(int lastIndex = codeLength - 1; index < lastIndex; index++)
+        {
+          int entryIndex = block + (charCode[index] & 0xFF);
+          int entry = entries[entryIndex];
+          if(entry > 0) // Shadowed by a shorter code.
+          {block = -1; break;}
+          else if(entry == 0) // New branch.
+          {
+            int childBlock = blockCount++ * BlockSize;
+            if(childBlock + BlockSize > entries.length)
+            {entries = Arrays.copyOf(entries, entries.length * 2);}
+            entries[entryIndex] = -childBlock;
+            block = childBlock;
+          }
+          else // Existing branch.
+          {block = -entry;}
+        }
+        if(block < 0)
+          continue;
+
+        int entryIndex = block + (charCode[index] & 0xFF);
+        if(entries[entryIndex] <= 0)
+        {entries[entryIndex] = codeEntry.getValue() + 1;}
+      }
+    }
+    this.entries = (entries.length == blockCount * BlockSize
+      ? entries
+      : Arrays.copyOf(entries, blockCount * BlockSize));
+  }
+  // </constructors>
+
+  // <interface>
+  /**
+    Gets the text corresponding to the given character codes.
+
+    @param code Character codes to decode.
+  */
+  public String decode(
+    byte[] code
+    )
+  {
+    int codeLength = code.length;
+    char[] textChars = new char[codeLength];
+    int textLength = 0;
+    int position = 0;
+    while(position < codeLength)
+    {
+      int entry = 0;
+      for(
+        int block = 0, index = position;
+        index < codeLength;
+        )
+      {
+        entry = entries[block + (code[index++] & 0xFF)];
+        if(entry >= 0)
+        {
+          if(entry > 0)
+          {position = index;}
+          break;
+        }
+        block = -entry;
+      }
+      if(entry > 0)
+      {textChars[textLength++] = (char)(entry - 1);}
+      else
+      {
+        /*
+          NOTE: In case no valid code entry is found, a default space is resiliantely
+          applied instead of throwing an exception.
+          This is potentially risky as failing to determine the actual code length
+          may result in a "code shifting" which could affect following characters.
+        */
+        textChars[textLength++] = UndefinedChar;
+        position += (codeMaxLength > 0 ? codeMaxLength : 1);
+      }
+    }
+    return new String(textChars, 0, textLength);
+  }
+
+  /**
+    Gets the maximum character code byte size.
+  */
+  public int getCodeMaxLength(
+    )
+  {return codeMaxLength;}
+  // </interface>
+  // </dynamic>
+  // </class>
+}
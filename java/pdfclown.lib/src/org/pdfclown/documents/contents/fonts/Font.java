@@ -56,7 +56,7 @@ import org.pdfclown.util.NotImplementedException;
   Abstract font [PDF:1.6:5.4].
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
-  @version 0.1.1, 11/09/11
+  @version 0.1.2, 10/18/26
 */
 @PDF(VersionEnum.PDF10)
 public abstract class Font
@@ -315,9 +315,14 @@ public abstract class Font
   protected Set<Integer> usedCodes;
 
   /**
-    Maximum character code byte size.
+    Precompiled decoding table of {@link #codes}.
   */
-  private int charCodeMaxLength = 0;
+  private CharCodeTable codeTable;
+  /**
+    Precompiled metrics table of {@link #glyphIndexes}, {@link #glyphWidths} and
+    {@link #glyphKernings}.
+  */
+  private GlyphTable glyphTable;
   // </fields>
 
   // <constructors>
@@ -363,46 +368,7 @@ public abstract class Font
   public String decode(
     byte[] code
     )
-  {
-    StringBuilder textBuilder = new StringBuilder();
-    {
-      byte[][] codeBuffers = new byte[charCodeMaxLength+1][];
-      for(
-        int codeBufferIndex = 0;
-        codeBufferIndex <= charCodeMaxLength;
-        codeBufferIndex++
-        )
-      {codeBuffers[codeBufferIndex] = new byte[codeBufferIndex];}
-      int position = 0;
-      int codeLength = code.length;
-      int codeBufferSize = 1;
-      while(position < codeLength)
-      {
-        byte[] codeBuffer = codeBuffers[codeBufferSize];
-        System.arraycopy(code,position,codeBuffer,0,codeBufferSize);
-        Integer textChar = codes.get(new ByteArray(codeBuffer));
-        if(textChar == null)
-        {
-          if(codeBufferSize < charCodeMaxLength)
-          {
-            codeBufferSize++;
-            continue;
-          }
-          /*
-            NOTE: In case no valid code entry is found, a default space is resiliantely
-            applied instead of throwing an exception.
-            This is potentially risky as failing to determine the actual code length
-            may result in a "code shifting" which could affect following characters.
-           */
-          textChar = (int)' ';
-        }
-        textBuilder.append((char)(int)textChar);
-        position += codeBufferSize;
-        codeBufferSize = 1;
-      }
-    }
-    return textBuilder.toString();
-  }
+  {return codeTable.decode(code);}
 
   /**
     Gets the internal representation of the given text.
@@ -548,7 +514,17 @@ public abstract class Font
     String text,
     double size
     )
-  {return (getWidth(text) + getKerning(text)) * getScalingFactor(size);}
+  {return getKernedWidth(text) * getScalingFactor(size);}
+
+  /**
+    Gets the unscaled width (kerning inclusive) of the given text.
+
+    @param text Text whose width has to be calculated.
+  */
+  public final int getKernedWidth(
+    String text
+    )
+  {return getWidth(text) + getKerning(text);}
 
   /**
     Gets the unscaled kerning width between two given characters.
@@ -560,27 +536,7 @@ public abstract class Font
     char textChar1,
     char textChar2
     )
-  {
-    if(glyphKernings == null)
-      return 0;
-
-    Integer textChar1Index = glyphIndexes.get((int)textChar1);
-    if(textChar1Index == null)
-      return 0;
-
-    Integer textChar2Index = glyphIndexes.get((int)textChar2);
-    if(textChar2Index == null)
-      return 0;
-
-    Integer kerning = glyphKernings.get(
-      textChar1Index << 16 // Left-hand glyph index.
-        + textChar2Index // Right-hand glyph index.
-      );
-    if(kerning == null)
-      return 0;
-
-    return kerning;
-  }
+  {return getGlyphTable().getKerning(textChar1, textChar2);}
 
   /**
     Gets the unscaled kerning width inside the given text.
@@ -590,23 +546,7 @@ public abstract class Font
   public final int getKerning(
     String text
     )
-  {
-    int kerning = 0;
-    char textChars[] = text.toCharArray();
-    for(
-      int index = 0,
-        length = text.length() - 1;
-      index < length;
-      index++
-      )
-    {
-      kerning += getKerning(
-        textChars[index],
-        textChars[index + 1]
-        );
-    }
-    return kerning;
-  }
+  {return getGlyphTable().getKerning(text);}
 
   /**
     Gets the kerning width inside the given text, scaled to the given font size.
@@ -652,14 +592,7 @@ public abstract class Font
   public int getWidth(
     char textChar
     )
-  {
-    Integer glyphIndex = glyphIndexes.get((int)textChar);
-    if(glyphIndex == null)
-      return 0;
-
-    Integer glyphWidth = glyphWidths.get(glyphIndex);
-    return glyphWidth != null ? glyphWidth : defaultGlyphWidth;
-  }
+  {return getGlyphTable().getWidth(textChar);}
 
   /**
     Gets the width of the given character, scaled to the given font size.
@@ -675,18 +608,15 @@ public abstract class Font
 
   /**
     Gets the unscaled width (kerning exclusive) of the given text.
+    <p>Fonts measuring characters on their own (overriding {@link #getWidth(char)}) MUST override
+    this method too, as it measures through the metrics table.</p>
 
     @param text Text whose width has to be calculated.
   */
   public int getWidth(
     String text
     )
-  {
-    int width = 0;
-    for(char textChar : text.toCharArray())
-    {width += getWidth(textChar);}
-    return width;
-  }
+  {return getGlyphTable().getWidth(text);}
 
   /**
     Gets the width (kerning exclusive) of the given text, scaled to the given font size.
@@ -737,12 +667,10 @@ public abstract class Font
 
     onLoad();
 
-    // Maximum character code length.
-    for(ByteArray charCode : codes.keySet())
-    {
-      if(charCode.data.length > charCodeMaxLength)
-      {charCodeMaxLength = charCode.data.length;}
-    }
+    // Decoding table.
+    codeTable = new CharCodeTable(codes);
+    // Metrics table.
+    glyphTable = new GlyphTable(glyphIndexes, glyphWidths, glyphKernings, defaultGlyphWidth);
   }
 
   /**
@@ -753,6 +681,18 @@ public abstract class Font
   // </protected>
 
   // <private>
+  /**
+    Gets the metrics table, compiling it in case the concrete font class didn't (that is in case
+    it replaced {@link #load()}).
+  */
+  private GlyphTable getGlyphTable(
+    )
+  {
+    if(glyphTable == null)
+    {glyphTable = new GlyphTable(glyphIndexes, glyphWidths, glyphKernings, defaultGlyphWidth);}
+    return glyphTable;
+  }
+
   private void initialize(
     )
   {
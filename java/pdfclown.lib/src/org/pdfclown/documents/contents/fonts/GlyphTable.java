@@ -0,0 +1,261 @@
+/*
+  Copyright 2026 Stefano Chizzolini. http://www.pdfclown.org
+
+  Contributors:
+    * Stefano Chizzolini (original code developer, http://www.stefanochizzolini.it)
+
+  This file should be part of the source code distribution of "PDF Clown library"
+  (the Program): see the accompanying README files for more info.
+
+  This Program is free software; you can redistribute it and/or modify it under the terms
+  of the GNU Lesser General Public License as published by the Free Software Foundation;
+  either version 3 of the License, or (at your option) any later version.
+
+  This Program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  either expressed or implied; without even the implied warranty of MERCHANTABILITY or
+  FITNESS FOR A PARTICULAR PURPOSE. See the License for more details.
+
+  You should have received a copy of the GNU Lesser General Public License along with this
+  Program (see README files); if not, go to the GNU website (http://www.gnu.org/licenses/).
+
+  Redistribution and use, with or without modification, are permitted provided that such
+  redistributions retain the above copyright notice, license and disclaimer, along with
+  this list of conditions.
+*/
+
+package org.pdfclown.documents.contents.fonts;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+  Precompiled glyph metrics table.
+  <p>Glyph widths and indexes are resolved by unicode through paged primitive arrays
+  (256 unicodes per page), so that sparse repertoires (such as large CID ranges) allocate
+  only the pages they actually populate. Kerning pairs are kept as a sorted primitive array
+  searched by binary search.</p>
+
+  @author Stefano Chizzolini (http://www.stefanochizzolini.it)
+  @since 0.1.2
+  @version 0.1.2, 10/18/26
+*/
+final class GlyphTable
+{
+  // <class>
+  // <static>
+  // <fields>
+  private static final int PageBits = 8;
+  private static final int PageSize = 1 << PageBits;
+  private static final int PageMask = PageSize - 1;
+  private static final int PageCount = (Character.MAX_VALUE + 1) >> PageBits;
+  // </fields>
+  // </static>
+
+  // <dynamic>
+  // <fields>
+  /**
+    Glyph indexes (plus 1, 0 meaning undefined glyph) by unicode.
+    <p>Populated only in case of kerning.</p>
+  */
+  private final int[][] glyphIndexPages;
+  /**
+    Kerning pairs (left-hand glyph index in the high 16 bits, right-hand glyph index in the
+    low 16 bits), sorted in ascending order.
+  */
+  private final int[] kerningPairs;
+  /**
+    Kerning values, parallel to {@link #kerningPairs}.
+  */
+  private final int[] kerningValues;
+  /**
+    Glyph widths by unicode.
+  */
+  private final int[][] widthPages;
+  // </fields>
+
+  // <constructors>
+  /**
+    @param glyphIndexes Glyph indexes by unicode.
+    @param glyphWidths Glyph widths by glyph index.
+    @param glyphKernings Glyph kernings by (left-right) glyph index pairs.
+    @param defaultGlyphWidth Width of glyphs not listed in <code>glyphWidths</code>.
+  */
+  GlyphTable(
+    Map<Integer,Integer> glyphIndexes,
+    Map<Integer,Integer> glyphWidths,
+    Map<Integer,Integer> glyphKernings,
+    int defaultGlyphWidth
+    )
+  {
+    boolean kerned = (glyphKernings != null && !glyphKernings.isEmpty());
+
+    widthPages = new int[PageCount][];
+    glyphIndexPages = (kerned ? new int[PageCount][] : null);
+    if(glyphIndexes != null)
+    {
+      for(Map.Entry<Integer,Integer> glyphIndexEntry : glyphIndexes.entrySet())
+      {
+        Integer code = glyphIndexEntry.getKey();
+        Integer glyphIndex = glyphIndexEntry.getValue();
+        if(code == null || code < 0 || code > Character.MAX_VALUE || glyphIndex == null)
+          continue;
+
+        Integer glyphWidth = (glyphWidths != null ? glyphWidths.get(glyphIndex) : null);
+        getPage(widthPages, code)[code & PageMask] = (glyphWidth != null ? glyphWidth : defaultGlyphWidth);
+        if(kerned)
+        {getPage(glyphIndexPages, code)[code & PageMask] = glyphIndex + 1;}
+      }
+    }
+
+    if(kerned)
+    {
+      int pairCount = glyphKernings.size();
+      long[] kernings = new long[pairCount];
+      int index = 0;
+      for(Map.Entry<Integer,Integer> glyphKerningEntry : glyphKernings.entrySet())
+      {
+        kernings[index++] = ((long)glyphKerningEntry.getKey() << 32)
+          | (glyphKerningEntry.getValue() & 0xFFFFFFFFL);
+      }
+      Arrays.sort(kernings);
+      kerningPairs = new int[pairCount];
+      kerningValues = new int[pairCount];
+      for(index = 0; index < pairCount; index++)
+      {
+        kerningPairs[index] = (int)(kernings[index] >> 32);
+        kerningValues[index] = (int)kernings[index];
+      }
+    }
+    else
+    {
+      kerningPairs = null;
+      kerningValues = null;
+    }
+  }
+  // </constructors>
+
+  // <interface>
+  // <public>
+  /**
+    Gets the unscaled kerning width between two given characters.
+  */
+  public int getKerning(
+    char textChar1,
+    char textChar2
+    )
+  {
+    if(kerningPairs == null)
+      return 0;
+
+    int[] glyphIndexPage1 = glyphIndexPages[textChar1 >> PageBits];
+    if(glyphIndexPage1 == null)
+      return 0;
+
+    int[] glyphIndexPage2 = glyphIndexPages[textChar2 >> PageBits];
+    if(glyphIndexPage2 == null)
+      return 0;
+
+    return getKerning(
+      glyphIndexPage1[textChar1 & PageMask],
+      glyphIndexPage2[textChar2 & PageMask]
+      );
+  }
+
+  /**
+    Gets the unscaled kerning width inside the given text.
+  */
+  public int getKerning(
+    String text
+    )
+  {
+    if(kerningPairs == null)
+      return 0;
+
+    int kerning = 0;
+    int glyphIndex1 = 0;
+    for(int index = 0, length = text.length(); index < length; index++)
+    {
+      int glyphIndex2 = getGlyphIndex(text.charAt(index));
+      if(index > 0)
+      {kerning += getKerning(glyphIndex1, glyphIndex2);}
+      glyphIndex1 = glyphIndex2;
+    }
+    return kerning;
+  }
+
+  /**
+    Gets the unscaled width of the given character.
+  */
+  public int getWidth(
+    char textChar
+    )
+  {
+    int[] widthPage = widthPages[textChar >> PageBits];
+    return (widthPage != null ? widthPage[textChar & PageMask] : 0);
+  }
+
+  /**
+    Gets the unscaled width (kerning exclusive) of the given text.
+  */
+  public int getWidth(
+    String text
+    )
+  {
+    int width = 0;
+    for(int index = 0, length = text.length(); index < length; index++)
+    {
+      char textChar = text.charAt(index);
+      int[] widthPage = widthPages[textChar >> PageBits];
+      if(widthPage != null)
+      {width += widthPage[textChar & PageMask];}
+    }
+    return width;
+  }
+  // </public>
+
+  // <private>
+  private static int[] getPage(
+    int[][] pages,
+    int code
+    )
+  {
+    int[] page = pages[code >> PageBits];
+    if(page == null)
+    {page = pages[code >> PageBits] = new int[PageSize];}
+
+    return page;
+  }
+
+  /**
+    Gets the glyph index (plus 1, 0 meaning undefined glyph) of the given character.
+  */
+  private int getGlyphIndex(
+    char textChar
+    )
+  {
+    int[] glyphIndexPage = glyphIndexPages[textChar >> PageBits];
+    return (glyphIndexPage != null ? glyphIndexPage[textChar & PageMask] : 0);
+  }
+
+  /**
+    Gets the kerning width between two given glyphs (expressed as glyph index plus 1).
+  */
+  private int getKerning(
+    int glyphIndex1,
+    int glyphIndex2
+    )
+  {
+    if(glyphIndex1 == 0 || glyphIndex2 == 0)
+      return 0;
+
+    int index = Arrays.binarySearch(
+      kerningPairs,
+      ((glyphIndex1 - 1) << 16) | ((glyphIndex2 - 1) & 0xFFFF)
+      );
+    return (index >= 0 ? kerningValues[index] : 0);
+  }
+  // </private>
+  // </interface>
+  // </dynamic>
+  // </class>
+}
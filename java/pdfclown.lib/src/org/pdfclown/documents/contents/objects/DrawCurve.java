@@ -25,6 +25,8 @@
 
 package org.pdfclown.documents.contents.objects;
 
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Line2D;
 import java.awt.geom.Path2D;
 import java.awt.geom.Point2D;
 import java.util.List;
@@ -45,7 +47,7 @@ import org.pdfclown.objects.PdfReal;
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @since 0.0.7
-  @version 0.1.2, 02/04/12
+  @version 0.1.2, 10/18/26
 */
 @PDF(VersionEnum.PDF10)
 public final class DrawCurve
@@ -217,14 +219,24 @@ public final class DrawCurve
       Point2D controlPoint2 = getControl2();
       if(controlPoint2 == null)
       {controlPoint2 = finalPoint;}
-      pathObject.curveTo(
-        controlPoint1.getX(),
-        controlPoint1.getY(),
-        controlPoint2.getX(),
-        controlPoint2.getY(),
-        finalPoint.getX(),
-        finalPoint.getY()
-        );
+      if(isFlat(pathObject.getCurrentPoint(), controlPoint1, controlPoint2, finalPoint, state))
+      {
+        pathObject.lineTo(
+          finalPoint.getX(),
+          finalPoint.getY()
+          );
+      }
+      else
+      {
+        pathObject.curveTo(
+          controlPoint1.getX(),
+          controlPoint1.getY(),
+          controlPoint2.getX(),
+          controlPoint2.getY(),
+          finalPoint.getX(),
+          finalPoint.getY()
+          );
+      }
     }
   }
 
@@ -286,6 +298,39 @@ public final class DrawCurve
     }
   }
   // </public>
+
+  // <private>
+  /**
+    Gets whether the given curve is flat enough to be drawn as a straight line according to the
+    {@link org.pdfclown.documents.contents.ContentScanner#getRenderQuality() rendering quality}.
+  */
+  private boolean isFlat(
+    Point2D startPoint,
+    Point2D controlPoint1,
+    Point2D controlPoint2,
+    Point2D finalPoint,
+    GraphicsState state
+    )
+  {
+    double flatness = state.getScanner().getRenderQuality().getFlatness();
+    if(flatness == 0 || startPoint == null)
+      return false;
+
+    /*
+      NOTE: A Bezier curve lies within the convex hull of its control points, so its deviation
+      from the chord is bounded by the control points' one.
+    */
+    AffineTransform ctm = state.getCtm();
+    double scale = Math.max(
+      Math.hypot(ctm.getScaleX(), ctm.getShearY()),
+      Math.hypot(ctm.getShearX(), ctm.getScaleY())
+      );
+    double maxDistance = flatness / scale;
+    Line2D chord = new Line2D.Double(startPoint, finalPoint);
+    return chord.ptSegDist(controlPoint1) < maxDistance
+      && chord.ptSegDist(controlPoint2) < maxDistance;
+  }
+  // </private>
   // </interface>
   // </dynamic>
   // </class>
@@ -42,7 +42,7 @@ import org.pdfclown.tokens.Symbol;
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @since 0.0.4
-  @version 0.1.1, 11/01/11
+  @version 0.1.2, 10/18/26
 */
 @PDF(VersionEnum.PDF10)
 public final class LocalGraphicsState
@@ -91,8 +91,12 @@ public final class LocalGraphicsState
       render(state);
 
       // Restore outer graphics state!
-      context.setClip(clip);
+      /*
+        NOTE: The clip MUST be restored after the transform, as it's expressed in the outer
+        user space.
+      */
       context.setTransform(state.getCtm());
+      context.setClip(clip);
     }
   }
 
@@ -27,7 +27,10 @@ package org.pdfclown.documents.contents.objects;
 
 import java.awt.BasicStroke;
 import java.awt.Graphics2D;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
 import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
 
 import org.pdfclown.PDF;
 import org.pdfclown.VersionEnum;
@@ -42,7 +45,7 @@ import org.pdfclown.util.ConvertUtils;
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @since 0.0.7
-  @version 0.1.1, 11/01/11
+  @version 0.1.2, 10/18/26
 */
 @PDF(VersionEnum.PDF10)
 public final class PaintPath
@@ -191,6 +194,9 @@ public final class PaintPath
     if(pathObject != null)
     {
       Graphics2D context = scanner.getRenderContext();
+      if(!isVisible(pathObject, state, context)
+        || isNegligible(pathObject, state))
+        return;
 
       if(closed)
       {
@@ -214,6 +220,67 @@ public final class PaintPath
     }
   }
   // </public>
+
+  // <private>
+  /**
+    Gets whether the given path is too small to be painted according to the
+    {@link ContentScanner#getRenderQuality() rendering quality}.
+  */
+  private boolean isNegligible(
+    Path2D pathObject,
+    GraphicsState state
+    )
+  {
+    double minObjectSize = state.getScanner().getRenderQuality().getMinObjectSize();
+    if(minObjectSize == 0)
+      return false;
+
+    Rectangle2D bounds = pathObject.getBounds2D();
+    double width = bounds.getWidth(), height = bounds.getHeight();
+    if(stroked)
+    {
+      width += state.getLineWidth();
+      height += state.getLineWidth();
+    }
+    // Device-space extent.
+    AffineTransform ctm = state.getCtm();
+    return Math.abs(ctm.getScaleX() * width) + Math.abs(ctm.getShearX() * height) < minObjectSize
+      && Math.abs(ctm.getShearY() * width) + Math.abs(ctm.getScaleY() * height) < minObjectSize;
+  }
+
+  /**
+    Gets whether the painting of the given path may affect the current clipping area.
+    <p>Paths lying entirely outside the clipping area (for example, outside the tile of a
+    {@link org.pdfclown.tools.Renderer tiled rendering}) are skipped without undergoing any
+    costly stroking or rasterization.</p>
+  */
+  private boolean isVisible(
+    Path2D pathObject,
+    GraphicsState state,
+    Graphics2D context
+    )
+  {
+    Shape clip = context.getClip();
+    if(clip == null)
+      return true;
+
+    double determinant = Math.abs(state.getCtm().getDeterminant());
+    if(determinant == 0)
+      return true;
+
+    // Padding (one device pixel plus the stroke's maximum outreach).
+    double padding = 1 / Math.sqrt(determinant);
+    if(stroked)
+    {padding += state.getLineWidth() / 2 * Math.max(state.getMiterLimit(), Math.sqrt(2));}
+    Rectangle2D bounds = pathObject.getBounds2D();
+    return clip.intersects(
+      bounds.getX() - padding,
+      bounds.getY() - padding,
+      bounds.getWidth() + padding * 2,
+      bounds.getHeight() + padding * 2
+      );
+  }
+  // </private>
   // </interface>
   // </dynamic>
   // </class>
@@ -30,6 +30,7 @@ import java.util.List;
 import org.pdfclown.PDF;
 import org.pdfclown.VersionEnum;
 import org.pdfclown.documents.contents.ContentScanner;
+import org.pdfclown.documents.contents.ContentScanner.GraphicsState;
 import org.pdfclown.documents.contents.IContentContext;
 import org.pdfclown.documents.contents.xObjects.FormXObject;
 import org.pdfclown.documents.contents.xObjects.XObject;
@@ -41,7 +42,7 @@ import org.pdfclown.objects.PdfName;
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @since 0.0.4
-  @version 0.1.1, 11/01/11
+  @version 0.1.2, 10/18/26
 */
 @PDF(VersionEnum.PDF10)
 public final class PaintXObject
@@ -95,6 +96,20 @@ public final class PaintXObject
     )
   {return getResource(context);}
 
+  @Override
+  public void scan(
+    GraphicsState state
+    )
+  {
+    ContentScanner scanner = state.getScanner();
+    if(scanner.getRenderContext() != null)
+    {
+      XObject xObject = getXObject(scanner.getContentContext());
+      if(xObject instanceof FormXObject)
+      {((FormXObject)xObject).render(state);}
+    }
+  }
+
   // <IResourceReference>
   @Override
   public PdfName getName(
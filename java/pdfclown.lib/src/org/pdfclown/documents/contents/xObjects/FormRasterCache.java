@@ -0,0 +1,411 @@
+/*
+  Copyright 2026 Stefano Chizzolini. http://www.pdfclown.org
+
+  Contributors:
+    * Stefano Chizzolini (original code developer, http://www.stefanochizzolini.it)
+
+  This file should be part of the source code distribution of "PDF Clown library"
+  (the Program): see the accompanying README files for more info.
+
+  This Program is free software; you can redistribute it and/or modify it under the terms
+  of the GNU Lesser General Public License as published by the Free Software Foundation;
+  either version 3 of the License, or (at your option) any later version.
+
+  This Program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  either expressed or implied; without even the implied warranty of MERCHANTABILITY or
+  FITNESS FOR A PARTICULAR PURPOSE. See the License for more details.
+
+  You should have received a copy of the GNU Lesser General Public License along with this
+  Program (see README files); if not, go to the GNU website (http://www.gnu.org/licenses/).
+
+  Redistribution and use, with or without modification, are permitted provided that such
+  redistributions retain the above copyright notice, license and disclaimer, along with
+  this list of conditions.
+*/
+
+package org.pdfclown.documents.contents.xObjects;
+
+import java.awt.Graphics2D;
+import java.awt.Paint;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.pdfclown.documents.contents.ContentScanner;
+import org.pdfclown.documents.contents.ContentScanner.GraphicsState;
+import org.pdfclown.documents.contents.Contents;
+import org.pdfclown.documents.contents.RenderQualityEnum;
+import org.pdfclown.objects.PdfDirectObject;
+import org.pdfclown.util.math.geom.Dimension;
+
+/**
+  Rendering cache of {@link FormXObject forms}.
+  <p>Forms repeatedly painted across the pages of a document (letterheads, logos, watermarks
+  and the like) are parsed once and rasterized once per device scale, then reused as images;
+  least recently used rasters are evicted as soon as the cache exceeds its
+  {@link #getMaxSize() memory budget}.</p>
+  <p>Rasters are keyed by form, device-space scale/rotation, rendering quality and inherited
+  graphics state parameters; as they cover the whole form box, the clipping area they are
+  painted within doesn't affect their reuse. Their placement is rounded to the nearest device
+  pixel.</p>
+  <p>This cache is thread-safe.</p>
+
+  @author Stefano Chizzolini (http://www.stefanochizzolini.it)
+  @since 0.1.2
+  @version 0.1.2, 10/18/26
+*/
+public final class FormRasterCache
+{
+  // <class>
+  // <classes>
+  private static final class Key
+  {
+    private final PdfDirectObject formObject;
+    private final double scaleX;
+    private final double shearY;
+    private final double shearX;
+    private final double scaleY;
+    private final Paint fillPaint;
+    private final Paint strokePaint;
+    private final double lineWidth;
+    private final int lineCap;
+    private final int lineJoin;
+    private final double miterLimit;
+    private final double[] dashArray;
+    private final double dashPhase;
+    private final RenderQualityEnum quality;
+
+    private final int hashCode;
+
+    Key(
+      PdfDirectObject formObject,
+      AffineTransform formCtm,
+      GraphicsState state
+      )
+    {
+      this.formObject = formObject;
+      scaleX = formCtm.getScaleX();
+      shearY = formCtm.getShearY();
+      shearX = formCtm.getShearX();
+      scaleY = formCtm.getScaleY();
+      /*
+        NOTE: Forms inherit the graphics state they are painted within.
+      */
+      fillPaint = state.getFillColorSpace().getPaint(state.getFillColor());
+      strokePaint = state.getStrokeColorSpace().getPaint(state.getStrokeColor());
+      lineWidth = state.getLineWidth();
+      lineCap = state.getLineCap().ordinal();
+      lineJoin = state.getLineJoin().ordinal();
+      miterLimit = state.getMiterLimit();
+      dashArray = state.getLineDash().getDashArray();
+      dashPhase = state.getLineDash().getDashPhase();
+      quality = state.getScanner().getRenderQuality();
+
+      int hashCode = formObject.hashCode();
+      hashCode = hashCode * 31 + Double.valueOf(scaleX).hashCode();
+      hashCode = hashCode * 31 + Double.valueOf(shearY).hashCode();
+      hashCode = hashCode * 31 + Double.valueOf(shearX).hashCode();
+      hashCode = hashCode * 31 + Double.valueOf(scaleY).hashCode();
+      hashCode = hashCode * 31 + (fillPaint != null ? fillPaint.hashCode() : 0);
+      hashCode = hashCode * 31 + Double.valueOf(lineWidth).hashCode();
+      this.hashCode = hashCode;
+    }
+
+    @Override
+    public boolean equals(
+      Object object
+      )
+    {
+      if(object == this)
+        return true;
+      if(!(object instanceof Key))
+        return false;
+
+      Key key = (Key)object;
+      return hashCode == key.hashCode
+        && formObject.equals(key.formObject)
+        && scaleX == key.scaleX
+        && shearY == key.shearY
+        && shearX == key.shearX
+        && scaleY == key.scaleY
+        && equals(fillPaint, key.fillPaint)
+        && equals(strokePaint, key.strokePaint)
+        && lineWidth == key.lineWidth
+        && lineCap == key.lineCap
+        && lineJoin == key.lineJoin
+        && miterLimit == key.miterLimit
+        && Arrays.equals(dashArray, key.dashArray)
+        && dashPhase == key.dashPhase
+        && quality == key.quality;
+    }
+
+    @Override
+    public int hashCode(
+      )
+    {return hashCode;}
+
+    private static boolean equals(
+      Object object1,
+      Object object2
+      )
+    {return object1 == null ? object2 == null : object1.equals(object2);}
+  }
+
+  private static final class Raster
+  {
+    /**
+      Form image.
+    */
+    final BufferedImage image;
+    /**
+      Horizontal offset of the image relative to the form origin (in device space).
+    */
+    final int offsetX;
+    /**
+      Vertical offset of the image relative to the form origin (in device space).
+    */
+    final int offsetY;
+
+    Raster(
+      BufferedImage image,
+      int offsetX,
+      int offsetY
+      )
+    {
+      this.image = image;
+      this.offsetX = offsetX;
+      this.offsetY = offsetY;
+    }
+
+    long getSize(
+      )
+    {return (long)image.getWidth() * image.getHeight() * 4;}
+  }
+  // </classes>
+
+  // <static>
+  // <fields>
+  /**
+    Maximum number of parsed form contents kept in cache.
+  */
+  private static final int MaxContentsCount = 256;
+  // </fields>
+  // </static>
+
+  // <dynamic>
+  // <fields>
+  private final Map<PdfDirectObject,Contents> contentsMap = new LinkedHashMap<PdfDirectObject,Contents>(16, .75f, true)
+    {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(
+        Map.Entry<PdfDirectObject,Contents> eldest
+        )
+      {return size() > MaxContentsCount;}
+    };
+  private long maxSize = 32L << 20;
+  private final LinkedHashMap<Key,Raster> rasters = new LinkedHashMap<Key,Raster>(16, .75f, true);
+  private long size;
+  // </fields>
+
+  // <constructors>
+  public FormRasterCache(
+    )
+  {}
+  // </constructors>
+
+  // <interface>
+  // <public>
+  /**
+    Empties this cache.
+    <p>It MUST be called whenever a cached form is modified.</p>
+  */
+  public synchronized void clear(
+    )
+  {
+    contentsMap.clear();
+    rasters.clear();
+    size = 0;
+  }
+
+  /**
+    Gets the parsed contents of the given form.
+    <p>Cached contents are meant for rendering only (they are shared among concurrent
+    renderings, so they MUST NOT be modified).</p>
+  */
+  public synchronized Contents getContents(
+    FormXObject form
+    )
+  {
+    PdfDirectObject formObject = form.getBaseObject();
+    Contents contents = contentsMap.get(formObject);
+    if(contents == null)
+    {contentsMap.put(formObject, contents = form.getContents());}
+
+    return contents;
+  }
+
+  /**
+    Gets the maximum memory size (in bytes) of the cached rasters.
+    <p>Rasters exceeding a quarter of this size are not cached (their forms are rendered as
+    vector graphics); setting it to <code>0</code> disables rasterization.</p>
+  */
+  public synchronized long getMaxSize(
+    )
+  {return maxSize;}
+
+  /**
+    Gets the current memory size (in bytes) of the cached rasters.
+  */
+  public synchronized long getSize(
+    )
+  {return size;}
+
+  /**
+    @see #getMaxSize()
+  */
+  public synchronized void setMaxSize(
+    long value
+    )
+  {
+    maxSize = value;
+    evict();
+  }
+  // </public>
+
+  // <internal>
+  /**
+    Paints the given form through its raster.
+
+    @param form Form to paint.
+    @param formCtm Form-space-to-device-space transformation.
+    @param state Graphics state the form is painted within.
+    @return Whether the form was painted (<code>false</code> if its raster wouldn't fit the
+      cache).
+  */
+  boolean paint(
+    FormXObject form,
+    AffineTransform formCtm,
+    GraphicsState state
+    )
+  {
+    Key key = new Key(form.getBaseObject(), formCtm, state);
+    Raster raster;
+    synchronized(this)
+    {raster = rasters.get(key);}
+    if(raster == null)
+    {
+      raster = rasterize(form, formCtm, state);
+      if(raster == null)
+        return false;
+
+      synchronized(this)
+      {
+        Raster oldRaster = rasters.put(key, raster);
+        if(oldRaster != null)
+        {size -= oldRaster.getSize();}
+        size += raster.getSize();
+        evict();
+      }
+    }
+
+    Graphics2D context = state.getScanner().getRenderContext();
+    context.setTransform(new AffineTransform());
+    context.drawImage(
+      raster.image,
+      (int)Math.round(formCtm.getTranslateX()) + raster.offsetX,
+      (int)Math.round(formCtm.getTranslateY()) + raster.offsetY,
+      null
+      );
+    return true;
+  }
+  // </internal>
+
+  // <private>
+  private void evict(
+    )
+  {
+    Iterator<Raster> rasterIterator = rasters.values().iterator();
+    while(size > maxSize && rasterIterator.hasNext())
+    {
+      size -= rasterIterator.next().getSize();
+      rasterIterator.remove();
+    }
+  }
+
+  /**
+    Renders the given form into a new raster.
+
+    @return <code>null</code>, if the raster is too large to be cached.
+  */
+  private Raster rasterize(
+    FormXObject form,
+    AffineTransform formCtm,
+    GraphicsState state
+    )
+  {
+    // Device-space box (origin-relative).
+    AffineTransform rasterCtm = new AffineTransform(
+      formCtm.getScaleX(),
+      formCtm.getShearY(),
+      formCtm.getShearX(),
+      formCtm.getScaleY(),
+      0,
+      0
+      );
+    Rectangle2D formBox = form.getBox();
+    Rectangle2D rasterBox = rasterCtm.createTransformedShape(formBox).getBounds2D();
+    int offsetX = (int)Math.floor(rasterBox.getMinX());
+    int offsetY = (int)Math.floor(rasterBox.getMinY());
+    int width = (int)Math.ceil(rasterBox.getMaxX()) - offsetX;
+    int height = (int)Math.ceil(rasterBox.getMaxY()) - offsetY;
+    long rasterSize = (long)width * height * 4;
+    if(width <= 0 || height <= 0)
+      return null;
+    synchronized(this)
+    {
+      // Rasters taking a large share of the budget would just thrash the cache.
+      if(rasterSize > maxSize / 4)
+        return null;
+    }
+
+    // Render the form!
+    final AffineTransform imageCtm = AffineTransform.getTranslateInstance(-offsetX, -offsetY);
+    imageCtm.concatenate(rasterCtm);
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D imageContext = image.createGraphics();
+    try
+    {
+      imageContext.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+      imageContext.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+      imageContext.setTransform(imageCtm);
+      imageContext.clip(formBox);
+
+      ContentScanner formScanner = new ContentScanner(getContents(form), state.getScanner());
+      formScanner.addListener(
+        new ContentScanner.IListener()
+        {
+          @Override
+          public void onStart(
+            ContentScanner scanner
+            )
+          {scanner.getState().setCtm(new AffineTransform(imageCtm));}
+        }
+        );
+      formScanner.render(imageContext, new Dimension(width, height), null);
+    }
+    finally
+    {imageContext.dispose();}
+    return new Raster(image, offsetX, offsetY);
+  }
+  // </private>
+  // </interface>
+  // </dynamic>
+  // </class>
+}
@@ -26,6 +26,7 @@
 package org.pdfclown.documents.contents.xObjects;
 
 import java.awt.Graphics2D;
+import java.awt.Shape;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Dimension2D;
 import java.awt.geom.Rectangle2D;
@@ -34,6 +35,7 @@ import org.pdfclown.PDF;
 import org.pdfclown.VersionEnum;
 import org.pdfclown.documents.Document;
 import org.pdfclown.documents.contents.ContentScanner;
+import org.pdfclown.documents.contents.ContentScanner.GraphicsState;
 import org.pdfclown.documents.contents.Contents;
 import org.pdfclown.documents.contents.IContentContext;
 import org.pdfclown.documents.contents.Resources;
@@ -55,7 +57,7 @@ import org.pdfclown.util.math.geom.Dimension;
   Form external object [PDF:1.6:4.9].
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
-  @version 0.1.2, 12/21/12
+  @version 0.1.2, 10/18/26
 */
 @PDF(VersionEnum.PDF10)
 public final class FormXObject
@@ -235,6 +237,45 @@ public final class FormXObject
     scanner.render(context,size);
   }
 
+  /**
+    Paints this form within the given graphics state.
+    <p>The form is clipped according to its bounding box. Whenever possible, it's painted
+    through the {@link Document#getFormRasterCache() raster cache} of its document.</p>
+
+    @param state Graphics state of the painting operation (its scanner MUST be rendering).
+    @since 0.1.2
+  */
+  public void render(
+    GraphicsState state
+    )
+  {
+    ContentScanner scanner = state.getScanner();
+    Graphics2D context = scanner.getRenderContext();
+    AffineTransform ctm = context.getTransform();
+    Shape clip = context.getClip();
+    try
+    {
+      AffineTransform formCtm = (AffineTransform)state.getCtm().clone();
+      formCtm.concatenate(getMatrix());
+      FormRasterCache rasterCache = getDocument().getFormRasterCache();
+      if(!rasterCache.paint(this, formCtm, state))
+      {
+        context.setTransform(formCtm);
+        context.clip(getBox());
+        new ContentScanner(rasterCache.getContents(this), scanner).render(
+          context,
+          scanner.getCanvasSize(),
+          null
+          );
+      }
+    }
+    finally
+    {
+      context.setTransform(ctm);
+      context.setClip(clip);
+    }
+  }
+
   // <IContentEntity>
   @Override
   public ContentObject toInlineObject(
@@ -0,0 +1,593 @@
+/*
+  Copyright 2026 Stefano Chizzolini. http://www.pdfclown.org
+
+  Contributors:
+    * Stefano Chizzolini (original code developer, http://www.stefanochizzolini.it)
+
+  This file should be part of the source code distribution of "PDF Clown library"
+  (the Program): see the accompanying README files for more info.
+
+  This Program is free software; you can redistribute it and/or modify it under the terms
+  of the GNU Lesser General Public License as published by the Free Software Foundation;
+  either version 3 of the License, or (at your option) any later version.
+
+  This Program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  either expressed or implied; without even the implied warranty of MERCHANTABILITY or
+  FITNESS FOR A PARTICULAR PURPOSE. See the License for more details.
+
+  You should have received a copy of the GNU Lesser General Public License along with this
+  Program (see README files); if not, go to the GNU website (http://www.gnu.org/licenses/).
+
+  Redistribution and use, with or without modification, are permitted provided that such
+  redistributions retain the above copyright notice, license and disclaimer, along with
+  this list of conditions.
+*/
+
+package org.pdfclown.documents.contents.xObjects;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.pdfclown.bytes.filters.Filter;
+import org.pdfclown.documents.contents.colorSpaces.CalGrayColorSpace;
+import org.pdfclown.documents.contents.colorSpaces.CalRGBColorSpace;
+import org.pdfclown.documents.contents.colorSpaces.ColorSpace;
+import org.pdfclown.documents.contents.colorSpaces.DeviceCMYKColorSpace;
+import org.pdfclown.documents.contents.colorSpaces.DeviceGrayColorSpace;
+import org.pdfclown.documents.contents.colorSpaces.DeviceRGBColorSpace;
+import org.pdfclown.documents.contents.colorSpaces.IndexedColorSpace;
+import org.pdfclown.documents.contents.colorSpaces.LabColorSpace;
+import org.pdfclown.objects.PdfArray;
+import org.pdfclown.objects.PdfBoolean;
+import org.pdfclown.objects.PdfDictionary;
+import org.pdfclown.objects.PdfDirectObject;
+import org.pdfclown.objects.PdfInteger;
+import org.pdfclown.objects.PdfName;
+import org.pdfclown.objects.PdfNumber;
+import org.pdfclown.objects.PdfReal;
+import org.pdfclown.objects.PdfStream;
+import org.pdfclown.util.NotImplementedException;
+import org.pdfclown.util.math.Interval;
+
+/**
+  Image XObject decoder.
+  <p>Sample data is streamed row by row (rows outside the requested region or skipped by
+  subsampling are decompressed but not converted), so that no intermediate array of the whole
+  decoded image is built. JPEG data is decoded by the image I/O codec, which applies region and
+  subsampling at decode time.</p>
+
+  @author Stefano Chizzolini (http://www.stefanochizzolini.it)
+  @since 0.1.2
+  @version 0.1.2, 10/18/26
+*/
+final class ImageDecoder
+{
+  // <class>
+  // <classes>
+  /**
+    Converter of image samples to RGB values.
+  */
+  private static final class SampleConverter
+  {
+    // <class>
+    // <static>
+    // <fields>
+    private static final int CmykMode = 0;
+    private static final int GenericMode = 1;
+    private static final int PaletteMode = 2;
+    private static final int RgbMode = 3;
+
+    /**
+      Maximum number of memoized generic conversions.
+    */
+    private static final int MaxCacheSize = 1 << 16;
+    // </fields>
+    // </static>
+
+    // <dynamic>
+    // <fields>
+    private final Map<Long,Integer> cache = new HashMap<Long,Integer>();
+    private final ColorSpace<?> colorSpace;
+    private final int componentCount;
+    private final double[] decode;
+    private final int maxSample;
+    private final int mode;
+    private final int[] palette;
+    private final int sampleBitsCount;
+    // </fields>
+
+    // <constructors>
+    /**
+      @param colorSpace Image color space (<code>null</code> for stencil masks).
+      @param sampleBitsCount Number of bits per component.
+      @param decode Decode array (<code>null</code> for default).
+    */
+    SampleConverter(
+      ColorSpace<?> colorSpace,
+      int sampleBitsCount,
+      double[] decode
+      )
+    {
+      this.colorSpace = colorSpace;
+      this.sampleBitsCount = sampleBitsCount;
+      componentCount = (colorSpace != null ? colorSpace.getComponentCount() : 1);
+      maxSample = (1 << sampleBitsCount) - 1;
+
+      boolean defaultDecode = (decode == null);
+      if(defaultDecode)
+      {decode = getDefaultDecode(colorSpace, sampleBitsCount);}
+      this.decode = decode;
+
+      if(componentCount == 1 && sampleBitsCount <= 8)
+      {
+        mode = PaletteMode;
+        palette = new int[maxSample + 1];
+        for(int sample = 0; sample <= maxSample; sample++)
+        {palette[sample] = toRGB(new int[]{sample});}
+      }
+      else
+      {
+        palette = null;
+        if(defaultDecode && sampleBitsCount == 8
+          && (colorSpace instanceof DeviceRGBColorSpace || colorSpace instanceof CalRGBColorSpace))
+        {mode = RgbMode;}
+        else if(defaultDecode && sampleBitsCount == 8
+          && colorSpace instanceof DeviceCMYKColorSpace)
+        {mode = CmykMode;}
+        else
+        {mode = GenericMode;}
+      }
+    }
+    // </constructors>
+
+    // <interface>
+    // <public>
+    /**
+      Gets the RGB value corresponding to the given samples.
+    */
+    public int convert(
+      int[] samples
+      )
+    {
+      switch(mode)
+      {
+        case PaletteMode:
+          return palette[samples[0]];
+        case RgbMode:
+          return 0xff000000 | (samples[0] << 16) | (samples[1] << 8) | samples[2];
+        case CmykMode:
+        {
+          // [PDF:1.6:6.2.4] conversion (the same applied by DeviceCMYK color space).
+          int k = samples[3];
+          return 0xff000000
+            | (Math.max(255 - samples[0] - k, 0) << 16)
+            | (Math.max(255 - samples[1] - k, 0) << 8)
+            | Math.max(255 - samples[2] - k, 0);
+        }
+        default:
+        {
+          if(componentCount * sampleBitsCount > 63)
+            return toRGB(samples);
+
+          long key = 0;
+          for(int index = 0; index < componentCount; index++)
+          {key = (key << sampleBitsCount) | samples[index];}
+          Integer rgb = cache.get(key);
+          if(rgb == null)
+          {
+            if(cache.size() == MaxCacheSize)
+            {cache.clear();}
+            cache.put(key, rgb = toRGB(samples));
+          }
+          return rgb;
+        }
+      }
+    }
+
+    public int getComponentCount(
+      )
+    {return componentCount;}
+    // </public>
+
+    // <private>
+    private int toRGB(
+      int[] samples
+      )
+    {
+      if(colorSpace == null) // Stencil mask.
+        return (decode[0] + samples[0] * (decode[1] - decode[0]) / maxSample) < .5 ? 0xff000000 : 0;
+
+      List<PdfDirectObject> components = new ArrayList<PdfDirectObject>(componentCount);
+      for(int index = 0; index < componentCount; index++)
+      {
+        double low = decode[index * 2], high = decode[index * 2 + 1];
+        double value = low + samples[index] * (high - low) / maxSample;
+        components.add(value == Math.rint(value) ? PdfInteger.get((int)value) : PdfReal.get(value));
+      }
+      return ((java.awt.Color)colorSpace.getPaint(colorSpace.getColor(components, null))).getRGB();
+    }
+    // </private>
+    // </interface>
+    // </dynamic>
+    // </class>
+  }
+  // </classes>
+
+  // <static>
+  // <interface>
+  // <public>
+  /**
+    Decodes the given image.
+
+    @param image Image to decode.
+    @param region Image area to decode (in samples, from the top-left corner); <code>null</code>
+      for the whole image.
+    @param subsampling Sampling step (both horizontal and vertical) across the region.
+  */
+  public static BufferedImage decode(
+    ImageXObject image,
+    Rectangle region,
+    int subsampling
+    )
+  {
+    if(subsampling < 1)
+      throw new IllegalArgumentException("subsampling MUST be positive.");
+
+    PdfStream stream = image.getBaseDataObject();
+    PdfDictionary header = stream.getHeader();
+    Rectangle bounds = new Rectangle(
+      ((PdfInteger)header.resolve(PdfName.Width)).getRawValue(),
+      ((PdfInteger)header.resolve(PdfName.Height)).getRawValue()
+      );
+    Rectangle area = (region != null ? region.intersection(bounds) : bounds);
+    if(area.isEmpty())
+      throw new IllegalArgumentException("region MUST intersect the image.");
+
+    try
+    {
+      InputStream data = new ByteArrayInputStream(stream.getBody(false).toByteArray());
+
+      // Applying the filters...
+      List<PdfDirectObject> filters = toList(stream.getFilter());
+      List<PdfDirectObject> parameters = toList(stream.getParameters());
+      for(int index = 0, count = filters.size(); index < count; index++)
+      {
+        PdfName filterName = (PdfName)filters.get(index).resolve();
+        if(filterName.equals(PdfName.DCTDecode)
+          || filterName.equals(PdfName.DCT))
+        {
+          if(index < count - 1)
+            throw new UnsupportedOperationException("Filters after DCTDecode not supported.");
+
+          return decodeJpeg(data, header, area, subsampling);
+        }
+        else if(filterName.equals(PdfName.JPXDecode))
+          throw new NotImplementedException("JPXDecode");
+
+        Filter filter = Filter.get(filterName);
+        if(filter == null)
+          throw new UnsupportedOperationException("Filter " + filterName + " unknown.");
+
+        PdfDirectObject filterParameters = (index < parameters.size() ? parameters.get(index) : null);
+        data = filter.decode(data, (PdfDictionary)(filterParameters != null ? filterParameters.resolve() : null));
+      }
+      return decodeSamples(data, header, bounds.width, area, subsampling);
+    }
+    catch(IOException e)
+    {throw new RuntimeException(e);}
+  }
+  // </public>
+
+  // <private>
+  /**
+    Creates the target image of the given area.
+  */
+  private static BufferedImage createImage(
+    Rectangle area,
+    int subsampling,
+    boolean alpha
+    )
+  {
+    return new BufferedImage(
+      (area.width + subsampling - 1) / subsampling,
+      (area.height + subsampling - 1) / subsampling,
+      alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB
+      );
+  }
+
+  private static BufferedImage decodeJpeg(
+    InputStream data,
+    PdfDictionary header,
+    Rectangle area,
+    int subsampling
+    ) throws IOException
+  {
+    ByteArrayOutputStream jpegBuffer = new ByteArrayOutputStream();
+    {
+      byte[] buffer = new byte[8192]; int bufferLength;
+      while((bufferLength = data.read(buffer, 0, buffer.length)) != -1)
+      {jpegBuffer.write(buffer, 0, bufferLength);}
+      data.close();
+    }
+    byte[] jpegData = jpegBuffer.toByteArray();
+
+    ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(jpegData));
+    Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+    if(!readers.hasNext())
+    {
+      input.close();
+      throw new UnsupportedOperationException("No JPEG codec available.");
+    }
+    ImageReader reader = readers.next();
+    try
+    {
+      reader.setInput(input, true, true);
+      ImageReadParam readParam = reader.getDefaultReadParam();
+      readParam.setSourceRegion(area);
+      readParam.setSourceSubsampling(subsampling, subsampling, 0, 0);
+
+      ColorSpace<?> colorSpace = ColorSpace.wrap(header.get(PdfName.ColorSpace));
+      double[] decode = getNumbers(header, PdfName.Decode);
+      if(colorSpace == null || colorSpace.getComponentCount() != 4)
+      {
+        // Gray or RGB data (converted by the codec).
+        BufferedImage image = reader.read(0, readParam);
+        if(decode != null)
+        {
+          // NOTE: Decode arrays of JPEG images are typically used to invert their components.
+          int componentCount = decode.length / 2;
+          for(int y = 0, height = image.getHeight(); y < height; y++)
+          {
+            for(int x = 0, width = image.getWidth(); x < width; x++)
+            {
+              int rgb = image.getRGB(x, y);
+              int decodedRgb = 0xff000000;
+              for(int index = 0; index < 3; index++)
+              {
+                int componentIndex = (componentCount == 1 ? 0 : index);
+                double low = decode[componentIndex * 2], high = decode[componentIndex * 2 + 1];
+                double value = low + ((rgb >> (16 - index * 8)) & 0xff) / 255d * (high - low);
+                decodedRgb |= (int)Math.round(Math.max(0, Math.min(1, value)) * 255) << (16 - index * 8);
+              }
+              image.setRGB(x, y, decodedRgb);
+            }
+          }
+        }
+        return image;
+      }
+      else
+      {
+        // CMYK data (raw components, as the codec doesn't convert them).
+        Raster raster = reader.readRaster(0, readParam);
+        boolean ycck = (getAdobeTransform(jpegData) == 2);
+        SampleConverter converter = new SampleConverter(colorSpace, 8, decode);
+        BufferedImage image = createImage(area, subsampling, false);
+        int[] pixels = ((DataBufferInt)image.getRaster().getDataBuffer()).getData();
+        int[] samples = new int[4];
+        for(int y = 0, height = image.getHeight(), width = image.getWidth(); y < height; y++)
+        {
+          for(int x = 0; x < width; x++)
+          {
+            raster.getPixel(raster.getMinX() + x, raster.getMinY() + y, samples);
+            if(ycck)
+            {
+              // YCC to CMY [Adobe:5116:18].
+              double luma = samples[0], blueChroma = samples[1] - 128, redChroma = samples[2] - 128;
+              samples[0] = clamp(255 - (luma + 1.402 * redChroma));
+              samples[1] = clamp(255 - (luma - .344136 * blueChroma - .714136 * redChroma));
+              samples[2] = clamp(255 - (luma + 1.772 * blueChroma));
+            }
+            pixels[y * width + x] = converter.convert(samples);
+          }
+        }
+        return image;
+      }
+    }
+    finally
+    {
+      reader.dispose();
+      input.close();
+    }
+  }
+
+  private static BufferedImage decodeSamples(
+    InputStream data,
+    PdfDictionary header,
+    int width,
+    Rectangle area,
+    int subsampling
+    ) throws IOException
+  {
+    boolean mask = PdfBoolean.True.equals(header.resolve(PdfName.ImageMask));
+    int sampleBitsCount = (mask ? 1 : ((PdfInteger)header.resolve(PdfName.BitsPerComponent)).getRawValue());
+    SampleConverter converter = new SampleConverter(
+      mask ? null : ColorSpace.wrap(header.get(PdfName.ColorSpace)),
+      sampleBitsCount,
+      getNumbers(header, PdfName.Decode)
+      );
+    int componentCount = converter.getComponentCount();
+
+    BufferedImage image = createImage(area, subsampling, mask);
+    int[] pixels = ((DataBufferInt)image.getRaster().getDataBuffer()).getData();
+    int imageWidth = image.getWidth();
+    byte[] row = new byte[(width * componentCount * sampleBitsCount + 7) / 8];
+    int[] samples = new int[componentCount];
+    try
+    {
+      for(int rowIndex = 0, endRowIndex = area.y + area.height; rowIndex < endRowIndex; rowIndex++)
+      {
+        readRow(data, row);
+        if(rowIndex < area.y || (rowIndex - area.y) % subsampling != 0)
+          continue;
+
+        int pixelIndex = (rowIndex - area.y) / subsampling * imageWidth;
+        for(int x = 0; x < imageWidth; x++)
+        {
+          int sampleIndex = (area.x + x * subsampling) * componentCount;
+          for(int index = 0; index < componentCount; index++)
+          {samples[index] = getSample(row, sampleIndex + index, sampleBitsCount);}
+          pixels[pixelIndex++] = converter.convert(samples);
+        }
+      }
+    }
+    catch(EOFException e)
+    {/* NOOP: Truncated data (missing rows are left blank). */}
+    finally
+    {data.close();}
+    return image;
+  }
+
+  private static int clamp(
+    double value
+    )
+  {return value < 0 ? 0 : (value > 255 ? 255 : (int)Math.round(value));}
+
+  /**
+    Gets the color transform flag of the Adobe marker segment of the given JPEG data.
+
+    @return <code>-1</code>, if undefined.
+  */
+  private static int getAdobeTransform(
+    byte[] data
+    )
+  {
+    for(int index = 2; index + 4 <= data.length;)
+    {
+      if((data[index] & 0xff) != 0xff)
+        break;
+
+      int marker = data[index + 1] & 0xff;
+      if(marker == 0xda) // Start of scan.
+        break;
+
+      int segmentLength = ((data[index + 2] & 0xff) << 8) | (data[index + 3] & 0xff);
+      if(marker == 0xee // APP14.
+        && segmentLength >= 12
+        && index + 15 <= data.length
+        && new String(data, index + 4, 5).equals("Adobe"))
+        return data[index + 15] & 0xff;
+
+      index += 2 + segmentLength;
+    }
+    return -1;
+  }
+
+  /**
+    Gets the default decode array of the given color space.
+  */
+  private static double[] getDefaultDecode(
+    ColorSpace<?> colorSpace,
+    int sampleBitsCount
+    )
+  {
+    if(colorSpace instanceof IndexedColorSpace)
+      return new double[]{0, (1 << sampleBitsCount) - 1};
+    else if(colorSpace instanceof LabColorSpace)
+    {
+      List<Interval<Double>> ranges = ((LabColorSpace)colorSpace).getRanges();
+      return new double[]
+        {
+          0, 100,
+          ranges.get(0).getLow(), ranges.get(0).getHigh(),
+          ranges.get(1).getLow(), ranges.get(1).getHigh()
+        };
+    }
+
+    int componentCount = (colorSpace != null ? colorSpace.getComponentCount() : 1);
+    double[] decode = new double[componentCount * 2];
+    for(int index = 0; index < componentCount; index++)
+    {decode[index * 2 + 1] = 1;}
+    return decode;
+  }
+
+  private static double[] getNumbers(
+    PdfDictionary dictionary,
+    PdfName key
+    )
+  {
+    PdfArray numbersObject = (PdfArray)dictionary.resolve(key);
+    if(numbersObject == null)
+      return null;
+
+    double[] numbers = new double[numbersObject.size()];
+    for(int index = 0; index < numbers.length; index++)
+    {numbers[index] = ((PdfNumber<?>)numbersObject.resolve(index)).getDoubleValue();}
+    return numbers;
+  }
+
+  /**
+    Gets the given sample of a row.
+
+    @param row Row data.
+    @param index Sample index.
+    @param sampleBitsCount Number of bits per sample.
+  */
+  private static int getSample(
+    byte[] row,
+    int index,
+    int sampleBitsCount
+    )
+  {
+    switch(sampleBitsCount)
+    {
+      case 8:
+        return row[index] & 0xff;
+      case 16:
+        return ((row[index * 2] & 0xff) << 8) | (row[index * 2 + 1] & 0xff);
+      default:
+      {
+        int bitIndex = index * sampleBitsCount;
+        return (row[bitIndex >> 3] >> (8 - sampleBitsCount - (bitIndex & 7))) & ((1 << sampleBitsCount) - 1);
+      }
+    }
+  }
+
+  private static void readRow(
+    InputStream data,
+    byte[] row
+    ) throws IOException
+  {
+    for(int length = 0, readLength; length < row.length; length += readLength)
+    {
+      if((readLength = data.read(row, length, row.length - length)) == -1)
+        throw new EOFException();
+    }
+  }
+
+  private static List<PdfDirectObject> toList(
+    PdfDirectObject object
+    )
+  {
+    List<PdfDirectObject> list = new ArrayList<PdfDirectObject>();
+    if(object instanceof PdfArray)
+    {
+      for(PdfDirectObject item : (PdfArray)object)
+      {list.add(item);}
+    }
+    else if(object != null)
+    {list.add(object);}
+    return list;
+  }
+  // </private>
+  // </interface>
+  // </static>
+  // </class>
+}
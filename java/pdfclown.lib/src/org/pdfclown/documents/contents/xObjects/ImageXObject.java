@@ -26,8 +26,10 @@
 package org.pdfclown.documents.contents.xObjects;
 
 import java.awt.Dimension;
+import java.awt.Rectangle;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Dimension2D;
+import java.awt.image.BufferedImage;
 
 import org.pdfclown.PDF;
 import org.pdfclown.VersionEnum;
@@ -42,7 +44,7 @@ import org.pdfclown.objects.PdfStream;
   Image external object [PDF:1.6:4.8.4].
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
-  @version 0.1.2, 12/21/12
+  @version 0.1.2, 10/18/26
 */
 @PDF(VersionEnum.PDF10)
 public final class ImageXObject
@@ -155,6 +157,35 @@ public final class ImageXObject
     Dimension2D value
     )
   {throw new UnsupportedOperationException();}
+
+  /**
+    Decodes this image.
+
+    @see #toImage(Rectangle, int)
+  */
+  public BufferedImage toImage(
+    )
+  {return toImage(null, 1);}
+
+  /**
+    Decodes the given area of this image.
+    <p>Region and subsampling are applied while decoding, so that only the requested samples are
+    converted (for example, a thumbnail of a large scan can be obtained with a subsampling
+    factor proportional to its reduction). Supported encodings are Flate-compressed (or otherwise
+    filtered) samples and JPEG (DCTDecode); soft masks and color key masks are ignored.</p>
+
+    @param region Image area to decode (in samples, from the top-left corner); <code>null</code>
+      for the whole image.
+    @param subsampling Sampling step (both horizontal and vertical) across the region:
+      <code>1</code> for every sample, <code>2</code> for every other sample, and so on.
+    @return Decoded image (its size is the region size divided by the subsampling step, rounded
+      up).
+  */
+  public BufferedImage toImage(
+    Rectangle region,
+    int subsampling
+    )
+  {return ImageDecoder.decode(this, region, subsampling);}
   // </public>
   // </interface>
   // </dynamic>
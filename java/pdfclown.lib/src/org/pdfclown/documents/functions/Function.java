@@ -26,6 +26,7 @@
 package org.pdfclown.documents.functions;
 
 import java.util.ArrayList;
+import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.List;
 
@@ -41,6 +42,7 @@ import org.pdfclown.objects.PdfName;
 import org.pdfclown.objects.PdfNumber;
 import org.pdfclown.objects.PdfObjectWrapper;
 import org.pdfclown.objects.PdfReal;
+import org.pdfclown.objects.PdfReference;
 import org.pdfclown.objects.PdfStream;
 import org.pdfclown.util.math.Interval;
 
@@ -49,7 +51,7 @@ import org.pdfclown.util.math.Interval;
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @since 0.1.0
-  @version 0.1.2, 12/28/12
+  @version 0.1.2, 10/18/26
 */
 @PDF(VersionEnum.PDF12)
 public abstract class Function<TDataObject extends PdfDataObject>
@@ -62,6 +64,31 @@ public abstract class Function<TDataObject extends PdfDataObject>
   */
   protected interface IDefaultIntervalsCallback<T extends Comparable<T>>
   {List<Interval<T>> invoke(List<Interval<T>> intervals);}
+
+  /**
+    State derived from a function, shared document-wide in case of indirect functions.
+  */
+  static final class Cache
+  {
+    /**
+      Document the function belongs to (<code>null</code> in case of direct function).
+    */
+    final Document document;
+    /**
+      Compiled representation used by the function type to calculate its results.
+    */
+    volatile Object evaluator;
+    /**
+      Lookup table approximating the function ({@link Boolean#FALSE} if the function can't be
+      approximated).
+    */
+    volatile Object table;
+
+    Cache(
+      Document document
+      )
+    {this.document = document;}
+  }
   // </classes>
 
   // <static>
@@ -126,6 +153,10 @@ public abstract class Function<TDataObject extends PdfDataObject>
   // </static>
 
   // <dynamic>
+  // <fields>
+  private Cache cache;
+  // </fields>
+
   // <constructors>
   protected Function(
     Document context,
@@ -141,6 +172,43 @@ public abstract class Function<TDataObject extends PdfDataObject>
 
   // <interface>
   // <public>
+  /**
+    Gets the result of the calculation applied by this function to the specified input values,
+    approximated through a lookup table.
+    <p>This method is meant for massive evaluations (such as tint transforms applied to each
+    color and image sample): the first time it's called, the function is sampled over its
+    domain into an interpolated lookup table, whose resolution is adapted to keep the error
+    within the {@link org.pdfclown.documents.Document.Configuration#getFunctionTolerance()
+    tolerance} of the document. Functions which can't be approximated (either because they have
+    more than 3 inputs, they aren't indirect objects, they are cheap to calculate, they can't fit
+    the tolerance or tolerance is <code>0</code>) are calculated exactly.</p>
+
+    @param inputs Input values.
+    @param outputs Output values (its length MUST be at least {@link #getOutputCount()}).
+  */
+  public final void approximate(
+    double[] inputs,
+    double[] outputs
+    )
+  {
+    Cache cache = getCache();
+    Object table = cache.table;
+    if(table == null)
+    {
+      double tolerance = (cache.document != null && isCostly()
+        ? cache.document.getConfiguration().getFunctionTolerance()
+        : 0);
+      if(tolerance > 0)
+      {table = LookupTable.create(this, tolerance);}
+      cache.table = table = (table != null ? table : Boolean.FALSE);
+    }
+
+    if(table instanceof LookupTable)
+    {((LookupTable)table).calculate(inputs, outputs);}
+    else
+    {calculate(inputs, outputs);}
+  }
+
   /**
     Gets the result of the calculation applied by this function
     to the specified input values.
@@ -151,6 +219,24 @@ public abstract class Function<TDataObject extends PdfDataObject>
     double[] inputs
     );
 
+  /**
+    Gets the result of the calculation applied by this function
+    to the specified input values.
+    <p>Unlike {@link #calculate(double[])}, this method lets the caller reuse the output buffer
+    (think of tint transforms evaluated per pixel).</p>
+
+    @param inputs Input values.
+    @param outputs Output values (its length MUST be at least {@link #getOutputCount()}).
+   */
+  public void calculate(
+    double[] inputs,
+    double[] outputs
+    )
+  {
+    double[] results = calculate(inputs);
+    System.arraycopy(results, 0, outputs, 0, results.length);
+  }
+
   /**
     Gets the result of the calculation applied by this function
     to the specified input values.
@@ -264,6 +350,63 @@ public abstract class Function<TDataObject extends PdfDataObject>
     return intervals;
   }
   // </protected>
+
+  // <internal>
+  /**
+    Gets the state derived from this function.
+  */
+  final Cache getCache(
+    )
+  {
+    if(cache == null)
+    {
+      PdfDirectObject baseObject = getBaseObject();
+      if(baseObject instanceof PdfReference)
+      {
+        Document document = ((PdfReference)baseObject).getIndirectObject().getFile().getDocument();
+        Hashtable<PdfReference,Object> documentCache = document.cache;
+        synchronized(documentCache)
+        {
+          Object cachedObject = documentCache.get(baseObject);
+          if(cachedObject instanceof Cache)
+          {cache = (Cache)cachedObject;}
+          else
+          {documentCache.put((PdfReference)baseObject, cache = new Cache(document));}
+        }
+      }
+      else
+      {cache = new Cache(null);}
+    }
+    return cache;
+  }
+
+  /**
+    Gets the numbers corresponding to the specified key.
+
+    @return <code>null</code>, if the entry is absent.
+  */
+  final double[] getNumbers(
+    PdfName key
+    )
+  {
+    PdfArray numbersObject = (PdfArray)getDictionary().resolve(key);
+    if(numbersObject == null)
+      return null;
+
+    double[] numbers = new double[numbersObject.size()];
+    for(int index = 0; index < numbers.length; index++)
+    {numbers[index] = ((PdfNumber<?>)numbersObject.resolve(index)).getDoubleValue();}
+    return numbers;
+  }
+
+  /**
+    Gets whether this function is costly to calculate, so that it's worth being approximated
+    through a lookup table.
+  */
+  boolean isCostly(
+    )
+  {return true;}
+  // </internal>
   // </interface>
   // </dynamic>
   // </class>
@@ -0,0 +1,291 @@
+/*
+  Copyright 2026 Stefano Chizzolini. http://www.pdfclown.org
+
+  Contributors:
+    * Stefano Chizzolini (original code developer, http://www.stefanochizzolini.it)
+
+  This file should be part of the source code distribution of "PDF Clown library"
+  (the Program): see the accompanying README files for more info.
+
+  This Program is free software; you can redistribute it and/or modify it under the terms
+  of the GNU Lesser General Public License as published by the Free Software Foundation;
+  either version 3 of the License, or (at your option) any later version.
+
+  This Program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  either expressed or implied; without even the implied warranty of MERCHANTABILITY or
+  FITNESS FOR A PARTICULAR PURPOSE. See the License for more details.
+
+  You should have received a copy of the GNU Lesser General Public License along with this
+  Program (see README files); if not, go to the GNU website (http://www.gnu.org/licenses/).
+
+  Redistribution and use, with or without modification, are permitted provided that such
+  redistributions retain the above copyright notice, license and disclaimer, along with
+  this list of conditions.
+*/
+
+package org.pdfclown.documents.functions;
+
+import org.pdfclown.objects.PdfName;
+
+/**
+  Lookup table approximating a function through multilinear interpolation of its values sampled
+  over a regular grid of its domain.
+
+  @author Stefano Chizzolini (http://www.stefanochizzolini.it)
+  @since 0.1.2
+  @version 0.1.2, 10/18/26
+*/
+final class LookupTable
+{
+  // <class>
+  // <static>
+  // <fields>
+  /**
+    Initial grid sizes by input count.
+  */
+  private static final int[] MinGridSizes = {0, 65, 17, 9};
+  /**
+    Maximum grid sizes by input count.
+  */
+  private static final int[] MaxGridSizes = {0, 4097, 257, 33};
+  // </fields>
+
+  // <interface>
+  // <public>
+  /**
+    Approximates the given function.
+    <p>The grid is refined until the interpolation error (measured at the center of each grid
+    cell) fits the tolerance.</p>
+
+    @param function Function to approximate.
+    @param tolerance Maximum error, relative to the output ranges.
+    @return <code>null</code>, if the function can't be approximated.
+  */
+  public static LookupTable create(
+    Function<?> function,
+    double tolerance
+    )
+  {
+    double[] domains = function.getNumbers(PdfName.Domain);
+    int inputCount = domains.length / 2;
+    if(inputCount < 1 || inputCount >= MinGridSizes.length)
+      return null;
+
+    double[] ranges = function.getNumbers(PdfName.Range);
+    for(
+      int gridSize = MinGridSizes[inputCount];
+      gridSize <= MaxGridSizes[inputCount];
+      gridSize = gridSize * 2 - 1
+      )
+    {
+      LookupTable table = new LookupTable(function, domains, gridSize);
+      if(table.getError(function, ranges) <= tolerance)
+        return table;
+    }
+    return null;
+  }
+  // </public>
+  // </interface>
+  // </static>
+
+  // <dynamic>
+  // <fields>
+  private final double[] domains;
+  private final int gridSize;
+  private final int inputCount;
+  private final int outputCount;
+  /**
+    Function values at the grid nodes (first input varying fastest).
+  */
+  private final float[] values;
+  // </fields>
+
+  // <constructors>
+  private LookupTable(
+    Function<?> function,
+    double[] domains,
+    int gridSize
+    )
+  {
+    this.domains = domains;
+    this.gridSize = gridSize;
+    this.inputCount = domains.length / 2;
+
+    int nodeCount = 1;
+    for(int index = 0; index < inputCount; index++)
+    {nodeCount *= gridSize;}
+
+    double[] inputs = new double[inputCount];
+    double[] outputs = null;
+    float[] values = null;
+    for(int nodeIndex = 0; nodeIndex < nodeCount; nodeIndex++)
+    {
+      for(int index = 0, nodeOffset = nodeIndex; index < inputCount; index++, nodeOffset /= gridSize)
+      {
+        double low = domains[index * 2], high = domains[index * 2 + 1];
+        inputs[index] = low + (high - low) * (nodeOffset % gridSize) / (gridSize - 1);
+      }
+      if(outputs == null)
+      {
+        outputs = function.calculate(inputs);
+        values = new float[nodeCount * outputs.length];
+      }
+      else
+      {function.calculate(inputs, outputs);}
+      for(int index = 0, valueIndex = nodeIndex * outputs.length; index < outputs.length; index++)
+      {values[valueIndex + index] = (float)outputs[index];}
+    }
+    this.outputCount = outputs.length;
+    this.values = values;
+  }
+  // </constructors>
+
+  // <interface>
+  // <public>
+  public void calculate(
+    double[] inputs,
+    double[] outputs
+    )
+  {
+    // Locating the grid cell enclosing the inputs...
+    int base0 = 0, base1 = 0, base2 = 0;
+    double fraction0 = 0, fraction1 = 0, fraction2 = 0;
+    {
+      double position = toPosition(inputs[0], 0);
+      base0 = Math.min((int)position, gridSize - 2);
+      fraction0 = position - base0;
+    }
+    if(inputCount > 1)
+    {
+      double position = toPosition(inputs[1], 1);
+      base1 = Math.min((int)position, gridSize - 2);
+      fraction1 = position - base1;
+      if(inputCount > 2)
+      {
+        position = toPosition(inputs[2], 2);
+        base2 = Math.min((int)position, gridSize - 2);
+        fraction2 = position - base2;
+      }
+    }
+
+    // Interpolating the cell corners...
+    int stride1 = (inputCount > 1 ? gridSize * outputCount : 0);
+    int stride2 = (inputCount > 2 ? stride1 * gridSize : 0);
+    int offset = base0 * outputCount + base1 * stride1 + base2 * stride2;
+    for(int index = 0; index < outputCount; index++)
+    {
+      int valueIndex = offset + index;
+      double value = lerp(values[valueIndex], values[valueIndex + outputCount], fraction0);
+      if(inputCount > 1)
+      {
+        value = lerp(
+          value,
+          lerp(values[valueIndex + stride1], values[valueIndex + stride1 + outputCount], fraction0),
+          fraction1
+          );
+        if(inputCount > 2)
+        {
+          valueIndex += stride2;
+          double value2 = lerp(values[valueIndex], values[valueIndex + outputCount], fraction0);
+          value2 = lerp(
+            value2,
+            lerp(values[valueIndex + stride1], values[valueIndex + stride1 + outputCount], fraction0),
+            fraction1
+            );
+          value = lerp(value, value2, fraction2);
+        }
+      }
+      outputs[index] = value;
+    }
+  }
+  // </public>
+
+  // <private>
+  private static double lerp(
+    double value1,
+    double value2,
+    double fraction
+    )
+  {return value1 + (value2 - value1) * fraction;}
+
+  /**
+    Gets the maximum interpolation error, relative to the output ranges.
+
+    @param function Approximated function.
+    @param ranges Output ranges (<code>null</code> if undefined).
+  */
+  private double getError(
+    Function<?> function,
+    double[] ranges
+    )
+  {
+    // Output spans.
+    double[] spans = new double[outputCount];
+    for(int index = 0; index < outputCount; index++)
+    {
+      if(ranges != null && ranges.length >= (index + 1) * 2)
+      {spans[index] = ranges[index * 2 + 1] - ranges[index * 2];}
+      else
+      {
+        // Unbounded range: the sampled span is used instead.
+        float min = Float.POSITIVE_INFINITY, max = Float.NEGATIVE_INFINITY;
+        for(int valueIndex = index; valueIndex < values.length; valueIndex += outputCount)
+        {
+          min = Math.min(min, values[valueIndex]);
+          max = Math.max(max, values[valueIndex]);
+        }
+        spans[index] = max - min;
+      }
+      if(!(spans[index] > 0))
+      {spans[index] = 1;}
+    }
+
+    // Comparing the exact function to the interpolated one at the center of each cell...
+    int cellCount = 1;
+    for(int index = 0; index < inputCount; index++)
+    {cellCount *= gridSize - 1;}
+    double error = 0;
+    double[] inputs = new double[inputCount];
+    double[] exactOutputs = new double[outputCount];
+    double[] approximateOutputs = new double[outputCount];
+    for(int cellIndex = 0; cellIndex < cellCount; cellIndex++)
+    {
+      for(int index = 0, cellOffset = cellIndex; index < inputCount; index++, cellOffset /= gridSize - 1)
+      {
+        double low = domains[index * 2], high = domains[index * 2 + 1];
+        inputs[index] = low + (high - low) * (cellOffset % (gridSize - 1) + .5) / (gridSize - 1);
+      }
+      function.calculate(inputs, exactOutputs);
+      calculate(inputs, approximateOutputs);
+      for(int index = 0; index < outputCount; index++)
+      {
+        double outputError = Math.abs(exactOutputs[index] - approximateOutputs[index]) / spans[index];
+        if(Double.isNaN(outputError))
+          return Double.POSITIVE_INFINITY;
+        else if(outputError > error)
+        {error = outputError;}
+      }
+    }
+    return error;
+  }
+
+  /**
+    Maps the given input value to its grid position.
+  */
+  private double toPosition(
+    double input,
+    int inputIndex
+    )
+  {
+    double low = domains[inputIndex * 2], high = domains[inputIndex * 2 + 1];
+    if(!(high > low))
+      return 0;
+
+    double position = (input - low) / (high - low) * (gridSize - 1);
+    return position < 0 ? 0 : (position > gridSize - 1 ? gridSize - 1 : position);
+  }
+  // </private>
+  // </interface>
+  // </dynamic>
+  // </class>
+}
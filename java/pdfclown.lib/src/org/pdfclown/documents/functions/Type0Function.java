@@ -44,10 +44,13 @@ import org.pdfclown.util.math.Interval;
   Sampled function using a sequence of sample values to provide an approximation for functions whose
   domains and ranges are bounded [PDF:1.6:3.9.1].
   <p>The samples are organized as an m-dimensional table in which each entry has n components.</p>
+  <p>Samples are decoded once into a table shared document-wide, which is then multilinearly
+  interpolated without allocation; cubic spline interpolation is approximated by the linear
+  one.</p>
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @since 0.1.0
-  @version 0.1.2, 12/21/12
+  @version 0.1.2, 10/18/26
 */
 @PDF(VersionEnum.PDF12)
 public final class Type0Function
@@ -89,9 +92,193 @@ public final class Type0Function
       )
     {return code;}
   }
+
+  /**
+    Decoded sample table.
+  */
+  private static final class SampleTable
+  {
+    // <class>
+    // <dynamic>
+    // <fields>
+    private final double[] domains;
+    private final double[] encodes;
+    private final int outputCount;
+    private final double[] ranges;
+    private final float[] samples;
+    private final ThreadLocal<double[]> scratches;
+    private final int[] sizes;
+    // </fields>
+
+    // <constructors>
+    SampleTable(
+      byte[] data,
+      int[] sizes,
+      int bitsPerSample,
+      double[] domains,
+      double[] encodes,
+      double[] decodes,
+      double[] ranges
+      )
+    {
+      this.sizes = sizes;
+      this.domains = domains;
+      this.encodes = encodes;
+      this.ranges = ranges;
+      this.outputCount = ranges.length / 2;
+
+      final int inputCount = sizes.length;
+      this.scratches = new ThreadLocal<double[]>()
+        {
+          @Override
+          protected double[] initialValue(
+            )
+          {return new double[inputCount * 2];}
+        };
+
+      int sampleCount = outputCount;
+      for(int size : sizes)
+      {sampleCount *= size;}
+      samples = new float[sampleCount];
+
+      // Decoding the samples (packed as a continuous bit stream, most significant bit first)...
+      double[] decodeFactors = new double[outputCount];
+      for(int index = 0; index < outputCount; index++)
+      {decodeFactors[index] = (decodes[index * 2 + 1] - decodes[index * 2]) / ((1L << bitsPerSample) - 1);}
+      long buffer = 0;
+      int bufferBitCount = 0;
+      for(int sampleIndex = 0, dataIndex = 0; sampleIndex < sampleCount; sampleIndex++)
+      {
+        while(bufferBitCount < bitsPerSample)
+        {
+          buffer = (buffer << 8) | (dataIndex < data.length ? data[dataIndex++] & 0xff : 0);
+          bufferBitCount += 8;
+        }
+        bufferBitCount -= bitsPerSample;
+        long sample = (buffer >>> bufferBitCount) & ((1L << bitsPerSample) - 1);
+
+        int outputIndex = sampleIndex % outputCount;
+        samples[sampleIndex] = (float)(decodes[outputIndex * 2] + sample * decodeFactors[outputIndex]);
+      }
+    }
+    // </constructors>
+
+    // <interface>
+    // <public>
+    public void calculate(
+      double[] inputs,
+      double[] outputs
+      )
+    {
+      final int inputCount = sizes.length;
+      if(inputCount == 1)
+      {
+        // Single input (e.g. tint transforms of separation color spaces).
+        double position = toPosition(inputs[0], 0);
+        int base = Math.max(Math.min((int)position, sizes[0] - 2), 0);
+        double fraction = position - base;
+        int offset = base * outputCount;
+        for(int index = 0; index < outputCount; index++)
+        {
+          double value = samples[offset + index];
+          if(fraction > 0)
+          {value += (samples[offset + outputCount + index] - value) * fraction;}
+          outputs[index] = clip(value, index);
+        }
+        return;
+      }
+
+      // Locating the sample cell enclosing the inputs...
+      double[] scratch = scratches.get(); // Cell base (first half) and fractions (second half).
+      for(int index = 0; index < inputCount; index++)
+      {
+        double position = toPosition(inputs[index], index);
+        int base = Math.max(Math.min((int)position, sizes[index] - 2), 0);
+        scratch[index] = base;
+        scratch[inputCount + index] = position - base;
+      }
+
+      // Interpolating the cell corners (first input varying fastest)...
+      for(int index = 0; index < outputCount; index++)
+      {outputs[index] = 0;}
+      for(int corner = 0, cornerCount = 1 << inputCount; corner < cornerCount; corner++)
+      {
+        double weight = 1;
+        int sampleOffset = 0;
+        for(int index = inputCount - 1; index >= 0; index--)
+        {
+          double fraction = scratch[inputCount + index];
+          int position = (int)scratch[index];
+          if((corner & (1 << index)) != 0)
+          {
+            weight *= fraction;
+            position++;
+          }
+          else
+          {weight *= 1 - fraction;}
+          sampleOffset = sampleOffset * sizes[index] + position;
+        }
+        if(weight == 0)
+          continue;
+
+        sampleOffset *= outputCount;
+        for(int index = 0; index < outputCount; index++)
+        {outputs[index] += weight * samples[sampleOffset + index];}
+      }
+      for(int index = 0; index < outputCount; index++)
+      {outputs[index] = clip(outputs[index], index);}
+    }
+
+    public int getOutputCount(
+      )
+    {return outputCount;}
+    // </public>
+
+    // <private>
+    /**
+      Clips the given output value to its range.
+    */
+    private double clip(
+      double value,
+      int outputIndex
+      )
+    {
+      double low = ranges[outputIndex * 2], high = ranges[outputIndex * 2 + 1];
+      return value < low ? low : (value > high ? high : value);
+    }
+
+    /**
+      Maps the given input value to its sample table position.
+    */
+    private double toPosition(
+      double input,
+      int inputIndex
+      )
+    {
+      double domainLow = domains[inputIndex * 2], domainHigh = domains[inputIndex * 2 + 1];
+      if(input < domainLow)
+      {input = domainLow;}
+      else if(input > domainHigh)
+      {input = domainHigh;}
+
+      double encodeLow = encodes[inputIndex * 2], encodeHigh = encodes[inputIndex * 2 + 1];
+      double position = (domainHigh > domainLow
+        ? encodeLow + (input - domainLow) * (encodeHigh - encodeLow) / (domainHigh - domainLow)
+        : encodeLow);
+      return position < 0 ? 0 : Math.min(position, sizes[inputIndex] - 1);
+    }
+    // </private>
+    // </interface>
+    // </dynamic>
+    // </class>
+  }
   // </classes>
 
   // <dynamic>
+  // <fields>
+  private SampleTable sampleTable;
+  // </fields>
+
   // <constructors>
   //TODO:implement function creation and sample table management!
 
@@ -108,10 +295,19 @@ public final class Type0Function
     double[] inputs
     )
   {
-    // FIXME: Auto-generated method stub
-    return null;
+    SampleTable sampleTable = getSampleTable();
+    double[] outputs = new double[sampleTable.getOutputCount()];
+    sampleTable.calculate(inputs, outputs);
+    return outputs;
   }
 
+  @Override
+  public void calculate(
+    double[] inputs,
+    double[] outputs
+    )
+  {getSampleTable().calculate(inputs, outputs);}
+
   @Override
   public Type0Function clone(
     Document context
@@ -182,6 +378,54 @@ public final class Type0Function
     return sampleCounts;
   }
   // </public>
+
+  // <internal>
+  @Override
+  boolean isCostly(
+    )
+  {return false;} // NOTE: Sampled functions are lookup tables themselves.
+  // </internal>
+
+  // <private>
+  /**
+    Gets the decoded sample table.
+  */
+  private SampleTable getSampleTable(
+    )
+  {
+    if(sampleTable == null)
+    {
+      Cache cache = getCache();
+      sampleTable = (SampleTable)cache.evaluator;
+      if(sampleTable == null)
+      {
+        List<Integer> sampleCounts = getSampleCounts();
+        int[] sizes = new int[sampleCounts.size()];
+        for(int index = 0; index < sizes.length; index++)
+        {sizes[index] = sampleCounts.get(index);}
+        double[] encodes = getNumbers(PdfName.Encode);
+        if(encodes == null)
+        {
+          encodes = new double[sizes.length * 2];
+          for(int index = 0; index < sizes.length; index++)
+          {encodes[index * 2 + 1] = sizes[index] - 1;}
+        }
+        double[] ranges = getNumbers(PdfName.Range);
+        double[] decodes = getNumbers(PdfName.Decode);
+        cache.evaluator = sampleTable = new SampleTable(
+          getBaseDataObject().getBody().toByteArray(),
+          sizes,
+          getSampleBitsCount(),
+          getNumbers(PdfName.Domain),
+          encodes,
+          decodes != null ? decodes : ranges,
+          ranges
+          );
+      }
+    }
+    return sampleTable;
+  }
+  // </private>
   // </interface>
   // </dynamic>
   // </class>
@@ -48,14 +48,47 @@ import org.pdfclown.objects.PdfNumber;
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @since 0.1.0
-  @version 0.1.2, 12/21/12
+  @version 0.1.2, 10/18/26
 */
 @PDF(VersionEnum.PDF13)
 public final class Type2Function
   extends Function<PdfDictionary>
 {
   // <class>
+  // <classes>
+  /**
+    Function parameters.
+  */
+  private static final class Parameters
+  {
+    final double[] lowOutputs;
+    final double[] highOutputs;
+    final double exponent;
+    final double[] domains;
+    final double[] ranges;
+
+    Parameters(
+      double[] lowOutputs,
+      double[] highOutputs,
+      double exponent,
+      double[] domains,
+      double[] ranges
+      )
+    {
+      this.lowOutputs = lowOutputs;
+      this.highOutputs = highOutputs;
+      this.exponent = exponent;
+      this.domains = domains;
+      this.ranges = ranges;
+    }
+  }
+  // </classes>
+
   // <dynamic>
+  // <fields>
+  private Parameters parameters;
+  // </fields>
+
   // <constructors>
   //TODO:implement function creation!
 
@@ -72,8 +105,39 @@ public final class Type2Function
     double[] inputs
     )
   {
-    // FIXME: Auto-generated method stub
-    return null;
+    double[] outputs = new double[getParameters().lowOutputs.length];
+    calculate(inputs, outputs);
+    return outputs;
+  }
+
+  @Override
+  public void calculate(
+    double[] inputs,
+    double[] outputs
+    )
+  {
+    Parameters parameters = getParameters();
+    double input = inputs[0];
+    if(input < parameters.domains[0])
+    {input = parameters.domains[0];}
+    else if(input > parameters.domains[1])
+    {input = parameters.domains[1];}
+
+    double factor = (parameters.exponent == 1 ? input : Math.pow(input, parameters.exponent));
+    double[] ranges = parameters.ranges;
+    for(int index = 0, length = parameters.lowOutputs.length; index < length; index++)
+    {
+      double lowOutput = parameters.lowOutputs[index];
+      double output = lowOutput + factor * (parameters.highOutputs[index] - lowOutput);
+      if(ranges != null)
+      {
+        if(output < ranges[index * 2])
+        {output = ranges[index * 2];}
+        else if(output > ranges[index * 2 + 1])
+        {output = ranges[index * 2 + 1];}
+      }
+      outputs[index] = output;
+    }
   }
 
   @Override
@@ -123,6 +187,38 @@ public final class Type2Function
     )
   {return ((PdfNumber<?>)getDictionary().get(PdfName.N)).getDoubleValue();}
   // </public>
+
+  // <internal>
+  @Override
+  boolean isCostly(
+    )
+  {return false;}
+  // </internal>
+
+  // <private>
+  private Parameters getParameters(
+    )
+  {
+    if(parameters == null)
+    {
+      Cache cache = getCache();
+      parameters = (Parameters)cache.evaluator;
+      if(parameters == null)
+      {
+        double[] lowOutputs = getNumbers(PdfName.C0);
+        double[] highOutputs = getNumbers(PdfName.C1);
+        cache.evaluator = parameters = new Parameters(
+          lowOutputs != null ? lowOutputs : new double[]{0},
+          highOutputs != null ? highOutputs : new double[]{1},
+          getExponent(),
+          getNumbers(PdfName.Domain),
+          getNumbers(PdfName.Range)
+          );
+      }
+    }
+    return parameters;
+  }
+  // </private>
   // </interface>
   // </dynamic>
   // </class>
@@ -44,14 +44,47 @@ import org.pdfclown.util.math.Interval;
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @since 0.1.0
-  @version 0.1.2, 12/21/12
+  @version 0.1.2, 10/18/26
 */
 @PDF(VersionEnum.PDF13)
 public final class Type3Function
   extends Function<PdfDictionary>
 {
   // <class>
+  // <classes>
+  /**
+    Function parameters.
+  */
+  private static final class Parameters
+  {
+    final double[] bounds;
+    final double[] domains;
+    final double[] encodes;
+    final Function<?>[] functions;
+    final double[] ranges;
+
+    Parameters(
+      Function<?>[] functions,
+      double[] bounds,
+      double[] encodes,
+      double[] domains,
+      double[] ranges
+      )
+    {
+      this.functions = functions;
+      this.bounds = bounds;
+      this.encodes = encodes;
+      this.domains = domains;
+      this.ranges = ranges;
+    }
+  }
+  // </classes>
+
   // <dynamic>
+  // <fields>
+  private Parameters parameters;
+  // </fields>
+
   // <constructors>
   //TODO:implement function creation!
 
@@ -68,8 +101,26 @@ public final class Type3Function
     double[] inputs
     )
   {
-    // FIXME: Auto-generated method stub
-    return null;
+    Parameters parameters = getParameters();
+    double[] outputs = parameters.functions[getFunctionIndex(parameters, inputs[0])].calculate(
+      new double[]{encode(parameters, inputs[0])}
+      );
+    clip(parameters, outputs);
+    return outputs;
+  }
+
+  @Override
+  public void calculate(
+    double[] inputs,
+    double[] outputs
+    )
+  {
+    Parameters parameters = getParameters();
+    parameters.functions[getFunctionIndex(parameters, inputs[0])].calculate(
+      new double[]{encode(parameters, inputs[0])},
+      outputs
+      );
+    clip(parameters, outputs);
   }
 
   @Override
@@ -110,6 +161,89 @@ public final class Type3Function
     )
   {return new Functions(getDictionary().get(PdfName.Functions), this);}
   // </public>
+
+  // <private>
+  /**
+    Clips the given output values to their ranges.
+  */
+  private static void clip(
+    Parameters parameters,
+    double[] outputs
+    )
+  {
+    double[] ranges = parameters.ranges;
+    if(ranges == null)
+      return;
+
+    for(int index = 0, length = Math.min(outputs.length, ranges.length / 2); index < length; index++)
+    {
+      if(outputs[index] < ranges[index * 2])
+      {outputs[index] = ranges[index * 2];}
+      else if(outputs[index] > ranges[index * 2 + 1])
+      {outputs[index] = ranges[index * 2 + 1];}
+    }
+  }
+
+  /**
+    Maps the given input value into the domain of its function.
+  */
+  private static double encode(
+    Parameters parameters,
+    double input
+    )
+  {
+    double[] domains = parameters.domains;
+    if(input < domains[0])
+    {input = domains[0];}
+    else if(input > domains[1])
+    {input = domains[1];}
+
+    int functionIndex = getFunctionIndex(parameters, input);
+    double low = (functionIndex == 0 ? domains[0] : parameters.bounds[functionIndex - 1]);
+    double high = (functionIndex == parameters.bounds.length ? domains[1] : parameters.bounds[functionIndex]);
+    double encodeLow = parameters.encodes[functionIndex * 2], encodeHigh = parameters.encodes[functionIndex * 2 + 1];
+    return high > low
+      ? encodeLow + (input - low) * (encodeHigh - encodeLow) / (high - low)
+      : encodeLow;
+  }
+
+  /**
+    Gets the index of the function whose subdomain contains the given input value.
+  */
+  private static int getFunctionIndex(
+    Parameters parameters,
+    double input
+    )
+  {
+    double[] bounds = parameters.bounds;
+    int functionIndex = 0;
+    while(functionIndex < bounds.length && input >= bounds[functionIndex])
+    {functionIndex++;}
+    return functionIndex;
+  }
+
+  private Parameters getParameters(
+    )
+  {
+    if(parameters == null)
+    {
+      Cache cache = getCache();
+      parameters = (Parameters)cache.evaluator;
+      if(parameters == null)
+      {
+        Functions functions = getFunctions();
+        cache.evaluator = parameters = new Parameters(
+          functions.toArray(new Function<?>[functions.size()]),
+          getNumbers(PdfName.Bounds),
+          getNumbers(PdfName.Encode),
+          getNumbers(PdfName.Domain),
+          getNumbers(PdfName.Range)
+          );
+      }
+    }
+    return parameters;
+  }
+  // </private>
   // </interface>
   // </dynamic>
   // </class>
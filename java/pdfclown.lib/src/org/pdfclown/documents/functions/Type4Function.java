@@ -25,26 +25,873 @@
 
 package org.pdfclown.documents.functions;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.pdfclown.PDF;
 import org.pdfclown.VersionEnum;
 import org.pdfclown.documents.Document;
 import org.pdfclown.objects.PdfDirectObject;
+import org.pdfclown.objects.PdfName;
 import org.pdfclown.objects.PdfStream;
+import org.pdfclown.tokens.Symbol;
+import org.pdfclown.util.parsers.ParseException;
+import org.pdfclown.util.parsers.PostScriptParser;
 
 /**
   PostScript calculator function represented as a stream containing code written in a small subset
   of the PostScript language [PDF:1.6:3.9.4].
+  <p>The calculator code is compiled once into a flat instruction array evaluated over a primitive
+  operand stack, so that each calculation costs neither parsing nor allocation; compiled
+  programs are shared document-wide.</p>
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @since 0.1.0
-  @version 0.1.2, 12/21/12
+  @version 0.1.2, 10/18/26
 */
 @PDF(VersionEnum.PDF13)
 public final class Type4Function
   extends Function<PdfStream>
 {
   // <class>
+  // <classes>
+  /**
+    Compiled calculator program.
+  */
+  private static final class Program
+  {
+    // <class>
+    // <static>
+    // <fields>
+    /*
+      NOTE: Instructions taking an operand (constant index or jump target) are followed by it in
+      the code array.
+    */
+    private static final int Push = 0;
+    private static final int Abs = 1;
+    private static final int Add = 2;
+    private static final int Atan = 3;
+    private static final int Ceiling = 4;
+    private static final int Cos = 5;
+    private static final int Cvi = 6;
+    private static final int Div = 7;
+    private static final int Exp = 8;
+    private static final int Floor = 9;
+    private static final int Idiv = 10;
+    private static final int Ln = 11;
+    private static final int Log = 12;
+    private static final int Mod = 13;
+    private static final int Mul = 14;
+    private static final int Neg = 15;
+    private static final int Round = 16;
+    private static final int Sin = 17;
+    private static final int Sqrt = 18;
+    private static final int Sub = 19;
+    private static final int Truncate = 20;
+    private static final int And = 21;
+    private static final int Bitshift = 22;
+    private static final int Eq = 23;
+    private static final int Ge = 24;
+    private static final int Gt = 25;
+    private static final int Le = 26;
+    private static final int Lt = 27;
+    private static final int Ne = 28;
+    private static final int NotBoolean = 29;
+    private static final int NotInteger = 30;
+    private static final int Or = 31;
+    private static final int Xor = 32;
+    private static final int Copy = 33;
+    private static final int Dup = 34;
+    private static final int Exch = 35;
+    private static final int Index = 36;
+    private static final int Pop = 37;
+    private static final int Roll = 38;
+    private static final int Jump = 39;
+    private static final int JumpIfFalse = 40;
+    // Binary operations whose second operand is a constant.
+    private static final int AddConstant = 41;
+    private static final int SubConstant = 42;
+    private static final int MulConstant = 43;
+    private static final int DivConstant = 44;
+
+    /**
+      Operand stack limit [PDF:1.6:H.3:31].
+    */
+    private static final int MaxStackSize = 100;
+
+    private static final Map<String,Integer> operators = new HashMap<String,Integer>();
+    static
+    {
+      operators.put("abs", Abs);
+      operators.put("add", Add);
+      operators.put("atan", Atan);
+      operators.put("ceiling", Ceiling);
+      operators.put("cos", Cos);
+      operators.put("cvi", Cvi);
+      operators.put("cvr", -1); // NOTE: Numbers are real anyway.
+      operators.put("div", Div);
+      operators.put("exp", Exp);
+      operators.put("floor", Floor);
+      operators.put("idiv", Idiv);
+      operators.put("ln", Ln);
+      operators.put("log", Log);
+      operators.put("mod", Mod);
+      operators.put("mul", Mul);
+      operators.put("neg", Neg);
+      operators.put("round", Round);
+      operators.put("sin", Sin);
+      operators.put("sqrt", Sqrt);
+      operators.put("sub", Sub);
+      operators.put("truncate", Truncate);
+      operators.put("and", And);
+      operators.put("bitshift", Bitshift);
+      operators.put("eq", Eq);
+      operators.put("ge", Ge);
+      operators.put("gt", Gt);
+      operators.put("le", Le);
+      operators.put("lt", Lt);
+      operators.put("ne", Ne);
+      operators.put("not", NotBoolean);
+      operators.put("or", Or);
+      operators.put("xor", Xor);
+      operators.put("copy", Copy);
+      operators.put("dup", Dup);
+      operators.put("exch", Exch);
+      operators.put("index", Index);
+      operators.put("pop", Pop);
+      operators.put("roll", Roll);
+    }
+    // </fields>
+    // </static>
+
+    // <dynamic>
+    // <fields>
+    private final int[] code;
+    private final double[] constants;
+    private final double[] domains;
+    private final int outputCount;
+    private final double[] ranges;
+    private final ThreadLocal<double[]> stacks;
+    // </fields>
+
+    // <constructors>
+    Program(
+      int[] code,
+      double[] constants,
+      double[] domains,
+      double[] ranges,
+      final int stackSize
+      )
+    {
+      this.code = code;
+      this.constants = constants;
+      this.domains = domains;
+      this.ranges = ranges;
+      this.outputCount = ranges.length / 2;
+      this.stacks = new ThreadLocal<double[]>()
+        {
+          @Override
+          protected double[] initialValue(
+            )
+          {return new double[stackSize];}
+        };
+    }
+    // </constructors>
+
+    // <interface>
+    // <public>
+    public void calculate(
+      double[] inputs,
+      double[] outputs
+      )
+    {
+      final int[] code = this.code;
+      final double[] constants = this.constants;
+      final double[] stack = stacks.get();
+
+      // Operand stack initialization (input values clipped to their domains).
+      int size = 0;
+      for(int index = 0, length = domains.length / 2; index < length; index++)
+      {stack[size++] = clip(inputs[index], domains[index * 2], domains[index * 2 + 1]);}
+
+      // Program execution.
+      for(int position = 0, length = code.length; position < length;)
+      {
+        switch(code[position++])
+        {
+          case Push:
+            stack[size++] = constants[code[position++]];
+            break;
+          case Abs:
+            stack[size - 1] = Math.abs(stack[size - 1]);
+            break;
+          case Add:
+            size--; stack[size - 1] += stack[size];
+            break;
+          case AddConstant:
+            stack[size - 1] += constants[code[position++]];
+            break;
+          case Atan:
+          {
+            size--;
+            double angle = Math.toDegrees(Math.atan2(stack[size - 1], stack[size]));
+            stack[size - 1] = (angle < 0 ? angle + 360 : angle);
+          } break;
+          case Ceiling:
+            stack[size - 1] = Math.ceil(stack[size - 1]);
+            break;
+          case Cos:
+            stack[size - 1] = Math.cos(Math.toRadians(stack[size - 1]));
+            break;
+          case Cvi:
+          case Truncate:
+          {
+            double value = stack[size - 1];
+            stack[size - 1] = (value < 0 ? Math.ceil(value) : Math.floor(value));
+          } break;
+          case Div:
+            size--; stack[size - 1] /= stack[size];
+            break;
+          case DivConstant:
+            stack[size - 1] /= constants[code[position++]];
+            break;
+          case Exp:
+            size--; stack[size - 1] = Math.pow(stack[size - 1], stack[size]);
+            break;
+          case Floor:
+            stack[size - 1] = Math.floor(stack[size - 1]);
+            break;
+          case Idiv:
+            size--; stack[size - 1] = (long)stack[size - 1] / (long)stack[size];
+            break;
+          case Ln:
+            stack[size - 1] = Math.log(stack[size - 1]);
+            break;
+          case Log:
+            stack[size - 1] = Math.log10(stack[size - 1]);
+            break;
+          case Mod:
+            size--; stack[size - 1] = (long)stack[size - 1] % (long)stack[size];
+            break;
+          case Mul:
+            size--; stack[size - 1] *= stack[size];
+            break;
+          case MulConstant:
+            stack[size - 1] *= constants[code[position++]];
+            break;
+          case Neg:
+            stack[size - 1] = -stack[size - 1];
+            break;
+          case Round:
+            stack[size - 1] = Math.floor(stack[size - 1] + .5);
+            break;
+          case Sin:
+            stack[size - 1] = Math.sin(Math.toRadians(stack[size - 1]));
+            break;
+          case Sqrt:
+            stack[size - 1] = Math.sqrt(stack[size - 1]);
+            break;
+          case Sub:
+            size--; stack[size - 1] -= stack[size];
+            break;
+          case SubConstant:
+            stack[size - 1] -= constants[code[position++]];
+            break;
+          case And:
+            size--; stack[size - 1] = (int)stack[size - 1] & (int)stack[size];
+            break;
+          case Bitshift:
+          {
+            size--;
+            int value = (int)stack[size - 1], shift = (int)stack[size];
+            stack[size - 1] = (shift >= 0 ? value << shift : value >>> -shift);
+          } break;
+          case Eq:
+            size--; stack[size - 1] = (stack[size - 1] == stack[size] ? 1 : 0);
+            break;
+          case Ge:
+            size--; stack[size - 1] = (stack[size - 1] >= stack[size] ? 1 : 0);
+            break;
+          case Gt:
+            size--; stack[size - 1] = (stack[size - 1] > stack[size] ? 1 : 0);
+            break;
+          case Le:
+            size--; stack[size - 1] = (stack[size - 1] <= stack[size] ? 1 : 0);
+            break;
+          case Lt:
+            size--; stack[size - 1] = (stack[size - 1] < stack[size] ? 1 : 0);
+            break;
+          case Ne:
+            size--; stack[size - 1] = (stack[size - 1] != stack[size] ? 1 : 0);
+            break;
+          case NotBoolean:
+            stack[size - 1] = (stack[size - 1] == 0 ? 1 : 0);
+            break;
+          case NotInteger:
+            stack[size - 1] = ~(int)stack[size - 1];
+            break;
+          case Or:
+            size--; stack[size - 1] = (int)stack[size - 1] | (int)stack[size];
+            break;
+          case Xor:
+            size--; stack[size - 1] = (int)stack[size - 1] ^ (int)stack[size];
+            break;
+          case Copy:
+          {
+            int count = (int)stack[--size];
+            System.arraycopy(stack, size - count, stack, size, count);
+            size += count;
+          } break;
+          case Dup:
+            stack[size] = stack[size - 1]; size++;
+            break;
+          case Exch:
+          {
+            double value = stack[size - 1];
+            stack[size - 1] = stack[size - 2];
+            stack[size - 2] = value;
+          } break;
+          case Index:
+            stack[size - 1] = stack[size - 2 - (int)stack[size - 1]];
+            break;
+          case Pop:
+            size--;
+            break;
+          case Roll:
+          {
+            int shift = (int)stack[--size];
+            int count = (int)stack[--size];
+            if(count > 0)
+            {
+              // Rotation by reversal (positive shifts move elements toward the top).
+              shift %= count; if(shift < 0) {shift += count;}
+              int start = size - count;
+              reverse(stack, start, size);
+              reverse(stack, start, start + shift);
+              reverse(stack, start + shift, size);
+            }
+          } break;
+          case Jump:
+            position = code[position];
+            break;
+          case JumpIfFalse:
+            if(stack[--size] == 0)
+            {position = code[position];}
+            else
+            {position++;}
+            break;
+          default:
+            throw new IllegalStateException();
+        }
+      }
+
+      // Output values (clipped to their ranges).
+      for(int index = 0, offset = size - outputCount; index < outputCount; index++)
+      {outputs[index] = clip(stack[offset + index], ranges[index * 2], ranges[index * 2 + 1]);}
+    }
+
+    public int getOutputCount(
+      )
+    {return outputCount;}
+    // </public>
+
+    // <private>
+    private static double clip(
+      double value,
+      double low,
+      double high
+      )
+    {return value < low ? low : (value > high ? high : value);}
+
+    private static void reverse(
+      double[] values,
+      int start,
+      int end
+      )
+    {
+      for(end--; start < end; start++, end--)
+      {
+        double value = values[start];
+        values[start] = values[end];
+        values[end] = value;
+      }
+    }
+    // </private>
+    // </interface>
+    // </dynamic>
+    // </class>
+  }
+
+  /**
+    Calculator code compiler.
+    <p>Besides emitting the instructions, it keeps track of the operand types (statically, as
+    long as the stack layout is predictable) to resolve type-dependent operators and to reject
+    programs underflowing the stack.</p>
+  */
+  private static final class Compiler
+  {
+    // <class>
+    // <static>
+    // <fields>
+    private static final int BooleanType = 1;
+    private static final int IntegerType = 2;
+    private static final int RealType = 3;
+    private static final int UnknownType = 0;
+    // </fields>
+    // </static>
+
+    // <dynamic>
+    // <fields>
+    private int[] code = new int[64];
+    private int codeLength;
+    private final List<Double> constants = new ArrayList<Double>();
+    /**
+      Position of the run of constant pushes ending at the current position.
+    */
+    private int constantsStart;
+    private int maxStackSize;
+    private final PostScriptParser parser;
+    /**
+      Operand types (<code>null</code> if the stack layout is unpredictable).
+    */
+    private int[] types = new int[Program.MaxStackSize];
+    private int typesSize;
+    // </fields>
+
+    // <constructors>
+    Compiler(
+      byte[] data,
+      int inputCount
+      )
+    {
+      parser = new PostScriptParser(data);
+      for(int index = 0; index < inputCount; index++)
+      {pushType(RealType);}
+    }
+    // </constructors>
+
+    // <interface>
+    // <public>
+    public Program compile(
+      double[] domains,
+      double[] ranges
+      )
+    {
+      if(!parser.moveNext() || !isKeyword(Symbol.OpenBrace))
+        throw new ParseException("Calculator program MUST be enclosed in braces.", parser.getPosition());
+
+      compileProcedure();
+      if(types != null && typesSize < ranges.length / 2)
+        throw new ParseException("Calculator program returns " + typesSize + " values instead of " + (ranges.length / 2) + ".");
+
+      double[] constantValues = new double[constants.size()];
+      for(int index = 0; index < constantValues.length; index++)
+      {constantValues[index] = constants.get(index);}
+      return new Program(
+        Arrays.copyOf(code, codeLength),
+        constantValues,
+        domains,
+        ranges,
+        types != null ? Math.max(maxStackSize, 1) : Program.MaxStackSize
+        );
+    }
+    // </public>
+
+    // <private>
+    /**
+      Compiles the procedure whose opening brace has just been parsed.
+    */
+    private void compileProcedure(
+      )
+    {
+      while(true)
+      {
+        if(!parser.moveNext())
+          throw new ParseException("Unexpected EOF (unterminated procedure).", parser.getPosition());
+
+        switch(parser.getTokenType())
+        {
+          case Integer:
+            emitPush(((Integer)parser.getToken()).doubleValue(), IntegerType);
+            break;
+          case Real:
+            emitPush((Double)parser.getToken(), RealType);
+            break;
+          case Boolean:
+            emitPush((Boolean)parser.getToken() ? 1 : 0, BooleanType);
+            break;
+          case Keyword:
+            if(isKeyword(Symbol.CloseBrace))
+              return;
+            else if(isKeyword(Symbol.OpenBrace))
+            {compileConditional();}
+            else
+            {compileOperator((String)parser.getToken());}
+            break;
+          case Comment:
+            break;
+          default:
+            throw new ParseException("Unexpected token: " + parser.getToken(), parser.getPosition());
+        }
+      }
+    }
+
+    /**
+      Compiles the conditional whose first procedure's opening brace has just been parsed
+      (<code>bool {...} if</code> or <code>bool {...} {...} ifelse</code>).
+    */
+    private void compileConditional(
+      )
+    {
+      popTypes(1);
+      int[] savedTypes = (types != null ? Arrays.copyOf(types, typesSize) : null);
+
+      int falseJumpPosition = emit(Program.JumpIfFalse, -1);
+      compileProcedure();
+      if(!parser.moveNext() || parser.getTokenType() != PostScriptParser.TokenTypeEnum.Keyword)
+        throw new ParseException("Conditional operator expected.", parser.getPosition());
+
+      if(isKeyword(Symbol.OpenBrace)) // ifelse.
+      {
+        int[] trueTypes = (types != null ? Arrays.copyOf(types, typesSize) : null);
+        setTypes(savedTypes);
+
+        int endJumpPosition = emit(Program.Jump, -1);
+        placeLabel(falseJumpPosition);
+        compileProcedure();
+        if(!parser.moveNext() || !"ifelse".equals(parser.getToken()))
+          throw new ParseException("'ifelse' operator expected.", parser.getPosition());
+
+        mergeTypes(trueTypes);
+        placeLabel(endJumpPosition);
+      }
+      else if("if".equals(parser.getToken()))
+      {
+        mergeTypes(savedTypes);
+        placeLabel(falseJumpPosition);
+      }
+      else
+        throw new ParseException("Conditional operator expected.", parser.getPosition());
+    }
+
+    private void compileOperator(
+      String name
+      )
+    {
+      Integer operator = Program.operators.get(name);
+      if(operator == null)
+        throw new ParseException("Unknown operator: " + name, parser.getPosition());
+
+      switch(operator)
+      {
+        case -1: // cvr.
+          popTypes(1); pushType(RealType);
+          return;
+        case Program.Abs:
+        case Program.Ceiling:
+        case Program.Floor:
+        case Program.Neg:
+        case Program.Round:
+        case Program.Truncate:
+          pushType(popTypes(1));
+          break;
+        case Program.Cos:
+        case Program.Ln:
+        case Program.Log:
+        case Program.Sin:
+        case Program.Sqrt:
+          popTypes(1); pushType(RealType);
+          break;
+        case Program.Cvi:
+          popTypes(1); pushType(IntegerType);
+          break;
+        case Program.Add:
+        case Program.Mul:
+        case Program.Sub:
+        {
+          int type = popTypes(2);
+          pushType(type == IntegerType ? IntegerType : RealType);
+          // Constant operand?
+          if(codeLength - 2 >= constantsStart)
+          {
+            fuse(operator == Program.Add ? Program.AddConstant
+              : operator == Program.Mul ? Program.MulConstant
+              : Program.SubConstant);
+            return;
+          }
+        } break;
+        case Program.Div:
+          popTypes(2); pushType(RealType);
+          if(codeLength - 2 >= constantsStart)
+          {
+            fuse(Program.DivConstant);
+            return;
+          }
+          break;
+        case Program.Atan:
+        case Program.Exp:
+          popTypes(2); pushType(RealType);
+          break;
+        case Program.Bitshift:
+        case Program.Idiv:
+        case Program.Mod:
+          popTypes(2); pushType(IntegerType);
+          break;
+        case Program.And:
+        case Program.Or:
+        case Program.Xor:
+          pushType(popTypes(2));
+          break;
+        case Program.Eq:
+        case Program.Ge:
+        case Program.Gt:
+        case Program.Le:
+        case Program.Lt:
+        case Program.Ne:
+          popTypes(2); pushType(BooleanType);
+          break;
+        case Program.NotBoolean:
+        {
+          int type = popTypes(1);
+          pushType(type);
+          if(type == IntegerType)
+          {operator = Program.NotInteger;}
+        } break;
+        case Program.Dup:
+        {
+          int type = popTypes(1);
+          pushType(type); pushType(type);
+        } break;
+        case Program.Exch:
+          if(types != null)
+          {
+            checkTypes(2);
+            int type = types[typesSize - 1];
+            types[typesSize - 1] = types[typesSize - 2];
+            types[typesSize - 2] = type;
+          }
+          break;
+        case Program.Pop:
+          popTypes(1);
+          break;
+        case Program.Copy:
+        case Program.Index:
+        case Program.Roll:
+        {
+          // Stack layout is predictable only in case of constant arguments.
+          double[] arguments = getConstantArguments(operator == Program.Roll ? 2 : 1);
+          if(arguments == null)
+          {types = null;}
+          else if(types != null)
+          {
+            popTypes(arguments.length);
+            int count = (int)arguments[0];
+            checkTypes(operator == Program.Index ? count + 1 : count);
+            if(operator == Program.Copy)
+            {
+              for(int index = typesSize - count, end = typesSize; index < end; index++)
+              {pushType(types[index]);}
+            }
+            else if(operator == Program.Index)
+            {pushType(types[typesSize - 1 - count]);}
+            else if(count > 0)
+            {
+              int shift = (int)arguments[1] % count; if(shift < 0) {shift += count;}
+              int[] window = Arrays.copyOfRange(types, typesSize - count, typesSize);
+              for(int index = 0; index < count; index++)
+              {types[typesSize - count + (index + shift) % count] = window[index];}
+            }
+          }
+        } break;
+      }
+      emit(operator);
+    }
+
+    private void checkTypes(
+      int count
+      )
+    {
+      if(count > typesSize)
+        throw new ParseException("Stack underflow.", parser.getPosition());
+    }
+
+    /**
+      Appends the given instruction.
+
+      @return Position of the last instruction value.
+    */
+    private int emit(
+      int... values
+      )
+    {
+      if(codeLength + values.length > code.length)
+      {code = Arrays.copyOf(code, code.length * 2);}
+
+      System.arraycopy(values, 0, code, codeLength, values.length);
+      codeLength += values.length;
+      if(values[0] != Program.Push)
+      {constantsStart = codeLength;}
+      return codeLength - 1;
+    }
+
+    private void emitPush(
+      double value,
+      int type
+      )
+    {
+      int constantIndex = constants.indexOf(value);
+      if(constantIndex < 0)
+      {
+        constantIndex = constants.size();
+        constants.add(value);
+      }
+      emit(Program.Push, constantIndex);
+      pushType(type);
+    }
+
+    /**
+      Replaces the last constant push with the given constant-operand instruction.
+    */
+    private void fuse(
+      int operator
+      )
+    {
+      code[codeLength - 2] = operator;
+      constantsStart = codeLength;
+    }
+
+    /**
+      Gets the values pushed by the constant instructions immediately preceding the current
+      position.
+
+      @return <code>null</code>, if the arguments are not constant.
+    */
+    private double[] getConstantArguments(
+      int count
+      )
+    {
+      int position = codeLength - count * 2;
+      if(position < constantsStart)
+        return null;
+
+      double[] arguments = new double[count];
+      for(int index = 0; index < count; index++, position += 2)
+      {arguments[index] = constants.get(code[position + 1]);}
+      return arguments;
+    }
+
+    private boolean isKeyword(
+      char symbol
+      )
+    {
+      return parser.getTokenType() == PostScriptParser.TokenTypeEnum.Keyword
+        && ((String)parser.getToken()).length() == 1
+        && ((String)parser.getToken()).charAt(0) == symbol;
+    }
+
+    /**
+      Merges the current operand types with those of an alternative execution path.
+    */
+    private void mergeTypes(
+      int[] otherTypes
+      )
+    {
+      if(types == null)
+        return;
+      else if(otherTypes == null || otherTypes.length != typesSize)
+      {
+        types = null;
+        return;
+      }
+
+      for(int index = 0; index < typesSize; index++)
+      {
+        if(types[index] != otherTypes[index])
+        {
+          types[index] = (types[index] != BooleanType && otherTypes[index] != BooleanType
+            ? RealType
+            : UnknownType);
+        }
+      }
+    }
+
+    /**
+      Sets the jump target of the given instruction operand to the current position.
+    */
+    private void placeLabel(
+      int jumpOperandPosition
+      )
+    {
+      code[jumpOperandPosition] = codeLength;
+      // NOTE: Constants can't be fused across jump targets.
+      constantsStart = codeLength;
+    }
+
+    /**
+      Removes the given number of operands.
+
+      @return Common type of the removed operands.
+    */
+    private int popTypes(
+      int count
+      )
+    {
+      if(types == null)
+        return UnknownType;
+
+      checkTypes(count);
+      int type = types[typesSize - 1];
+      for(int index = 1; index < count; index++)
+      {
+        int otherType = types[typesSize - 1 - index];
+        if(otherType != type)
+        {type = (type == BooleanType || otherType == BooleanType ? UnknownType : RealType);}
+      }
+      typesSize -= count;
+      return type;
+    }
+
+    private void pushType(
+      int type
+      )
+    {
+      if(types == null)
+        return;
+      else if(typesSize == types.length)
+        throw new ParseException("Stack overflow.", parser.getPosition());
+
+      types[typesSize++] = type;
+      if(typesSize > maxStackSize)
+      {maxStackSize = typesSize;}
+    }
+
+    private void setTypes(
+      int[] value
+      )
+    {
+      if(value == null)
+      {types = null;}
+      else
+      {
+        types = Arrays.copyOf(value, Program.MaxStackSize);
+        typesSize = value.length;
+      }
+    }
+    // </private>
+    // </interface>
+    // </dynamic>
+    // </class>
+  }
+  // </classes>
+
   // <dynamic>
+  // <fields>
+  private Program program;
+  // </fields>
+
   // <constructors>
   //TODO:implement function creation!
 
@@ -61,16 +908,47 @@ public final class Type4Function
     double[] inputs
     )
   {
-    // FIXME: Auto-generated method stub
-    return null;
+    Program program = getProgram();
+    double[] outputs = new double[program.getOutputCount()];
+    program.calculate(inputs, outputs);
+    return outputs;
   }
 
+  @Override
+  public void calculate(
+    double[] inputs,
+    double[] outputs
+    )
+  {getProgram().calculate(inputs, outputs);}
+
   @Override
   public Type4Function clone(
     Document context
     )
   {return (Type4Function)super.clone(context);}
   // </public>
+
+  // <private>
+  /**
+    Gets the compiled calculator program.
+  */
+  private Program getProgram(
+    )
+  {
+    if(program == null)
+    {
+      Cache cache = getCache();
+      program = (Program)cache.evaluator;
+      if(program == null)
+      {
+        double[] domains = getNumbers(PdfName.Domain);
+        cache.evaluator = program = new Compiler(getBaseDataObject().getBody().toByteArray(), domains.length / 2)
+          .compile(domains, getNumbers(PdfName.Range));
+      }
+    }
+    return program;
+  }
+  // </private>
   // </interface>
   // </dynamic>
   // </class>
@@ -30,6 +30,7 @@ import java.util.Stack;
 
 import org.pdfclown.PDF;
 import org.pdfclown.VersionEnum;
+import org.pdfclown.documents.Document;
 import org.pdfclown.documents.interaction.actions.ResetForm;
 import org.pdfclown.documents.interaction.annotations.Widget;
 import org.pdfclown.objects.PdfDictionary;
@@ -49,7 +50,7 @@ import org.pdfclown.util.EnumUtils;
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @since 0.0.7
-  @version 0.1.2, 12/28/12
+  @version 0.1.2, 10/18/26
 */
 @PDF(VersionEnum.PDF12)
 public abstract class Field
@@ -442,7 +443,14 @@ public abstract class Field
   public void setName(
     String value
     )
-  {getBaseDataObject().put(PdfName.T, new PdfTextString(value));}
+  {
+    getBaseDataObject().put(PdfName.T, new PdfTextString(value));
+
+    // Fully qualified names have changed!
+    Document document = getDocument();
+    if(document != null)
+    {document.setFieldIndex(null);}
+  }
 
   /**
     @see #isReadOnly()
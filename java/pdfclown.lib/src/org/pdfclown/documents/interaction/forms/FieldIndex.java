@@ -0,0 +1,202 @@
+/*
+  Copyright 2026 Stefano Chizzolini. http://www.pdfclown.org
+
+  Contributors:
+    * Stefano Chizzolini (original code developer, http://www.stefanochizzolini.it)
+
+  This file should be part of the source code distribution of "PDF Clown library"
+  (the Program): see the accompanying README files for more info.
+
+  This Program is free software; you can redistribute it and/or modify it under the terms
+  of the GNU Lesser General Public License as published by the Free Software Foundation;
+  either version 3 of the License, or (at your option) any later version.
+
+  This Program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  either expressed or implied; without even the implied warranty of MERCHANTABILITY or
+  FITNESS FOR A PARTICULAR PURPOSE. See the License for more details.
+
+  You should have received a copy of the GNU Lesser General Public License along with this
+  Program (see README files); if not, go to the GNU website (http://www.gnu.org/licenses/).
+
+  Redistribution and use, with or without modification, are permitted provided that such
+  redistributions retain the above copyright notice, license and disclaimer, along with
+  this list of conditions.
+*/
+
+package org.pdfclown.documents.interaction.forms;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.pdfclown.documents.Document;
+import org.pdfclown.objects.PdfArray;
+import org.pdfclown.objects.PdfDictionary;
+import org.pdfclown.objects.PdfDirectObject;
+import org.pdfclown.objects.PdfName;
+import org.pdfclown.objects.PdfReference;
+import org.pdfclown.objects.PdfTextString;
+
+/**
+  <span style="color:red">For internal use only.</span>
+  <p>Field index, mapping fully qualified field names to field references.</p>
+  <p>It's built in a single traversal of the field tree and held by its {@link
+  Document#getFieldIndex() document}, then discarded by {@link Fields} and {@link Field} along
+  their mutations.</p>
+
+  @author Stefano Chizzolini (http://www.stefanochizzolini.it)
+  @since 0.1.2
+  @version 0.1.2, 10/18/26
+*/
+public final class FieldIndex
+{
+  // <class>
+  // <classes>
+  private static final class PendingField
+  {
+    final String parentName;
+    final PdfReference reference;
+
+    PendingField(
+      PdfReference reference,
+      String parentName
+      )
+    {
+      this.reference = reference;
+      this.parentName = parentName;
+    }
+  }
+  // </classes>
+
+  // <dynamic>
+  // <fields>
+  /**
+    Fields by fully qualified name (both terminal and non-terminal ones).
+  */
+  private final Map<String,PdfReference> fieldReferences = new HashMap<String,PdfReference>();
+  private final PdfArray rootFieldObjects;
+  private final int rootFieldCount;
+  /**
+    Fully qualified names of the terminal fields, in tree order.
+  */
+  private final List<String> terminalNames = new ArrayList<String>();
+  /**
+    Terminal fields, in tree order.
+  */
+  private final List<PdfReference> terminalReferences = new ArrayList<PdfReference>();
+  // </fields>
+
+  // <constructors>
+  /**
+    @param rootFieldObjects Root fields.
+  */
+  FieldIndex(
+    PdfArray rootFieldObjects
+    )
+  {
+    this.rootFieldObjects = rootFieldObjects;
+    this.rootFieldCount = rootFieldObjects.size();
+
+    Deque<PendingField> pendingFields = new ArrayDeque<PendingField>();
+    pushFields(rootFieldObjects, "", pendingFields);
+    while(!pendingFields.isEmpty())
+    {
+      PendingField pendingField = pendingFields.pop();
+      PdfDictionary fieldDictionary = (PdfDictionary)pendingField.reference.getDataObject();
+      PdfTextString partialName = (PdfTextString)fieldDictionary.get(PdfName.T);
+      String fullName = null;
+      if(partialName != null && pendingField.parentName != null)
+      {
+        fullName = (pendingField.parentName.isEmpty()
+          ? partialName.getValue()
+          : pendingField.parentName + '.' + partialName.getValue());
+        /*
+          NOTE: Field dictionaries sharing the same fully qualified name are representations of
+          the same underlying field, so the first one is indexed.
+        */
+        if(!fieldReferences.containsKey(fullName))
+        {fieldReferences.put(fullName, pendingField.reference);}
+      }
+
+      PdfArray kidReferences = (PdfArray)fieldDictionary.resolve(PdfName.Kids);
+      PdfDictionary kidObject = (kidReferences == null || kidReferences.isEmpty()
+        ? null
+        : (PdfDictionary)((PdfReference)kidReferences.get(0)).getDataObject());
+      // Terminal field?
+      if(kidObject == null // Merged single widget annotation.
+        || (!kidObject.containsKey(PdfName.FT) // Multiple widget annotations.
+          && kidObject.containsKey(PdfName.Subtype)
+          && kidObject.get(PdfName.Subtype).equals(PdfName.Widget)))
+      {
+        terminalReferences.add(pendingField.reference);
+        terminalNames.add(fullName);
+      }
+      else // Non-terminal field.
+      {
+        /*
+          NOTE: Kids of unnamed fields are unreachable by name, yet they are still values.
+        */
+        pushFields(kidReferences, fullName, pendingFields);
+      }
+    }
+  }
+  // </constructors>
+
+  // <interface>
+  // <public>
+  /**
+    Gets the field corresponding to the given fully qualified name.
+  */
+  public PdfReference get(
+    String fullName
+    )
+  {return fieldReferences.get(fullName);}
+
+  /**
+    Gets the fully qualified names of the terminal fields, in tree order (<code>null</code> for
+    unnamed ones).
+  */
+  public List<String> getTerminalNames(
+    )
+  {return terminalNames;}
+
+  /**
+    Gets the terminal fields, in tree order.
+  */
+  public List<PdfReference> getTerminalReferences(
+    )
+  {return terminalReferences;}
+
+  /**
+    Gets whether this index reflects the given field tree.
+  */
+  public boolean isValid(
+    PdfArray rootFieldObjects
+    )
+  {return this.rootFieldObjects == rootFieldObjects && rootFieldCount == rootFieldObjects.size();}
+  // </public>
+
+  // <private>
+  /**
+    Pushes the given fields, so that they are popped in tree order.
+
+    @param parentName Fully qualified name of the parent field (empty for root fields,
+      <code>null</code> for kids of unnamed fields).
+  */
+  private static void pushFields(
+    PdfArray fieldObjects,
+    String parentName,
+    Deque<PendingField> pendingFields
+    )
+  {
+    for(int index = fieldObjects.size() - 1; index >= 0; index--)
+    {pendingFields.push(new PendingField((PdfReference)fieldObjects.get(index), parentName));}
+  }
+  // </private>
+  // </interface>
+  // </dynamic>
+  // </class>
+}
@@ -26,9 +26,8 @@
 package org.pdfclown.documents.interaction.forms;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -39,18 +38,21 @@ import org.pdfclown.documents.Document;
 import org.pdfclown.objects.PdfArray;
 import org.pdfclown.objects.PdfDictionary;
 import org.pdfclown.objects.PdfDirectObject;
+import org.pdfclown.objects.PdfIndirectObject;
 import org.pdfclown.objects.PdfName;
 import org.pdfclown.objects.PdfObjectWrapper;
 import org.pdfclown.objects.PdfReference;
-import org.pdfclown.objects.PdfTextString;
 import org.pdfclown.util.NotImplementedException;
 
 /**
   Interactive form fields [PDF:1.6:8.6.1].
+  <p>Fields are looked up through an index by fully qualified name, which is built lazily in a
+  single traversal of the field tree and discarded on changes made through this collection or
+  {@link Field#setName(String)}.</p>
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @since 0.0.7
-  @version 0.1.2, 12/21/12
+  @version 0.1.2, 10/18/26
 */
 @PDF(VersionEnum.PDF12)
 public final class Fields
@@ -76,7 +78,10 @@ public final class Fields
   public boolean add(
     Field value
     )
-  {return getBaseDataObject().add(value.getBaseObject());}
+  {
+    resetIndex();
+    return getBaseDataObject().add(value.getBaseObject());
+  }
 
   @Override
   public Fields clone(
@@ -88,7 +93,10 @@ public final class Fields
   @Override
   public void clear(
     )
-  {getBaseDataObject().clear();}
+  {
+    resetIndex();
+    getBaseDataObject().clear();
+  }
 
   @Override
   public boolean containsKey(
@@ -112,43 +120,7 @@ public final class Fields
   public Field get(
     Object key
     )
-  {
-    /*
-      TODO: It is possible for different field dictionaries to have the SAME fully qualified field
-      name if they are descendants of a common ancestor with that name and have no
-      partial field names (T entries) of their own. Such field dictionaries are different
-      representations of the same underlying field; they should differ only in properties
-      that specify their visual appearance. In particular, field dictionaries with the same
-      fully qualified field name must have the same field type (FT), value (V), and default
-      value (DV).
-     */
-    PdfReference valueFieldReference = null;
-    {
-      Iterator<String> partialNamesIterator = Arrays.asList(((String)key).split("\\.")).iterator();
-      Iterator<PdfDirectObject> fieldObjectsIterator = getBaseDataObject().iterator();
-      while(partialNamesIterator.hasNext())
-      {
-        String partialName = partialNamesIterator.next();
-        valueFieldReference = null;
-        while(fieldObjectsIterator != null && fieldObjectsIterator.hasNext())
-        {
-          PdfReference fieldReference = (PdfReference)fieldObjectsIterator.next();
-          PdfDictionary fieldDictionary = (PdfDictionary)fieldReference.getDataObject();
-          PdfTextString fieldName = (PdfTextString)fieldDictionary.get(PdfName.T);
-          if(fieldName != null && fieldName.getValue().equals(partialName))
-          {
-            valueFieldReference = fieldReference;
-            PdfArray kidFieldObjects = (PdfArray)fieldDictionary.resolve(PdfName.Kids);
-            fieldObjectsIterator = (kidFieldObjects == null ? null : kidFieldObjects.iterator());
-            break;
-          }
-        }
-        if(valueFieldReference == null)
-          break;
-      }
-    }
-    return Field.wrap(valueFieldReference);
-  }
+  {return Field.wrap(getIndex().get((String)key));}
 
   @Override
   public boolean isEmpty(
@@ -159,8 +131,13 @@ public final class Fields
   public Set<String> keySet(
     )
   {
-    throw new NotImplementedException();
-  //TODO: retrieve all the full names (keys)!!!
+    Set<String> keySet = new LinkedHashSet<String>();
+    for(String fullName : getIndex().getTerminalNames())
+    {
+      if(fullName != null)
+      {keySet.add(fullName);}
+    }
+    return keySet;
   }
 
   @Override
@@ -189,6 +166,8 @@ TODO:put the field into the correct position, based on the full name (key)!!!
     if(field == null)
       return null;
 
+    resetIndex();
+
     PdfArray fieldObjects;
     {
       PdfReference fieldParentReference = (PdfReference)field.getBaseDataObject().get(PdfName.Parent);
@@ -203,44 +182,52 @@ TODO:put the field into the correct position, based on the full name (key)!!!
   @Override
   public int size(
     )
-  {return values().size();}
+  {return getIndex().getTerminalReferences().size();}
 
   @Override
   public Collection<Field> values(
     )
   {
-    List<Field> values = new ArrayList<Field>();
-    retrieveValues(getBaseDataObject(), values);
+    List<PdfReference> fieldReferences = getIndex().getTerminalReferences();
+    List<Field> values = new ArrayList<Field>(fieldReferences.size());
+    for(PdfReference fieldReference : fieldReferences)
+    {values.add(Field.wrap(fieldReference));}
 
     return values;
   }
   // </Map>
   // </public>
 
+  // <internal>
+  /**
+    Gets the index of this field tree.
+  */
+  FieldIndex getIndex(
+    )
+  {
+    PdfArray fieldObjects = getBaseDataObject();
+    PdfIndirectObject container = getBaseObject().getDataContainer();
+    if(container == null) // Detached field collection.
+      return new FieldIndex(fieldObjects);
+
+    /*
+      NOTE: The index is cached along with the document, as this collection is a transient wrapper.
+    */
+    Document document = getDocument();
+    FieldIndex index = document.getFieldIndex();
+    if(index == null || !index.isValid(fieldObjects))
+    {document.setFieldIndex(index = new FieldIndex(fieldObjects));}
+
+    return index;
+  }
+  // </internal>
+
   // <private>
-  private void retrieveValues(
-    PdfArray fieldObjects,
-    List<Field> values
+  private void resetIndex(
     )
   {
-    for(PdfDirectObject fieldObject : fieldObjects)
-    {
-      PdfReference fieldReference = (PdfReference)fieldObject;
-      PdfArray kidReferences = (PdfArray)((PdfDictionary)fieldReference.getDataObject()).resolve(PdfName.Kids);
-      PdfDictionary kidObject;
-      if(kidReferences == null)
-      {kidObject = null;}
-      else
-      {kidObject = (PdfDictionary)((PdfReference)kidReferences.get(0)).getDataObject();}
-      // Terminal field?
-      if(kidObject == null // Merged single widget annotation.
-        || (!kidObject.containsKey(PdfName.FT) // Multiple widget annotations.
-          && kidObject.containsKey(PdfName.Subtype)
-          && kidObject.get(PdfName.Subtype).equals(PdfName.Widget)))
-      {values.add(Field.wrap(fieldReference));}
-      else // Non-terminal field.
-      {retrieveValues(kidReferences, values);}
-    }
+    if(getBaseObject().getDataContainer() != null)
+    {getDocument().setFieldIndex(null);}
   }
   // </private>
   // </interface>
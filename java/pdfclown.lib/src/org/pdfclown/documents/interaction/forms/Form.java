@@ -25,6 +25,12 @@
 
 package org.pdfclown.documents.interaction.forms;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.pdfclown.PDF;
 import org.pdfclown.VersionEnum;
 import org.pdfclown.documents.Document;
@@ -34,13 +40,14 @@ import org.pdfclown.objects.PdfDictionary;
 import org.pdfclown.objects.PdfDirectObject;
 import org.pdfclown.objects.PdfName;
 import org.pdfclown.objects.PdfObjectWrapper;
+import org.pdfclown.objects.PdfReference;
 
 /**
   Interactive form (AcroForm) [PDF:1.6:8.6.1].
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @since 0.0.7
-  @version 0.1.2, 12/21/12
+  @version 0.1.2, 10/18/26
 */
 @PDF(VersionEnum.PDF12)
 public final class Form
@@ -103,6 +110,26 @@ public final class Form
     )
   {return Resources.wrap(getBaseDataObject().get(PdfName.DR, PdfDictionary.class));}
 
+  /**
+    Gets the values of the terminal fields by fully qualified name, in field tree order.
+    <p>Fields are read in a single pass over the field tree.</p>
+  */
+  public Map<String,Object> getValues(
+    )
+  {
+    FieldIndex fieldIndex = getFields().getIndex();
+    List<String> fieldNames = fieldIndex.getTerminalNames();
+    List<PdfReference> fieldReferences = fieldIndex.getTerminalReferences();
+    Map<String,Object> values = new LinkedHashMap<String,Object>();
+    for(int index = 0, length = fieldNames.size(); index < length; index++)
+    {
+      String fieldName = fieldNames.get(index);
+      if(fieldName != null && !values.containsKey(fieldName))
+      {values.put(fieldName, Field.wrap(fieldReferences.get(index)).getValue());}
+    }
+    return values;
+  }
+
   /**
     @see #getFields()
   */
@@ -118,6 +145,35 @@ public final class Form
     Resources value
     )
   {getBaseDataObject().put(PdfName.DR, value.getBaseObject());}
+
+  /**
+    Sets the values of the given fields.
+    <p>Fields are looked up by fully qualified name through the field index, so that the cost is
+    proportional to the number of values.</p>
+
+    @param values Field values by fully qualified field name.
+    @throws IllegalArgumentException If a field is missing (in such case, no value is set).
+    @see #getValues()
+  */
+  public void setValues(
+    Map<String,?> values
+    )
+  {
+    Fields fields = getFields();
+    List<Field> valueFields = new ArrayList<Field>(values.size());
+    for(String fieldName : values.keySet())
+    {
+      Field field = fields.get(fieldName);
+      if(field == null)
+        throw new IllegalArgumentException("Field not found: " + fieldName);
+
+      valueFields.add(field);
+    }
+
+    Iterator<Field> valueFieldsIterator = valueFields.iterator();
+    for(Object value : values.values())
+    {valueFieldsIterator.next().setValue(value);}
+  }
   // </public>
   // </interface>
   // </dynamic>
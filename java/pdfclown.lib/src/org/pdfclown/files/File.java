@@ -30,7 +30,11 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.Random;
+import java.util.Set;
+import java.util.WeakHashMap;
 
 import org.pdfclown.Version;
 import org.pdfclown.VersionEnum;
@@ -46,6 +50,7 @@ import org.pdfclown.objects.PdfDictionary;
 import org.pdfclown.objects.PdfIndirectObject;
 import org.pdfclown.objects.PdfName;
 import org.pdfclown.objects.PdfReference;
+import org.pdfclown.objects.PdfStream;
 import org.pdfclown.tokens.Reader;
 import org.pdfclown.tokens.Reader.FileInfo;
 import org.pdfclown.tokens.Writer;
@@ -58,7 +63,7 @@ import org.pdfclown.util.StringUtils;
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @since 0.0.0
-  @version 0.1.2, 12/28/12
+  @version 0.1.2, 10/18/26
 */
 public final class File
   implements Closeable
@@ -147,6 +152,10 @@ public final class File
   private final IndirectObjects indirectObjects;
   private String path;
   private Reader reader;
+  /**
+    Streams of other files whose body data is still to be loaded from this file.
+  */
+  private final Set<PdfStream> sharedStreams = Collections.newSetFromMap(new WeakHashMap<PdfStream,Boolean>());
   private final PdfDictionary trailer;
   private final Version version;
 
@@ -423,6 +432,11 @@ public final class File
   {
     if(reader != null)
     {
+      // Load the body data shared with streams of other files!
+      for(PdfStream sharedStream : sharedStreams)
+      {sharedStream.getBody(false);}
+      sharedStreams.clear();
+
       reader.close();
       reader = null;
 
@@ -441,6 +455,35 @@ public final class File
   // </Closeable>
   // </public>
 
+  // <internal>
+  /**
+    <span style="color:red">For internal use only.</span>
+    <p>Registers a stream of another file whose body data is still to be loaded from this file
+    (see {@link Cloner}), so that it's loaded before this file is closed.</p>
+  */
+  public void registerSharedStream(
+    PdfStream stream
+    )
+  {sharedStreams.add(stream);}
+
+  /**
+    <span style="color:red">For internal use only.</span>
+    <p>Unregisters the streams of the given file registered through {@link
+    #registerSharedStream(PdfStream)}, as their body data is no longer needed (for example, because
+    they have already been serialized and their file is going to be discarded).</p>
+  */
+  public void unregisterSharedStreams(
+    File context
+    )
+  {
+    for(Iterator<PdfStream> sharedStreamIterator = sharedStreams.iterator(); sharedStreamIterator.hasNext();)
+    {
+      if(sharedStreamIterator.next().getFile() == context)
+      {sharedStreamIterator.remove();}
+    }
+  }
+  // </internal>
+
   // <protected>
   @Override
   protected void finalize(
@@ -27,18 +27,20 @@ package org.pdfclown.files;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.WeakHashMap;
 
 import org.pdfclown.objects.Cloner;
 import org.pdfclown.objects.PdfDataObject;
 import org.pdfclown.objects.PdfIndirectObject;
 import org.pdfclown.tokens.XRefEntry;
+import org.pdfclown.util.LongMap;
 import org.pdfclown.util.NotImplementedException;
 
 /**
@@ -59,7 +61,7 @@ import org.pdfclown.util.NotImplementedException;
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @since 0.0.0
-  @version 0.1.2, 12/21/12
+  @version 0.1.2, 10/18/26
 */
 public final class IndirectObjects
   implements List<PdfIndirectObject>
@@ -76,10 +78,17 @@ public final class IndirectObjects
     Map of matching references of imported indirect objects.
     <p>This collection is used to prevent duplications among imported indirect
     objects.</p>
-    <p><code>Key</code> is the external indirect object hashcode, <code>Value</code> is the
-    matching internal indirect object.</p>
+    <p><code>Key</code> is the external file, <code>Value</code> maps the identifier (see {@link
+    #getImportKey(PdfIndirectObject)}) of each external indirect object to the matching internal
+    indirect object. External files are weakly referenced, so that their mappings are dropped as
+    soon as they are discarded.</p>
   */
-  private final Hashtable<Integer,PdfIndirectObject> importedObjects = new Hashtable<Integer,PdfIndirectObject>();
+  private final Map<File,LongMap<PdfIndirectObject>> importedObjects = new WeakHashMap<File,LongMap<PdfIndirectObject>>();
+  /**
+    Original indirect objects whose data object was loaded since the last {@link #unload()
+    unloading}.
+  */
+  private final List<PdfIndirectObject> loadedObjects = new ArrayList<PdfIndirectObject>();
   /**
     Collection of newly-registered indirect objects.
   */
@@ -90,6 +99,10 @@ public final class IndirectObjects
   */
   private final TreeMap<Integer,PdfIndirectObject> wokenObjects = new TreeMap<Integer,PdfIndirectObject>();
 
+  /**
+    Serialized size of the data objects loaded since the last {@link #unload() unloading}.
+  */
+  private long loadedDataSize;
   /**
     Object counter.
   */
@@ -196,16 +209,20 @@ public final class IndirectObjects
     if(cloner.getContext() != file)
       throw new IllegalArgumentException("cloner file context incompatible");
 
-    PdfIndirectObject indirectObject = importedObjects.get(object.hashCode());
+    LongMap<PdfIndirectObject> fileImportedObjects = importedObjects.get(object.getFile());
+    if(fileImportedObjects == null)
+    {importedObjects.put(object.getFile(), fileImportedObjects = new LongMap<PdfIndirectObject>());}
+    long importKey = getImportKey(object);
+    PdfIndirectObject indirectObject = fileImportedObjects.get(importKey);
     // Hasn't the external indirect object been imported yet?
     if(indirectObject == null)
     {
       // Keep track of the imported indirect object!
-      importedObjects.put(
-        object.hashCode(),
+      fileImportedObjects.put(
+        importKey,
         indirectObject = add((PdfDataObject)null) // [DEV:AP] Circular reference issue solved.
         );
-      indirectObject.setDataObject((PdfDataObject)object.getDataObject().accept(cloner, null));
+      cloner.cloneDataObject(object, indirectObject);
     }
     return indirectObject;
   }
@@ -557,6 +574,39 @@ public final class IndirectObjects
   // </Iterable>
   // </Collection>
   // </List>
+
+  /**
+    Gets the serialized size of the data objects loaded from the file since the last {@link
+    #unload() unloading}.
+    <p>It's a rough measure of the memory retained by the parsed objects.</p>
+  */
+  public long getLoadedDataSize(
+    )
+  {return loadedDataSize;}
+
+  /**
+    Drops the data objects loaded from the file since the last call which haven't been modified
+    ever since, so that they are parsed afresh on next access.
+    <p>This allows long read-only sessions to keep their memory flat; indirect objects (along with
+    their references) stay the same instances, so the object graph remains consistent. Data
+    objects still held by clients keep working, but are no longer those returned by their
+    indirect objects.</p>
+
+    @return Number of unloaded data objects.
+  */
+  public int unload(
+    )
+  {
+    int count = 0;
+    for(PdfIndirectObject object : loadedObjects)
+    {
+      if(object.unload())
+      {count++;}
+    }
+    loadedObjects.clear();
+    loadedDataSize = 0;
+    return count;
+  }
   // </public>
 
   // <internal>
@@ -583,6 +633,22 @@ public final class IndirectObjects
     )
   {return modifiedObjects;}
 
+  /**
+    <span style="color:red">For internal use only.</span>
+    <p>Tracks the given original object, whose data object has just been loaded from the file.</p>
+
+    @param object Loaded object.
+    @param dataSize Serialized size of its data object.
+  */
+  public void registerLoaded(
+    PdfIndirectObject object,
+    long dataSize
+    )
+  {
+    loadedObjects.add(object);
+    loadedDataSize += dataSize;
+  }
+
   /**
     <span style="color:red">For internal use only.</span>
   */
@@ -607,6 +673,20 @@ public final class IndirectObjects
     return old;
   }
   // </internal>
+
+  // <private>
+  /**
+    Gets the identifier of the given indirect object within its file (object number in the upper
+    bits, generation number in the lower 16 bits).
+  */
+  private static long getImportKey(
+    PdfIndirectObject object
+    )
+  {
+    XRefEntry xrefEntry = object.getXrefEntry();
+    return ((long)xrefEntry.getNumber() << 16) | xrefEntry.getGeneration();
+  }
+  // </private>
   // </interface>
   // </dynamic>
   // </class>
@@ -41,7 +41,7 @@ import org.pdfclown.tokens.XRefStream;
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @since 0.1.2
-  @version 0.1.2, 12/28/12
+  @version 0.1.2, 10/18/26
 */
 public class Cloner
   extends Visitor
@@ -219,15 +219,29 @@ public class Cloner
       {
         @Override
         public void afterClone(
-          Cloner cloner,
+          final Cloner cloner,
           PdfArray parent,
           int index,
-          PdfDirectObject item
+          final PdfDirectObject item
           )
         {
-          PdfDictionary annotation = (PdfDictionary)item.resolve();
-          if(annotation.containsKey(PdfName.FT))
-          {cloner.context.getDocument().getForm().getFields().add(Field.wrap(annotation.getReference()));}
+          /*
+            NOTE: The cloned annotation is filled in along the traversal, so it has to be inspected
+            at its end.
+          */
+          cloner.defer(
+            new Runnable()
+            {
+              @Override
+              public void run(
+                )
+              {
+                PdfDictionary annotation = (PdfDictionary)item.resolve();
+                if(annotation.containsKey(PdfName.FT))
+                {cloner.context.getDocument().getForm().getFields().add(Field.wrap(annotation.getReference()));}
+              }
+            }
+            );
         }
 
         @Override
@@ -273,6 +287,18 @@ public class Cloner
 
   // <interface>
   // <public>
+  /**
+    <span style="color:red">For internal use only.</span>
+    <p>Clones the data object of the given external indirect object into the given (newly
+    imported) indirect object; the clone is filled in along the current traversal (see {@link
+    Visitor}).</p>
+  */
+  public void cloneDataObject(
+    PdfIndirectObject source,
+    PdfIndirectObject target
+    )
+  {schedule(source, target);}
+
   public File getContext(
     )
   {return context;}
@@ -378,6 +404,10 @@ public class Cloner
       clone.header = (PdfDictionary)visit(object.header, data);
       clone.body = object.body.clone();
     }
+    /*
+      NOTE: The clone shares the body data not yet loaded by the source object.
+    */
+    object.shareBodySource(clone, context);
     return clone;
   }
 
@@ -389,6 +419,15 @@ public class Cloner
   {throw new UnsupportedOperationException();}
   // </public>
 
+  // <protected>
+  @Override
+  protected void visitContents(
+    PdfIndirectObject object,
+    Object data
+    )
+  {((PdfIndirectObject)data).setDataObject((PdfDataObject)object.getDataObject().accept(this, null));}
+  // </protected>
+
   // <private>
   private Filter matchFilter(
     PdfObject object
@@ -27,9 +27,11 @@ package org.pdfclown.objects;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Set;
 
 import org.pdfclown.bytes.IOutputStream;
 import org.pdfclown.files.File;
@@ -45,7 +47,7 @@ import org.pdfclown.util.NotImplementedException;
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @since 0.0.0
-  @version 0.1.2, 01/09/13
+  @version 0.1.2, 10/18/26
 */
 public final class PdfArray
   extends PdfDirectObject
@@ -302,8 +304,9 @@ public final class PdfArray
     Collection<? extends PdfDirectObject> items
     )
   {
-    for(PdfDirectObject item : items)
-    {add(index++, item);}
+    // NOTE: Items are inserted at once, in order not to shift the trailing ones on each insertion.
+    this.items.addAll(index, include(items));
+    update();
     return true;
   }
 
@@ -382,8 +385,8 @@ public final class PdfArray
     Collection<? extends PdfDirectObject> items
     )
   {
-    for(PdfDirectObject item : items)
-    {add(item);}
+    this.items.addAll(include(items));
+    update();
     return true;
   }
 
@@ -446,8 +449,23 @@ public final class PdfArray
     Collection<?> items
     )
   {
-    for(Object item : items)
-    {remove(item);}
+    // NOTE: Items are removed in a single pass, in order not to shift the trailing ones on each removal.
+    Set<?> removingItems = new HashSet<Object>(items);
+    int length = this.items.size();
+    int retainedCount = 0;
+    for(int index = 0; index < length; index++)
+    {
+      PdfDirectObject item = this.items.get(index);
+      if(removingItems.contains(item))
+      {exclude(item);}
+      else
+      {this.items.set(retainedCount++, item);}
+    }
+    if(retainedCount == length)
+      return false;
+
+    this.items.subList(retainedCount, length).clear();
+    update();
     return true;
   }
 
@@ -519,6 +537,21 @@ public final class PdfArray
     )
   {parent = value;}
   // </internal>
+
+  // <private>
+  /**
+    Contextualizes the given items into this array.
+  */
+  private List<PdfDirectObject> include(
+    Collection<? extends PdfDirectObject> items
+    )
+  {
+    List<PdfDirectObject> includedItems = new ArrayList<PdfDirectObject>(items.size());
+    for(PdfDirectObject item : items)
+    {includedItems.add((PdfDirectObject)include(item));}
+    return includedItems;
+  }
+  // </private>
   // </interface>
   // </dynamic>
   // </class>
@@ -39,7 +39,7 @@ import org.pdfclown.tokens.XRefEntry.UsageEnum;
   PDF indirect object [PDF:1.6:3.2.9].
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
-  @version 0.1.2, 12/21/12
+  @version 0.1.2, 10/18/26
 */
 public class PdfIndirectObject
   extends PdfObject
@@ -154,8 +154,10 @@ public class PdfIndirectObject
       file hashcode.
       NOTE: Do NOT directly invoke reference.hashCode() method here as, conversely relying on this
       method, it would trigger an infinite loop.
+      NOTE: The identifier is hashed on its components, as composing its string representation on
+      each call would make hash lookups costly.
     */
-    return reference.getId().hashCode() ^ file.hashCode();
+    return (xrefEntry.getNumber() * 31 + xrefEntry.getGeneration()) ^ file.hashCode();
   }
 
   /**
@@ -289,6 +291,7 @@ public class PdfIndirectObject
           parser.seek(xrefEntry.getOffset());
           // Get the indirect data object!
           dataObject = include(parser.parsePdfObject(4)); // NOTE: Skips the indirect-object header.
+          file.getIndirectObjects().registerLoaded(this, parser.getPosition() - xrefEntry.getOffset());
           break;
         }
         case InUseCompressed:
@@ -297,6 +300,7 @@ public class PdfIndirectObject
           ObjectStream objectStream = (ObjectStream)file.getIndirectObjects().get(xrefEntry.getStreamNumber()).getDataObject();
           // Get the indirect data object!
           dataObject = include(objectStream.get(xrefEntry.getNumber()));
+          file.getIndirectObjects().registerLoaded(this, 0); // NOTE: Its data is charged to the object stream.
           break;
         }
       }
@@ -396,6 +400,24 @@ public class PdfIndirectObject
     )
   {original = false;}
 
+  /**
+    <span style="color:red">For internal use only.</span>
+    <p>Drops the data object, in case it's still the original one, so that it is parsed afresh
+    on next access.</p>
+
+    @return Whether the data object was dropped.
+  */
+  public boolean unload(
+    )
+  {
+    if(dataObject == null || !original || updated || virtual
+      || xrefEntry.getUsage() == UsageEnum.Free)
+      return false;
+
+    dataObject = null;
+    return true;
+  }
+
   @Override
   void setParent(
     PdfObject value
@@ -36,7 +36,7 @@ import org.pdfclown.tokens.Keyword;
   PDF name object [PDF:1.6:3.2.4].
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
-  @version 0.1.2, 12/28/12
+  @version 0.1.2, 10/18/26
 */
 public final class PdfName
   extends PdfSimpleObject<String>
@@ -247,6 +247,7 @@ public final class PdfName
   public static final PdfName Functions = new PdfName("Functions");
   public static final PdfName FunctionType = new PdfName("FunctionType");
   public static final PdfName FWParams = new PdfName("FWParams");
+  public static final PdfName G = new PdfName("G");
   public static final PdfName Gamma = new PdfName("Gamma");
   public static final PdfName Glitter = new PdfName("Glitter");
   public static final PdfName GoTo = new PdfName("GoTo");
@@ -275,6 +276,7 @@ public final class PdfName
   public static final PdfName IdentityV = new PdfName("Identity-V");
   public static final PdfName IF = new PdfName("IF");
   public static final PdfName Image = new PdfName("Image");
+  public static final PdfName ImageMask = new PdfName("ImageMask");
   public static final PdfName ImportData = new PdfName("ImportData");
   public static final PdfName Index = new PdfName("Index");
   public static final PdfName Indexed = new PdfName("Indexed");
@@ -322,6 +324,7 @@ public final class PdfName
   public static final PdfName M = new PdfName("M");
   public static final PdfName Mac = new PdfName("Mac");
   public static final PdfName MacRomanEncoding = new PdfName("MacRomanEncoding");
+  public static final PdfName Mask = new PdfName("Mask");
   public static final PdfName Matrix = new PdfName("Matrix");
   public static final PdfName max = new PdfName("max");
   public static final PdfName MaxLen = new PdfName("MaxLen");
@@ -452,6 +455,7 @@ public final class PdfName
   public static final PdfName SinglePage = new PdfName("SinglePage");
   public static final PdfName Size = new PdfName("Size");
   public static final PdfName Slash = new PdfName("Slash");
+  public static final PdfName SMask = new PdfName("SMask");
   public static final PdfName SoftLight = new PdfName("SoftLight");
   public static final PdfName Sold = new PdfName("Sold");
   public static final PdfName Sound = new PdfName("Sound");
@@ -29,13 +29,14 @@ import org.pdfclown.bytes.IOutputStream;
 import org.pdfclown.files.File;
 import org.pdfclown.tokens.FileParser;
 import org.pdfclown.tokens.Symbol;
+import org.pdfclown.tokens.XRefEntry;
 import org.pdfclown.util.NotImplementedException;
 
 /**
   PDF indirect reference object [PDF:1.6:3.2.9].
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
-  @version 0.1.2, 12/28/12
+  @version 0.1.2, 10/18/26
 */
 public final class PdfReference
   extends PdfDirectObject
@@ -95,10 +96,16 @@ public final class PdfReference
     Object object
     )
   {
-    return super.equals(object)
-      || (object != null
-        && object.getClass().equals(getClass())
-        && ((PdfReference)object).getId().equals(getId()));
+    if(super.equals(object))
+      return true;
+    else if(object == null || !object.getClass().equals(getClass()))
+      return false;
+
+    // NOTE: Identifiers are compared on their components (equivalent to their string representation).
+    XRefEntry xrefEntry = getIndirectObject().getXrefEntry();
+    XRefEntry objectXrefEntry = ((PdfReference)object).getIndirectObject().getXrefEntry();
+    return objectXrefEntry.getNumber() == xrefEntry.getNumber()
+      && objectXrefEntry.getGeneration() == xrefEntry.getGeneration();
   }
 
   /**
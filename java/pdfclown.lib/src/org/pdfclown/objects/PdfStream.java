@@ -25,6 +25,7 @@
 
 package org.pdfclown.objects;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.util.Iterator;
 
@@ -32,6 +33,7 @@ import org.pdfclown.PDF;
 import org.pdfclown.VersionEnum;
 import org.pdfclown.bytes.Buffer;
 import org.pdfclown.bytes.IBuffer;
+import org.pdfclown.bytes.IInputStream;
 import org.pdfclown.bytes.IOutputStream;
 import org.pdfclown.bytes.filters.Filter;
 import org.pdfclown.documents.files.FileSpecification;
@@ -45,7 +47,7 @@ import org.pdfclown.tokens.Symbol;
   PDF stream object [PDF:1.6:3.2.7].
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
-  @version 0.1.2, 12/28/12
+  @version 0.1.2, 10/18/26
 */
 public class PdfStream
   extends PdfDataObject
@@ -74,6 +76,21 @@ public class PdfStream
     stream data.
   */
   private boolean bodyResolved;
+  /**
+    Source of the body data not loaded yet into {@link #body} (<code>null</code> if already
+    loaded).
+    <p>Clones share their source until their body is accessed, so that imported streams neither
+    duplicate their data in memory nor decode it: on serialization, their (encoded) data is copied
+    straight from the source.</p>
+  */
+  private IInputStream bodySource;
+  /**
+    File {@link #bodySource} belongs to, in case this stream is an alien clone (<code>null</code>
+    if it belongs to the file of this stream).
+  */
+  private File bodySourceFile;
+  private int bodySourceLength;
+  private long bodySourceOffset;
   // </fields>
 
   // <constructors>
@@ -106,6 +123,31 @@ public class PdfStream
       );
   }
 
+  /**
+    Creates a stream whose body data is loaded from the given source as soon as it's actually
+    needed.
+    <p>The source MUST be available (that is, its file MUST stay open) until the body is loaded or
+    the stream is serialized.</p>
+
+    @param header Stream header.
+    @param bodySource Source containing the body data (as-is, that is still encoded).
+    @param bodySourceOffset Position of the body data within the source.
+    @param bodySourceLength Length of the body data.
+  */
+  public PdfStream(
+    PdfDictionary header,
+    IInputStream bodySource,
+    long bodySourceOffset,
+    int bodySourceLength
+    )
+  {
+    this(header, new Buffer());
+
+    this.bodySource = bodySource;
+    this.bodySourceOffset = bodySourceOffset;
+    this.bodySourceLength = bodySourceLength;
+  }
+
   public PdfStream(
     PdfDictionary header,
     IBuffer body
@@ -178,6 +220,16 @@ public class PdfStream
         body.setDirty(false);
         setUpdateable(true);
       }
+      else if(bodySource != null)
+      {
+        setUpdateable(false);
+        body.setLength(0);
+        body.append(readBodySource());
+        body.setDirty(false);
+        setUpdateable(true);
+        bodySource = null;
+        bodySourceFile = null;
+      }
       bodyResolved = true;
     }
     if(decode)
@@ -206,13 +258,22 @@ public class PdfStream
               );
           }
         }
-        setFilter(null); // The stream is free from encodings.
+        // The stream is free from encodings.
+        setFilter(null);
+        setParameters(null);
         header.setUpdateable(true);
       }
     }
     return body;
   }
 
+  /**
+    Gets the length of the stream body as-is (that is, possibly encoded).
+  */
+  public long getBodyLength(
+    )
+  {return bodySource != null ? bodySourceLength : body.getLength();}
+
   public PdfDirectObject getFilter(
     )
   {
@@ -278,6 +339,8 @@ public class PdfStream
       ----------------------------------------------------------------------------------------------
     */
     FileSpecification<?> oldDataFile = getDataFile();
+    if(oldDataFile == null && bodySource != null)
+    {getBody(false);} // Ensures that local data is loaded.
     PdfDirectObject dataFileObject = (value != null ? value.getBaseObject() : null);
     if(value != null)
     {
@@ -356,13 +419,25 @@ public class PdfStream
     PdfStream otherStream = (PdfStream)other;
     PdfDictionary otherHeader = otherStream.header;
     IBuffer otherBody = otherStream.body;
+    IInputStream otherBodySource = otherStream.bodySource;
+    File otherBodySourceFile = otherStream.bodySourceFile;
+    long otherBodySourceOffset = otherStream.bodySourceOffset;
+    int otherBodySourceLength = otherStream.bodySourceLength;
     // Update the other!
     otherStream.header = this.header;
     otherStream.body = this.body;
+    otherStream.bodySource = this.bodySource;
+    otherStream.bodySourceFile = this.bodySourceFile;
+    otherStream.bodySourceOffset = this.bodySourceOffset;
+    otherStream.bodySourceLength = this.bodySourceLength;
     otherStream.update();
     // Update this one!
     this.header = otherHeader;
     this.body = otherBody;
+    this.bodySource = otherBodySource;
+    this.bodySourceFile = otherBodySourceFile;
+    this.bodySourceOffset = otherBodySourceOffset;
+    this.bodySourceLength = otherBodySourceLength;
     this.update();
     return this;
   }
@@ -379,6 +454,7 @@ public class PdfStream
     header.setUpdateable(false);
 
     byte[] bodyData;
+    boolean bodySourceCopied = false;
     {
       boolean bodyUnencoded;
       {
@@ -401,17 +477,30 @@ public class PdfStream
 
             // Set the filter to apply!
             filterObject = PdfName.FlateDecode; // zlib/deflate filter.
+            PdfDictionary parametersObject = getEncodingParameters();
             // Get encoded body data applying the filter to the stream!
-            bodyData = body.encode(Filter.get((PdfName)filterObject), null);
-            // Set 'Filter' entry!
+            bodyData = (bodySource != null ? new Buffer(readBodySource()) : body).encode(Filter.get((PdfName)filterObject), parametersObject);
+            // Set 'Filter' and 'DecodeParms' entries!
             setFilter(filterObject);
+            setParameters(parametersObject);
           }
           else // Encoded body.
           {
             bodyUnencoded = false;
 
-            // Get encoded body data!
-            bodyData = body.toByteArray();
+            if(bodySource != null)
+            {
+              /*
+                NOTE: Body data not loaded yet is copied as-is straight from its source.
+              */
+              bodySourceCopied = true;
+              bodyData = null;
+            }
+            else
+            {
+              // Get encoded body data!
+              bodyData = body.toByteArray();
+            }
           }
 
           if(dataFile != null)
@@ -440,7 +529,7 @@ public class PdfStream
       }
 
       // Set the encoded data length!
-      header.put(PdfName.Length, PdfInteger.get(bodyData.length));
+      header.put(PdfName.Length, PdfInteger.get(bodySourceCopied ? bodySourceLength : bodyData.length));
 
       // 1. Header.
       header.writeTo(stream, context);
@@ -448,14 +537,18 @@ public class PdfStream
       if(bodyUnencoded)
       {
         // Restore actual header entries!
-        header.put(PdfName.Length, PdfInteger.get((int)body.getLength()));
+        header.put(PdfName.Length, PdfInteger.get((int)getBodyLength()));
         setFilter(null);
+        setParameters(null);
       }
     }
 
     // 2. Body.
     stream.write(BeginStreamBodyChunk);
-    stream.write(bodyData);
+    if(bodySourceCopied)
+    {copyBodySource(stream);}
+    else
+    {stream.write(bodyData);}
     stream.write(EndStreamBodyChunk);
 
     header.setUpdateable(true);
@@ -477,6 +570,17 @@ public class PdfStream
   // </public>
 
   // <protected>
+  /**
+    Gets the parameters of the filter applied to the unencoded body on serialization.
+    <p>Streams whose body is known to be row-based (such as cross-reference streams) override it to
+    enable a predictor, which may considerably improve compression.</p>
+
+    @return <code>null</code>, by default.
+  */
+  protected PdfDictionary getEncodingParameters(
+    )
+  {return null;}
+
   @Override
   protected boolean isVirtual(
     )
@@ -526,12 +630,83 @@ public class PdfStream
   // </protected>
 
   // <internal>
+  /**
+    Binds the given clone of this stream to the file its body data is still to be loaded from.
+    <p>That file keeps track of the clone in order to load its data before being closed.</p>
+
+    @param clone Clone sharing the body data of this stream.
+    @param context File the clone belongs to.
+  */
+  void shareBodySource(
+    PdfStream clone,
+    File context
+    )
+  {
+    if(bodySource == null)
+      return;
+
+    File sourceFile = (bodySourceFile != null ? bodySourceFile : getFile());
+    if(sourceFile == null || sourceFile == context)
+      return;
+
+    clone.bodySourceFile = sourceFile;
+    sourceFile.registerSharedStream(clone);
+  }
+
   @Override
   void setParent(
     PdfObject value
     )
   {parent = value;}
   // </internal>
+
+  // <private>
+  /**
+    Copies the body data from its source to the given stream.
+  */
+  private void copyBodySource(
+    IOutputStream stream
+    )
+  {
+    long position = bodySource.getPosition();
+    try
+    {
+      bodySource.seek(bodySourceOffset);
+      byte[] chunk = new byte[Math.min(bodySourceLength, 8192)];
+      for(int remainingLength = bodySourceLength; remainingLength > 0;)
+      {
+        int chunkLength = Math.min(remainingLength, chunk.length);
+        bodySource.read(chunk, 0, chunkLength);
+        stream.write(chunk, 0, chunkLength);
+        remainingLength -= chunkLength;
+      }
+    }
+    catch(EOFException e)
+    {throw new RuntimeException("Stream data truncated.", e);}
+    finally
+    {bodySource.seek(position);}
+  }
+
+  /**
+    Reads the body data from its source.
+  */
+  private byte[] readBodySource(
+    )
+  {
+    long position = bodySource.getPosition();
+    try
+    {
+      bodySource.seek(bodySourceOffset);
+      byte[] data = new byte[bodySourceLength];
+      bodySource.read(data, 0, data.length);
+      return data;
+    }
+    catch(EOFException e)
+    {throw new RuntimeException("Stream data truncated.", e);}
+    finally
+    {bodySource.seek(position);}
+  }
+  // </private>
   // </interface>
   // </dynamic>
   // </class>
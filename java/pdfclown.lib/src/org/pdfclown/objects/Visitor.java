@@ -25,19 +25,109 @@
 
 package org.pdfclown.objects;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.pdfclown.files.File;
 import org.pdfclown.tokens.ObjectStream;
 import org.pdfclown.tokens.XRefStream;
 
 /**
   Visitor object.
+  <p>Indirect objects are visited through an explicit worklist (see {@link
+  #schedule(PdfIndirectObject, Object)}) rather than recursively, so that the stack depth doesn't
+  depend on the length of reference chains (such as outline items or article beads); within a
+  traversal, each indirect object is visited once (visited objects are tracked by object
+  number).</p>
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @since 0.1.2
-  @version 0.1.2, 12/21/12
+  @version 0.1.2, 10/18/26
 */
 public class Visitor
   implements IVisitor
 {
+  // <class>
+  // <classes>
+  private static final class PendingObject
+  {
+    final Object data;
+    final PdfIndirectObject object;
+
+    PendingObject(
+      PdfIndirectObject object,
+      Object data
+      )
+    {
+      this.object = object;
+      this.data = data;
+    }
+  }
+  // </classes>
+
+  // <dynamic>
+  // <fields>
+  /**
+    Actions deferred to the end of the current traversal.
+  */
+  private List<Runnable> deferredActions;
+  /**
+    Indirect objects scheduled for visit within the current traversal (<code>null</code> if no
+    traversal is in progress).
+  */
+  private ArrayDeque<PendingObject> pendingObjects;
+  /**
+    Numbers of the indirect objects visited within the current traversal, by file.
+  */
+  private Map<File,BitSet> visitedObjectNumbers;
+  // </fields>
+
+  // <interface>
+  // <public>
+  /**
+    Defers the given action to the end of the current traversal, that is when all the scheduled
+    indirect objects have been visited (if no traversal is in progress, it's run immediately).
+  */
+  public void defer(
+    Runnable action
+    )
+  {
+    if(pendingObjects == null)
+    {action.run();}
+    else
+    {deferredActions.add(action);}
+  }
+
+  /**
+    Visits the given object along with the object graph reachable from it, within the same
+    traversal.
+    <p>If a traversal is already in progress, the given object joins it.</p>
+
+    @return Result of the visit of the given object.
+  */
+  public PdfObject traverse(
+    PdfObject object,
+    Object data
+    )
+  {
+    if(pendingObjects != null)
+      return object.accept(this, data);
+
+    beginTraversal();
+    try
+    {
+      PdfObject result = object.accept(this, data);
+      completeTraversal();
+      return result;
+    }
+    finally
+    {endTraversal();}
+  }
+
   @Override
   public PdfObject visit(
     ObjectStream object,
@@ -104,9 +194,8 @@ public class Visitor
     Object data
     )
   {
-    PdfDataObject dataObject = object.getDataObject();
-    if(dataObject != null)
-    {dataObject.accept(this, data);}
+    if(markVisited(object))
+    {schedule(object, data);}
     return object;
   }
 
@@ -146,7 +235,10 @@ public class Visitor
     PdfStream object,
     Object data
     )
-  {return object;}
+  {
+    object.getHeader().accept(this, data);
+    return object;
+  }
 
   @Override
   public PdfObject visit(
@@ -168,4 +260,115 @@ public class Visitor
     Object data
     )
   {return object;}
+  // </public>
+
+  // <protected>
+  /**
+    Marks the given indirect object as visited within the current traversal.
+
+    @return Whether the object hadn't been visited yet (always <code>true</code> if no traversal
+      is in progress).
+  */
+  protected final boolean markVisited(
+    PdfIndirectObject object
+    )
+  {
+    if(visitedObjectNumbers == null)
+      return true;
+
+    BitSet objectNumbers = visitedObjectNumbers.get(object.getFile());
+    if(objectNumbers == null)
+    {visitedObjectNumbers.put(object.getFile(), objectNumbers = new BitSet());}
+    int objectNumber = object.getXrefEntry().getNumber();
+    if(objectNumbers.get(objectNumber))
+      return false;
+
+    objectNumbers.set(objectNumber);
+    return true;
+  }
+
+  /**
+    Schedules the visit of the contents of the given indirect object (see {@link
+    #visitContents(PdfIndirectObject, Object)}).
+    <p>If no traversal is in progress, a new one is started, which ends when all the indirect
+    objects scheduled in the meantime have been visited.</p>
+  */
+  protected final void schedule(
+    PdfIndirectObject object,
+    Object data
+    )
+  {
+    if(pendingObjects != null)
+    {pendingObjects.addLast(new PendingObject(object, data));}
+    else
+    {
+      beginTraversal();
+      try
+      {
+        markVisited(object);
+        visitContents(object, data);
+        completeTraversal();
+      }
+      finally
+      {endTraversal();}
+    }
+  }
+
+  /**
+    Visits the contents of the given scheduled indirect object.
+  */
+  protected void visitContents(
+    PdfIndirectObject object,
+    Object data
+    )
+  {
+    PdfDataObject dataObject = object.getDataObject();
+    if(dataObject != null)
+    {dataObject.accept(this, data);}
+  }
+  // </protected>
+
+  // <private>
+  private void beginTraversal(
+    )
+  {
+    deferredActions = new ArrayList<Runnable>();
+    pendingObjects = new ArrayDeque<PendingObject>();
+    visitedObjectNumbers = new HashMap<File,BitSet>();
+  }
+
+  /**
+    Visits the pending objects and runs the deferred actions.
+  */
+  private void completeTraversal(
+    )
+  {
+    while(true)
+    {
+      PendingObject pendingObject;
+      while((pendingObject = pendingObjects.pollLast()) != null)
+      {visitContents(pendingObject.object, pendingObject.data);}
+
+      if(deferredActions.isEmpty())
+        break;
+
+      // NOTE: Deferred actions may in turn schedule further visits.
+      List<Runnable> actions = deferredActions;
+      deferredActions = new ArrayList<Runnable>();
+      for(Runnable action : actions)
+      {action.run();}
+    }
+  }
+
+  private void endTraversal(
+    )
+  {
+    deferredActions = null;
+    pendingObjects = null;
+    visitedObjectNumbers = null;
+  }
+  // </private>
+  // </interface>
+  // </dynamic>
+  // </class>
 }
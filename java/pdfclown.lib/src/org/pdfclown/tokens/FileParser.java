@@ -44,7 +44,7 @@ import org.pdfclown.util.parsers.ParseException;
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @since 0.1.1
-  @version 0.1.2, 09/24/12
+  @version 0.1.2, 10/18/26
 */
 public final class FileParser
   extends BaseParser
@@ -193,31 +193,50 @@ public final class FileParser
         // Move to the stream data beginning!
         stream.seek(position); skipEOL();
 
-        // Copy the stream data to the instance!
-        byte[] data = new byte[length];
-        try
-        {stream.read(data);}
-        catch(EOFException e)
-        {throw new ParseException("Unexpected EOF (malformed stream object).",e,stream.getPosition());}
-
-        moveNext(); // Postcondition (last token should be 'endstream' keyword).
-
         Object streamType = streamHeader.get(PdfName.Type);
-        if(PdfName.ObjStm.equals(streamType)) // Object stream [PDF:1.6:3.4.6].
-          return new ObjectStream(
-            streamHeader,
-            new Buffer(data)
-            );
-        else if(PdfName.XRef.equals(streamType)) // Cross-reference stream [PDF:1.6:3.4.7].
-          return new XRefStream(
-            streamHeader,
-            new Buffer(data)
-            );
+        if(PdfName.ObjStm.equals(streamType) // Object stream [PDF:1.6:3.4.6].
+          || PdfName.XRef.equals(streamType)) // Cross-reference stream [PDF:1.6:3.4.7].
+        {
+          // Copy the stream data to the instance!
+          byte[] data = new byte[length];
+          try
+          {stream.read(data);}
+          catch(EOFException e)
+          {throw new ParseException("Unexpected EOF (malformed stream object).",e,stream.getPosition());}
+
+          moveNext(); // Postcondition (last token should be 'endstream' keyword).
+
+          if(PdfName.ObjStm.equals(streamType))
+            return new ObjectStream(
+              streamHeader,
+              new Buffer(data)
+              );
+          else
+            return new XRefStream(
+              streamHeader,
+              new Buffer(data)
+              );
+        }
         else // Generic stream.
+        {
+          /*
+            NOTE: Generic stream data is loaded on demand (see PdfStream), so that streams which are
+            never accessed (or just copied as-is to another file) don't take up memory.
+          */
+          long dataOffset = stream.getPosition();
+          if(dataOffset + length > stream.getLength())
+            throw new ParseException("Unexpected EOF (malformed stream object).",dataOffset);
+
+          stream.seek(dataOffset + length);
+          moveNext(); // Postcondition (last token should be 'endstream' keyword).
+
           return new PdfStream(
             streamHeader,
-            new Buffer(data)
+            stream,
+            dataOffset,
+            length
             );
+        }
       }
       else // Stand-alone dictionary.
       {stream.seek(oldOffset);} // Restores postcondition (last token should be the dictionary end).
@@ -27,6 +27,8 @@ package org.pdfclown.tokens;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -57,7 +59,7 @@ import org.pdfclown.util.MapEntry;
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @since 0.1.0
-  @version 0.1.2, 12/21/12
+  @version 0.1.2, 10/18/26
 */
 public final class ObjectStream
   extends PdfStream
@@ -68,6 +70,7 @@ public final class ObjectStream
   private final class ObjectEntry
   {
     private PdfDataObject dataObject;
+    private int length;
     private int offset;
 
     public ObjectEntry(
@@ -76,6 +79,7 @@ public final class ObjectStream
     {
       this.dataObject = null;
       this.offset = offset;
+      this.length = -1; // Undefined -- to set on stream parsing.
     }
 
     public ObjectEntry(
@@ -84,6 +88,7 @@ public final class ObjectStream
     {
       this.dataObject = dataObject;
       this.offset = -1; // Undefined -- to set on stream serialization.
+      this.length = -1; // Undefined -- to set on stream serialization.
     }
 
     public PdfDataObject getDataObject(
@@ -148,6 +153,21 @@ public final class ObjectStream
     )
   {getHeader().put(PdfName.Extends, value.getReference());}
 
+  /**
+    Gets the byte length of the serialized data object corresponding to the given object number
+    within the (decoded) stream body.
+
+    @return <code>-1</code>, in case the object is not stored in this stream, or it has been put
+      after the stream body was serialized.
+  */
+  public int getEntryLength(
+    int objectNumber
+    )
+  {
+    ObjectEntry entry = getEntries().get(objectNumber);
+    return (entry != null ? entry.length : -1);
+  }
+
   @Override
   public void writeTo(
     IOutputStream stream,
@@ -303,6 +323,7 @@ public final class ObjectStream
         // Data.
         entry.getValue().getDataObject().writeTo(dataBuffer, context);
         entry.getValue().offset = entryValueOffset;
+        entry.getValue().length = (int)dataBuffer.getLength() - entryValueOffset;
       }
 
       // Get the stream buffer!
@@ -354,6 +375,28 @@ public final class ObjectStream
           int objectOffset = baseOffset + ((PdfInteger)parser.parsePdfObject(1)).getValue();
           entries.put(objectNumber, new ObjectEntry(objectOffset));
         }
+
+        // Entry lengths (each entry extends up to the next one in body order).
+        List<ObjectEntry> sortedEntries = new ArrayList<ObjectEntry>(entries.values());
+        Collections.sort(
+          sortedEntries,
+          new Comparator<ObjectEntry>()
+          {
+            @Override
+            public int compare(
+              ObjectEntry entry1,
+              ObjectEntry entry2
+              )
+            {return entry1.offset - entry2.offset;}
+          }
+          );
+        int endOffset = (int)body.getLength();
+        for(int index = sortedEntries.size() - 1; index >= 0; index--)
+        {
+          ObjectEntry entry = sortedEntries.get(index);
+          entry.length = Math.max(endOffset - entry.offset, 0);
+          endOffset = entry.offset;
+        }
       }
     }
     return entries;
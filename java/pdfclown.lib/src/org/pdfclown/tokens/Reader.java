@@ -27,6 +27,9 @@ package org.pdfclown.tokens;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
@@ -43,7 +46,7 @@ import org.pdfclown.util.parsers.PostScriptParser.TokenTypeEnum;
   PDF file reader.
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
-  @version 0.1.1, 11/01/11
+  @version 0.1.2, 10/18/26
 */
 public final class Reader
   implements Closeable
@@ -55,16 +58,19 @@ public final class Reader
     private final PdfDictionary trailer;
     private final Version version;
     private final SortedMap<Integer,XRefEntry> xrefEntries;
+    private final List<Long> xrefOffsets;
 
     FileInfo(
       Version version,
       PdfDictionary trailer,
-      SortedMap<Integer,XRefEntry> xrefEntries
+      SortedMap<Integer,XRefEntry> xrefEntries,
+      List<Long> xrefOffsets
       )
     {
       this.version = version;
       this.trailer = trailer;
       this.xrefEntries = xrefEntries;
+      this.xrefOffsets = Collections.unmodifiableList(xrefOffsets);
     }
 
     public PdfDictionary getTrailer(
@@ -78,6 +84,13 @@ public final class Reader
     public SortedMap<Integer,XRefEntry> getXrefEntries(
       )
     {return xrefEntries;}
+
+    /**
+      Gets the byte offsets of the xref sections, from the last one to the first one.
+    */
+    public List<Long> getXrefOffsets(
+      )
+    {return xrefOffsets;}
   }
   // </classes>
 
@@ -118,10 +131,13 @@ public final class Reader
     Version version = Version.get(parser.retrieveVersion());
     PdfDictionary trailer = null;
     SortedMap<Integer,XRefEntry> xrefEntries = new TreeMap<Integer,XRefEntry>();
+    List<Long> xrefOffsets = new ArrayList<Long>();
     {
       long sectionOffset = parser.retrieveXRefOffset();
       while(sectionOffset > -1)
       {
+        xrefOffsets.add(sectionOffset);
+
         // Move to the start of the xref section!
         parser.seek(sectionOffset);
 
@@ -226,7 +242,7 @@ public final class Reader
         sectionOffset = (prevXRefOffset != null ? prevXRefOffset.getValue() : -1);
       }
     }
-    return new FileInfo(version, trailer, xrefEntries);
+    return new FileInfo(version, trailer, xrefEntries, xrefOffsets);
   }
 
   // <Closeable>
@@ -54,7 +54,7 @@ import org.pdfclown.util.parsers.ParseException;
   <p>It is alternative to the classic cross-reference table.</p>
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
-  @version 0.1.2, 12/21/12
+  @version 0.1.2, 10/18/26
 */
 public final class XRefStream
   extends PdfStream
@@ -246,6 +246,38 @@ public final class XRefStream
   // </Map>
   // </public>
 
+  // <protected>
+  /**
+    {@inheritDoc}
+    <p>Entries are encoded through PNG Up prediction, as consecutive entries typically differ
+    in their least significant bytes only.</p>
+  */
+  @Override
+  protected PdfDictionary getEncodingParameters(
+    )
+  {
+    PdfArray entryFieldSizesObject = (PdfArray)getHeader().resolve(PdfName.W);
+    if(entryFieldSizesObject == null)
+      return null;
+
+    int entrySize = 0;
+    for(PdfDirectObject entryFieldSizeObject : entryFieldSizesObject)
+    {entrySize += ((PdfInteger)entryFieldSizeObject).getRawValue();}
+    return new PdfDictionary(
+      new PdfName[]
+      {
+        PdfName.Predictor,
+        PdfName.Columns
+      },
+      new PdfDirectObject[]
+      {
+        PdfInteger.get(12), // PNG Up prediction.
+        PdfInteger.get(entrySize)
+      }
+      );
+  }
+  // </protected>
+
   // <private>
   /**
     Serializes the xref stream entries into the stream body.
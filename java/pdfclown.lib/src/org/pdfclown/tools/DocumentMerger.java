@@ -0,0 +1,399 @@
+/*
+  Copyright 2026 Stefano Chizzolini. http://www.pdfclown.org
+
+  Contributors:
+    * Stefano Chizzolini (original code developer, http://www.stefanochizzolini.it)
+
+  This file should be part of the source code distribution of "PDF Clown library"
+  (the Program): see the accompanying README files for more info.
+
+  This Program is free software; you can redistribute it and/or modify it under the terms
+  of the GNU Lesser General Public License as published by the Free Software Foundation;
+  either version 3 of the License, or (at your option) any later version.
+
+  This Program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  either expressed or implied; without even the implied warranty of MERCHANTABILITY or
+  FITNESS FOR A PARTICULAR PURPOSE. See the License for more details.
+
+  You should have received a copy of the GNU Lesser General Public License along with this
+  Program (see README files); if not, go to the GNU website (http://www.gnu.org/licenses/).
+
+  Redistribution and use, with or without modification, are permitted provided that such
+  redistributions retain the above copyright notice, license and disclaimer, along with
+  this list of conditions.
+*/
+
+package org.pdfclown.tools;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.pdfclown.Version;
+import org.pdfclown.VersionEnum;
+import org.pdfclown.bytes.IOutputStream;
+import org.pdfclown.bytes.OutputStream;
+import org.pdfclown.documents.Document;
+import org.pdfclown.documents.Page;
+import org.pdfclown.documents.Pages;
+import org.pdfclown.files.File;
+import org.pdfclown.objects.PdfDictionary;
+import org.pdfclown.objects.PdfIndirectObject;
+import org.pdfclown.objects.PdfName;
+import org.pdfclown.objects.PdfReference;
+import org.pdfclown.tokens.Encoding;
+import org.pdfclown.tokens.Keyword;
+import org.pdfclown.tokens.Symbol;
+
+/**
+  Tool for merging documents into a new file, one at a time.
+  <p>Unlike {@link PageManager#add(Document)}, which accumulates the imported objects until the
+  target file is saved (keeping all the source files open), this tool serializes the pages of each
+  source as soon as they are added, so that the source can be released before the next one is
+  opened: memory usage is therefore proportional to the largest source, plus the cross-reference
+  table of the target file.</p>
+  <p>The pages added at once are grouped under their own page tree node; document-level
+  features (such as outlines and interactive forms) are not merged.</p>
+
+  @author Stefano Chizzolini (http://www.stefanochizzolini.it)
+  @since 0.1.2
+  @version 0.1.2, 10/18/26
+*/
+public final class DocumentMerger
+  implements Closeable
+{
+  // <class>
+  // <static>
+  // <fields>
+  private static final byte[] BOFChunk = Encoding.Pdf.encode(Keyword.BOF + VersionEnum.PDF14.getVersion());
+  private static final byte[] HeaderBinaryHintChunk = new byte[]{(byte)Symbol.LineFeed,(byte)Symbol.Percent,(byte)0x80,(byte)0x80,(byte)0x80,(byte)0x80,(byte)Symbol.LineFeed};
+
+  private static final int CatalogNumber = 1;
+  /**
+    Maximum number of kids of the intermediate page tree nodes.
+  */
+  private static final int MaxKidCount = Pages.DefaultMaxKidCount;
+  private static final int RootNumber = 2;
+  // </fields>
+  // </static>
+
+  // <dynamic>
+  // <fields>
+  private final java.io.OutputStream baseStream;
+  private final IOutputStream stream;
+
+  private boolean closed;
+  /**
+    Object number of the current intermediate page tree node.
+  */
+  private int groupNumber;
+  /**
+    Object numbers of the kids of the current intermediate page tree node.
+  */
+  private final List<Integer> groupKidNumbers = new ArrayList<Integer>();
+  private int groupPageCount;
+  /**
+    Offsets of the serialized objects (indexed by object number).
+  */
+  private long[] offsets = new long[1024];
+  /**
+    Number of the next object to serialize (that is the cross-reference table size).
+  */
+  private int nextNumber = RootNumber + 1;
+  private int pageCount;
+  /**
+    Object numbers of the kids of the page tree root.
+  */
+  private final List<Integer> rootKidNumbers = new ArrayList<Integer>();
+  private Version version = VersionEnum.PDF14.getVersion();
+  // </fields>
+
+  // <constructors>
+  /**
+    @param path Target file path.
+  */
+  public DocumentMerger(
+    String path
+    ) throws IOException
+  {this(new java.io.BufferedOutputStream(new java.io.FileOutputStream(path)));}
+
+  /**
+    @param stream Target stream (it's caller responsibility to close it after this merger is
+      closed).
+  */
+  public DocumentMerger(
+    IOutputStream stream
+    )
+  {
+    this.baseStream = null;
+    this.stream = stream;
+
+    writeHeader();
+  }
+
+  private DocumentMerger(
+    java.io.OutputStream baseStream
+    )
+  {
+    this.baseStream = baseStream;
+    this.stream = new OutputStream(baseStream);
+
+    writeHeader();
+  }
+  // </constructors>
+
+  // <interface>
+  // <public>
+  /**
+    Appends the pages of a file.
+    <p>The source file is open just for the duration of this call.</p>
+
+    @param path Source file path.
+  */
+  public void add(
+    String path
+    ) throws IOException
+  {
+    File source = new File(path);
+    try
+    {add(source.getDocument());}
+    finally
+    {source.close();}
+  }
+
+  /**
+    Appends the pages of a document.
+    <p>Once this call returns, the document is no longer needed by this merger (its file can be
+    closed).</p>
+
+    @param document Document to be added.
+  */
+  public void add(
+    Document document
+    )
+  {add(document.getPages());}
+
+  /**
+    Appends a collection of pages.
+    <p>Once this call returns, the pages are no longer needed by this merger (their files can be
+    closed).</p>
+
+    @param pages Pages to be added.
+  */
+  @SuppressWarnings({"unchecked", "resource"})
+  public void add(
+    Collection<Page> pages
+    )
+  {
+    if(closed)
+      throw new IllegalStateException("Merger already closed.");
+    int addedPageCount = pages.size();
+    if(addedPageCount == 0)
+      return;
+
+    /*
+      NOTE: Pages are imported into a transient file, whose objects are serialized (renumbered
+      to follow the ones already serialized) and then discarded.
+    */
+    File section = new File();
+    Document sectionDocument = section.getDocument();
+    // Placeholder of the parent node (serialized separately).
+    PdfReference parentReference = section.register(new PdfDictionary());
+    Pages sectionPages = sectionDocument.getPages();
+    sectionPages.addAll((Collection<Page>)sectionDocument.include(pages));
+    sectionPages.getBaseDataObject().put(PdfName.Parent, parentReference);
+
+    if(groupKidNumbers.size() == MaxKidCount)
+    {writeGroup();}
+    if(groupKidNumbers.isEmpty())
+    {groupNumber = nextNumber++;}
+
+    // Renumber the section objects!
+    PdfIndirectObject catalogObject = sectionDocument.getBaseObject().getIndirectObject();
+    PdfIndirectObject parentObject = parentReference.getIndirectObject();
+    List<PdfIndirectObject> sectionObjects = new ArrayList<PdfIndirectObject>();
+    for(PdfIndirectObject sectionObject : section.getIndirectObjects())
+    {
+      if(!sectionObject.isInUse()
+        || sectionObject == catalogObject
+        || sectionObject == parentObject)
+        continue;
+
+      sectionObject.getXrefEntry().setNumber(nextNumber++);
+      sectionObjects.add(sectionObject);
+    }
+    parentObject.getXrefEntry().setNumber(groupNumber);
+
+    // Serialize the section objects!
+    if(offsets.length < nextNumber)
+    {offsets = Arrays.copyOf(offsets, Math.max(nextNumber, offsets.length * 2));}
+    for(PdfIndirectObject sectionObject : sectionObjects)
+    {
+      offsets[sectionObject.getReference().getObjectNumber()] = stream.getLength();
+      sectionObject.writeTo(stream, section);
+    }
+    groupKidNumbers.add(((PdfReference)sectionPages.getBaseObject()).getObjectNumber());
+    groupPageCount += addedPageCount;
+    pageCount += addedPageCount;
+
+    // Release the sources!
+    Set<File> sources = new HashSet<File>();
+    for(Page page : pages)
+    {sources.add(page.getFile());}
+    for(File source : sources)
+    {
+      source.unregisterSharedStreams(section); // Shared stream data already serialized.
+
+      Version sourceVersion = source.getDocument().getVersion();
+      if(sourceVersion.compareTo(version) > 0)
+      {version = sourceVersion;}
+    }
+  }
+
+  /**
+    Gets the number of pages merged so far.
+  */
+  public int getPageCount(
+    )
+  {return pageCount;}
+
+  // <Closeable>
+  /**
+    Completes the target file (document catalog, page tree root and cross-reference table).
+  */
+  @Override
+  public void close(
+    ) throws IOException
+  {
+    if(closed)
+      return;
+
+    closed = true;
+    if(!groupKidNumbers.isEmpty())
+    {writeGroup();}
+
+    // 1. Page tree root.
+    writeObject(
+      RootNumber,
+      "<</Type /Pages /Kids " + toReferences(rootKidNumbers) + " /Count " + pageCount + ">>"
+      );
+
+    // 2. Document catalog.
+    writeObject(
+      CatalogNumber,
+      "<</Type /Catalog /Pages " + RootNumber + " 0 R"
+        + (version.compareTo(VersionEnum.PDF14.getVersion()) > 0 ? " /Version /" + version : "")
+        + ">>"
+      );
+
+    // 3. Cross-reference table.
+    long startxref = stream.getLength();
+    StringBuilder xrefBuilder = new StringBuilder(Keyword.XRef).append(Symbol.LineFeed)
+      .append(0).append(Symbol.Space).append(nextNumber).append(Symbol.LineFeed)
+      .append("0000000000 65535 ").append(Keyword.FreeXrefEntry).append(Symbol.CarriageReturn).append(Symbol.LineFeed);
+    for(int number = 1; number < nextNumber; number++)
+    {
+      String offset = Long.toString(offsets[number]);
+      for(int index = offset.length(); index < 10; index++)
+      {xrefBuilder.append('0');}
+      xrefBuilder.append(offset).append(" 00000 ").append(Keyword.InUseXrefEntry).append(Symbol.CarriageReturn).append(Symbol.LineFeed);
+      if(xrefBuilder.length() > 8192)
+      {
+        stream.write(xrefBuilder.toString());
+        xrefBuilder.setLength(0);
+      }
+    }
+    stream.write(xrefBuilder.toString());
+
+    // 4. Trailer.
+    String id = getId();
+    stream.write(
+      Keyword.Trailer + Symbol.LineFeed
+        + "<</Size " + nextNumber + " /Root " + CatalogNumber + " 0 R /ID [<" + id + "> <" + id + ">]>>" + Symbol.LineFeed
+        + Keyword.StartXRef + Symbol.LineFeed
+        + startxref + Symbol.LineFeed
+        + Keyword.EOF + Symbol.CarriageReturn + Symbol.LineFeed
+      );
+
+    if(baseStream != null)
+    {baseStream.close();}
+  }
+  // </Closeable>
+  // </public>
+
+  // <private>
+  /**
+    Gets a file identifier [PDF:1.7:10.3].
+  */
+  private String getId(
+    )
+  {
+    MessageDigest md5;
+    try
+    {md5 = MessageDigest.getInstance("MD5");}
+    catch(NoSuchAlgorithmException e)
+    {throw new RuntimeException("MD5 algorithm unavailable.", e);}
+    md5.update(Encoding.Pdf.encode(System.currentTimeMillis() + " " + stream.getLength() + " " + pageCount));
+
+    StringBuilder idBuilder = new StringBuilder();
+    for(byte digestByte : md5.digest())
+    {idBuilder.append(Character.forDigit((digestByte >> 4) & 0xF, 16)).append(Character.forDigit(digestByte & 0xF, 16));}
+    return idBuilder.toString();
+  }
+
+  private static String toReferences(
+    List<Integer> numbers
+    )
+  {
+    StringBuilder builder = new StringBuilder(Keyword.BeginArray);
+    for(int number : numbers)
+    {builder.append(number).append(" 0 R ");}
+    return builder.append(Keyword.EndArray).toString();
+  }
+
+  /**
+    Serializes the current intermediate page tree node.
+  */
+  private void writeGroup(
+    )
+  {
+    writeObject(
+      groupNumber,
+      "<</Type /Pages /Parent " + RootNumber + " 0 R /Kids " + toReferences(groupKidNumbers) + " /Count " + groupPageCount + ">>"
+      );
+    rootKidNumbers.add(groupNumber);
+    groupKidNumbers.clear();
+    groupPageCount = 0;
+  }
+
+  private void writeHeader(
+    )
+  {
+    stream.write(BOFChunk);
+    stream.write(HeaderBinaryHintChunk);
+  }
+
+  private void writeObject(
+    int number,
+    String data
+    )
+  {
+    offsets[number] = stream.getLength();
+    stream.write(
+      number + " 0 " + Keyword.BeginIndirectObject + Symbol.LineFeed
+        + data + Symbol.LineFeed
+        + Keyword.EndIndirectObject + Symbol.LineFeed
+      );
+  }
+  // </private>
+  // </interface>
+  // </dynamic>
+  // </class>
+}
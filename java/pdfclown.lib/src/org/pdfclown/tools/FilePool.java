@@ -0,0 +1,253 @@
+/*
+  Copyright 2026 Stefano Chizzolini. http://www.pdfclown.org
+
+  Contributors:
+    * Stefano Chizzolini (original code developer, http://www.stefanochizzolini.it)
+
+  This file should be part of the source code distribution of "PDF Clown library"
+  (the Program): see the accompanying README files for more info.
+
+  This Program is free software; you can redistribute it and/or modify it under the terms
+  of the GNU Lesser General Public License as published by the Free Software Foundation;
+  either version 3 of the License, or (at your option) any later version.
+
+  This Program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  either expressed or implied; without even the implied warranty of MERCHANTABILITY or
+  FITNESS FOR A PARTICULAR PURPOSE. See the License for more details.
+
+  You should have received a copy of the GNU Lesser General Public License along with this
+  Program (see README files); if not, go to the GNU website (http://www.gnu.org/licenses/).
+
+  Redistribution and use, with or without modification, are permitted provided that such
+  redistributions retain the above copyright notice, license and disclaimer, along with
+  this list of conditions.
+*/
+
+package org.pdfclown.tools;
+
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.pdfclown.files.File;
+import org.pdfclown.files.IndirectObjects;
+
+/**
+  Pool of independent read-only instances of the same PDF file.
+  <p>{@link File} objects (along with their parser, indirect objects and document caches) are
+  not thread-safe: concurrent tools confine each instance to a single thread at a time,
+  borrowing it from this pool.</p>
+  <p>Instances are kept for the whole life of the pool, so that their cross-reference table and
+  page index are built once; in order to keep memory flat even on long documents, their loaded
+  data objects are {@link IndirectObjects#unload() unloaded} (and their document cache cleared)
+  on release as soon as they exceed a given size.</p>
+
+  @author Stefano Chizzolini (http://www.stefanochizzolini.it)
+  @since 0.1.2
+  @version 0.1.2, 10/18/26
+*/
+final class FilePool
+  implements Closeable
+{
+  // <class>
+  // <static>
+  // <fields>
+  /**
+    Default maximum serialized size of the data objects retained by each file instance.
+  */
+  public static final long DefaultMaxLoadedDataSize = 16 << 20;
+  // </fields>
+  // </static>
+
+  // <dynamic>
+  // <fields>
+  private final int capacity;
+  private final Deque<File> idleFiles = new ArrayDeque<File>();
+  private final Object lock = new Object();
+  private final long maxLoadedDataSize;
+  private final String path;
+
+  private boolean closed;
+  /**
+    Number of open (or being opened) file instances.
+  */
+  private int fileCount;
+  // </fields>
+
+  // <constructors>
+  /**
+    @param path File path.
+    @param capacity Maximum number of file instances.
+  */
+  public FilePool(
+    String path,
+    int capacity
+    )
+  {this(path, capacity, DefaultMaxLoadedDataSize);}
+
+  /**
+    @param path File path.
+    @param capacity Maximum number of file instances.
+    @param maxLoadedDataSize Maximum serialized size of the data objects retained by each file
+      instance (see {@link IndirectObjects#getLoadedDataSize()}).
+  */
+  public FilePool(
+    String path,
+    int capacity,
+    long maxLoadedDataSize
+    )
+  {
+    if(capacity < 1)
+      throw new IllegalArgumentException("capacity MUST be positive.");
+
+    this.path = path;
+    this.capacity = capacity;
+    this.maxLoadedDataSize = maxLoadedDataSize;
+  }
+  // </constructors>
+
+  // <interface>
+  // <public>
+  /**
+    Borrows a file instance, waiting for one to be released in case the pool is exhausted.
+    <p>The instance MUST be given back through {@link #release(File)}.</p>
+
+    @throws IllegalStateException If the pool is (or gets, while waiting) closed.
+  */
+  public File acquire(
+    ) throws InterruptedException
+  {
+    synchronized(lock)
+    {
+      while(true)
+      {
+        if(closed)
+          throw new IllegalStateException("Pool closed.");
+
+        File file = idleFiles.poll();
+        if(file != null)
+          return file;
+
+        if(fileCount < capacity)
+        {
+          fileCount++; // Reserves the slot of the new instance.
+          break;
+        }
+
+        lock.wait();
+      }
+    }
+
+    // Open a new instance!
+    /*
+      NOTE: Opening is done outside the lock, so that it doesn't hold up the other borrowers.
+    */
+    File file = null;
+    try
+    {file = new File(path);}
+    catch(FileNotFoundException e)
+    {throw new RuntimeException(e);}
+    finally
+    {
+      if(file == null)
+      {
+        synchronized(lock)
+        {
+          fileCount--;
+          lock.notify();
+        }
+      }
+    }
+    synchronized(lock)
+    {
+      if(!closed)
+        return file;
+
+      fileCount--;
+    }
+    close(file);
+    throw new IllegalStateException("Pool closed.");
+  }
+
+  /**
+    Gets the file path.
+  */
+  public String getPath(
+    )
+  {return path;}
+
+  /**
+    Gives back the given file instance.
+  */
+  public void release(
+    File file
+    )
+  {
+    // Free the loaded data, if exceeding!
+    IndirectObjects indirectObjects = file.getIndirectObjects();
+    if(indirectObjects.getLoadedDataSize() > maxLoadedDataSize)
+    {
+      indirectObjects.unload();
+      file.getDocument().cache.clear(); // Resources (fonts, color converters...) derived from the unloaded data.
+    }
+
+    synchronized(lock)
+    {
+      if(!closed)
+      {
+        idleFiles.push(file);
+        lock.notify();
+        return;
+      }
+
+      fileCount--;
+    }
+    close(file);
+  }
+
+  // <Closeable>
+  /**
+    Closes the idle file instances; borrowed instances are closed as soon as they are released.
+    <p>Threads waiting for an instance are woken up and fail.</p>
+  */
+  @Override
+  public void close(
+    )
+  {
+    List<File> closingFiles;
+    synchronized(lock)
+    {
+      if(closed)
+        return;
+
+      closed = true;
+      closingFiles = new ArrayList<File>(idleFiles);
+      idleFiles.clear();
+      fileCount -= closingFiles.size();
+      lock.notifyAll();
+    }
+    for(File file : closingFiles)
+    {close(file);}
+  }
+  // </Closeable>
+  // </public>
+
+  // <private>
+  private void close(
+    File file
+    )
+  {
+    try
+    {file.close();}
+    catch(IOException e)
+    {/* NOOP */}
+  }
+  // </private>
+  // </interface>
+  // </dynamic>
+  // </class>
+}
@@ -0,0 +1,389 @@
+/*
+  Copyright 2026 Stefano Chizzolini. http://www.pdfclown.org
+
+  Contributors:
+    * Stefano Chizzolini (original code developer, http://www.stefanochizzolini.it)
+
+  This file should be part of the source code distribution of "PDF Clown library"
+  (the Program): see the accompanying README files for more info.
+
+  This Program is free software; you can redistribute it and/or modify it under the terms
+  of the GNU Lesser General Public License as published by the Free Software Foundation;
+  either version 3 of the License, or (at your option) any later version.
+
+  This Program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  either expressed or implied; without even the implied warranty of MERCHANTABILITY or
+  FITNESS FOR A PARTICULAR PURPOSE. See the License for more details.
+
+  You should have received a copy of the GNU Lesser General Public License along with this
+  Program (see README files); if not, go to the GNU website (http://www.gnu.org/licenses/).
+
+  Redistribution and use, with or without modification, are permitted provided that such
+  redistributions retain the above copyright notice, license and disclaimer, along with
+  this list of conditions.
+*/
+
+package org.pdfclown.tools;
+
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.pdfclown.documents.Document;
+import org.pdfclown.documents.Page;
+import org.pdfclown.documents.Pages;
+import org.pdfclown.documents.contents.composition.PrimitiveComposer;
+import org.pdfclown.documents.contents.xObjects.FormXObject;
+import org.pdfclown.documents.interaction.annotations.Annotation;
+import org.pdfclown.files.File;
+import org.pdfclown.objects.PdfArray;
+import org.pdfclown.objects.PdfDataObject;
+import org.pdfclown.objects.PdfDictionary;
+import org.pdfclown.objects.PdfDirectObject;
+import org.pdfclown.objects.PdfInteger;
+import org.pdfclown.objects.PdfName;
+import org.pdfclown.objects.PdfNumber;
+import org.pdfclown.objects.PdfObject;
+import org.pdfclown.objects.PdfReference;
+import org.pdfclown.objects.PdfStream;
+
+/**
+  Tool for flattening the interactive form of a document.
+  <p>The normal appearance of each visible widget annotation is painted as an external object on
+  its page, then widget annotations and form fields are removed. Pages are processed one by one,
+  appending the painted appearances to their content streams as {@link PageStamper} does, so that
+  existing contents are never parsed.</p>
+  <p>Widgets lacking a normal appearance (for example, because their form requires its viewers
+  to generate the appearances) are removed without being painted. The objects of the removed
+  widgets and fields are left in the file: use {@link Optimizer#removeOrphanedObjects(File)} to
+  purge them.</p>
+
+  @author Stefano Chizzolini (http://www.stefanochizzolini.it)
+  @since 0.1.2
+  @version 0.1.2, 10/18/26
+  @see ParallelFormFlattener
+*/
+public final class FormFlattener
+{
+  // <class>
+  // <classes>
+  /**
+    Flattening plan of a page.
+    <p>As it addresses objects by position and object number, a plan computed on an instance of a
+    file can be applied to any other instance of the same file (see {@link ParallelFormFlattener}).
+    </p>
+  */
+  static final class Plan
+  {
+    /**
+      Stamps of the visible widgets.
+    */
+    final List<Stamp> stamps = new ArrayList<Stamp>();
+    /**
+      Positions of the widgets within the page annotations (ascending).
+    */
+    final List<Integer> widgetIndexes = new ArrayList<Integer>();
+  }
+
+  /**
+    Widget appearance placement.
+  */
+  static final class Stamp
+  {
+    /**
+      Object number of the appearance stream.
+    */
+    final int appearanceNumber;
+    /**
+      Whether the appearance stream lacks its form subtype.
+    */
+    final boolean appearanceUntyped;
+    /**
+      Transformation mapping the appearance onto the widget box.
+    */
+    final double[] matrix;
+
+    Stamp(
+      int appearanceNumber,
+      boolean appearanceUntyped,
+      double[] matrix
+      )
+    {
+      this.appearanceNumber = appearanceNumber;
+      this.appearanceUntyped = appearanceUntyped;
+      this.matrix = matrix;
+    }
+  }
+  // </classes>
+
+  // <static>
+  // <interface>
+  // <internal>
+  /**
+    Applies the given flattening plan to the given page.
+    <p>As plans are computed on the original state of the document, structures shared by multiple
+    pages (page dictionaries and annotation arrays) are tracked to be flattened once only.</p>
+
+    @param flattenedObjects Structures already flattened.
+    @return Number of removed widgets.
+  */
+  static int apply(
+    Page page,
+    Plan plan,
+    Set<PdfDataObject> flattenedObjects
+    )
+  {
+    PdfDictionary pageDictionary = page.getBaseDataObject();
+    if(plan.widgetIndexes.isEmpty()
+      || !flattenedObjects.add(pageDictionary))
+      return 0;
+
+    // Paint the appearances!
+    if(!plan.stamps.isEmpty())
+    {
+      File file = page.getFile();
+      PageStamper stamper = new PageStamper(page);
+      PrimitiveComposer composer = stamper.getForeground();
+      for(Stamp stamp : plan.stamps)
+      {
+        PdfReference appearanceReference = file.getIndirectObjects().get(stamp.appearanceNumber).getReference();
+        if(stamp.appearanceUntyped)
+        {((PdfStream)appearanceReference.resolve()).getHeader().put(PdfName.Subtype, PdfName.Form);}
+
+        composer.beginLocalState();
+        double[] matrix = stamp.matrix;
+        composer.applyMatrix(matrix[0], matrix[1], matrix[2], matrix[3], matrix[4], matrix[5]);
+        composer.showXObject(FormXObject.wrap(appearanceReference));
+        composer.end();
+      }
+      stamper.flush();
+    }
+
+    // Remove the widgets!
+    PdfArray annotations = (PdfArray)pageDictionary.resolve(PdfName.Annots);
+    int widgetCount = 0;
+    if(flattenedObjects.add(annotations))
+    {
+      for(int index = plan.widgetIndexes.size() - 1; index >= 0; index--)
+      {annotations.remove((int)plan.widgetIndexes.get(index));}
+      widgetCount = plan.widgetIndexes.size();
+    }
+    if(annotations.isEmpty())
+    {pageDictionary.remove(PdfName.Annots);}
+    return widgetCount;
+  }
+
+  /**
+    Creates a new tracker of flattened structures (see {@link #apply(Page, Plan, Set)}).
+  */
+  static Set<PdfDataObject> newFlattenedObjects(
+    )
+  {return Collections.newSetFromMap(new IdentityHashMap<PdfDataObject,Boolean>());}
+
+  /**
+    Computes the flattening plan of the given page.
+    <p>The page is left untouched.</p>
+  */
+  static Plan plan(
+    Page page
+    )
+  {
+    Plan plan = new Plan();
+    PdfDataObject annotationsObject = page.getBaseDataObject().resolve(PdfName.Annots);
+    if(!(annotationsObject instanceof PdfArray))
+      return plan;
+
+    PdfArray annotations = (PdfArray)annotationsObject;
+    for(int index = 0, length = annotations.size(); index < length; index++)
+    {
+      PdfDataObject annotationObject = annotations.resolve(index);
+      if(!(annotationObject instanceof PdfDictionary))
+        continue;
+
+      PdfDictionary annotation = (PdfDictionary)annotationObject;
+      if(!PdfName.Widget.equals(annotation.get(PdfName.Subtype)))
+        continue;
+
+      plan.widgetIndexes.add(index);
+      Stamp stamp = stamp(annotation);
+      if(stamp != null)
+      {plan.stamps.add(stamp);}
+    }
+    return plan;
+  }
+  // </internal>
+
+  // <private>
+  /**
+    Gets the normal appearance stream reference of the given widget.
+  */
+  private static PdfReference getAppearance(
+    PdfDictionary widget
+    )
+  {
+    PdfDataObject appearanceObject = widget.resolve(PdfName.AP);
+    if(!(appearanceObject instanceof PdfDictionary))
+      return null;
+
+    PdfDirectObject normalObject = ((PdfDictionary)appearanceObject).get(PdfName.N);
+    PdfDataObject normalDataObject = PdfObject.resolve(normalObject);
+    if(normalDataObject instanceof PdfDictionary) // Multiple states.
+    {
+      PdfDictionary states = (PdfDictionary)normalDataObject;
+      PdfDirectObject stateObject = widget.get(PdfName.AS);
+      if(stateObject != null)
+      {normalObject = states.get(stateObject);}
+      else if(states.size() == 1)
+      {normalObject = states.values().iterator().next();}
+      else
+        return null;
+
+      normalDataObject = PdfObject.resolve(normalObject);
+    }
+    return normalDataObject instanceof PdfStream && normalObject instanceof PdfReference
+      ? (PdfReference)normalObject
+      : null;
+  }
+
+  /**
+    Gets the normalized rectangle corresponding to the given array.
+  */
+  private static Rectangle2D getRectangle(
+    PdfDataObject rectangleObject
+    )
+  {
+    if(!(rectangleObject instanceof PdfArray))
+      return null;
+
+    PdfArray rectangle = (PdfArray)rectangleObject;
+    if(rectangle.size() < 4)
+      return null;
+
+    double[] coordinates = new double[4];
+    for(int index = 0; index < 4; index++)
+    {
+      PdfDataObject coordinateObject = rectangle.resolve(index);
+      if(!(coordinateObject instanceof PdfNumber<?>))
+        return null;
+
+      coordinates[index] = ((PdfNumber<?>)coordinateObject).getDoubleValue();
+    }
+    double left = Math.min(coordinates[0], coordinates[2]), bottom = Math.min(coordinates[1], coordinates[3]);
+    return new Rectangle2D.Double(
+      left,
+      bottom,
+      Math.max(coordinates[0], coordinates[2]) - left,
+      Math.max(coordinates[1], coordinates[3]) - bottom
+      );
+  }
+
+  /**
+    Gets the matrix corresponding to the given array.
+  */
+  private static AffineTransform getMatrix(
+    PdfDataObject matrixObject
+    )
+  {
+    if(!(matrixObject instanceof PdfArray))
+      return new AffineTransform();
+
+    PdfArray matrix = (PdfArray)matrixObject;
+    double[] values = new double[6];
+    for(int index = 0; index < 6; index++)
+    {
+      PdfDataObject valueObject = (index < matrix.size() ? matrix.resolve(index) : null);
+      if(!(valueObject instanceof PdfNumber<?>))
+        return new AffineTransform();
+
+      values[index] = ((PdfNumber<?>)valueObject).getDoubleValue();
+    }
+    return new AffineTransform(values);
+  }
+
+  /**
+    Computes the placement of the normal appearance of the given widget.
+
+    @return <code>null</code>, if the widget has no visible appearance.
+  */
+  private static Stamp stamp(
+    PdfDictionary widget
+    )
+  {
+    PdfDirectObject flagsObject = widget.get(PdfName.F);
+    if(flagsObject instanceof PdfInteger
+      && (((PdfInteger)flagsObject).getValue() & Annotation.FlagsEnum.Hidden.getCode()) != 0)
+      return null;
+
+    PdfReference appearanceReference = getAppearance(widget);
+    if(appearanceReference == null)
+      return null;
+
+    Rectangle2D box = getRectangle(widget.resolve(PdfName.Rect));
+    if(box == null)
+      return null;
+
+    PdfDictionary appearanceHeader = ((PdfStream)appearanceReference.resolve()).getHeader();
+    Rectangle2D appearanceBox = getRectangle(appearanceHeader.resolve(PdfName.BBox));
+    if(appearanceBox == null)
+      return null;
+
+    /*
+      NOTE: The appearance box, transformed by the appearance matrix, is fitted to the widget
+      box [PDF:1.6:8.4.4].
+    */
+    appearanceBox = getMatrix(appearanceHeader.resolve(PdfName.Matrix)).createTransformedShape(appearanceBox).getBounds2D();
+    if(appearanceBox.getWidth() == 0 || appearanceBox.getHeight() == 0)
+      return null;
+
+    double scaleX = box.getWidth() / appearanceBox.getWidth();
+    double scaleY = box.getHeight() / appearanceBox.getHeight();
+    return new Stamp(
+      appearanceReference.getObjectNumber(),
+      !PdfName.Form.equals(appearanceHeader.get(PdfName.Subtype)),
+      new double[]
+      {
+        scaleX, 0, 0, scaleY,
+        box.getX() - appearanceBox.getX() * scaleX,
+        box.getY() - appearanceBox.getY() * scaleY
+      }
+      );
+  }
+  // </private>
+  // </interface>
+  // </static>
+
+  // <dynamic>
+  // <interface>
+  // <public>
+  /**
+    Flattens the form of the given document.
+    <p>All the pages are planned before being flattened, so that structures shared by multiple
+    pages are flattened consistently.</p>
+
+    @return Number of removed widgets.
+  */
+  public int flatten(
+    Document document
+    )
+  {
+    Pages pages = document.getPages();
+    List<Plan> plans = new ArrayList<Plan>(pages.size());
+    for(Page page : pages)
+    {plans.add(plan(page));}
+
+    int widgetCount = 0;
+    Set<PdfDataObject> flattenedObjects = newFlattenedObjects();
+    for(int index = 0, length = plans.size(); index < length; index++)
+    {widgetCount += apply(pages.get(index), plans.get(index), flattenedObjects);}
+    document.setForm(null);
+    return widgetCount;
+  }
+  // </public>
+  // </interface>
+  // </dynamic>
+  // </class>
+}
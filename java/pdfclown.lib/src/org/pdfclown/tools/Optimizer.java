@@ -25,14 +25,12 @@
 
 package org.pdfclown.tools;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.BitSet;
 
 import org.pdfclown.files.File;
 import org.pdfclown.files.IndirectObjects;
-import org.pdfclown.objects.IVisitor;
+import org.pdfclown.objects.PdfIndirectObject;
 import org.pdfclown.objects.PdfObject;
-import org.pdfclown.objects.PdfReference;
 import org.pdfclown.objects.Visitor;
 
 /**
@@ -40,7 +38,7 @@ import org.pdfclown.objects.Visitor;
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @since 0.1.2
-  @version 0.1.2, 12/21/12
+  @version 0.1.2, 10/18/26
 */
 public final class Optimizer
 {
@@ -54,34 +52,30 @@ public final class Optimizer
     )
   {
     // 1. Collecting alive indirect objects...
-    final Set<Integer> aliveObjectNumbers = new HashSet<Integer>();
+    final BitSet aliveObjectNumbers = new BitSet();
     {
       // Alive indirect objects collector.
-      IVisitor visitor = new Visitor()
+      Visitor visitor = new Visitor()
       {
         @Override
         public PdfObject visit(
-          PdfReference object,
+          PdfIndirectObject object,
           Object data
           )
         {
-          Integer objectNumber = object.getReference().getObjectNumber();
-          if(aliveObjectNumbers.contains(objectNumber))
-            return object;
-
-          aliveObjectNumbers.add(objectNumber);
+          aliveObjectNumbers.set(object.getReference().getObjectNumber());
           return super.visit(object, data);
         }
       };
       // Walk through the document structure to collect alive indirect objects!
-      file.getTrailer().accept(visitor, null);
+      visitor.traverse(file.getTrailer(), null);
     }
 
     // 2. Removing dead indirect objects...
     IndirectObjects indirectObjects = file.getIndirectObjects();
     for(int objectNumber = 0, objectCount = indirectObjects.size(); objectNumber < objectCount; objectNumber++)
     {
-      if(!aliveObjectNumbers.contains(objectNumber))
+      if(!aliveObjectNumbers.get(objectNumber))
       {indirectObjects.remove(objectNumber);}
     }
   }
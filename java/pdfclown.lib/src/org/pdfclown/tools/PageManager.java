@@ -31,27 +31,18 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
-import org.pdfclown.bytes.Buffer;
-import org.pdfclown.bytes.IOutputStream;
 import org.pdfclown.documents.Document;
 import org.pdfclown.documents.Page;
 import org.pdfclown.documents.Pages;
 import org.pdfclown.files.File;
-import org.pdfclown.objects.PdfArray;
-import org.pdfclown.objects.PdfDataObject;
-import org.pdfclown.objects.PdfDictionary;
-import org.pdfclown.objects.PdfDirectObject;
-import org.pdfclown.objects.PdfName;
-import org.pdfclown.objects.PdfObject;
 import org.pdfclown.objects.PdfReference;
-import org.pdfclown.objects.PdfStream;
 
 /**
   Tool for page management.
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @since 0.0.6
-  @version 0.1.2, 12/28/12
+  @version 0.1.2, 10/18/26
 */
 public final class PageManager
 {
@@ -70,6 +61,8 @@ public final class PageManager
   // <public>
   /**
     Gets the data size of the specified page expressed in bytes.
+    <p>The measures are cached by the shared estimator of the document (see {@link
+    PageSizeEstimator#get(Document)}).</p>
 
     @param page Page whose data size has to be calculated.
   */
@@ -80,6 +73,8 @@ public final class PageManager
 
   /**
     Gets the data size of the specified page expressed in bytes.
+    <p>The measures are cached by the shared estimator of the document (see {@link
+    PageSizeEstimator#get(Document)}).</p>
 
     @param page Page whose data size has to be calculated.
     @param visitedReferences References to data objects excluded from calculation.
@@ -90,69 +85,8 @@ public final class PageManager
     Page page,
     Set<PdfReference> visitedReferences
     )
-  {return getSize(page.getBaseObject(), visitedReferences, true);}
+  {return PageSizeEstimator.get(page.getDocument()).getSize(page, visitedReferences);}
   // </public>
-
-  // <private>
-  /**
-    Gets the data size of the specified object expressed in bytes.
-
-    @param object Data object whose size has to be calculated.
-    @param visitedReferences References to data objects excluded from calculation.
-      This set is useful, for example, to avoid recalculating the data size of shared resources.
-      During the operation, this set is populated with references to visited data objects.
-    @param isRoot Whether this data object represents the page root.
-  */
-  private static long getSize(
-    PdfDirectObject object,
-    Set<PdfReference> visitedReferences,
-    boolean isRoot
-    )
-  {
-    long dataSize = 0;
-    {
-      PdfDataObject dataObject = PdfObject.resolve(object);
-
-      // 1. Evaluating the current object...
-      if(object instanceof PdfReference)
-      {
-        PdfReference reference = (PdfReference)object;
-        if(visitedReferences.contains(reference))
-          return 0; // Avoids circular references.
-
-        if(dataObject instanceof PdfDictionary
-          && PdfName.Page.equals(((PdfDictionary)dataObject).get(PdfName.Type))
-          && !isRoot)
-          return 0; // Avoids references to other pages.
-
-        visitedReferences.add(reference);
-
-        // Calculate the data size of the current object!
-        IOutputStream buffer = new Buffer();
-        reference.getIndirectObject().writeTo(buffer, reference.getFile());
-        dataSize += buffer.getLength();
-      }
-
-      // 2. Evaluating the current object's children...
-      Collection<PdfDirectObject> values = null;
-      {
-        if(dataObject instanceof PdfStream)
-        {dataObject = ((PdfStream)dataObject).getHeader();}
-        if(dataObject instanceof PdfDictionary)
-        {values = ((PdfDictionary)dataObject).values();}
-        else if(dataObject instanceof PdfArray)
-        {values = (PdfArray)dataObject;}
-      }
-      if(values != null)
-      {
-        // Calculate the data size of the current object's children!
-        for(PdfDirectObject value : values)
-        {dataSize += getSize(value, visitedReferences, false);}
-      }
-    }
-    return dataSize;
-  }
-  // </private>
   // </interface>
   // </static>
 
@@ -404,9 +338,10 @@ public final class PageManager
       int startPageIndex = 0;
       long incrementalDataSize = 0;
       Set<PdfReference> visitedReferences = new HashSet<PdfReference>();
+      PageSizeEstimator sizeEstimator = PageSizeEstimator.get(document);
       for(Page page : pages)
       {
-        long pageDifferentialDataSize = getSize(page, visitedReferences);
+        long pageDifferentialDataSize = sizeEstimator.getSize(page, visitedReferences);
         incrementalDataSize += pageDifferentialDataSize;
         if(incrementalDataSize > maxDataSize) // Data size limit reached.
         {
@@ -416,7 +351,7 @@ public final class PageManager
           documents.add(extract(startPageIndex, endPageIndex));
 
           startPageIndex = endPageIndex;
-          incrementalDataSize = getSize(page, visitedReferences = new HashSet<PdfReference>());
+          incrementalDataSize = sizeEstimator.getSize(page, visitedReferences = new HashSet<PdfReference>());
         }
       }
       // Split the last document page range!
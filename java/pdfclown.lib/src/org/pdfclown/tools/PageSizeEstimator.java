@@ -0,0 +1,350 @@
+/*
+  Copyright 2026 Stefano Chizzolini. http://www.pdfclown.org
+
+  Contributors:
+    * Stefano Chizzolini (original code developer, http://www.stefanochizzolini.it)
+
+  This file should be part of the source code distribution of "PDF Clown library"
+  (the Program): see the accompanying README files for more info.
+
+  This Program is free software; you can redistribute it and/or modify it under the terms
+  of the GNU Lesser General Public License as published by the Free Software Foundation;
+  either version 3 of the License, or (at your option) any later version.
+
+  This Program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  either expressed or implied; without even the implied warranty of MERCHANTABILITY or
+  FITNESS FOR A PARTICULAR PURPOSE. See the License for more details.
+
+  You should have received a copy of the GNU Lesser General Public License along with this
+  Program (see README files); if not, go to the GNU website (http://www.gnu.org/licenses/).
+
+  Redistribution and use, with or without modification, are permitted provided that such
+  redistributions retain the above copyright notice, license and disclaimer, along with
+  this list of conditions.
+*/
+
+package org.pdfclown.tools;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+
+import org.pdfclown.bytes.Buffer;
+import org.pdfclown.bytes.IOutputStream;
+import org.pdfclown.documents.Document;
+import org.pdfclown.documents.Page;
+import org.pdfclown.documents.Pages;
+import org.pdfclown.files.File;
+import org.pdfclown.objects.PdfArray;
+import org.pdfclown.objects.PdfDataObject;
+import org.pdfclown.objects.PdfDictionary;
+import org.pdfclown.objects.PdfDirectObject;
+import org.pdfclown.objects.PdfIndirectObject;
+import org.pdfclown.objects.PdfInteger;
+import org.pdfclown.objects.PdfName;
+import org.pdfclown.objects.PdfObject;
+import org.pdfclown.objects.PdfReference;
+import org.pdfclown.objects.PdfStream;
+import org.pdfclown.tokens.ObjectStream;
+import org.pdfclown.tokens.Reader;
+import org.pdfclown.tokens.Reader.FileInfo;
+import org.pdfclown.tokens.XRefEntry;
+
+/**
+  Tool for estimating the data size of pages.
+  <p>Objects which come intact from the source file are measured on their original serialization
+  (as delimited by the cross-reference offsets), objects stored within object streams being
+  charged their share of the encoded stream; only new or modified objects are actually
+  serialized. Original measures are cached, so that estimating multiple pages through the same
+  instance costs little more than traversing their objects: {@link #get(Document)} shares such
+  an instance per document.</p>
+
+  @author Stefano Chizzolini (http://www.stefanochizzolini.it)
+  @since 0.1.2
+  @version 0.1.2, 10/18/26
+*/
+public final class PageSizeEstimator
+{
+  // <class>
+  // <static>
+  // <interface>
+  // <public>
+  /**
+    Gets the shared estimator of the given document.
+    <p>The estimator is held by the document and renewed whenever its source file happens to be
+    reloaded.</p>
+  */
+  public static PageSizeEstimator get(
+    Document document
+    )
+  {
+    PageSizeEstimator estimator = document.getPageSizeEstimator();
+    if(estimator == null || !estimator.isValid())
+    {document.setPageSizeEstimator(estimator = new PageSizeEstimator(document));}
+
+    return estimator;
+  }
+  // </public>
+  // </interface>
+  // </static>
+
+  // <dynamic>
+  // <fields>
+  private final Document document;
+  private final File file;
+  /**
+    Source of the original serializations.
+  */
+  private final Reader reader;
+  private final Map<Integer,Long> originalSizes = new HashMap<Integer,Long>();
+
+  /**
+    Sorted byte offsets delimiting the original serializations (indirect objects, xref sections
+    and file end).
+  */
+  private long[] originalBounds;
+  private SortedMap<Integer,XRefEntry> originalEntries;
+  // </fields>
+
+  // <constructors>
+  public PageSizeEstimator(
+    Document document
+    )
+  {
+    this.document = document;
+    this.file = document.getFile();
+    this.reader = file.getReader();
+  }
+  // </constructors>
+
+  // <interface>
+  // <public>
+  public Document getDocument(
+    )
+  {return document;}
+
+  /**
+    Gets the data size of the given page expressed in bytes.
+
+    @param page Page whose data size has to be calculated.
+  */
+  public long getSize(
+    Page page
+    )
+  {return getSize(page, new HashSet<PdfReference>());}
+
+  /**
+    Gets the data size of the given page expressed in bytes.
+
+    @param page Page whose data size has to be calculated.
+    @param visitedReferences References to data objects excluded from calculation.
+      This set is useful, for example, to avoid recalculating the data size of shared resources.
+      During the operation, this set is populated with references to visited data objects.
+  */
+  public long getSize(
+    Page page,
+    Set<PdfReference> visitedReferences
+    )
+  {
+    long dataSize = 0;
+    PdfDirectObject rootObject = page.getBaseObject();
+    Deque<PdfDirectObject> pendingObjects = new ArrayDeque<PdfDirectObject>();
+    pendingObjects.push(rootObject);
+    while(!pendingObjects.isEmpty())
+    {
+      PdfDirectObject object = pendingObjects.pop();
+
+      // 1. Evaluating the current object...
+      if(object instanceof PdfReference)
+      {
+        PdfReference reference = (PdfReference)object;
+        if(visitedReferences.contains(reference))
+          continue; // Avoids circular references.
+
+        PdfDataObject dataObject = reference.getDataObject();
+        if(dataObject instanceof PdfDictionary
+          && PdfName.Page.equals(((PdfDictionary)dataObject).get(PdfName.Type))
+          && object != rootObject)
+          continue; // Avoids references to other pages.
+
+        visitedReferences.add(reference);
+
+        dataSize += getSize(reference.getIndirectObject());
+      }
+
+      // 2. Evaluating the current object's children...
+      Collection<PdfDirectObject> values = null;
+      {
+        PdfDataObject dataObject = PdfObject.resolve(object);
+        if(dataObject instanceof PdfStream)
+        {dataObject = ((PdfStream)dataObject).getHeader();}
+        if(dataObject instanceof PdfDictionary)
+        {values = ((PdfDictionary)dataObject).values();}
+        else if(dataObject instanceof PdfArray)
+        {values = (PdfArray)dataObject;}
+      }
+      if(values != null)
+      {
+        for(PdfDirectObject value : values)
+        {
+          if(value != null)
+          {pendingObjects.push(value);}
+        }
+      }
+    }
+    return dataSize;
+  }
+
+  /**
+    Gets the data size of the given indirect object expressed in bytes.
+  */
+  public long getSize(
+    PdfIndirectObject object
+    )
+  {
+    if(!object.isInUse())
+      return 0;
+
+    long dataSize = getOriginalSize(object);
+    if(dataSize < 0) // New or modified object.
+    {
+      IOutputStream buffer = new Buffer();
+      object.writeTo(buffer, file);
+      dataSize = buffer.getLength();
+    }
+    return dataSize;
+  }
+
+  /**
+    Gets the data size of each page of the document expressed in bytes.
+    <p>Pages are evaluated in a single pass: objects shared by multiple pages (such as fonts and
+    images) are charged to the first page which uses them, so that the sizes sum up to the whole
+    page data.</p>
+  */
+  public long[] getSizes(
+    )
+  {
+    Pages pages = document.getPages();
+    long[] sizes = new long[pages.size()];
+    Set<PdfReference> visitedReferences = new HashSet<PdfReference>();
+    int index = 0;
+    for(Page page : pages)
+    {sizes[index++] = getSize(page, visitedReferences);}
+    return sizes;
+  }
+  // </public>
+
+  // <private>
+  /**
+    Gets the original serialization length of the given object.
+
+    @return <code>-1</code>, in case the object has no intact original serialization.
+  */
+  private long getOriginalSize(
+    PdfIndirectObject object
+    )
+  {
+    if(!object.isOriginal() || object.isUpdated() || reader == null)
+      return -1;
+
+    int objectNumber = object.getReference().getObjectNumber();
+    Long dataSize = originalSizes.get(objectNumber);
+    if(dataSize == null)
+    {
+      dataSize = -1L;
+      XRefEntry xrefEntry = getOriginalEntries().get(objectNumber);
+      if(xrefEntry != null
+        && xrefEntry.getGeneration() == object.getReference().getGenerationNumber())
+      {
+        switch(xrefEntry.getUsage())
+        {
+          case InUse:
+          {
+            int boundIndex = Arrays.binarySearch(originalBounds, xrefEntry.getOffset());
+            if(boundIndex >= 0 && boundIndex < originalBounds.length - 1)
+            {dataSize = originalBounds[boundIndex + 1] - originalBounds[boundIndex];}
+            break;
+          }
+          case InUseCompressed:
+          {
+            /*
+              NOTE: Compressed objects are charged their share of the encoded object stream, in
+              proportion to their length within its decoded body.
+            */
+            PdfIndirectObject streamObject = file.getIndirectObjects().get(xrefEntry.getStreamNumber());
+            long streamSize = getOriginalSize(streamObject);
+            if(streamSize >= 0)
+            {
+              ObjectStream objectStream = (ObjectStream)streamObject.getDataObject();
+              int entryLength = objectStream.getEntryLength(objectNumber);
+              long dataLength = objectStream.getBody().getLength()
+                - ((PdfInteger)objectStream.getHeader().get(PdfName.First)).getValue();
+              if(entryLength >= 0 && dataLength > 0)
+              {dataSize = Math.round((double)streamSize * entryLength / dataLength);}
+            }
+            break;
+          }
+          default:
+            break;
+        }
+      }
+      originalSizes.put(objectNumber, dataSize);
+    }
+    return dataSize;
+  }
+
+  /**
+    Gets whether this estimator still reflects the source file of its document.
+  */
+  private boolean isValid(
+    )
+  {return file == document.getFile() && reader == file.getReader();}
+
+  private SortedMap<Integer,XRefEntry> getOriginalEntries(
+    )
+  {
+    if(originalEntries == null)
+    {
+      /*
+        NOTE: Live xref entries may be altered by file serialization, so the original ones are
+        read afresh.
+      */
+      FileInfo info = reader.readInfo();
+      originalEntries = info.getXrefEntries();
+
+      List<Long> xrefOffsets = info.getXrefOffsets();
+      long[] bounds = new long[originalEntries.size() + xrefOffsets.size() + 1];
+      int boundCount = 0;
+      for(XRefEntry xrefEntry : originalEntries.values())
+      {
+        if(xrefEntry.getUsage() == XRefEntry.UsageEnum.InUse)
+        {bounds[boundCount++] = xrefEntry.getOffset();}
+      }
+      for(Long xrefOffset : xrefOffsets)
+      {bounds[boundCount++] = xrefOffset;}
+      bounds[boundCount++] = reader.getParser().getStream().getLength();
+      Arrays.sort(bounds, 0, boundCount);
+
+      // Remove duplicate bounds!
+      int uniqueCount = 0;
+      for(int index = 0; index < boundCount; index++)
+      {
+        if(uniqueCount == 0 || bounds[index] != bounds[uniqueCount - 1])
+        {bounds[uniqueCount++] = bounds[index];}
+      }
+      originalBounds = Arrays.copyOf(bounds, uniqueCount);
+    }
+    return originalEntries;
+  }
+  // </private>
+  // </interface>
+  // </dynamic>
+  // </class>
+}
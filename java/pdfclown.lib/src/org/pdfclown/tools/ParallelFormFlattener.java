@@ -0,0 +1,251 @@
+/*
+  Copyright 2026 Stefano Chizzolini. http://www.pdfclown.org
+
+  Contributors:
+    * Stefano Chizzolini (original code developer, http://www.stefanochizzolini.it)
+
+  This file should be part of the source code distribution of "PDF Clown library"
+  (the Program): see the accompanying README files for more info.
+
+  This Program is free software; you can redistribute it and/or modify it under the terms
+  of the GNU Lesser General Public License as published by the Free Software Foundation;
+  either version 3 of the License, or (at your option) any later version.
+
+  This Program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  either expressed or implied; without even the implied warranty of MERCHANTABILITY or
+  FITNESS FOR A PARTICULAR PURPOSE. See the License for more details.
+
+  You should have received a copy of the GNU Lesser General Public License along with this
+  Program (see README files); if not, go to the GNU website (http://www.gnu.org/licenses/).
+
+  Redistribution and use, with or without modification, are permitted provided that such
+  redistributions retain the above copyright notice, license and disclaimer, along with
+  this list of conditions.
+*/
+
+package org.pdfclown.tools;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+
+import org.pdfclown.bytes.OutputStream;
+import org.pdfclown.documents.Document;
+import org.pdfclown.documents.Pages;
+import org.pdfclown.files.File;
+import org.pdfclown.files.SerializationModeEnum;
+import org.pdfclown.objects.PdfDataObject;
+
+/**
+  Tool for flattening the interactive form of a document concurrently.
+  <p>The flattening plan of each page (that is which widgets to remove and where to paint their
+  appearances) is computed on the given executor, each worker operating on its own instance of
+  the source file (documents are not thread-safe); plans are then applied in page order to a
+  dedicated instance of the source file, while the following pages are still being planned. The
+  number of pages either in progress or waiting to be applied is bounded, so that memory usage is
+  capped regardless of the document length.</p>
+  <p>As plans address objects by position and object number, the source file MUST NOT change
+  while flattening is in progress.</p>
+
+  @author Stefano Chizzolini (http://www.stefanochizzolini.it)
+  @since 0.1.2
+  @version 0.1.2, 10/18/26
+  @see FormFlattener
+*/
+public final class ParallelFormFlattener
+  implements Closeable
+{
+  // <class>
+  // <dynamic>
+  // <fields>
+  private final Executor executor;
+  private final FilePool files;
+  private int maxPendingPageCount;
+  private final ExecutorService ownExecutor;
+  // </fields>
+
+  // <constructors>
+  /**
+    Creates a new flattener running on as many threads as the available processors.
+
+    @param filePath Source file path.
+  */
+  public ParallelFormFlattener(
+    String filePath
+    )
+  {this(filePath, null, Runtime.getRuntime().availableProcessors());}
+
+  /**
+    @param filePath Source file path.
+    @param executor Executor planning the pages; <code>null</code> to plan them on a private
+      thread pool sized to <code>concurrency</code>.
+    @param concurrency Maximum number of pages planned at the same time (that is the maximum
+      number of source file instances open at the same time, besides the flattened one).
+  */
+  public ParallelFormFlattener(
+    String filePath,
+    Executor executor,
+    int concurrency
+    )
+  {
+    this.files = new FilePool(filePath, concurrency);
+    if(executor == null)
+    {this.executor = ownExecutor = Executors.newFixedThreadPool(concurrency);}
+    else
+    {
+      this.executor = executor;
+      ownExecutor = null;
+    }
+    setMaxPendingPageCount(concurrency * 2);
+  }
+  // </constructors>
+
+  // <interface>
+  // <public>
+  /**
+    Flattens the form of the source document.
+
+    @param target Target stream of the flattened document (it's flushed, but not closed).
+    @param mode Serialization mode.
+    @return Number of removed widgets.
+  */
+  public int flatten(
+    java.io.OutputStream target,
+    SerializationModeEnum mode
+    ) throws IOException
+  {
+    File file = new File(files.getPath());
+    try
+    {
+      Document document = file.getDocument();
+      Pages pages = document.getPages();
+      int widgetCount = 0;
+      Set<PdfDataObject> flattenedObjects = FormFlattener.newFlattenedObjects();
+      LinkedList<FutureTask<FormFlattener.Plan>> pendingTasks = new LinkedList<FutureTask<FormFlattener.Plan>>();
+      try
+      {
+        for(int pageIndex = 0, nextIndex = 0, pageCount = pages.size(); pageIndex < pageCount; pageIndex++)
+        {
+          // Submit the following pages!
+          while(nextIndex < pageCount
+            && pendingTasks.size() < maxPendingPageCount)
+          {
+            final int finalNextIndex = nextIndex++;
+            FutureTask<FormFlattener.Plan> task = new FutureTask<FormFlattener.Plan>(
+              new Callable<FormFlattener.Plan>()
+              {
+                @Override
+                public FormFlattener.Plan call(
+                  ) throws Exception
+                {return plan(finalNextIndex);}
+              }
+              );
+            pendingTasks.addLast(task);
+            executor.execute(task);
+          }
+
+          // Apply the current page plan!
+          widgetCount += FormFlattener.apply(pages.get(pageIndex), pendingTasks.removeFirst().get(), flattenedObjects);
+        }
+      }
+      catch(InterruptedException e)
+      {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException(e);
+      }
+      catch(ExecutionException e)
+      {
+        Throwable cause = e.getCause();
+        if(cause instanceof RuntimeException)
+          throw (RuntimeException)cause;
+        else
+          throw new RuntimeException(cause);
+      }
+      finally
+      {
+        // Don't waste time on the remaining pages in case of failure!
+        for(FutureTask<FormFlattener.Plan> task : pendingTasks)
+        {task.cancel(false);}
+      }
+      document.setForm(null);
+
+      BufferedOutputStream targetStream = new BufferedOutputStream(target);
+      file.save(new OutputStream(targetStream), mode);
+      targetStream.flush();
+      return widgetCount;
+    }
+    finally
+    {file.close();}
+  }
+
+  /**
+    Gets the maximum number of pages either in progress or planned but not yet applied.
+  */
+  public int getMaxPendingPageCount(
+    )
+  {return maxPendingPageCount;}
+
+  /**
+    @see #getMaxPendingPageCount()
+  */
+  public void setMaxPendingPageCount(
+    int value
+    )
+  {
+    if(value < 1)
+      throw new IllegalArgumentException("value MUST be positive.");
+
+    maxPendingPageCount = value;
+  }
+
+  // <Closeable>
+  @Override
+  public void close(
+    )
+  {
+    if(ownExecutor != null)
+    {ownExecutor.shutdown();}
+    files.close();
+  }
+  // </Closeable>
+  // </public>
+
+  // <private>
+  private File acquireFile(
+    )
+  {
+    try
+    {return files.acquire();}
+    catch(InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+    Computes the flattening plan of the specified page (worker-side).
+  */
+  private FormFlattener.Plan plan(
+    int pageIndex
+    )
+  {
+    File file = acquireFile();
+    try
+    {return FormFlattener.plan(file.getDocument().getPages().get(pageIndex));}
+    finally
+    {files.release(file);}
+  }
+  // </private>
+  // </interface>
+  // </dynamic>
+  // </class>
+}
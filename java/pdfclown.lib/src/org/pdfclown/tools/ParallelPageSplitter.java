@@ -0,0 +1,317 @@
+/*
+  Copyright 2026 Stefano Chizzolini. http://www.pdfclown.org
+
+  Contributors:
+    * Stefano Chizzolini (original code developer, http://www.stefanochizzolini.it)
+
+  This file should be part of the source code distribution of "PDF Clown library"
+  (the Program): see the accompanying README files for more info.
+
+  This Program is free software; you can redistribute it and/or modify it under the terms
+  of the GNU Lesser General Public License as published by the Free Software Foundation;
+  either version 3 of the License, or (at your option) any later version.
+
+  This Program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  either expressed or implied; without even the implied warranty of MERCHANTABILITY or
+  FITNESS FOR A PARTICULAR PURPOSE. See the License for more details.
+
+  You should have received a copy of the GNU Lesser General Public License along with this
+  Program (see README files); if not, go to the GNU website (http://www.gnu.org/licenses/).
+
+  Redistribution and use, with or without modification, are permitted provided that such
+  redistributions retain the above copyright notice, license and disclaimer, along with
+  this list of conditions.
+*/
+
+package org.pdfclown.tools;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+
+import org.pdfclown.bytes.OutputStream;
+import org.pdfclown.documents.Document;
+import org.pdfclown.documents.Page;
+import org.pdfclown.files.File;
+import org.pdfclown.files.SerializationModeEnum;
+
+/**
+  Tool for splitting the pages of a document into files concurrently.
+  <p>Unlike {@link PageManager#split()}, which returns all the split documents in memory, each
+  part is serialized to its target as soon as it's built. Parts are built on the given executor,
+  each worker operating on its own instance of the source file (documents are not thread-safe):
+  as such instances are reused across parts, resources shared by multiple pages (such as fonts
+  and images) are parsed once per instance, while their stream data are copied as-is to the
+  targets.</p>
+
+  @author Stefano Chizzolini (http://www.stefanochizzolini.it)
+  @since 0.1.2
+  @version 0.1.2, 10/18/26
+*/
+public final class ParallelPageSplitter
+  implements Closeable
+{
+  // <class>
+  // <classes>
+  /**
+    Target of split parts.
+    <p>Implementations MUST be thread-safe, as parts are written concurrently.</p>
+  */
+  public interface ITarget
+  {
+    /**
+      Opens the target stream of the given part (it's closed by the splitter once the part is
+      written).
+
+      @param partIndex Part index.
+      @param startIndex Index of the first page of the part.
+      @param endIndex Index of the page past the last one of the part.
+    */
+    java.io.OutputStream open(
+      int partIndex,
+      int startIndex,
+      int endIndex
+      ) throws IOException;
+  }
+  // </classes>
+
+  // <dynamic>
+  // <fields>
+  private final Executor executor;
+  private final FilePool files;
+  private final ExecutorService ownExecutor;
+  // </fields>
+
+  // <constructors>
+  /**
+    Creates a new splitter running on as many threads as the available processors.
+
+    @param filePath Source file path.
+  */
+  public ParallelPageSplitter(
+    String filePath
+    )
+  {this(filePath, null, Runtime.getRuntime().availableProcessors());}
+
+  /**
+    @param filePath Source file path.
+    @param executor Executor building the parts; <code>null</code> to build them on a private
+      thread pool sized to <code>concurrency</code>.
+    @param concurrency Maximum number of parts built at the same time (that is the maximum
+      number of source file instances open at the same time).
+  */
+  public ParallelPageSplitter(
+    String filePath,
+    Executor executor,
+    int concurrency
+    )
+  {
+    this.files = new FilePool(filePath, concurrency);
+    if(executor == null)
+    {this.executor = ownExecutor = Executors.newFixedThreadPool(concurrency);}
+    else
+    {
+      this.executor = executor;
+      ownExecutor = null;
+    }
+  }
+  // </constructors>
+
+  // <interface>
+  // <public>
+  /**
+    Gets the number of pages of the source document.
+  */
+  public int getPageCount(
+    )
+  {
+    File file = acquireFile();
+    try
+    {return file.getDocument().getPages().size();}
+    finally
+    {files.release(file);}
+  }
+
+  /**
+    Bursts the document into single-page files.
+
+    @param targetPathFormat Target file path format (see {@link String#format(String, Object...)}),
+      whose argument is the (1-based) page number (for example, <code>"page%05d.pdf"</code>).
+    @return Number of parts.
+  */
+  public int split(
+    final String targetPathFormat
+    ) throws IOException
+  {
+    return split(
+      new ITarget()
+      {
+        @Override
+        public java.io.OutputStream open(
+          int partIndex,
+          int startIndex,
+          int endIndex
+          ) throws IOException
+        {return new java.io.FileOutputStream(String.format(targetPathFormat, partIndex + 1));}
+      }
+      );
+  }
+
+  /**
+    Bursts the document into single-page parts.
+
+    @param target Target of the parts.
+    @return Number of parts.
+  */
+  public int split(
+    ITarget target
+    ) throws IOException
+  {
+    int pageCount = getPageCount();
+    int[] indexes = new int[pageCount > 0 ? pageCount - 1 : 0];
+    for(int index = 0; index < indexes.length; index++)
+    {indexes[index] = index + 1;}
+    return split(target, indexes);
+  }
+
+  /**
+    Splits the document into multiple parts delimited by the specified page indexes.
+
+    @param target Target of the parts.
+    @param indexes Split page indexes (ascending).
+    @return Number of parts.
+  */
+  public int split(
+    final ITarget target,
+    int... indexes
+    ) throws IOException
+  {
+    int pageCount = getPageCount();
+
+    // Submit the parts!
+    List<FutureTask<Void>> tasks = new ArrayList<FutureTask<Void>>(indexes.length + 1);
+    for(int partIndex = 0, startIndex = 0; partIndex <= indexes.length; partIndex++)
+    {
+      final int finalPartIndex = partIndex;
+      final int finalStartIndex = startIndex;
+      final int endIndex = (partIndex < indexes.length ? indexes[partIndex] : pageCount);
+      FutureTask<Void> task = new FutureTask<Void>(
+        new Callable<Void>()
+        {
+          @Override
+          public Void call(
+            ) throws Exception
+          {
+            write(target, finalPartIndex, finalStartIndex, endIndex);
+            return null;
+          }
+        }
+        );
+      tasks.add(task);
+      executor.execute(task);
+      startIndex = endIndex;
+    }
+
+    // Wait for the parts!
+    try
+    {
+      for(FutureTask<Void> task : tasks)
+      {task.get();}
+    }
+    catch(InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+    catch(ExecutionException e)
+    {
+      Throwable cause = e.getCause();
+      if(cause instanceof IOException)
+        throw (IOException)cause;
+      else if(cause instanceof RuntimeException)
+        throw (RuntimeException)cause;
+      else
+        throw new RuntimeException(cause);
+    }
+    finally
+    {
+      // Don't waste time on the remaining parts in case of failure!
+      for(FutureTask<Void> task : tasks)
+      {task.cancel(false);}
+    }
+    return tasks.size();
+  }
+
+  // <Closeable>
+  @Override
+  public void close(
+    )
+  {
+    if(ownExecutor != null)
+    {ownExecutor.shutdown();}
+    files.close();
+  }
+  // </Closeable>
+  // </public>
+
+  // <private>
+  private File acquireFile(
+    )
+  {
+    try
+    {return files.acquire();}
+    catch(InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+    Builds and serializes the specified part (worker-side).
+  */
+  @SuppressWarnings({"unchecked", "resource"})
+  private void write(
+    ITarget target,
+    int partIndex,
+    int startIndex,
+    int endIndex
+    ) throws IOException
+  {
+    File source = acquireFile();
+    File part = new File();
+    try
+    {
+      Document partDocument = part.getDocument();
+      partDocument.getPages().addAll(
+        (Collection<Page>)partDocument.include(
+          source.getDocument().getPages().subList(startIndex, endIndex)
+          )
+        );
+
+      BufferedOutputStream targetStream = new BufferedOutputStream(target.open(partIndex, startIndex, endIndex));
+      try
+      {part.save(new OutputStream(targetStream), SerializationModeEnum.Standard);}
+      finally
+      {targetStream.close();}
+    }
+    finally
+    {
+      source.unregisterSharedStreams(part); // Shared stream data already serialized.
+      files.release(source);
+    }
+  }
+  // </private>
+  // </interface>
+  // </dynamic>
+  // </class>
+}
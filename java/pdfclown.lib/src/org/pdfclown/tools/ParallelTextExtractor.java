@@ -0,0 +1,310 @@
+/*
+  Copyright 2026 Stefano Chizzolini. http://www.pdfclown.org
+
+  Contributors:
+    * Stefano Chizzolini (original code developer, http://www.stefanochizzolini.it)
+
+  This file should be part of the source code distribution of "PDF Clown library"
+  (the Program): see the accompanying README files for more info.
+
+  This Program is free software; you can redistribute it and/or modify it under the terms
+  of the GNU Lesser General Public License as published by the Free Software Foundation;
+  either version 3 of the License, or (at your option) any later version.
+
+  This Program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  either expressed or implied; without even the implied warranty of MERCHANTABILITY or
+  FITNESS FOR A PARTICULAR PURPOSE. See the License for more details.
+
+  You should have received a copy of the GNU Lesser General Public License along with this
+  Program (see README files); if not, go to the GNU website (http://www.gnu.org/licenses/).
+
+  Redistribution and use, with or without modification, are permitted provided that such
+  redistributions retain the above copyright notice, license and disclaimer, along with
+  this list of conditions.
+*/
+
+package org.pdfclown.tools;
+
+import java.awt.geom.Rectangle2D;
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+
+import org.pdfclown.documents.contents.ITextString;
+import org.pdfclown.files.File;
+
+/**
+  Tool for extracting text from the pages of a document concurrently.
+  <p>Pages are extracted on the given executor, each worker operating on its own instance of the
+  source file (documents are not thread-safe), and are yielded in page order. The number of
+  pages either in progress or waiting to be consumed is bounded, so that memory usage is
+  capped regardless of the document length.</p>
+
+  @author Stefano Chizzolini (http://www.stefanochizzolini.it)
+  @since 0.1.2
+  @version 0.1.2, 10/18/26
+*/
+public final class ParallelTextExtractor
+  implements Closeable
+{
+  // <class>
+  // <classes>
+  /**
+    Page text iterator.
+  */
+  private final class PageIterator
+    implements Iterator<Map<Rectangle2D,List<ITextString>>>
+  {
+    // <class>
+    // <dynamic>
+    // <fields>
+    private final int endIndex;
+    private final LinkedList<FutureTask<Map<Rectangle2D,List<ITextString>>>> pendingTasks = new LinkedList<FutureTask<Map<Rectangle2D,List<ITextString>>>>();
+
+    private int nextIndex;
+    // </fields>
+
+    // <constructors>
+    public PageIterator(
+      int startIndex,
+      int endIndex
+      )
+    {
+      this.nextIndex = startIndex;
+      this.endIndex = endIndex;
+
+      fill();
+    }
+    // </constructors>
+
+    // <interface>
+    // <public>
+    @Override
+    public boolean hasNext(
+      )
+    {return !pendingTasks.isEmpty();}
+
+    @Override
+    public Map<Rectangle2D,List<ITextString>> next(
+      )
+    {
+      if(pendingTasks.isEmpty())
+        throw new NoSuchElementException();
+
+      FutureTask<Map<Rectangle2D,List<ITextString>>> task = pendingTasks.removeFirst();
+      fill();
+      try
+      {return task.get();}
+      catch(InterruptedException e)
+      {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException(e);
+      }
+      catch(ExecutionException e)
+      {throw new RuntimeException(e.getCause());}
+    }
+
+    @Override
+    public void remove(
+      )
+    {throw new UnsupportedOperationException();}
+    // </public>
+
+    // <private>
+    /**
+      Submits the following pages up to the pending page limit.
+    */
+    private void fill(
+      )
+    {
+      while(nextIndex < endIndex
+        && pendingTasks.size() < maxPendingPageCount)
+      {
+        final int pageIndex = nextIndex++;
+        FutureTask<Map<Rectangle2D,List<ITextString>>> task = new FutureTask<Map<Rectangle2D,List<ITextString>>>(
+          new Callable<Map<Rectangle2D,List<ITextString>>>()
+          {
+            @Override
+            public Map<Rectangle2D,List<ITextString>> call(
+              ) throws Exception
+            {return extract(pageIndex);}
+          }
+          );
+        pendingTasks.addLast(task);
+        executor.execute(task);
+      }
+    }
+    // </private>
+    // </interface>
+    // </dynamic>
+    // </class>
+  }
+  // </classes>
+
+  // <dynamic>
+  // <fields>
+  private final Executor executor;
+  private final TextExtractor extractor;
+  private final FilePool files;
+  private int maxPendingPageCount;
+  private final ExecutorService ownExecutor;
+  // </fields>
+
+  // <constructors>
+  /**
+    Creates a new extractor running on as many threads as the available processors.
+
+    @param filePath Source file path.
+  */
+  public ParallelTextExtractor(
+    String filePath
+    )
+  {this(filePath, new TextExtractor(), null, Runtime.getRuntime().availableProcessors());}
+
+  /**
+    @param filePath Source file path.
+    @param extractor Text extractor applied to each page (it's shared among the workers, so it
+      MUST NOT be altered while extraction is in progress).
+    @param executor Executor running the page extractions; <code>null</code> to run them on a
+      private thread pool sized to <code>concurrency</code>.
+    @param concurrency Maximum number of pages extracted at the same time (that is the maximum
+      number of source file instances open at the same time).
+  */
+  public ParallelTextExtractor(
+    String filePath,
+    TextExtractor extractor,
+    Executor executor,
+    int concurrency
+    )
+  {
+    this.extractor = extractor;
+    this.files = new FilePool(filePath, concurrency);
+    if(executor == null)
+    {this.executor = ownExecutor = Executors.newFixedThreadPool(concurrency);}
+    else
+    {
+      this.executor = executor;
+      ownExecutor = null;
+    }
+    setMaxPendingPageCount(concurrency * 2);
+  }
+  // </constructors>
+
+  // <interface>
+  // <public>
+  /**
+    Extracts the text of all the pages.
+
+    @return Text strings of each page (see {@link TextExtractor#extract(org.pdfclown.documents.contents.IContentContext)}),
+      in page order.
+  */
+  public Iterator<Map<Rectangle2D,List<ITextString>>> extract(
+    )
+  {return extract(0, getPageCount());}
+
+  /**
+    Extracts the text of the specified page range.
+
+    @param startIndex Index of the first page to extract.
+    @param endIndex Index of the page past the last one to extract.
+    @return Text strings of each page (see {@link TextExtractor#extract(org.pdfclown.documents.contents.IContentContext)}),
+      in page order.
+  */
+  public Iterator<Map<Rectangle2D,List<ITextString>>> extract(
+    int startIndex,
+    int endIndex
+    )
+  {return new PageIterator(startIndex, endIndex);}
+
+  /**
+    Gets the text extractor applied to each page.
+  */
+  public TextExtractor getExtractor(
+    )
+  {return extractor;}
+
+  /**
+    Gets the maximum number of pages either in progress or extracted but not yet consumed.
+  */
+  public int getMaxPendingPageCount(
+    )
+  {return maxPendingPageCount;}
+
+  /**
+    Gets the number of pages of the source document.
+  */
+  public int getPageCount(
+    )
+  {
+    File file = acquireFile();
+    try
+    {return file.getDocument().getPages().size();}
+    finally
+    {files.release(file);}
+  }
+
+  /**
+    @see #getMaxPendingPageCount()
+  */
+  public void setMaxPendingPageCount(
+    int value
+    )
+  {
+    if(value < 1)
+      throw new IllegalArgumentException("value MUST be positive.");
+
+    maxPendingPageCount = value;
+  }
+
+  // <Closeable>
+  @Override
+  public void close(
+    )
+  {
+    if(ownExecutor != null)
+    {ownExecutor.shutdown();}
+    files.close();
+  }
+  // </Closeable>
+  // </public>
+
+  // <private>
+  private File acquireFile(
+    )
+  {
+    try
+    {return files.acquire();}
+    catch(InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+    Extracts the text of the specified page (worker-side).
+  */
+  private Map<Rectangle2D,List<ITextString>> extract(
+    int pageIndex
+    )
+  {
+    File file = acquireFile();
+    try
+    {return extractor.extract(file.getDocument().getPages().get(pageIndex));}
+    finally
+    {files.release(file);}
+  }
+  // </private>
+  // </interface>
+  // </dynamic>
+  // </class>
+}
@@ -0,0 +1,573 @@
+/*
+  Copyright 2026 Stefano Chizzolini. http://www.pdfclown.org
+
+  Contributors:
+    * Stefano Chizzolini (original code developer, http://www.stefanochizzolini.it)
+
+  This file should be part of the source code distribution of "PDF Clown library"
+  (the Program): see the accompanying README files for more info.
+
+  This Program is free software; you can redistribute it and/or modify it under the terms
+  of the GNU Lesser General Public License as published by the Free Software Foundation;
+  either version 3 of the License, or (at your option) any later version.
+
+  This Program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  either expressed or implied; without even the implied warranty of MERCHANTABILITY or
+  FITNESS FOR A PARTICULAR PURPOSE. See the License for more details.
+
+  You should have received a copy of the GNU Lesser General Public License along with this
+  Program (see README files); if not, go to the GNU website (http://www.gnu.org/licenses/).
+
+  Redistribution and use, with or without modification, are permitted provided that such
+  redistributions retain the above copyright notice, license and disclaimer, along with
+  this list of conditions.
+*/
+
+package org.pdfclown.tools;
+
+import java.awt.geom.Dimension2D;
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import javax.imageio.ImageIO;
+
+import org.pdfclown.documents.Page;
+import org.pdfclown.files.File;
+import org.pdfclown.util.math.geom.Dimension;
+
+/**
+  Tool for rendering the pages of a document to image files.
+  <p>Pages are rendered concurrently on the given executor, each worker operating on its own
+  instance of the source file (documents are not thread-safe); rendered images are then handed
+  over to dedicated encoding threads through a bounded queue. Workers are held back (that is,
+  backpressure is applied) whenever either the queue is full or the pixel memory of the images
+  in flight would exceed the {@link #getMaxMemory() memory budget}.</p>
+
+  @author Stefano Chizzolini (http://www.stefanochizzolini.it)
+  @since 0.1.2
+  @version 0.1.2, 10/18/26
+*/
+public final class RenderPipeline
+  implements Closeable
+{
+  // <class>
+  // <classes>
+  /**
+    Page rendering metrics.
+  */
+  public static final class PageMetrics
+  {
+    // <class>
+    // <dynamic>
+    // <fields>
+    private final int pageIndex;
+    private final java.io.File outputFile;
+
+    private long encodeTime;
+    private Throwable error;
+    private int height;
+    private long queueTime;
+    private long renderTime;
+    private int width;
+    // </fields>
+
+    // <constructors>
+    PageMetrics(
+      int pageIndex,
+      java.io.File outputFile
+      )
+    {
+      this.pageIndex = pageIndex;
+      this.outputFile = outputFile;
+    }
+    // </constructors>
+
+    // <interface>
+    // <public>
+    /**
+      Gets the time (in nanoseconds) spent encoding the page image.
+    */
+    public long getEncodeTime(
+      )
+    {return encodeTime;}
+
+    /**
+      Gets the failure of the page processing.
+
+      @return <code>null</code>, in case of success.
+    */
+    public Throwable getError(
+      )
+    {return error;}
+
+    /**
+      Gets the page image height (in pixels).
+    */
+    public int getHeight(
+      )
+    {return height;}
+
+    /**
+      Gets the page image file.
+    */
+    public java.io.File getOutputFile(
+      )
+    {return outputFile;}
+
+    /**
+      Gets the page index.
+    */
+    public int getPageIndex(
+      )
+    {return pageIndex;}
+
+    /**
+      Gets the time (in nanoseconds) the page image waited in queue before being encoded.
+    */
+    public long getQueueTime(
+      )
+    {return queueTime;}
+
+    /**
+      Gets the time (in nanoseconds) spent rendering the page (waiting for memory exclusive).
+    */
+    public long getRenderTime(
+      )
+    {return renderTime;}
+
+    /**
+      Gets the page image width (in pixels).
+    */
+    public int getWidth(
+      )
+    {return width;}
+
+    @Override
+    public String toString(
+      )
+    {
+      return "{page: " + pageIndex + ", size: " + width + "x" + height
+        + ", render: " + renderTime / 1000000 + "ms, queue: " + queueTime / 1000000
+        + "ms, encode: " + encodeTime / 1000000 + "ms"
+        + (error != null ? ", error: " + error : "") + "}";
+    }
+    // </public>
+    // </interface>
+    // </dynamic>
+    // </class>
+  }
+
+  /**
+    Rendered page waiting for encoding.
+  */
+  private static final class RenderedPage
+  {
+    final BufferedImage image;
+    final int memoryPermits;
+    final PageMetrics metrics;
+    final long queueStartTime;
+
+    RenderedPage(
+      PageMetrics metrics,
+      BufferedImage image,
+      int memoryPermits
+      )
+    {
+      this.metrics = metrics;
+      this.image = image;
+      this.memoryPermits = memoryPermits;
+      this.queueStartTime = System.nanoTime();
+    }
+  }
+  // </classes>
+
+  // <static>
+  // <fields>
+  /**
+    Memory permit size (bytes).
+  */
+  private static final int MemoryUnit = 1024;
+  /**
+    Queue end marker.
+  */
+  private static final RenderedPage QueueEnd = new RenderedPage(null, null, 0);
+  // </fields>
+  // </static>
+
+  // <dynamic>
+  // <fields>
+  private final Executor executor;
+  private final FilePool files;
+  private final ExecutorService ownExecutor;
+  private final Renderer renderer = new Renderer();
+
+  private int encoderCount = 1;
+  private String format = "png";
+  private long maxMemory = 256L << 20;
+  private int queueCapacity;
+  private double resolution = 72;
+  // </fields>
+
+  // <constructors>
+  /**
+    Creates a new pipeline rendering on as many threads as the available processors.
+
+    @param filePath Source file path.
+  */
+  public RenderPipeline(
+    String filePath
+    )
+  {this(filePath, null, Runtime.getRuntime().availableProcessors());}
+
+  /**
+    @param filePath Source file path.
+    @param executor Executor running the page renderings; <code>null</code> to run them on a
+      private thread pool sized to <code>concurrency</code>.
+    @param concurrency Maximum number of pages rendered at the same time (that is the maximum
+      number of source file instances open at the same time).
+  */
+  public RenderPipeline(
+    String filePath,
+    Executor executor,
+    int concurrency
+    )
+  {
+    this.files = new FilePool(filePath, concurrency);
+    if(executor == null)
+    {this.executor = ownExecutor = Executors.newFixedThreadPool(concurrency);}
+    else
+    {
+      this.executor = executor;
+      ownExecutor = null;
+    }
+    setQueueCapacity(concurrency * 2);
+  }
+  // </constructors>
+
+  // <interface>
+  // <public>
+  /**
+    Gets the number of threads encoding the page images.
+  */
+  public int getEncoderCount(
+    )
+  {return encoderCount;}
+
+  /**
+    Gets the image file format (any informal format name supported by {@link ImageIO}, such
+    as <code>"png"</code> or <code>"jpg"</code>).
+  */
+  public String getFormat(
+    )
+  {return format;}
+
+  /**
+    Gets the maximum memory size (in bytes) of the page images either in progress or waiting
+    to be encoded.
+    <p>A page image larger than this budget is processed alone.</p>
+  */
+  public long getMaxMemory(
+    )
+  {return maxMemory;}
+
+  /**
+    Gets the maximum number of rendered page images waiting to be encoded.
+  */
+  public int getQueueCapacity(
+    )
+  {return queueCapacity;}
+
+  /**
+    Gets the renderer applied to each page (it's shared among the workers, so it MUST NOT be
+    altered while rendering is in progress).
+  */
+  public Renderer getRenderer(
+    )
+  {return renderer;}
+
+  /**
+    Gets the rendering resolution (in dots per inch).
+  */
+  public double getResolution(
+    )
+  {return resolution;}
+
+  /**
+    Renders the specified page range to image files.
+    <p>Failing pages don't stop the pipeline: their failure is reported by their
+    {@link PageMetrics#getError() metrics}.</p>
+
+    @param startIndex Index of the first page to render.
+    @param endIndex Index of the page past the last one to render.
+    @param outputPathFormat Image file path format, which is passed the page number (that is,
+      page index plus one) as argument (for example, <code>"out/page-%03d.png"</code>).
+    @return Metrics of each page, in page order.
+  */
+  public List<PageMetrics> render(
+    int startIndex,
+    int endIndex,
+    String outputPathFormat
+    ) throws InterruptedException
+  {
+    List<PageMetrics> pagesMetrics = new ArrayList<PageMetrics>(endIndex - startIndex);
+    final BlockingQueue<RenderedPage> queue = new ArrayBlockingQueue<RenderedPage>(queueCapacity);
+    final Semaphore memory = new Semaphore(getMemoryPermits(maxMemory), true);
+    final CountDownLatch renderingsLatch = new CountDownLatch(endIndex - startIndex);
+
+    // Encoding.
+    ExecutorService encoders = Executors.newFixedThreadPool(encoderCount);
+    try
+    {
+      final CountDownLatch encodersLatch = new CountDownLatch(encoderCount);
+      for(int encoderIndex = 0; encoderIndex < encoderCount; encoderIndex++)
+      {
+        encoders.execute(
+          new Runnable()
+          {
+            @Override
+            public void run(
+              )
+            {
+              try
+              {
+                RenderedPage page;
+                while((page = queue.take()) != QueueEnd)
+                {
+                  try
+                  {encode(page);}
+                  finally
+                  {memory.release(page.memoryPermits);}
+                }
+              }
+              catch(InterruptedException e)
+              {Thread.currentThread().interrupt();}
+              finally
+              {encodersLatch.countDown();}
+            }
+          }
+          );
+      }
+
+      // Rendering.
+      for(int pageIndex = startIndex; pageIndex < endIndex; pageIndex++)
+      {
+        final PageMetrics pageMetrics = new PageMetrics(
+          pageIndex,
+          new java.io.File(String.format(outputPathFormat, pageIndex + 1))
+          );
+        pagesMetrics.add(pageMetrics);
+        executor.execute(
+          new Runnable()
+          {
+            @Override
+            public void run(
+              )
+            {
+              RenderedPage page = null;
+              try
+              {
+                page = render(pageMetrics, memory);
+                if(page != null)
+                {queue.put(page);}
+              }
+              catch(InterruptedException e)
+              {
+                pageMetrics.error = e;
+                if(page != null)
+                {memory.release(page.memoryPermits);}
+                Thread.currentThread().interrupt();
+              }
+              finally
+              {renderingsLatch.countDown();}
+            }
+          }
+          );
+      }
+      renderingsLatch.await();
+      for(int encoderIndex = 0; encoderIndex < encoderCount; encoderIndex++)
+      {queue.put(QueueEnd);}
+      encodersLatch.await();
+    }
+    finally
+    {encoders.shutdownNow();}
+    return Collections.unmodifiableList(pagesMetrics);
+  }
+
+  /**
+    @see #getEncoderCount()
+  */
+  public void setEncoderCount(
+    int value
+    )
+  {
+    if(value < 1)
+      throw new IllegalArgumentException("value MUST be positive.");
+
+    encoderCount = value;
+  }
+
+  /**
+    @see #getFormat()
+  */
+  public void setFormat(
+    String value
+    )
+  {
+    if(!ImageIO.getImageWritersByFormatName(value).hasNext())
+      throw new IllegalArgumentException("Image format '" + value + "' not supported.");
+
+    format = value;
+  }
+
+  /**
+    @see #getMaxMemory()
+  */
+  public void setMaxMemory(
+    long value
+    )
+  {
+    if(value < 1)
+      throw new IllegalArgumentException("value MUST be positive.");
+
+    maxMemory = value;
+  }
+
+  /**
+    @see #getQueueCapacity()
+  */
+  public void setQueueCapacity(
+    int value
+    )
+  {
+    if(value < 1)
+      throw new IllegalArgumentException("value MUST be positive.");
+
+    queueCapacity = value;
+  }
+
+  /**
+    @see #getResolution()
+  */
+  public void setResolution(
+    double value
+    )
+  {
+    if(value <= 0)
+      throw new IllegalArgumentException("value MUST be positive.");
+
+    resolution = value;
+  }
+
+  // <Closeable>
+  @Override
+  public void close(
+    )
+  {
+    if(ownExecutor != null)
+    {ownExecutor.shutdown();}
+    files.close();
+  }
+  // </Closeable>
+  // </public>
+
+  // <private>
+  /**
+    Encodes the given page image (encoder-side).
+  */
+  private void encode(
+    RenderedPage page
+    )
+  {
+    PageMetrics metrics = page.metrics;
+    long startTime = System.nanoTime();
+    metrics.queueTime = startTime - page.queueStartTime;
+    try
+    {
+      if(!ImageIO.write(page.image, format, metrics.outputFile))
+        throw new IOException("No image writer available for format '" + format + "'.");
+    }
+    catch(Throwable e)
+    {metrics.error = e;}
+    metrics.encodeTime = System.nanoTime() - startTime;
+  }
+
+  private int getMemoryPermits(
+    long size
+    )
+  {return (int)Math.min(Integer.MAX_VALUE, (size + MemoryUnit - 1) / MemoryUnit);}
+
+  /**
+    Renders the given page (worker-side).
+
+    @return <code>null</code>, in case of failure.
+  */
+  private RenderedPage render(
+    PageMetrics metrics,
+    Semaphore memory
+    ) throws InterruptedException
+  {
+    File file = files.acquire();
+    try
+    {
+      long startTime = System.nanoTime();
+      Page page = file.getDocument().getPages().get(metrics.pageIndex);
+      Dimension2D pageSize = page.getRotation().transform(page.getSize());
+      double scale = resolution / 72;
+      Dimension imageSize = new Dimension(
+        Math.max(1, (int)Math.round(pageSize.getWidth() * scale)),
+        Math.max(1, (int)Math.round(pageSize.getHeight() * scale))
+        );
+      metrics.width = (int)imageSize.getWidth();
+      metrics.height = (int)imageSize.getHeight();
+
+      // Reserve the image memory!
+      int memoryPermits = Math.min(
+        getMemoryPermits((long)metrics.width * metrics.height * 4),
+        getMemoryPermits(maxMemory)
+        );
+      long waitStartTime = System.nanoTime();
+      memory.acquire(memoryPermits);
+      startTime += System.nanoTime() - waitStartTime; // Excludes the waiting time.
+      RenderedPage renderedPage = null;
+      try
+      {
+        BufferedImage image = renderer.render(page, imageSize);
+        metrics.renderTime = System.nanoTime() - startTime;
+        return renderedPage = new RenderedPage(metrics, image, memoryPermits);
+      }
+      finally
+      {
+        /*
+          NOTE: On failure (errors such as OutOfMemoryError included) the reserved memory MUST be
+          given back, lest the following pages stall.
+        */
+        if(renderedPage == null)
+        {memory.release(memoryPermits);}
+      }
+    }
+    catch(InterruptedException e)
+    {throw e;}
+    catch(Throwable e)
+    {
+      metrics.error = e;
+      return null;
+    }
+    finally
+    {files.release(file);}
+  }
+  // </private>
+  // </interface>
+  // </dynamic>
+  // </class>
+}
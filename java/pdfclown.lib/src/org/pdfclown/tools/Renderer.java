@@ -25,28 +25,77 @@
 
 package org.pdfclown.tools;
 
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
 import java.awt.geom.Dimension2D;
+import java.awt.geom.NoninvertibleTransformException;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.awt.print.Book;
 import java.awt.print.Pageable;
 import java.awt.print.PrinterException;
 import java.awt.print.PrinterJob;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 import org.pdfclown.documents.Document;
 import org.pdfclown.documents.Page;
+import org.pdfclown.documents.contents.ContentScanner;
+import org.pdfclown.documents.contents.ContentScanner.GraphicsState;
 import org.pdfclown.documents.contents.Contents;
 import org.pdfclown.documents.contents.IContentContext;
+import org.pdfclown.documents.contents.RenderQualityEnum;
+import org.pdfclown.documents.contents.objects.CompositeObject;
+import org.pdfclown.documents.contents.objects.ContentObject;
+import org.pdfclown.documents.contents.objects.PaintPath;
+import org.pdfclown.documents.contents.objects.PaintXObject;
+import org.pdfclown.documents.contents.xObjects.FormXObject;
+import org.pdfclown.documents.contents.xObjects.XObject;
+import org.pdfclown.util.math.geom.Dimension;
 
 /**
   Tool for rendering {@link IContentContext content contexts}.
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @since 0.1.0
-  @version 0.1.0
+  @version 0.1.2, 10/18/26
 */
 public final class Renderer
 {
+  // <class>
+  // <dynamic>
+  // <fields>
+  private RenderQualityEnum quality = RenderQualityEnum.High;
+  private int tileSize = 512;
+  // </fields>
+
+  // <interface>
+  // <public>
+  /**
+    Gets the rendering quality.
+    <p>{@link RenderQualityEnum#Low Low quality} speeds up the rendering of thumbnails and
+    previews, whose reduced size makes fine details indistinguishable.</p>
+
+    @since 0.1.2
+  */
+  public RenderQualityEnum getQuality(
+    )
+  {return quality;}
+
+  /**
+    Gets the edge size (in device-space units) of the tiles of concurrent renderings.
+
+    @since 0.1.2
+    @see #render(IContentContext, Dimension2D, Rectangle2D, Executor)
+  */
+  public int getTileSize(
+    )
+  {return tileSize;}
+
   /**
     Prints the specified document.
     <p>The <code>document</code> can be either a {@link Document} object
@@ -140,13 +189,196 @@ public final class Renderer
     Rectangle2D area
     )
   {
-    //TODO:area!
-    BufferedImage image = new BufferedImage(
+    BufferedImage image = createImage(size);
+    Graphics2D context = image.createGraphics();
+    try
+    {createScanner(contentContext.getContents()).render(context, size, area, null);}
+    finally
+    {context.dispose();}
+    return image;
+  }
+
+  /**
+    Renders the specified content context into an image context, splitting it into
+    {@link #getTileSize() tiles} rendered concurrently.
+    <p>Tiles share the same parsed contents, each one being scanned by its own
+    {@link ContentScanner scanner}; as document objects aren't thread-safe, the resources
+    referenced by the contents are resolved in advance on the calling thread.</p>
+
+    @param contentContext Source content context.
+    @param size Image size expressed in device-space units (that is typically pixels).
+    @param area Content area to render; <code>null</code> corresponds to the entire {@link IContentContext#getBox() content bounding box}.
+    @param executor Executor rendering the tiles.
+    @return Image representing the rendered contents.
+    @since 0.1.2
+   */
+  public BufferedImage render(
+    IContentContext contentContext,
+    Dimension2D size,
+    Rectangle2D area,
+    Executor executor
+    )
+  {
+    final BufferedImage image = createImage(size);
+    final Contents contents = contentContext.getContents();
+    prepare(new ContentScanner(contents));
+
+    int width = image.getWidth(), height = image.getHeight();
+    AffineTransform deviceToContent;
+    try
+    {
+      deviceToContent = ContentScanner.getInitialCtm(
+        contentContext,
+        new Dimension(width, height),
+        area
+        ).createInverse();
+    }
+    catch(NoninvertibleTransformException e)
+    {throw new IllegalArgumentException("Degenerate rendering area.", e);}
+
+    // Render the tiles!
+    List<FutureTask<Object>> tileTasks = new ArrayList<FutureTask<Object>>();
+    for(int tileY = 0; tileY < height; tileY += tileSize)
+    {
+      for(int tileX = 0; tileX < width; tileX += tileSize)
+      {
+        final Rectangle tile = new Rectangle(
+          tileX,
+          tileY,
+          Math.min(tileSize, width - tileX),
+          Math.min(tileSize, height - tileY)
+          );
+        final Rectangle2D tileArea = deviceToContent.createTransformedShape(tile).getBounds2D();
+        FutureTask<Object> tileTask = new FutureTask<Object>(
+          new Runnable()
+          {
+            @Override
+            public void run(
+              )
+            {renderTile(contents, image, tile, tileArea);}
+          },
+          null
+          );
+        tileTasks.add(tileTask);
+        executor.execute(tileTask);
+      }
+    }
+    // Wait for the tiles to be rendered!
+    try
+    {
+      for(FutureTask<Object> tileTask : tileTasks)
+      {tileTask.get();}
+    }
+    catch(InterruptedException e)
+    {
+      for(FutureTask<Object> tileTask : tileTasks)
+      {tileTask.cancel(false);}
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+    catch(ExecutionException e)
+    {throw new RuntimeException(e.getCause());}
+    return image;
+  }
+
+  /**
+    @see #getQuality()
+  */
+  public void setQuality(
+    RenderQualityEnum value
+    )
+  {quality = value;}
+
+  /**
+    @see #getTileSize()
+  */
+  public void setTileSize(
+    int value
+    )
+  {
+    if(value < 1)
+      throw new IllegalArgumentException("value MUST be positive.");
+
+    tileSize = value;
+  }
+  // </public>
+
+  // <private>
+  private BufferedImage createImage(
+    Dimension2D size
+    )
+  {
+    return new BufferedImage(
       (int)size.getWidth(),
       (int)size.getHeight(),
       BufferedImage.TYPE_INT_BGR
       );
-    contentContext.render(image.createGraphics(),size);
-    return image;
   }
+
+  private ContentScanner createScanner(
+    Contents contents
+    )
+  {
+    ContentScanner scanner = new ContentScanner(contents);
+    scanner.setRenderQuality(quality);
+    return scanner;
+  }
+
+  /**
+    Resolves the resources referenced by the given scan level, so that they can be subsequently
+    accessed concurrently.
+  */
+  private void prepare(
+    ContentScanner level
+    )
+  {
+    while(level.moveNext())
+    {
+      ContentObject object = level.getCurrent();
+      if(object instanceof CompositeObject)
+      {prepare(level.getChildLevel());}
+      else if(object instanceof PaintPath)
+      {
+        GraphicsState state = level.getState();
+        state.getFillColorSpace().getPaint(state.getFillColor());
+        state.getStrokeColorSpace().getPaint(state.getStrokeColor());
+      }
+      else if(object instanceof PaintXObject)
+      {
+        XObject xObject = ((PaintXObject)object).getXObject(level.getContentContext());
+        if(xObject instanceof FormXObject)
+        {
+          FormXObject form = (FormXObject)xObject;
+          prepare(new ContentScanner(form.getDocument().getFormRasterCache().getContents(form), level));
+        }
+      }
+    }
+  }
+
+  private void renderTile(
+    Contents contents,
+    BufferedImage image,
+    Rectangle tile,
+    Rectangle2D tileArea
+    )
+  {
+    Graphics2D context = image.getSubimage(tile.x, tile.y, tile.width, tile.height).createGraphics();
+    try
+    {
+      // Enables the culling of the objects outside the tile.
+      context.setClip(0, 0, tile.width, tile.height);
+      createScanner(contents).render(
+        context,
+        new Dimension(tile.width, tile.height),
+        tileArea,
+        null
+        );
+    }
+    finally
+    {context.dispose();}
+  }
+  // </private>
+  // </interface>
+  // </dynamic>
+  // </class>
 }
@@ -27,6 +27,7 @@ package org.pdfclown.tools;
 
 import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -51,7 +52,7 @@ import org.pdfclown.util.math.Interval;
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @since 0.0.8
-  @version 0.1.1, 11/01/11
+  @version 0.1.2, 10/18/26
 */
 public final class TextExtractor
 {
@@ -101,6 +102,7 @@ public final class TextExtractor
     // <class>
     // <dynamic>
     // <fields>
+    private Rectangle2D box;
     private final List<TextChar> textChars = new ArrayList<TextChar>();
     // </fields>
 
@@ -110,13 +112,15 @@ public final class TextExtractor
     public Rectangle2D getBox(
       )
     {
-      Rectangle2D box = null;
-      for(TextChar textChar : textChars)
+      if(box == null)
       {
-        if(box == null)
-        {box = (Rectangle2D)textChar.getBox().clone();}
-        else
-        {box.add(textChar.getBox());}
+        for(TextChar textChar : textChars)
+        {
+          if(box == null)
+          {box = (Rectangle2D)textChar.getBox().clone();}
+          else
+          {box.add(textChar.getBox());}
+        }
       }
       return box;
     }
@@ -136,6 +140,201 @@ public final class TextExtractor
       )
     {return textChars;}
     // </public>
+
+    // <private>
+    /**
+      Appends the given character, keeping the cached bounds up to date.
+    */
+    private void add(
+      TextChar textChar
+      )
+    {
+      textChars.add(textChar);
+      if(box != null)
+      {box.add(textChar.getBox());}
+    }
+
+    /**
+      Removes the given character, invalidating the cached bounds.
+    */
+    private void remove(
+      TextChar textChar
+      )
+    {
+      textChars.remove(textChar);
+      box = null;
+    }
+    // </private>
+    // </interface>
+    // </dynamic>
+    // </class>
+  }
+
+  /**
+    Uniform grid index of text string boxes.
+    <p>Each text string is bucketed into every grid cell its box overlaps, so that area
+    queries visit only the text strings lying in the neighborhood of the area instead of the
+    whole collection.</p>
+  */
+  private static class TextStringIndex
+  {
+    // <class>
+    // <static>
+    // <fields>
+    private static final int MaxCellCount = 256;
+    // </fields>
+    // </static>
+
+    // <dynamic>
+    // <fields>
+    private final Rectangle2D[] boxes;
+    private final int[] cellItems;
+    private final int[] cellStarts;
+    private final int columnCount;
+    private final double cellHeight;
+    private final double cellWidth;
+    private final int rowCount;
+    private final double x;
+    private final double y;
+
+    private final int[] marks;
+    private int markCount;
+    // </fields>
+
+    // <constructors>
+    public TextStringIndex(
+      List<? extends ITextString> textStrings
+      )
+    {
+      int count = textStrings.size();
+      boxes = new Rectangle2D[count];
+      Rectangle2D bounds = null;
+      for(int index = 0; index < count; index++)
+      {
+        Rectangle2D box = boxes[index] = textStrings.get(index).getBox();
+        if(box == null)
+          continue;
+
+        if(bounds == null)
+        {bounds = (Rectangle2D)box.clone();}
+        else
+        {bounds.add(box);}
+      }
+      if(bounds == null)
+      {bounds = new Rectangle2D.Double();}
+      x = bounds.getX();
+      y = bounds.getY();
+
+      /*
+        NOTE: Grid resolution is proportional to the square root of the text string count,
+        so that each cell holds a roughly constant number of text strings.
+      */
+      int cellCount = Math.max(1, Math.min(MaxCellCount, (int)Math.sqrt(count)));
+      columnCount = cellCount;
+      rowCount = cellCount;
+      cellWidth = (bounds.getWidth() > 0 ? bounds.getWidth() / columnCount : 1);
+      cellHeight = (bounds.getHeight() > 0 ? bounds.getHeight() / rowCount : 1);
+
+      // Cell sizes.
+      cellStarts = new int[columnCount * rowCount + 1];
+      for(Rectangle2D box : boxes)
+      {
+        if(box == null)
+          continue;
+
+        int minColumn = getColumn(box.getMinX()), maxColumn = getColumn(box.getMaxX());
+        int minRow = getRow(box.getMinY()), maxRow = getRow(box.getMaxY());
+        for(int row = minRow; row <= maxRow; row++)
+        {
+          for(int column = minColumn; column <= maxColumn; column++)
+          {cellStarts[row * columnCount + column + 1]++;}
+        }
+      }
+      for(int index = 1; index < cellStarts.length; index++)
+      {cellStarts[index] += cellStarts[index - 1];}
+
+      // Cell items.
+      cellItems = new int[cellStarts[cellStarts.length - 1]];
+      int[] cellEnds = Arrays.copyOf(cellStarts, cellStarts.length - 1);
+      for(int index = 0; index < count; index++)
+      {
+        Rectangle2D box = boxes[index];
+        if(box == null)
+          continue;
+
+        int minColumn = getColumn(box.getMinX()), maxColumn = getColumn(box.getMaxX());
+        int minRow = getRow(box.getMinY()), maxRow = getRow(box.getMaxY());
+        for(int row = minRow; row <= maxRow; row++)
+        {
+          for(int column = minColumn; column <= maxColumn; column++)
+          {cellItems[cellEnds[row * columnCount + column]++] = index;}
+        }
+      }
+
+      marks = new int[count];
+    }
+    // </constructors>
+
+    // <interface>
+    // <public>
+    /**
+      Gets the indexes (in ascending order) of the text strings whose box intersects the
+      given area.
+    */
+    public int[] find(
+      Rectangle2D area
+      )
+    {
+      if(area.getMaxX() < x || area.getMaxY() < y
+        || area.getMinX() > x + cellWidth * columnCount || area.getMinY() > y + cellHeight * rowCount)
+        return new int[0];
+
+      /*
+        NOTE: Marks avoid duplicate matches of text strings spanning multiple cells.
+      */
+      int mark = ++markCount;
+      int[] matches = new int[16];
+      int matchCount = 0;
+      int minColumn = getColumn(area.getMinX()), maxColumn = getColumn(area.getMaxX());
+      int minRow = getRow(area.getMinY()), maxRow = getRow(area.getMaxY());
+      for(int row = minRow; row <= maxRow; row++)
+      {
+        for(int column = minColumn; column <= maxColumn; column++)
+        {
+          int cellIndex = row * columnCount + column;
+          for(int itemIndex = cellStarts[cellIndex], itemEnd = cellStarts[cellIndex + 1]; itemIndex < itemEnd; itemIndex++)
+          {
+            int item = cellItems[itemIndex];
+            if(marks[item] == mark)
+              continue;
+
+            marks[item] = mark;
+            if(!area.intersects(boxes[item]))
+              continue;
+
+            if(matchCount == matches.length)
+            {matches = Arrays.copyOf(matches, matchCount * 2);}
+            matches[matchCount++] = item;
+          }
+        }
+      }
+      matches = Arrays.copyOf(matches, matchCount);
+      Arrays.sort(matches);
+      return matches;
+    }
+    // </public>
+
+    // <private>
+    private int getColumn(
+      double x
+      )
+    {return Math.max(0, Math.min(columnCount - 1, (int)((x - this.x) / cellWidth)));}
+
+    private int getRow(
+      double y
+      )
+    {return Math.max(0, Math.min(rowCount - 1, (int)((y - this.y) / cellHeight)));}
+    // </private>
     // </interface>
     // </dynamic>
     // </class>
@@ -169,6 +368,68 @@ public final class TextExtractor
         || (box2.getY() > box1.getY() - yThreshold
           && box2.getY() < box1.getMaxY() + yThreshold - minHeight));
     }
+
+    /**
+      Sorts the specified text strings by position (top-down lines, left-to-right text
+      strings within each line).
+      <p>Text strings are merge-sorted through this comparator (<code>O(n log n)</code>
+      comparisons against cached boxes). As its same-line rule isn't transitive, the sort may
+      reject it on some layouts: in such case, text strings are ordered by their top edge, then
+      clustered into lines in a single sweep applying the same rule and finally ordered
+      horizontally within each line.</p>
+
+      @param textStrings Text strings to sort.
+    */
+    public static <T extends ITextString> void sort(
+      List<T> textStrings
+      )
+    {
+      try
+      {
+        Collections.sort(textStrings, new TextStringPositionComparator());
+        return;
+      }
+      catch(IllegalArgumentException e)
+      {/* NOOP: Comparison contract violated. */}
+
+      Collections.sort(
+        textStrings,
+        new Comparator<ITextString>()
+        {
+          @Override
+          public int compare(
+            ITextString textString1,
+            ITextString textString2
+            )
+          {
+            Rectangle2D box1 = textString1.getBox();
+            Rectangle2D box2 = textString2.getBox();
+            int result = Double.compare(box1.getY(), box2.getY());
+            return (result != 0 ? result : Double.compare(box1.getX(), box2.getX()));
+          }
+        }
+        );
+
+      Comparator<ITextString> lineComparator = new Comparator<ITextString>()
+      {
+        @Override
+        public int compare(
+          ITextString textString1,
+          ITextString textString2
+          )
+        {return Double.compare(textString1.getBox().getX(), textString2.getBox().getX());}
+      };
+      for(int lineStart = 0, count = textStrings.size(); lineStart < count;)
+      {
+        Rectangle2D lineBox = textStrings.get(lineStart).getBox();
+        int lineEnd = lineStart + 1;
+        while(lineEnd < count
+          && isOnTheSameLine(lineBox, textStrings.get(lineEnd).getBox()))
+        {lineEnd++;}
+        Collections.sort(textStrings.subList(lineStart, lineEnd), lineComparator);
+        lineStart = lineEnd;
+      }
+    }
     // </static>
 
     // <dynamic>
@@ -423,7 +684,7 @@ public final class TextExtractor
             textChars = areaTextStringsIterator.next().getTextChars();
             textCharIndex = 0;
           }
-          match.textChars.add(textChars.get(textCharIndex++));
+          match.add(textChars.get(textCharIndex++));
         }
       }
       filter.process(interval, match);
@@ -492,6 +753,7 @@ public final class TextExtractor
     )
   {
     Map<Rectangle2D,List<ITextString>> filteredAreasTextStrings = new HashMap<Rectangle2D,List<ITextString>>();
+    TextStringIndex textStringIndex = new TextStringIndex(textStrings);
     for(Rectangle2D area : areas)
     {
       List<ITextString> filteredAreaTextStrings = new ArrayList<ITextString>();
@@ -504,22 +766,17 @@ public final class TextExtractor
           area.getHeight() + areaTolerance * 2
           )
         : area);
-      for(ITextString textString : textStrings)
+      for(int textStringIndexItem : textStringIndex.find(toleratedArea))
       {
-        Rectangle2D textStringBox = textString.getBox();
-        if(toleratedArea.intersects(textStringBox))
+        TextString filteredTextString = new TextString();
+        for(TextChar textChar : textStrings.get(textStringIndexItem).getTextChars())
         {
-          TextString filteredTextString = new TextString();
-          List<TextChar> filteredTextStringChars = filteredTextString.getTextChars();
-          for(TextChar textChar : textString.getTextChars())
-          {
-            Rectangle2D textCharBox = textChar.getBox();
-            if((areaMode == AreaModeEnum.Containment && toleratedArea.contains(textCharBox))
-              || (areaMode == AreaModeEnum.Intersection && toleratedArea.intersects(textCharBox)))
-            {filteredTextStringChars.add(textChar);}
-          }
-          filteredAreaTextStrings.add(filteredTextString);
+          Rectangle2D textCharBox = textChar.getBox();
+          if((areaMode == AreaModeEnum.Containment && toleratedArea.contains(textCharBox))
+            || (areaMode == AreaModeEnum.Intersection && toleratedArea.intersects(textCharBox)))
+          {filteredTextString.add(textChar);}
         }
+        filteredAreaTextStrings.add(filteredTextString);
       }
     }
     return filteredAreasTextStrings;
@@ -666,10 +923,7 @@ public final class TextExtractor
     )
   {
     // Sorting the source text strings...
-    {
-      TextStringPositionComparator positionComparator = new TextStringPositionComparator();
-      Collections.sort(rawTextStrings, positionComparator);
-    }
+    TextStringPositionComparator.sort(rawTextStrings);
 
     // Aggregating and integrating the source text strings into the target ones...
     TextString textString = null;
@@ -692,13 +946,13 @@ public final class TextExtractor
         if(dehyphenated
           && previousTextChar.getValue() == '-') // Hyphened word.
         {
-          textString.textChars.remove(previousTextChar);
+          textString.remove(previousTextChar);
           dehyphenating = true;
         }
         else // Full word.
         {
           // Add synthesized space character!
-          textString.textChars.add(
+          textString.add(
             new TextChar(
               ' ',
               new Rectangle2D.Double(
@@ -737,7 +991,7 @@ public final class TextExtractor
           if(characterSpace >= spaceWidth)
           {
             // Add synthesized space character!
-            textString.textChars.add(
+            textString.add(
               previousTextChar = new TextChar(
                 ' ',
                 new Rectangle2D.Double(
@@ -758,7 +1012,7 @@ public final class TextExtractor
             dehyphenating = false;
           }
         }
-        textString.textChars.add(previousTextChar = textChar);
+        textString.add(previousTextChar = textChar);
       }
     }
   }
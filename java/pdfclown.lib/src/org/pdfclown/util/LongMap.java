@@ -0,0 +1,178 @@
+/*
+  Copyright 2026 Stefano Chizzolini. http://www.pdfclown.org
+
+  Contributors:
+    * Stefano Chizzolini (original code developer, http://www.stefanochizzolini.it)
+
+  This file should be part of the source code distribution of "PDF Clown library"
+  (the Program): see the accompanying README files for more info.
+
+  This Program is free software; you can redistribute it and/or modify it under the terms
+  of the GNU Lesser General Public License as published by the Free Software Foundation;
+  either version 3 of the License, or (at your option) any later version.
+
+  This Program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  either expressed or implied; without even the implied warranty of MERCHANTABILITY or
+  FITNESS FOR A PARTICULAR PURPOSE. See the License for more details.
+
+  You should have received a copy of the GNU Lesser General Public License along with this
+  Program (see README files); if not, go to the GNU website (http://www.gnu.org/licenses/).
+
+  Redistribution and use, with or without modification, are permitted provided that such
+  redistributions retain the above copyright notice, license and disclaimer, along with
+  this list of conditions.
+*/
+
+package org.pdfclown.util;
+
+import java.util.Arrays;
+
+/**
+  Map of primitive <code>long</code> keys.
+  <p>Entries are stored in open-addressing tables (no boxing nor per-entry allocation), so this
+  map fits large identity maps. Null values are not allowed.</p>
+  <p>This map is NOT thread-safe.</p>
+
+  @author Stefano Chizzolini (http://www.stefanochizzolini.it)
+  @since 0.1.2
+  @version 0.1.2, 10/18/26
+*/
+public final class LongMap<V>
+{
+  // <class>
+  // <static>
+  // <fields>
+  private static final int DefaultCapacity = 16;
+  // </fields>
+  // </static>
+
+  // <dynamic>
+  // <fields>
+  private long[] keys;
+  private int size;
+  private Object[] values;
+  // </fields>
+
+  // <constructors>
+  public LongMap(
+    )
+  {this(DefaultCapacity);}
+
+  /**
+    @param capacity Expected number of entries.
+  */
+  public LongMap(
+    int capacity
+    )
+  {
+    int tableSize = DefaultCapacity;
+    while(tableSize < capacity * 2)
+    {tableSize <<= 1;}
+    keys = new long[tableSize];
+    values = new Object[tableSize];
+  }
+  // </constructors>
+
+  // <interface>
+  // <public>
+  /**
+    Removes all the entries.
+  */
+  public void clear(
+    )
+  {
+    Arrays.fill(values, null);
+    size = 0;
+  }
+
+  /**
+    Gets the value associated to the given key.
+
+    @return <code>null</code>, if no value is associated to the key.
+  */
+  @SuppressWarnings("unchecked")
+  public V get(
+    long key
+    )
+  {
+    int mask = keys.length - 1;
+    for(int index = indexOf(key, mask); values[index] != null; index = (index + 1) & mask)
+    {
+      if(keys[index] == key)
+        return (V)values[index];
+    }
+    return null;
+  }
+
+  /**
+    Associates the given value to the given key.
+
+    @return Value previously associated to the key (<code>null</code> if none).
+  */
+  @SuppressWarnings("unchecked")
+  public V put(
+    long key,
+    V value
+    )
+  {
+    if(value == null)
+      throw new IllegalArgumentException("value MUST NOT be null.");
+
+    int mask = keys.length - 1;
+    int index = indexOf(key, mask);
+    for(; values[index] != null; index = (index + 1) & mask)
+    {
+      if(keys[index] == key)
+      {
+        V oldValue = (V)values[index];
+        values[index] = value;
+        return oldValue;
+      }
+    }
+    keys[index] = key;
+    values[index] = value;
+    if(++size * 2 > keys.length) // Load factor exceeds 0.5.
+    {grow();}
+    return null;
+  }
+
+  /**
+    Gets the number of entries.
+  */
+  public int size(
+    )
+  {return size;}
+  // </public>
+
+  // <private>
+  private static int indexOf(
+    long key,
+    int mask
+    )
+  {return (int)((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;}
+
+  private void grow(
+    )
+  {
+    long[] oldKeys = keys;
+    Object[] oldValues = values;
+    keys = new long[oldKeys.length * 2];
+    values = new Object[oldValues.length * 2];
+    int mask = keys.length - 1;
+    for(int oldIndex = 0; oldIndex < oldKeys.length; oldIndex++)
+    {
+      if(oldValues[oldIndex] == null)
+        continue;
+
+      int index = indexOf(oldKeys[oldIndex], mask);
+      while(values[index] != null)
+      {index = (index + 1) & mask;}
+      keys[index] = oldKeys[oldIndex];
+      values[index] = oldValues[oldIndex];
+    }
+  }
+  // </private>
+  // </interface>
+  // </dynamic>
+  // </class>
+}
@@ -39,7 +39,7 @@ import org.pdfclown.tokens.Symbol;
 
   @author Stefano Chizzolini (http://www.stefanochizzolini.it)
   @since 0.1.1
-  @version 0.1.2, 12/02/12
+  @version 0.1.2, 10/18/26
 */
 public class PostScriptParser
   implements Closeable
@@ -94,6 +94,8 @@ public class PostScriptParser
       || c == Symbol.CloseAngleBracket
       || c == Symbol.OpenSquareBracket
       || c == Symbol.CloseSquareBracket
+      || c == Symbol.OpenBrace
+      || c == Symbol.CloseBrace
       || c == Symbol.Slash
       || c == Symbol.Percent;
   }
@@ -293,6 +295,11 @@ public class PostScriptParser
         catch(EOFException e)
         {/* NOOP */}
       } break;
+      case Symbol.OpenBrace: // Procedure (begin).
+      case Symbol.CloseBrace: // Procedure (end).
+        tokenType = TokenTypeEnum.Keyword;
+        buffer = new StringBuilder().append((char)c);
+        break;
       case Symbol.OpenSquareBracket: // Array (begin).
         tokenType = TokenTypeEnum.ArrayBegin;
         break;